@@ -0,0 +1,69 @@
+package com.tradery.bench;
+
+import com.tradery.core.model.BacktestConfig;
+import com.tradery.core.model.BacktestResult;
+import com.tradery.core.model.Candle;
+import com.tradery.core.model.ExitZone;
+import com.tradery.core.model.MarketType;
+import com.tradery.core.model.PositionSizingType;
+import com.tradery.core.model.StopLossType;
+import com.tradery.core.model.Strategy;
+import com.tradery.core.model.TakeProfitType;
+import com.tradery.engine.BacktestEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full backtest run (indicator setup, bar loop, metrics) of a typical indicator strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BacktestBenchmark {
+
+    @Param({BenchData.SYNTHETIC})
+    public String dataset;
+
+    @Param({"1h", "1m"})
+    public String resolution;
+
+    private List<Candle> candles;
+    private Strategy strategy;
+    private BacktestConfig config;
+    private BacktestEngine engine;
+
+    @Setup
+    public void setup() {
+        candles = BenchData.candles(dataset, resolution, BenchData.barsFor(resolution));
+
+        strategy = new Strategy("bench-rsi", "Bench RSI", "",
+            "RSI(14) < 30 AND close > SMA(200)", true);
+        strategy.setMaxOpenTrades(3);
+        strategy.setExitZones(List.of(ExitZone.builder("Default")
+            .stopLoss(StopLossType.TRAILING_PERCENT, 2.0)
+            .takeProfit(TakeProfitType.FIXED_PERCENT, 4.0)
+            .exitCondition("RSI(14) > 70")
+            .build()));
+
+        config = new BacktestConfig("BENCH", resolution, candles.getFirst().timestamp(),
+            candles.getLast().timestamp(), 10_000.0, PositionSizingType.FIXED_PERCENT,
+            10.0, 0.001, MarketType.SPOT, 0.0);
+        engine = new BacktestEngine();
+    }
+
+    @Benchmark
+    public BacktestResult run(Throughput.Bars counter) {
+        BacktestResult result = engine.run(strategy, config, candles, null);
+        counter.bars += candles.size();
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tradery.bench;
+
+import com.tradery.core.model.BacktestConfig;
+import com.tradery.core.model.Candle;
+import com.tradery.core.model.DcaMode;
+import com.tradery.core.model.ExitZone;
+import com.tradery.core.model.MarketType;
+import com.tradery.core.model.PositionSizingType;
+import com.tradery.core.model.Strategy;
+import com.tradery.core.model.TakeProfitType;
+import com.tradery.engine.BacktestContext;
+import com.tradery.engine.BacktestEngine;
+import com.tradery.engine.BacktestSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backtest bar loop with a DCA strategy that keeps many legs open.
+ *
+ * Only the bar loop is timed: data, strategy parsing and indicator setup happen in a
+ * per-invocation setup that opens a fresh session. Scores are per bar, so
+ * gc.alloc.rate.norm reads as bytes allocated per bar.
+ * Trade closes still allocate (analytics snapshots), the exit take-profit is set
+ * far away so most bars only do open-trade bookkeeping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BacktestLoopBenchmark {
+
+    private static final int BARS = 50_000;
+
+    @Param({"10", "50"})
+    public int dcaLegs;
+
+    private List<Candle> candles;
+    private Strategy strategy;
+    private BacktestConfig config;
+    private BacktestEngine engine;
+    private BacktestSession session;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        candles = BenchData.randomWalk(BARS, BenchData.intervalMillis("1h"), 42);
+
+        strategy = new Strategy("bench-dca", "Bench DCA", "", "close > 0", true);
+        strategy.setMaxOpenTrades(1);
+        strategy.setDcaEnabled(true);
+        strategy.setDcaMaxEntries(dcaLegs);
+        strategy.setDcaBarsBetween(1);
+        strategy.setDcaMode(DcaMode.CONTINUE);
+        strategy.setExitZones(List.of(ExitZone.builder("Default")
+            .takeProfit(TakeProfitType.FIXED_PERCENT, 25.0)
+            .build()));
+
+        config = new BacktestConfig("BENCH", "1h", candles.getFirst().timestamp(),
+            candles.getLast().timestamp(), 1_000_000.0, PositionSizingType.FIXED_PERCENT,
+            0.5, 0.001, MarketType.SPOT, 0.0);
+        engine = new BacktestEngine();
+    }
+
+    @Setup(Level.Invocation)
+    public void openSession() {
+        session = engine.startSession(strategy, config, BacktestContext.ofCandles(candles));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BARS)
+    public int dcaManyLegs() {
+        for (int i = session.getWarmupBars(); i < BARS; i++) {
+            session.step(i);
+        }
+        return session.getOpenPositionCount();
+    }
+}
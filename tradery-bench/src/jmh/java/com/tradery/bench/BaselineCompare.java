@@ -0,0 +1,88 @@
+package com.tradery.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (baseline, current) and prints per-benchmark
+ * score changes, including secondary metrics (bars/s, trades/s, gc.alloc.rate.norm).
+ * Exits with status 1 when a primary score regresses by more than the threshold
+ * (tradery.bench.threshold, percent, default 10).
+ */
+public class BaselineCompare {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BaselineCompare <baseline.json> <results.json>");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        if (!baselineFile.exists()) {
+            System.err.println("No baseline at " + baselineFile + " - run jmhBaseline first");
+            System.exit(2);
+        }
+        double threshold = Double.parseDouble(System.getProperty("tradery.bench.threshold", "10"));
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Score> baseline = load(mapper.readTree(baselineFile));
+        Map<String, Score> current = load(mapper.readTree(new File(args[1])));
+
+        boolean regressed = false;
+        System.out.printf("%-90s %16s %16s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %16s %16.3f %9s  %s%n", entry.getKey(), "-", now.value(), "new", now.unit());
+                continue;
+            }
+            double change = before.value() == 0 ? 0 : (now.value() - before.value()) / before.value() * 100;
+            // Lower is better for time and allocation units, higher for throughput
+            boolean lowerIsBetter = now.unit().contains("/op") && !now.unit().startsWith("ops");
+            double worse = lowerIsBetter ? change : -change;
+            String flag = "";
+            if (now.primary() && worse > threshold) {
+                flag = "  REGRESSION";
+                regressed = true;
+            }
+            System.out.printf("%-90s %16.3f %16.3f %+8.1f%%  %s%s%n",
+                entry.getKey(), before.value(), now.value(), change, now.unit(), flag);
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, Score> load(JsonNode results) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : results) {
+            String key = run.path("benchmark").asText() + params(run.path("params"));
+            JsonNode primary = run.path("primaryMetric");
+            scores.put(key, new Score(primary.path("score").asDouble(), primary.path("scoreUnit").asText(), true));
+            JsonNode secondary = run.path("secondaryMetrics");
+            secondary.fieldNames().forEachRemaining(name -> {
+                JsonNode metric = secondary.path(name);
+                scores.put(key + " :" + name,
+                    new Score(metric.path("score").asDouble(), metric.path("scoreUnit").asText(), false));
+            });
+        }
+        return scores;
+    }
+
+    private static String params(JsonNode params) {
+        if (params.isMissingNode() || params.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder("{");
+        params.fieldNames().forEachRemaining(name -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(name).append('=').append(params.path(name).asText());
+        });
+        return sb.append('}').toString();
+    }
+
+    private record Score(double value, String unit, boolean primary) {}
+}
@@ -0,0 +1,124 @@
+package com.tradery.bench;
+
+import com.tradery.core.model.AggTrade;
+import com.tradery.core.model.Candle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datasets for the benchmarks.
+ *
+ * "synthetic" datasets are seeded random walks, so runs are comparable across machines.
+ * "recorded" datasets are read from the directory in the tradery.bench.data system property:
+ *   candles-1h.csv, candles-1m.csv  (Candle CSV format)
+ *   aggtrades.csv                   (AggTrade CSV format, legacy or extended)
+ * Recorded files are trimmed to the requested size; missing or short files fail the trial
+ * so throughput numbers always cover the same amount of data.
+ */
+final class BenchData {
+
+    static final String SYNTHETIC = "synthetic";
+    static final String RECORDED = "recorded";
+
+    private static final long START_TIME = 1_600_000_000_000L;
+
+    private BenchData() {}
+
+    static List<Candle> candles(String dataset, String resolution, int bars) {
+        if (RECORDED.equals(dataset)) {
+            return readLines(dataFile("candles-" + resolution + ".csv"), bars, Candle::fromCsv);
+        }
+        return randomWalk(bars, intervalMillis(resolution), 42);
+    }
+
+    /**
+     * Aggregated trades spread over the given candles, prices within each candle's range.
+     */
+    static List<AggTrade> aggTrades(String dataset, List<Candle> candles, String resolution, int count) {
+        if (RECORDED.equals(dataset)) {
+            return readLines(dataFile("aggtrades.csv"), count, AggTrade::fromExtendedCsv);
+        }
+        Random random = new Random(7);
+        long interval = intervalMillis(resolution);
+        List<AggTrade> trades = new ArrayList<>(count);
+        int bars = candles.size();
+        for (int i = 0; i < count; i++) {
+            Candle c = candles.get((int) ((long) i * bars / count));
+            double price = c.low() + random.nextDouble() * (c.high() - c.low());
+            // Log-normal sizes so whale thresholds see a realistic tail
+            double qty = Math.exp(random.nextGaussian() * 1.5) * 0.05;
+            long time = c.timestamp() + (long) (random.nextDouble() * interval);
+            trades.add(new AggTrade(i, price, qty, i, i, time, random.nextBoolean()));
+        }
+        trades.sort((a, b) -> Long.compare(a.timestamp(), b.timestamp()));
+        return trades;
+    }
+
+    static List<Candle> randomWalk(int bars, long intervalMillis, long seed) {
+        Random random = new Random(seed);
+        List<Candle> result = new ArrayList<>(bars);
+        long time = START_TIME;
+        double price = 100.0;
+        for (int i = 0; i < bars; i++) {
+            double open = price;
+            double close = Math.max(1.0, open * (1 + random.nextGaussian() * 0.004));
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.002);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.002);
+            result.add(new Candle(time, open, high, low, close, 1000 + random.nextDouble() * 500));
+            time += intervalMillis;
+            price = close;
+        }
+        return result;
+    }
+
+    /**
+     * Bars used for a resolution: ~5 years of 1h, ~1 year of 1m.
+     */
+    static int barsFor(String resolution) {
+        return "1m".equals(resolution) ? 500_000 : 50_000;
+    }
+
+    static long intervalMillis(String resolution) {
+        long n = Long.parseLong(resolution.substring(0, resolution.length() - 1));
+        return switch (resolution.charAt(resolution.length() - 1)) {
+            case 'm' -> n * 60_000L;
+            case 'h' -> n * 3_600_000L;
+            case 'd' -> n * 86_400_000L;
+            default -> throw new IllegalArgumentException("Unsupported resolution: " + resolution);
+        };
+    }
+
+    private static Path dataFile(String name) {
+        String dir = System.getProperty("tradery.bench.data");
+        if (dir == null) {
+            throw new IllegalStateException("Recorded dataset requested but tradery.bench.data is not set");
+        }
+        return Path.of(dir, name);
+    }
+
+    private static <T> List<T> readLines(Path file, int limit, java.util.function.Function<String, T> parser) {
+        List<T> result = new ArrayList<>(Math.min(limit, 1 << 20));
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while (result.size() < limit && (line = reader.readLine()) != null) {
+                if (line.isBlank() || !Character.isDigit(line.charAt(0))) {
+                    continue;  // header or blank
+                }
+                result.add(parser.apply(line));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+        if (result.size() < limit) {
+            throw new IllegalStateException(file + " has " + result.size() + " rows, benchmark needs " + limit);
+        }
+        return result;
+    }
+}
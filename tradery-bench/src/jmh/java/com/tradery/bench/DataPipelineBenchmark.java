@@ -0,0 +1,125 @@
+package com.tradery.bench;
+
+import com.tradery.core.model.Candle;
+import com.tradery.dataservice.config.BinanceEndpoints;
+import com.tradery.dataservice.data.AggTradesStore;
+import com.tradery.dataservice.data.BinanceClient;
+import com.tradery.dataservice.data.BinanceVisionClient;
+import com.tradery.dataservice.data.sqlite.SqliteDataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Data service download and ingest against {@link MockBinanceServer}: REST klines paging, the
+ * parallel aggTrades gap fill (API to SQLite), and Vision archive download, parse and insert.
+ * The exchange side is synthetic and local, so results only move with client, parsing and
+ * storage changes plus the simulated latency. Reported per bar (bars/s) or per trade (trades/s).
+ *
+ * Each invocation uses a new symbol so the stores always see a gap; ~/.tradery (SQLite and the
+ * archive cache) is redirected to a temp directory for the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class DataPipelineBenchmark {
+
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    /** Round-trip latency the mock adds to every response. */
+    @Param({"0", "50"})
+    public long latencyMs;
+
+    private final AtomicInteger symbols = new AtomicInteger();
+    private String userHome;
+    private Path home;
+    private MockBinanceServer server;
+    private Pipeline pipeline;
+
+    @Setup
+    public void setup() throws IOException {
+        // Before any data service class reads it
+        userHome = System.getProperty("user.home");
+        home = Files.createTempDirectory("tradery-bench");
+        System.setProperty("user.home", home.toString());
+
+        server = new MockBinanceServer().latencyMs(latencyMs).start(0);
+        BinanceEndpoints.override(server.baseUrl());
+        pipeline = new Pipeline();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BinanceEndpoints.override(null);
+        server.close();
+        System.setProperty("user.home", userHome);
+        try (Stream<Path> files = Files.walk(home)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /** One week of 1m klines over REST (7 pages). */
+    @Benchmark
+    public void restKlines(Throughput.Bars counter, Blackhole bh) throws IOException {
+        long end = fixedEnd();
+        List<Candle> candles = pipeline.binance.fetchAllKlines(nextSymbol(), "perp", "1m", end - 7 * DAY_MS, end, null, null);
+        bh.consume(candles);
+        counter.bars += candles.size();
+    }
+
+    /** Six hours of aggTrades (~108k at 5 trades/s) through the API gap filler into SQLite. */
+    @Benchmark
+    public void apiAggTradeGapFill(Throughput.Trades counter) throws IOException {
+        long end = fixedEnd();
+        int trades = pipeline.aggTrades.streamAggTrades(nextSymbol(), end - DAY_MS / 4, end - 1, 5_000,
+            (chunk, source) -> { }, null);
+        counter.trades += trades;
+    }
+
+    /** Three months of 1m klines from Vision: download, checksum, unzip, parse, insert. */
+    @Benchmark
+    public void visionKlines(Throughput.Bars counter) throws IOException {
+        YearMonth last = YearMonth.now().minusMonths(2);
+        counter.bars += pipeline.vision.downloadKlines(nextSymbol(), "1m", last.minusMonths(2), last, null, null);
+    }
+
+    private String nextSymbol() {
+        return "BENCH" + symbols.incrementAndGet() + "USDT";
+    }
+
+    /** A week-aligned past instant, so every invocation covers the same amount of data. */
+    private static long fixedEnd() {
+        return (System.currentTimeMillis() / (7 * DAY_MS) - 2) * 7 * DAY_MS;
+    }
+
+    /**
+     * Data service clients, created only after user.home points at the temp directory
+     * (their configuration is read once, in static initializers).
+     */
+    private static final class Pipeline {
+        final BinanceClient binance = new BinanceClient();
+        final AggTradesStore aggTrades = new AggTradesStore();
+        final BinanceVisionClient vision = new BinanceVisionClient(new SqliteDataStore());
+    }
+}
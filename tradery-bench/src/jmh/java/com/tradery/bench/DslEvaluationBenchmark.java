@@ -0,0 +1,82 @@
+package com.tradery.bench;
+
+import com.tradery.core.dsl.AstNode;
+import com.tradery.core.dsl.Parser;
+import com.tradery.core.indicators.IndicatorEngine;
+import com.tradery.core.model.Candle;
+import com.tradery.engine.ConditionEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConditionEvaluator walking every bar with warm indicator caches - the per-bar cost
+ * the backtest loop pays for entry and exit conditions. Parsing is measured separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DslEvaluationBenchmark {
+
+    @Param({BenchData.SYNTHETIC})
+    public String dataset;
+
+    @Param({"1h", "1m"})
+    public String resolution;
+
+    @Param({
+        "RSI(14) < 30",
+        "EMA(12) crosses_above EMA(26) AND ADX(14) > 25 AND close > SMA(200)",
+        "(MACD(12,26,9).histogram > 0 OR close < BBANDS(20,2).lower) AND volume > AVG_VOLUME(20) * 1.1"
+    })
+    public String condition;
+
+    private List<Candle> candles;
+    private AstNode ast;
+    private ConditionEvaluator evaluator;
+
+    @Setup
+    public void setup() {
+        candles = BenchData.candles(dataset, resolution, BenchData.barsFor(resolution));
+        IndicatorEngine engine = new IndicatorEngine();
+        engine.setCandles(candles, resolution);
+
+        Parser.ParseResult parsed = new Parser().parse(condition);
+        if (!parsed.success()) {
+            throw new IllegalArgumentException("Condition parse error: " + parsed.error());
+        }
+        ast = parsed.ast();
+        evaluator = new ConditionEvaluator(engine);
+
+        // Populate indicator caches so only evaluation is measured
+        for (int i = 0; i < candles.size(); i++) {
+            evaluator.evaluate(ast, i);
+        }
+    }
+
+    @Benchmark
+    public int evaluateAllBars(Throughput.Bars counter) {
+        int signals = 0;
+        for (int i = 0; i < candles.size(); i++) {
+            if (evaluator.evaluate(ast, i)) {
+                signals++;
+            }
+        }
+        counter.bars += candles.size();
+        return signals;
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        bh.consume(new Parser().parse(condition));
+    }
+}
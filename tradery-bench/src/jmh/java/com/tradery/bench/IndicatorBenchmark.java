@@ -0,0 +1,111 @@
+package com.tradery.bench;
+
+import com.tradery.core.indicators.IndicatorEngine;
+import com.tradery.core.model.Candle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IndicatorEngine computing a typical strategy's indicator set from a cold cache,
+ * and updating a warm cache for a changed last bar (live/incremental path).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IndicatorBenchmark {
+
+    @Param({BenchData.SYNTHETIC})
+    public String dataset;
+
+    @Param({"1h", "1m"})
+    public String resolution;
+
+    private List<Candle> candles;
+
+    @Setup
+    public void setup() {
+        candles = BenchData.candles(dataset, resolution, BenchData.barsFor(resolution));
+    }
+
+    /**
+     * An engine with the indicator set cached, and two versions of the series that differ
+     * only in the forming last bar. Each append switches versions, so every invocation
+     * recomputes exactly one bar and the cache stays warm without a per-invocation reset.
+     */
+    @State(Scope.Thread)
+    public static class WarmEngine {
+        IndicatorEngine engine;
+        List<Candle> current;
+        List<Candle> other;
+
+        @Setup(Level.Trial)
+        public void setup(IndicatorBenchmark benchmark) {
+            List<Candle> candles = benchmark.candles;
+            Candle last = candles.getLast();
+            List<Candle> updated = new ArrayList<>(candles);
+            updated.set(updated.size() - 1, new Candle(last.timestamp(), last.open(),
+                last.high(), last.low(), (last.high() + last.low()) / 2, last.volume() + 1));
+            current = candles;
+            other = updated;
+            engine = new IndicatorEngine();
+            engine.setCandles(current, benchmark.resolution);
+            computeSet(engine, null);
+        }
+
+        List<Candle> next() {
+            List<Candle> swap = current;
+            current = other;
+            other = swap;
+            return current;
+        }
+    }
+
+    @Benchmark
+    public void coldStandardSet(Throughput.Bars counter, Blackhole bh) {
+        // Fresh engine every invocation: nothing may be cached
+        IndicatorEngine engine = new IndicatorEngine();
+        engine.setCandles(candles, resolution);
+        computeSet(engine, bh);
+        counter.bars += candles.size();
+    }
+
+    @Benchmark
+    public void appendOneBar(WarmEngine warm, Throughput.Bars counter, Blackhole bh) {
+        warm.engine.appendCandles(warm.next(), resolution);
+        computeSet(warm.engine, bh);
+        counter.bars++;
+    }
+
+    private static void computeSet(IndicatorEngine engine, Blackhole bh) {
+        consume(bh, engine.getSMA(20));
+        consume(bh, engine.getSMA(200));
+        consume(bh, engine.getEMA(12));
+        consume(bh, engine.getEMA(26));
+        consume(bh, engine.getRSI(14));
+        consume(bh, engine.getATR(14));
+        consume(bh, engine.getMACD(12, 26, 9));
+        consume(bh, engine.getBollingerBands(20, 2.0));
+        consume(bh, engine.getADX(14));
+        consume(bh, engine.getHighOf(20));
+        consume(bh, engine.getLowOf(20));
+        consume(bh, engine.getAvgVolume(20));
+    }
+
+    private static void consume(Blackhole bh, Object value) {
+        if (bh != null) {
+            bh.consume(value);
+        }
+    }
+}
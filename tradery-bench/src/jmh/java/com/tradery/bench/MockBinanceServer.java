@@ -0,0 +1,976 @@
+package com.tradery.bench;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.websocket.WsConnectContext;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Local stand-in for the Binance endpoints the data service uses, for offline tests and
+ * deterministic download/ingest benchmarks (point the service at it with
+ * tradery.binance.endpoint or {@code BinanceEndpoints.override}).
+ *
+ * One port serves everything:
+ * <pre>
+ *   /fapi/v1/{klines,aggTrades,fundingRate,premiumIndexKlines,openInterest,time,ping}
+ *   /futures/data/openInterestHist
+ *   /api/v3/{klines,aggTrades,time,ping}
+ *   /data/{futures/um,spot}/{monthly,daily}/...zip[.CHECKSUM]   Vision archives, with Range
+ *   /ws/{stream}   {sym}@aggTrade, {sym}@kline_{interval}, {sym}@markPrice[@1s]
+ * </pre>
+ *
+ * Data comes from a synthetic market: prices are a smooth function of time, trade n happens
+ * at a fixed rate from 2020-01-01, and everything is derived from the symbol and seed, so the
+ * same request always gets the same answer, klines agree with trades, and Vision archives
+ * agree with the REST API. Only data up to the current time exists, and Vision only has
+ * finished months and days. Vision ZIPs are generated on first request into a temp directory.
+ *
+ * A recordings directory, if given, takes precedence for the files it contains:
+ * <pre>
+ *   fapi/v1/klines/{query}.json     REST page; query params sorted by name, e.g.
+ *                                   endTime=..&amp;interval=1m&amp;limit=1500&amp;startTime=..&amp;symbol=BTCUSDT.json
+ *   data/futures/um/monthly/...zip  Vision files, served as they are
+ *   ws/{stream}.jsonl               WebSocket messages, replayed in a loop
+ * </pre>
+ *
+ * Network conditions are settable while running: latency before each response, a REST
+ * request rate beyond which requests get 429 with Retry-After, a per-response bandwidth
+ * cap, the WebSocket message rate, and a seeded failure rate (REST answers 503, Vision
+ * connections drop halfway through the body).
+ */
+public final class MockBinanceServer implements AutoCloseable {
+
+    static final long EPOCH = 1_577_836_800_000L;   // 2020-01-01T00:00:00Z
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long FUNDING_INTERVAL_MS = 8 * HOUR_MS;
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final Pattern VISION_PATH = Pattern.compile(
+        "(futures/um|spot)/(monthly|daily)/(klines|aggTrades|fundingRate|premiumIndexKlines)/([A-Z0-9]+)/"
+            + "(?:(\\w+)/)?\\4-(\\w+)-(\\d{4}-\\d{2}(?:-\\d{2})?)\\.zip(\\.CHECKSUM)?");
+    private static final Pattern INTERVAL = Pattern.compile("(\\d+)([smhdw])");
+
+    private final long seed;
+    private final int tradesPerSecond;
+    private final Path recordings;
+    private final Path workDir;
+    private final Random faults;
+    private final ConcurrentHashMap<String, Market> markets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Archive> archives = new ConcurrentHashMap<>();
+
+    private volatile long latencyMs;
+    private volatile int requestsPerSecond;
+    private volatile long bytesPerSecond;
+    private volatile int wsMessagesPerSecond = 10;
+    private volatile double failureRate;
+
+    private long rateWindow;
+    private int rateCount;
+
+    private Javalin app;
+
+    /**
+     * @param seed            Market seed; same seed, same data
+     * @param tradesPerSecond Synthetic aggTrades per second of market time
+     * @param recordings      Optional directory of recorded responses (see class doc)
+     */
+    public MockBinanceServer(long seed, int tradesPerSecond, Path recordings) throws IOException {
+        this.seed = seed;
+        this.tradesPerSecond = tradesPerSecond;
+        this.recordings = recordings;
+        this.workDir = Files.createTempDirectory("mock-binance");
+        this.faults = new Random(seed);
+    }
+
+    public MockBinanceServer() throws IOException {
+        this(42, 5, null);
+    }
+
+    // ========== Settings ==========
+
+    /** Delay before each HTTP response and WebSocket connect. */
+    public MockBinanceServer latencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+        return this;
+    }
+
+    /** REST requests per second before 429s; 0 for no limit. */
+    public MockBinanceServer requestsPerSecond(int requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+        return this;
+    }
+
+    /** Bandwidth per response; 0 for no limit. */
+    public MockBinanceServer bytesPerSecond(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /** Messages per second on each WebSocket stream. */
+    public MockBinanceServer wsMessagesPerSecond(int wsMessagesPerSecond) {
+        this.wsMessagesPerSecond = Math.max(1, wsMessagesPerSecond);
+        return this;
+    }
+
+    /** Fraction of REST requests answered 503 and of Vision downloads cut short. */
+    public MockBinanceServer failureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    // ========== Lifecycle ==========
+
+    /**
+     * Start on a port; 0 picks a free one.
+     */
+    public MockBinanceServer start(int port) {
+        app = Javalin.create(config -> {
+            config.showJavalinBanner = false;
+            config.useVirtualThreads = true;
+            // Content-Length and byte ranges refer to the raw bytes
+            config.http.disableCompression();
+        });
+
+        app.before(this::admit);
+
+        for (String prefix : List.of("/fapi/v1", "/api/v3")) {
+            app.get(prefix + "/klines", rest(this::klines));
+            app.get(prefix + "/aggTrades", rest(this::aggTrades));
+            app.get(prefix + "/time", rest(ctx -> "{\"serverTime\":" + System.currentTimeMillis() + "}"));
+            app.get(prefix + "/ping", rest(ctx -> "{}"));
+        }
+        app.get("/fapi/v1/fundingRate", rest(this::fundingRate));
+        app.get("/fapi/v1/premiumIndexKlines", rest(this::premiumIndexKlines));
+        app.get("/fapi/v1/openInterest", rest(this::openInterest));
+        app.get("/futures/data/openInterestHist", rest(this::openInterestHist));
+
+        app.get("/data/<path>", ctx -> vision(ctx, false));
+        app.head("/data/<path>", ctx -> vision(ctx, true));
+
+        app.ws("/ws/{stream}", ws -> ws.onConnect(this::stream));
+
+        app.start("127.0.0.1", port);
+        return this;
+    }
+
+    public int port() {
+        return app.port();
+    }
+
+    /** Base URL for {@code BinanceEndpoints.override}. */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    @Override
+    public void close() {
+        if (app != null) {
+            app.stop();
+            app = null;
+        }
+        try (var files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+            // Temp directory; the OS cleans up eventually
+        }
+    }
+
+    // ========== Network conditions ==========
+
+    private void admit(Context ctx) throws InterruptedException {
+        String path = ctx.path();
+        if (path.startsWith("/ws/")) return;
+
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+        if (path.startsWith("/data/")) return;   // Vision has no request limits; failures cut the body
+
+        if (!withinRate()) {
+            ctx.status(429).header("Retry-After", "1")
+                .result("{\"code\":-1003,\"msg\":\"Too many requests\"}");
+            ctx.skipRemainingHandlers();
+        } else if (fails()) {
+            ctx.status(503).result("{\"code\":-1001,\"msg\":\"Service unavailable\"}");
+            ctx.skipRemainingHandlers();
+        }
+    }
+
+    private synchronized boolean withinRate() {
+        int limit = requestsPerSecond;
+        if (limit <= 0) return true;
+        long second = System.currentTimeMillis() / 1000;
+        if (second != rateWindow) {
+            rateWindow = second;
+            rateCount = 0;
+        }
+        return ++rateCount <= limit;
+    }
+
+    private boolean fails() {
+        double rate = failureRate;
+        return rate > 0 && faults.nextDouble() < rate;
+    }
+
+    /**
+     * Copy {@code length} bytes at the configured bandwidth. A failed transfer stops halfway
+     * and aborts the connection.
+     */
+    private void transfer(InputStream in, OutputStream out, long length, boolean fail)
+            throws IOException, InterruptedException {
+        long limit = fail ? length / 2 : length;
+        long started = System.nanoTime();
+        byte[] buffer = new byte[CHUNK_SIZE];
+        long sent = 0;
+        while (sent < limit) {
+            int n = in.read(buffer, 0, (int) Math.min(buffer.length, limit - sent));
+            if (n < 0) break;
+            out.write(buffer, 0, n);
+            sent += n;
+            long bps = bytesPerSecond;
+            if (bps > 0) {
+                long aheadNanos = sent * 1_000_000_000L / bps - (System.nanoTime() - started);
+                if (aheadNanos > 0) {
+                    out.flush();
+                    Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+                }
+            }
+        }
+        if (fail) {
+            out.flush();
+            throw new IOException("Simulated connection drop after " + sent + " of " + length + " bytes");
+        }
+    }
+
+    // ========== REST ==========
+
+    @FunctionalInterface
+    private interface Page {
+        String render(Context ctx);
+    }
+
+    /**
+     * A REST endpoint: the recorded page for the request if there is one, else the synthetic one.
+     */
+    private Handler rest(Page synthetic) {
+        return ctx -> {
+            Path recorded = recordedPage(ctx);
+            byte[] body = recorded != null
+                ? Files.readAllBytes(recorded)
+                : synthetic.render(ctx).getBytes(StandardCharsets.UTF_8);
+            ctx.contentType("application/json");
+            ctx.res().setContentLengthLong(body.length);
+            try (InputStream in = new ByteArrayInputStream(body)) {
+                transfer(in, ctx.outputStream(), body.length, false);
+            }
+        };
+    }
+
+    private Path recordedPage(Context ctx) {
+        if (recordings == null) return null;
+        StringBuilder name = new StringBuilder();
+        new TreeMap<>(ctx.queryParamMap()).forEach((key, values) -> {
+            if (!name.isEmpty()) name.append('&');
+            name.append(key).append('=').append(values.isEmpty() ? "" : values.get(0));
+        });
+        Path file = recordings.resolve(ctx.path().substring(1)).resolve(name + ".json").normalize();
+        return file.startsWith(recordings) && Files.isRegularFile(file) ? file : null;
+    }
+
+    private String klines(Context ctx) {
+        long interval = intervalMs(ctx.queryParam("interval"));
+        if (interval <= 0) {
+            return badRequest(ctx, -1120, "Invalid interval.");
+        }
+        Market market = market(ctx.queryParam("symbol"));
+        int limit = limit(ctx, 500, ctx.path().startsWith("/api") ? 1000 : 1500);
+        long[] opens = openTimes(ctx, interval, limit);
+        long now = System.currentTimeMillis();
+
+        StringBuilder json = new StringBuilder(opens.length * 160 + 2).append('[');
+        for (long open : opens) {
+            if (json.length() > 1) json.append(',');
+            appendKline(json, market.kline(open, interval, now), false);
+        }
+        return json.append(']').toString();
+    }
+
+    private String premiumIndexKlines(Context ctx) {
+        long interval = intervalMs(ctx.queryParam("interval"));
+        if (interval <= 0) {
+            return badRequest(ctx, -1120, "Invalid interval.");
+        }
+        Market market = market(ctx.queryParam("symbol"));
+        long[] opens = openTimes(ctx, interval, limit(ctx, 500, 1500));
+
+        StringBuilder json = new StringBuilder(opens.length * 120 + 2).append('[');
+        for (long open : opens) {
+            if (json.length() > 1) json.append(',');
+            appendKline(json, market.premiumKline(open, interval), true);
+        }
+        return json.append(']').toString();
+    }
+
+    private String aggTrades(Context ctx) {
+        Market market = market(ctx.queryParam("symbol"));
+        int limit = limit(ctx, 500, 1000);
+        Long fromId = longParam(ctx, "fromId");
+        Long startTime = longParam(ctx, "startTime");
+        Long endTime = longParam(ctx, "endTime");
+        long now = System.currentTimeMillis();
+        long lastId = market.firstId(now + 1) - 1;
+
+        long firstId;
+        long untilTime = now;
+        if (fromId != null) {
+            firstId = fromId;
+        } else if (startTime != null || endTime != null) {
+            long start = startTime != null ? startTime : endTime - HOUR_MS + 1;
+            long end = endTime != null ? endTime : start + HOUR_MS - 1;
+            if (end - start >= HOUR_MS) {
+                return badRequest(ctx, -1127, "More than 1 hours between startTime and endTime.");
+            }
+            firstId = market.firstId(start);
+            untilTime = Math.min(end, now);
+        } else {
+            firstId = lastId - limit + 1;
+        }
+        lastId = Math.min(lastId, market.firstId(untilTime + 1) - 1);
+
+        StringBuilder json = new StringBuilder(limit * 110 + 2).append('[');
+        for (long id = Math.max(0, firstId); id <= lastId && id < firstId + limit; id++) {
+            if (json.length() > 1) json.append(',');
+            appendAggTrade(json, market, id, null);
+        }
+        return json.append(']').toString();
+    }
+
+    private String fundingRate(Context ctx) {
+        Market market = market(ctx.queryParam("symbol"));
+        int limit = limit(ctx, 100, 1000);
+        long now = System.currentTimeMillis();
+        Long startTime = longParam(ctx, "startTime");
+        Long endTime = longParam(ctx, "endTime");
+        long last = Math.floorDiv(Math.min(endTime != null ? endTime : now, now) - EPOCH, FUNDING_INTERVAL_MS);
+        long first = startTime != null
+            ? Math.max(0, Math.ceilDiv(startTime - EPOCH, FUNDING_INTERVAL_MS))
+            : Math.max(0, last - limit + 1);
+
+        StringBuilder json = new StringBuilder().append('[');
+        for (long n = first; n <= last && n < first + limit; n++) {
+            long time = EPOCH + n * FUNDING_INTERVAL_MS;
+            if (json.length() > 1) json.append(',');
+            json.append("{\"symbol\":\"").append(market.symbol).append("\",\"fundingTime\":").append(time)
+                .append(",\"fundingRate\":\"");
+            fixed(json, market.fundingRate(time), 8);
+            json.append("\",\"markPrice\":\"");
+            fixed(json, market.price(time), 8);
+            json.append("\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private String openInterest(Context ctx) {
+        Market market = market(ctx.queryParam("symbol"));
+        long now = System.currentTimeMillis();
+        StringBuilder json = new StringBuilder("{\"openInterest\":\"");
+        fixed(json, market.openInterest(now), 3);
+        json.append("\",\"symbol\":\"").append(market.symbol).append("\",\"time\":").append(now).append('}');
+        return json.toString();
+    }
+
+    private String openInterestHist(Context ctx) {
+        long period = intervalMs(ctx.queryParam("period"));
+        if (period <= 0) {
+            return badRequest(ctx, -1120, "Invalid period.");
+        }
+        Market market = market(ctx.queryParam("symbol"));
+        long[] times = openTimes(ctx, period, limit(ctx, 30, 500));
+
+        StringBuilder json = new StringBuilder().append('[');
+        for (long time : times) {
+            double oi = market.openInterest(time);
+            if (json.length() > 1) json.append(',');
+            json.append("{\"symbol\":\"").append(market.symbol).append("\",\"sumOpenInterest\":\"");
+            fixed(json, oi, 8);
+            json.append("\",\"sumOpenInterestValue\":\"");
+            fixed(json, oi * market.price(time), 8);
+            json.append("\",\"timestamp\":").append(time).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Open times of the bars a klines-style request covers: from startTime, up to endTime,
+     * or the latest {@code limit} bars; never past the current bar.
+     */
+    private long[] openTimes(Context ctx, long interval, int limit) {
+        Long startTime = longParam(ctx, "startTime");
+        Long endTime = longParam(ctx, "endTime");
+        long now = System.currentTimeMillis();
+        long lastOpen = Math.floorDiv(Math.min(endTime != null ? endTime : now, now) - EPOCH, interval);
+        long firstOpen = startTime != null
+            ? Math.ceilDiv(startTime - EPOCH, interval)
+            : lastOpen - limit + 1;
+        firstOpen = Math.max(0, firstOpen);
+        int count = (int) Math.max(0, Math.min(limit, lastOpen - firstOpen + 1));
+        long[] opens = new long[count];
+        for (int i = 0; i < count; i++) {
+            opens[i] = EPOCH + (firstOpen + i) * interval;
+        }
+        return opens;
+    }
+
+    private static String badRequest(Context ctx, int code, String msg) {
+        ctx.status(400);
+        return "{\"code\":" + code + ",\"msg\":\"" + msg + "\"}";
+    }
+
+    private static int limit(Context ctx, int defaultLimit, int maxLimit) {
+        Long limit = longParam(ctx, "limit");
+        return limit == null ? defaultLimit : (int) Math.max(1, Math.min(limit, maxLimit));
+    }
+
+    private static Long longParam(Context ctx, String name) {
+        String value = ctx.queryParam(name);
+        return value == null || value.isBlank() ? null : Long.parseLong(value.trim());
+    }
+
+    // ========== Vision ==========
+
+    private void vision(Context ctx, boolean headOnly) throws IOException, InterruptedException {
+        String path = ctx.pathParam("path");
+        Path file = null;
+
+        if (recordings != null) {
+            Path recorded = recordings.resolve("data").resolve(path).normalize();
+            if (recorded.startsWith(recordings) && Files.isRegularFile(recorded)) {
+                file = recorded;
+            }
+        }
+        if (file == null) {
+            Matcher m = VISION_PATH.matcher(path);
+            Archive archive = m.matches() ? archive(m) : null;
+            if (archive == null) {
+                ctx.status(404).result("Not Found");
+                return;
+            }
+            if (m.group(8) != null) {
+                String name = path.substring(path.lastIndexOf('/') + 1, path.length() - ".CHECKSUM".length());
+                ctx.contentType("text/plain").result(archive.sha256() + "  " + name + "\n");
+                return;
+            }
+            file = archive.file();
+        }
+        serveFile(ctx, file, headOnly);
+    }
+
+    private void serveFile(Context ctx, Path file, boolean headOnly) throws IOException, InterruptedException {
+        long size = Files.size(file);
+        long offset = 0;
+        String range = ctx.header("Range");
+        if (range != null && range.startsWith("bytes=") && range.endsWith("-")) {
+            offset = Long.parseLong(range.substring("bytes=".length(), range.length() - 1));
+            if (offset >= size) {
+                ctx.status(416).header("Content-Range", "bytes */" + size);
+                return;
+            }
+            ctx.status(206).header("Content-Range", "bytes " + offset + "-" + (size - 1) + "/" + size);
+        }
+        ctx.contentType("application/zip").header("Accept-Ranges", "bytes");
+        ctx.res().setContentLengthLong(size - offset);
+        if (headOnly) return;
+
+        boolean fail = fails();
+        try (InputStream in = Files.newInputStream(file)) {
+            in.skipNBytes(offset);
+            transfer(in, ctx.outputStream(), size - offset, fail);
+        }
+    }
+
+    /**
+     * The generated archive for a Vision path, or null if Binance wouldn't have it (unknown
+     * data type for the market, or a period that hasn't finished).
+     */
+    private Archive archive(Matcher m) {
+        boolean spot = m.group(1).equals("spot");
+        boolean monthly = m.group(2).equals("monthly");
+        String type = m.group(3);
+        String symbol = m.group(4);
+        String dirInterval = m.group(5);
+        String fileKind = m.group(6);
+        String period = m.group(7);
+
+        boolean candles = type.equals("klines") || type.equals("premiumIndexKlines");
+        if (candles ? !fileKind.equals(dirInterval) || intervalMs(fileKind) <= 0
+                    : dirInterval != null || !fileKind.equals(type)) {
+            return null;
+        }
+        if (spot && (type.equals("fundingRate") || type.equals("premiumIndexKlines"))) {
+            return null;
+        }
+        if (monthly != (period.length() == 7)) {
+            return null;
+        }
+
+        long start;
+        long end;
+        if (monthly) {
+            YearMonth month = YearMonth.parse(period);
+            start = month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+            end = month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        } else {
+            LocalDate day = LocalDate.parse(period);
+            start = day.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+            end = day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        if (start < EPOCH || end > System.currentTimeMillis()) {
+            return null;
+        }
+
+        String key = m.group(0).replaceFirst("\\.CHECKSUM$", "");
+        String csvName = key.substring(key.lastIndexOf('/') + 1).replaceFirst("\\.zip$", ".csv");
+        Market market = market(symbol);
+        return archives.computeIfAbsent(key, k -> generate(csvName, out -> {
+            switch (type) {
+                case "klines" -> writeKlines(out, market, start, end, intervalMs(fileKind), false);
+                case "premiumIndexKlines" -> writeKlines(out, market, start, end, intervalMs(fileKind), true);
+                case "aggTrades" -> writeAggTrades(out, market, start, end);
+                default -> writeFundingRates(out, market, start, end);
+            }
+        }));
+    }
+
+    @FunctionalInterface
+    private interface CsvWriter {
+        void write(Writer out) throws IOException;
+    }
+
+    private record Archive(Path file, String sha256) {}
+
+    /**
+     * Write a single-entry ZIP and hash it on the way out. Runs inside computeIfAbsent, so
+     * concurrent requests for one archive wait for the first.
+     */
+    private Archive generate(String csvName, CsvWriter content) {
+        try {
+            Path file = workDir.resolve(csvName.replaceFirst("\\.csv$", ".zip"));
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream raw = new DigestOutputStream(Files.newOutputStream(file), digest);
+                 ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(raw, 1 << 16))) {
+                zip.putNextEntry(new ZipEntry(csvName));
+                Writer out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.US_ASCII), 1 << 16);
+                content.write(out);
+                out.flush();
+                zip.closeEntry();
+            }
+            return new Archive(file, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeKlines(Writer out, Market market, long start, long end, long interval,
+                                    boolean premium) throws IOException {
+        out.write("open_time,open,high,low,close,volume,close_time,quote_volume,count,"
+            + "taker_buy_volume,taker_buy_quote_volume,ignore\n");
+        StringBuilder line = new StringBuilder(160);
+        for (long open = start; open < end; open += interval) {
+            line.setLength(0);
+            Bar bar = premium ? market.premiumKline(open, interval) : market.kline(open, interval);
+            int decimals = premium ? 8 : 2;
+            line.append(bar.open()).append(',');
+            fixed(line, bar.o(), decimals).append(',');
+            fixed(line, bar.h(), decimals).append(',');
+            fixed(line, bar.l(), decimals).append(',');
+            fixed(line, bar.c(), decimals).append(',');
+            fixed(line, bar.volume(), 3).append(',').append(bar.close()).append(',');
+            fixed(line, bar.quoteVolume(), 4).append(',').append(bar.trades()).append(',');
+            fixed(line, bar.takerBuyVolume(), 3).append(',');
+            fixed(line, bar.takerBuyQuoteVolume(), 4).append(",0\n");
+            out.append(line);
+        }
+    }
+
+    private static void writeAggTrades(Writer out, Market market, long start, long end) throws IOException {
+        out.write("agg_trade_id,price,quantity,first_trade_id,last_trade_id,transact_time,is_buyer_maker\n");
+        StringBuilder line = new StringBuilder(96);
+        for (long id = market.firstId(start), last = market.firstId(end); id < last; id++) {
+            line.setLength(0);
+            line.append(id).append(',');
+            fixed(line, market.tradePrice(id), 2).append(',');
+            fixed(line, market.quantity(id), 3).append(',')
+                .append(id).append(',').append(id).append(',')
+                .append(market.time(id)).append(',')
+                .append(market.buyerMaker(id)).append('\n');
+            out.append(line);
+        }
+    }
+
+    private static void writeFundingRates(Writer out, Market market, long start, long end) throws IOException {
+        out.write("calc_time,funding_interval_hours,last_funding_rate\n");
+        StringBuilder line = new StringBuilder(48);
+        long first = EPOCH + Math.ceilDiv(start - EPOCH, FUNDING_INTERVAL_MS) * FUNDING_INTERVAL_MS;
+        for (long time = first; time < end; time += FUNDING_INTERVAL_MS) {
+            line.setLength(0);
+            line.append(time).append(",8,");
+            fixed(line, market.fundingRate(time), 8).append('\n');
+            out.append(line);
+        }
+    }
+
+    // ========== WebSocket ==========
+
+    private void stream(WsConnectContext ctx) {
+        String stream = ctx.pathParam("stream");
+        Thread.ofVirtual().name("mock-ws-" + stream).start(() -> {
+            try {
+                if (latencyMs > 0) {
+                    Thread.sleep(latencyMs);
+                }
+                Path replay = recordings != null ? recordings.resolve("ws").resolve(stream + ".jsonl") : null;
+                if (replay != null && Files.isRegularFile(replay)) {
+                    replay(ctx, Files.readAllLines(replay).stream().filter(l -> !l.isBlank()).toList());
+                } else {
+                    synthesize(ctx, stream);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Client went away
+            }
+        });
+    }
+
+    private void replay(WsConnectContext ctx, List<String> messages) throws InterruptedException {
+        for (int i = 0; !messages.isEmpty() && ctx.session.isOpen(); i = (i + 1) % messages.size()) {
+            ctx.send(messages.get(i));
+            pace();
+        }
+    }
+
+    /**
+     * aggTrade streams replay consecutive trades (at the default rates, as fast as they
+     * happen); kline and markPrice streams report the market at the current time.
+     */
+    private void synthesize(WsConnectContext ctx, String stream) throws InterruptedException {
+        String[] parts = stream.split("@");
+        Market market = market(parts[0].toUpperCase());
+        String kind = parts.length > 1 ? parts[1] : "";
+
+        long nextId = market.firstId(System.currentTimeMillis());
+        long interval = kind.startsWith("kline_") ? intervalMs(kind.substring("kline_".length())) : 0;
+        long currentOpen = -1;
+
+        while (ctx.session.isOpen()) {
+            long now = System.currentTimeMillis();
+            StringBuilder json = new StringBuilder(256);
+            if (kind.equals("aggTrade")) {
+                json.append("{\"e\":\"aggTrade\",\"E\":").append(now).append(",\"s\":\"").append(market.symbol).append('"');
+                appendAggTrade(json, market, nextId++, ",");
+            } else if (interval > 0) {
+                long open = EPOCH + Math.floorDiv(now - EPOCH, interval) * interval;
+                if (currentOpen >= 0 && open != currentOpen) {
+                    ctx.send(klineEvent(market, kind, currentOpen, interval, currentOpen + interval - 1, true));
+                }
+                currentOpen = open;
+                json.append(klineEvent(market, kind, open, interval, now, false));
+            } else if (kind.equals("markPrice")) {
+                long nextFunding = EPOCH + (Math.floorDiv(now - EPOCH, FUNDING_INTERVAL_MS) + 1) * FUNDING_INTERVAL_MS;
+                double mark = market.price(now);
+                json.append("{\"e\":\"markPriceUpdate\",\"E\":").append(now)
+                    .append(",\"s\":\"").append(market.symbol).append("\",\"p\":\"");
+                fixed(json, mark, 8).append("\",\"i\":\"");
+                fixed(json, mark / (1 + market.premium(now)), 8).append("\",\"P\":\"");
+                fixed(json, mark, 8).append("\",\"r\":\"");
+                fixed(json, market.fundingRate(nextFunding), 8).append("\",\"T\":").append(nextFunding).append('}');
+            } else {
+                ctx.closeSession(1008, "Unknown stream " + stream);
+                return;
+            }
+            ctx.send(json.toString());
+            pace();
+        }
+    }
+
+    private static String klineEvent(Market market, String kind, long open, long interval, long now, boolean closed) {
+        Bar bar = market.kline(open, interval, now);
+        StringBuilder json = new StringBuilder(320);
+        json.append("{\"e\":\"kline\",\"E\":").append(now).append(",\"s\":\"").append(market.symbol)
+            .append("\",\"k\":{\"t\":").append(bar.open()).append(",\"T\":").append(bar.close())
+            .append(",\"s\":\"").append(market.symbol).append("\",\"i\":\"").append(kind.substring("kline_".length()))
+            .append("\",\"o\":\"");
+        fixed(json, bar.o(), 2).append("\",\"c\":\"");
+        fixed(json, bar.c(), 2).append("\",\"h\":\"");
+        fixed(json, bar.h(), 2).append("\",\"l\":\"");
+        fixed(json, bar.l(), 2).append("\",\"v\":\"");
+        fixed(json, bar.volume(), 3).append("\",\"n\":").append(bar.trades()).append(",\"x\":").append(closed)
+            .append(",\"q\":\"");
+        fixed(json, bar.quoteVolume(), 4).append("\"}}");
+        return json.toString();
+    }
+
+    private void pace() throws InterruptedException {
+        Thread.sleep(Math.max(1, 1000 / wsMessagesPerSecond));
+    }
+
+    // ========== JSON ==========
+
+    /**
+     * [openTime, "o", "h", "l", "c", "volume", closeTime, "quoteVolume", trades,
+     *  "takerBuyBase", "takerBuyQuote", "0"]
+     */
+    private static void appendKline(StringBuilder json, Bar bar, boolean premium) {
+        int decimals = premium ? 8 : 2;
+        json.append('[').append(bar.open()).append(",\"");
+        fixed(json, bar.o(), decimals).append("\",\"");
+        fixed(json, bar.h(), decimals).append("\",\"");
+        fixed(json, bar.l(), decimals).append("\",\"");
+        fixed(json, bar.c(), decimals).append("\",\"");
+        fixed(json, bar.volume(), 3).append("\",").append(bar.close()).append(",\"");
+        fixed(json, bar.quoteVolume(), 4).append("\",").append(bar.trades()).append(",\"");
+        fixed(json, bar.takerBuyVolume(), 3).append("\",\"");
+        fixed(json, bar.takerBuyQuoteVolume(), 4).append("\",\"0\"]");
+    }
+
+    /**
+     * An aggTrade object, or its fields only when {@code prefix} is given (to extend an event).
+     */
+    private static void appendAggTrade(StringBuilder json, Market market, long id, String prefix) {
+        json.append(prefix != null ? prefix : "{").append("\"a\":").append(id).append(",\"p\":\"");
+        fixed(json, market.tradePrice(id), 2).append("\",\"q\":\"");
+        fixed(json, market.quantity(id), 3).append("\",\"f\":").append(id).append(",\"l\":").append(id)
+            .append(",\"T\":").append(market.time(id)).append(",\"m\":").append(market.buyerMaker(id)).append('}');
+    }
+
+    private static final long[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    /** Fixed-point decimal, as Binance formats prices and quantities. */
+    private static StringBuilder fixed(StringBuilder sb, double value, int decimals) {
+        long scale = POW10[decimals];
+        long units = Math.round(value * scale);
+        if (units < 0) {
+            sb.append('-');
+            units = -units;
+        }
+        sb.append(units / scale);
+        if (decimals > 0) {
+            String fraction = Long.toString(units % scale);
+            sb.append('.');
+            for (int i = fraction.length(); i < decimals; i++) sb.append('0');
+            sb.append(fraction);
+        }
+        return sb;
+    }
+
+    // ========== Synthetic market ==========
+
+    private Market market(String symbol) {
+        String key = symbol == null || symbol.isBlank() ? "BTCUSDT" : symbol.trim().toUpperCase();
+        return markets.computeIfAbsent(key, s -> new Market(s, seed, tradesPerSecond));
+    }
+
+    static long intervalMs(String interval) {
+        if (interval == null) return -1;
+        Matcher m = INTERVAL.matcher(interval);
+        if (!m.matches()) return -1;
+        long n = Long.parseLong(m.group(1));
+        return n * switch (m.group(2)) {
+            case "s" -> 1_000L;
+            case "m" -> 60_000L;
+            case "h" -> HOUR_MS;
+            case "d" -> 24 * HOUR_MS;
+            default -> 7 * 24 * HOUR_MS;
+        };
+    }
+
+    private record Bar(long open, long close, double o, double h, double l, double c, double volume,
+                       double quoteVolume, long trades, double takerBuyVolume, double takerBuyQuoteVolume) {}
+
+    /**
+     * Deterministic market for one symbol. Trade n happens at EPOCH + n / tradesPerSecond;
+     * its price is the price path at that time.
+     */
+    private static final class Market {
+        private static final int SAMPLES_PER_BAR = 16;
+        private static final double MEAN_QTY = 0.05;
+
+        final String symbol;
+        private final long seed;
+        private final int tradesPerSecond;
+        private final double base;
+        private final double phase;
+
+        Market(String symbol, long seed, int tradesPerSecond) {
+            this.symbol = symbol;
+            this.seed = mix(seed ^ symbol.hashCode() * 0x9E3779B97F4A7C15L);
+            this.tradesPerSecond = Math.max(1, tradesPerSecond);
+            this.base = 10 + unit(mix(this.seed + 1)) * 990;
+            this.phase = unit(mix(this.seed + 2)) * 2 * Math.PI;
+        }
+
+        double price(long time) {
+            double hours = (time - EPOCH) / (double) HOUR_MS;
+            double trend = 0.25 * Math.sin(hours / 1500 + phase)
+                + 0.06 * Math.sin(hours / 90 + 2 * phase)
+                + 0.01 * Math.sin(hours / 3.7 + 3 * phase);
+            double jitter = 0.0008 * noise(Math.floorDiv(time, 1000));
+            return base * (1 + trend) * (1 + jitter);
+        }
+
+        double premium(long time) {
+            double hours = (time - EPOCH) / (double) HOUR_MS;
+            return 0.0004 * Math.sin(hours / 11 + phase) + 0.0001 * noise(Math.floorDiv(time, 60_000) + 7);
+        }
+
+        double fundingRate(long fundingTime) {
+            double hours = (fundingTime - EPOCH) / (double) HOUR_MS;
+            return 0.0001 + 0.0002 * Math.sin(hours / 40 + phase);
+        }
+
+        double openInterest(long time) {
+            double hours = (time - EPOCH) / (double) HOUR_MS;
+            return 5_000_000 / base * (1 + 0.3 * Math.sin(hours / 200 + phase));
+        }
+
+        long time(long id) {
+            return EPOCH + id * 1000 / tradesPerSecond;
+        }
+
+        /** First trade at or after {@code time}. */
+        long firstId(long time) {
+            return time <= EPOCH ? 0 : Math.ceilDiv((time - EPOCH) * tradesPerSecond, 1000);
+        }
+
+        double tradePrice(long id) {
+            return price(time(id));
+        }
+
+        double quantity(long id) {
+            // Exponential sizes; rounding to the lot size keeps them positive
+            return Math.max(0.001, -Math.log(1 - unit(mix(seed + id * 0xD1B54A32D192ED03L))) * MEAN_QTY);
+        }
+
+        boolean buyerMaker(long id) {
+            return (mix(seed ^ id) & 1) == 0;
+        }
+
+        Bar kline(long open, long interval) {
+            return kline(open, interval, open + interval - 1);
+        }
+
+        /** Bar at {@code open}, as far as it has formed by {@code until}. */
+        Bar kline(long open, long interval, long until) {
+            long end = Math.min(open + interval, until + 1);
+            double o = price(open);
+            double c = price(end - 1);
+            double h = Math.max(o, c);
+            double l = Math.min(o, c);
+            for (int i = 1; i < SAMPLES_PER_BAR; i++) {
+                double p = price(open + (end - open) * i / SAMPLES_PER_BAR);
+                h = Math.max(h, p);
+                l = Math.min(l, p);
+            }
+            long trades = firstId(end) - firstId(open);
+            double volume = trades * MEAN_QTY;
+            double takerShare = 0.5 + 0.1 * noise(open / interval + 11);
+            double vwap = (o + h + l + c) / 4;
+            return new Bar(open, open + interval - 1, o, h, l, c, volume, volume * vwap, trades,
+                volume * takerShare, volume * takerShare * vwap);
+        }
+
+        Bar premiumKline(long open, long interval) {
+            long end = open + interval;
+            double o = premium(open);
+            double c = premium(end - 1);
+            double h = Math.max(o, c);
+            double l = Math.min(o, c);
+            for (int i = 1; i < SAMPLES_PER_BAR; i++) {
+                double p = premium(open + interval * i / SAMPLES_PER_BAR);
+                h = Math.max(h, p);
+                l = Math.min(l, p);
+            }
+            return new Bar(open, end - 1, o, h, l, c, 0, 0, interval / 1000, 0, 0);
+        }
+
+        private double noise(long key) {
+            return unit(mix(seed ^ key * 0xBF58476D1CE4E5B9L)) * 2 - 1;
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        private static double unit(long z) {
+            return (z >>> 11) * 0x1.0p-53;
+        }
+    }
+
+    // ========== Standalone ==========
+
+    /**
+     * Run the server on its own, e.g. to point a data service or forge at it:
+     * {@code --port=9811 --latency=50 --rps=20 --bps=5000000 --ws-rate=10 --failure-rate=0.01
+     * --tps=5 --seed=42 --recordings=DIR}
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        String recordings = options.get("recordings");
+        MockBinanceServer server = new MockBinanceServer(
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("tps", "5")),
+                recordings != null ? Path.of(recordings).toAbsolutePath().normalize() : null)
+            .latencyMs(Long.parseLong(options.getOrDefault("latency", "0")))
+            .requestsPerSecond(Integer.parseInt(options.getOrDefault("rps", "0")))
+            .bytesPerSecond(Long.parseLong(options.getOrDefault("bps", "0")))
+            .wsMessagesPerSecond(Integer.parseInt(options.getOrDefault("ws-rate", "10")))
+            .failureRate(Double.parseDouble(options.getOrDefault("failure-rate", "0")))
+            .start(Integer.parseInt(options.getOrDefault("port", "9811")));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Mock Binance on " + server.baseUrl()
+            + " (run the data service with -Dtradery.binance.endpoint=" + server.baseUrl() + ")");
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,71 @@
+package com.tradery.bench;
+
+import com.tradery.core.indicators.FootprintIndicator;
+import com.tradery.core.indicators.OrderflowIndicators;
+import com.tradery.core.model.AggTrade;
+import com.tradery.core.model.Candle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orderflow and footprint indicators bucketing aggTrades into 1m candles.
+ * Reported per trade (trades/s); the 10M dataset needs the -Xmx set in build.gradle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderflowBenchmark {
+
+    private static final String RESOLUTION = "1m";
+    private static final double WHALE_THRESHOLD = 50_000;
+
+    @Param({BenchData.SYNTHETIC})
+    public String dataset;
+
+    @Param({"1000000", "10000000"})
+    public int tradeCount;
+
+    private List<Candle> candles;
+    private List<AggTrade> trades;
+
+    @Setup
+    public void setup() {
+        // ~100 trades per 1m bar
+        candles = BenchData.candles(dataset, RESOLUTION, Math.max(1_000, tradeCount / 100));
+        trades = BenchData.aggTrades(dataset, candles, RESOLUTION, tradeCount);
+    }
+
+    @Benchmark
+    public void delta(Throughput.Trades counter, Blackhole bh) {
+        bh.consume(OrderflowIndicators.delta(trades, candles, RESOLUTION));
+        counter.trades += trades.size();
+    }
+
+    @Benchmark
+    public void cumulativeDelta(Throughput.Trades counter, Blackhole bh) {
+        bh.consume(OrderflowIndicators.cumulativeDelta(trades, candles, RESOLUTION));
+        counter.trades += trades.size();
+    }
+
+    @Benchmark
+    public void whaleDelta(Throughput.Trades counter, Blackhole bh) {
+        bh.consume(OrderflowIndicators.whaleDelta(trades, candles, RESOLUTION, WHALE_THRESHOLD));
+        counter.trades += trades.size();
+    }
+
+    @Benchmark
+    public void footprint(Throughput.Trades counter, Blackhole bh) {
+        bh.consume(FootprintIndicator.calculate(candles, trades, RESOLUTION));
+        counter.trades += trades.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.tradery.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary JMH counters reported as rates (bars/s, trades/s), so suites with
+ * differently sized datasets stay comparable.
+ */
+public final class Throughput {
+
+    private Throughput() {}
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bars {
+        public long bars;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bars = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Trades {
+        public long trades;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            trades = 0;
+        }
+    }
+}
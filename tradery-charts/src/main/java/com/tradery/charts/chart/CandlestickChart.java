@@ -4,6 +4,8 @@ import com.tradery.charts.core.ChartCoordinator;
 import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.overlay.ChartOverlay;
 import com.tradery.charts.renderer.TraderyCandlestickRenderer;
+import com.tradery.charts.util.ArrayXYDataset;
+import com.tradery.charts.util.CandleOHLCDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.JFreeChart;
@@ -11,14 +13,9 @@ import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
-import org.jfree.data.xy.DefaultHighLowDataset;
 
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -88,12 +85,8 @@ public class CandlestickChart extends SyncedChart {
     }
 
     private void createLineData(XYPlot plot, List<Candle> candles) {
-        TimeSeries series = new TimeSeries("Price");
-        for (Candle c : candles) {
-            series.addOrUpdate(new Millisecond(new Date(c.timestamp())), c.close());
-        }
-
-        TimeSeriesCollection dataset = new TimeSeriesCollection(series);
+        ArrayXYDataset dataset = new ArrayXYDataset()
+            .add("Price", candles, i -> candles.get(i).close(), 0);
         plot.setDataset(0, dataset);
 
         Color lineColor = applyOpacity(ChartStyles.getTheme().getPriceLineColor());
@@ -104,26 +97,7 @@ public class CandlestickChart extends SyncedChart {
     }
 
     private void createCandlestickData(XYPlot plot, List<Candle> candles) {
-        int size = candles.size();
-        Date[] dates = new Date[size];
-        double[] high = new double[size];
-        double[] low = new double[size];
-        double[] open = new double[size];
-        double[] close = new double[size];
-        double[] volume = new double[size];
-
-        for (int i = 0; i < size; i++) {
-            Candle c = candles.get(i);
-            dates[i] = new Date(c.timestamp());
-            high[i] = c.high();
-            low[i] = c.low();
-            open[i] = c.open();
-            close[i] = c.close();
-            volume[i] = c.volume();
-        }
-
-        DefaultHighLowDataset dataset = new DefaultHighLowDataset(
-            "Price", dates, high, low, open, close, volume);
+        CandleOHLCDataset dataset = new CandleOHLCDataset("Price", candles);
         plot.setDataset(0, dataset);
 
         Color upColor = applyOpacity(ChartStyles.getTheme().getCandleUpColor());
@@ -2,19 +2,18 @@ package com.tradery.charts.chart;
 
 import com.tradery.charts.core.ChartCoordinator;
 import com.tradery.charts.core.ChartDataProvider;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
+import com.tradery.core.model.EquitySeries;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYAreaRenderer;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
+import java.util.Arrays;
 
 /**
  * Equity curve chart for portfolio/strategy performance visualization.
@@ -70,6 +69,13 @@ public class EquityChart extends SyncedChart {
         refreshChart();
     }
 
+    /**
+     * Set the equity data from a backtest's recorded equity curve (arrays are used as-is).
+     */
+    public void setEquitySeries(EquitySeries series) {
+        setEquityData(series.timestamps(), series.equity());
+    }
+
     /**
      * Refresh the chart with current data.
      */
@@ -99,15 +105,19 @@ public class EquityChart extends SyncedChart {
 
         // Drawdown area (behind equity line)
         if (showDrawdown) {
-            TimeSeries drawdownSeries = new TimeSeries("Drawdown");
+            // Only bars below the high water mark, packed so the area stays contiguous
+            long[] ddTimes = new long[timestamps.length];
+            double[] ddValues = new double[timestamps.length];
+            int ddCount = 0;
             for (int i = 0; i < timestamps.length; i++) {
                 if (!Double.isNaN(drawdown[i]) && drawdown[i] < 0) {
-                    drawdownSeries.addOrUpdate(new Millisecond(new Date(timestamps[i])), equityValues[i]);
+                    ddTimes[ddCount] = timestamps[i];
+                    ddValues[ddCount++] = equityValues[i];
                 }
             }
 
-            TimeSeriesCollection drawdownDataset = new TimeSeriesCollection();
-            drawdownDataset.addSeries(drawdownSeries);
+            ArrayXYDataset drawdownDataset = new ArrayXYDataset().add("Drawdown",
+                Arrays.copyOf(ddTimes, ddCount), Arrays.copyOf(ddValues, ddCount), 0);
 
             XYAreaRenderer areaRenderer = new XYAreaRenderer();
             areaRenderer.setSeriesPaint(0, DRAWDOWN_COLOR);
@@ -120,15 +130,8 @@ public class EquityChart extends SyncedChart {
 
         // High water mark line
         if (showHighWaterMark) {
-            TimeSeries hwmSeries = new TimeSeries("High Water Mark");
-            for (int i = 0; i < timestamps.length; i++) {
-                if (!Double.isNaN(highWaterMark[i])) {
-                    hwmSeries.addOrUpdate(new Millisecond(new Date(timestamps[i])), highWaterMark[i]);
-                }
-            }
-
-            TimeSeriesCollection hwmDataset = new TimeSeriesCollection();
-            hwmDataset.addSeries(hwmSeries);
+            ArrayXYDataset hwmDataset = new ArrayXYDataset()
+                .add("High Water Mark", timestamps, highWaterMark, 0);
 
             XYLineAndShapeRenderer hwmRenderer = new XYLineAndShapeRenderer(true, false);
             hwmRenderer.setSeriesPaint(0, HIGH_WATER_COLOR);
@@ -140,15 +143,8 @@ public class EquityChart extends SyncedChart {
         }
 
         // Equity line (on top)
-        TimeSeries equitySeries = new TimeSeries("Equity");
-        for (int i = 0; i < timestamps.length; i++) {
-            if (!Double.isNaN(equityValues[i])) {
-                equitySeries.addOrUpdate(new Millisecond(new Date(timestamps[i])), equityValues[i]);
-            }
-        }
-
-        TimeSeriesCollection equityDataset = new TimeSeriesCollection();
-        equityDataset.addSeries(equitySeries);
+        ArrayXYDataset equityDataset = new ArrayXYDataset()
+            .add("Equity", timestamps, equityValues, 0);
 
         XYLineAndShapeRenderer equityRenderer = new XYLineAndShapeRenderer(true, false);
         equityRenderer.setSeriesPaint(0, EQUITY_COLOR);
@@ -4,6 +4,7 @@ import com.tradery.charts.core.ChartCoordinator;
 import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.util.ChartPanelFactory;
 import com.tradery.charts.util.ChartStyles;
+import com.tradery.charts.util.LevelOfDetail;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.AxisLocation;
@@ -41,6 +42,7 @@ public abstract class SyncedChart {
         ChartStyles.stylizeChart(chart, title);
 
         this.chartPanel = ChartPanelFactory.create(chart);
+        LevelOfDetail.install(chartPanel);
 
         if (coordinator != null) {
             coordinator.register(chartPanel);
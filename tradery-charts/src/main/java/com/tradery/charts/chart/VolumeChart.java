@@ -2,7 +2,9 @@ package com.tradery.charts.chart;
 
 import com.tradery.charts.core.ChartCoordinator;
 import com.tradery.charts.core.ChartDataProvider;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
+import com.tradery.charts.util.DecimatedDataset;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
@@ -10,8 +12,6 @@ import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.StandardXYBarPainter;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 import java.awt.*;
 import java.util.List;
@@ -55,12 +55,8 @@ public class VolumeChart extends SyncedChart {
         ChartStyles.addChartTitleAnnotation(plot, title);
 
         // Create volume series
-        XYSeries series = new XYSeries("Volume");
-        for (Candle c : candles) {
-            series.add(c.timestamp(), c.volume());
-        }
-
-        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        ArrayXYDataset dataset = new ArrayXYDataset()
+            .add("Volume", candles, i -> candles.get(i).volume(), 0);
         plot.setDataset(0, dataset);
 
         // Create color-coded renderer
@@ -85,12 +81,13 @@ public class VolumeChart extends SyncedChart {
         return renderer;
     }
 
-    private XYBarRenderer createDirectionRenderer(List<Candle> candles, XYSeriesCollection dataset) {
+    private XYBarRenderer createDirectionRenderer(List<Candle> candles, DecimatedDataset dataset) {
         XYBarRenderer renderer = new XYBarRenderer(0.0) {
             @Override
             public Paint getItemPaint(int series, int item) {
-                if (item >= candles.size()) return ChartStyles.BUY_VOLUME_COLOR;
-                Candle c = candles.get(item);
+                int bar = dataset.getSourceIndex(series, item);
+                if (bar >= candles.size()) return ChartStyles.BUY_VOLUME_COLOR;
+                Candle c = candles.get(bar);
                 return c.close() >= c.open()
                     ? ChartStyles.BUY_VOLUME_COLOR
                     : ChartStyles.SELL_VOLUME_COLOR;
@@ -102,7 +99,7 @@ public class VolumeChart extends SyncedChart {
         return renderer;
     }
 
-    private XYBarRenderer createWyckoffRenderer(List<Candle> candles, XYSeriesCollection dataset) {
+    private XYBarRenderer createWyckoffRenderer(List<Candle> candles, DecimatedDataset dataset) {
         // Calculate volume percentiles for coloring
         double[] volumes = candles.stream().mapToDouble(Candle::volume).sorted().toArray();
         double[] thresholds = new double[6];
@@ -117,8 +114,9 @@ public class VolumeChart extends SyncedChart {
         XYBarRenderer renderer = new XYBarRenderer(0.0) {
             @Override
             public Paint getItemPaint(int series, int item) {
-                if (item >= candles.size()) return ChartStyles.VOLUME_COLORS[3];
-                double vol = candles.get(item).volume();
+                int bar = dataset.getSourceIndex(series, item);
+                if (bar >= candles.size()) return ChartStyles.VOLUME_COLORS[3];
+                double vol = candles.get(bar).volume();
 
                 if (vol < thresholds[0]) return ChartStyles.VOLUME_COLORS[0];
                 if (vol < thresholds[1]) return ChartStyles.VOLUME_COLORS[1];
@@ -1,6 +1,7 @@
 package com.tradery.charts.core;
 
 import com.tradery.charts.util.ChartStyles;
+import com.tradery.charts.util.DomainCrosshairOverlay;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.ChartMouseEvent;
 import org.jfree.chart.ChartMouseListener;
@@ -8,7 +9,6 @@ import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.ValueAxis;
-import org.jfree.chart.panel.CrosshairOverlay;
 import org.jfree.chart.plot.Crosshair;
 import org.jfree.chart.plot.XYPlot;
 
@@ -84,9 +84,7 @@ public class ChartCoordinator {
         crosshair.setPaint(ChartStyles.crosshairColor());
         crosshairs.add(crosshair);
 
-        CrosshairOverlay overlay = new CrosshairOverlay();
-        overlay.addDomainCrosshair(crosshair);
-        panel.addOverlay(overlay);
+        DomainCrosshairOverlay.install(panel, crosshair);
         panel.addChartMouseListener(mouseListener);
     }
 
@@ -203,25 +201,22 @@ public class ChartCoordinator {
     private void updateStatus(double timestamp) {
         if (onStatusUpdate == null || currentCandles == null || currentCandles.isEmpty()) return;
 
-        // Find the candle closest to this timestamp
+        // Find the candle closest to this timestamp (candles are in time order)
         long ts = (long) timestamp;
-        Candle closest = null;
-        long minDiff = Long.MAX_VALUE;
-
-        for (Candle c : currentCandles) {
-            long diff = Math.abs(c.timestamp() - ts);
-            if (diff < minDiff) {
-                minDiff = diff;
-                closest = c;
-            }
+        int lo = 0, hi = currentCandles.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (currentCandles.get(mid).timestamp() < ts) lo = mid + 1; else hi = mid;
         }
-
-        if (closest != null) {
-            String status = String.format("%s  O: %.2f  H: %.2f  L: %.2f  C: %.2f  Vol: %.0f",
-                dateFormat.format(new Date(closest.timestamp())),
-                closest.open(), closest.high(), closest.low(), closest.close(), closest.volume());
-            onStatusUpdate.accept(status);
+        Candle closest = currentCandles.get(lo);
+        if (lo > 0 && ts - currentCandles.get(lo - 1).timestamp() <= closest.timestamp() - ts) {
+            closest = currentCandles.get(lo - 1);
         }
+
+        String status = String.format("%s  O: %.2f  H: %.2f  L: %.2f  C: %.2f  Vol: %.0f",
+            dateFormat.format(new Date(closest.timestamp())),
+            closest.open(), closest.high(), closest.low(), closest.close(), closest.volume());
+        onStatusUpdate.accept(status);
     }
 
     /**
@@ -4,23 +4,22 @@ import com.tradery.core.indicators.IndicatorEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Thin infrastructure for running indicator computations asynchronously.
  * Has ZERO indicator-specific knowledge - it just runs {@link IndicatorCompute} instances.
  *
- * <p>Uses a single background thread to avoid thread-safety issues with
- * IndicatorEngine's internal HashMap cache.</p>
+ * <p>Computations run on the application-wide {@link SharedIndicatorResults} executor and
+ * their results are shared with every other pool holding the same data, so several windows
+ * on one symbol and timeframe compute each indicator once.</p>
  *
  * <p>Provides:
  * <ul>
- *   <li>Single background thread for computation</li>
- *   <li>Cache by key for deduplication</li>
+ *   <li>Background computation, parallel across indicators</li>
+ *   <li>Deduplication by data identity and compute key</li>
  *   <li>Recomputation when data context changes</li>
  * </ul>
  */
@@ -28,126 +27,117 @@ public class IndicatorPool {
 
     private static final Logger log = LoggerFactory.getLogger(IndicatorPool.class);
 
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "indicator-pool");
-        t.setDaemon(true);
-        return t;
-    });
-
-    private final Map<String, CachedComputation<?>> cache = new ConcurrentHashMap<>();
+    private final SharedIndicatorResults results = SharedIndicatorResults.getInstance();
     private final CopyOnWriteArrayList<ActiveSubscription<?>> activeSubscriptions = new CopyOnWriteArrayList<>();
 
-    private volatile IndicatorEngine engine;
+    /** Current data; id is null while its fingerprint is being computed. */
+    private record DataContext(IndicatorEngine engine, String id) {}
+
+    private final AtomicReference<DataContext> context = new AtomicReference<>();
 
     /**
      * Subscribe to an indicator computation.
-     * If the same key is already cached and data hasn't changed, returns cached result.
+     * If the same key was computed for the same data (by any pool), returns the shared result.
      * Otherwise, schedules background computation.
      */
-    @SuppressWarnings("unchecked")
     public <T> IndicatorSubscription<T> subscribe(IndicatorCompute<T> compute) {
-        String key = compute.key();
-
-        IndicatorSubscription<T> subscription = new IndicatorSubscription<>(() -> {
-            // On close: remove from active list (but keep cache)
-            activeSubscriptions.removeIf(a -> a.key.equals(key));
+        ActiveSubscription<T> active = new ActiveSubscription<>(compute);
+        active.subscription = new IndicatorSubscription<>(() -> {
+            // On close: remove from active list and drop the shared reference (result stays cached)
+            activeSubscriptions.remove(active);
+            active.release(results);
         });
 
         // Track active subscription for recomputation
-        activeSubscriptions.add(new ActiveSubscription<>(key, compute, subscription));
-        log.debug("Subscribe: {}", key);
-
-        // Check cache
-        CachedComputation<?> cached = cache.get(key);
-        if (cached != null && cached.dataVersion == dataVersion()) {
-            subscription.setResult((T) cached.result);
-            return subscription;
-        }
+        activeSubscriptions.add(active);
+        log.debug("Subscribe: {}", compute.key());
 
-        // Schedule computation
-        IndicatorEngine currentEngine = this.engine;
-        if (currentEngine == null) {
-            return subscription; // No data yet - will compute on setDataContext
+        DataContext current = context.get();
+        if (current == null || current.id() == null) {
+            return active.subscription; // No data (identity) yet - will compute once it is known
         }
-
-        long version = dataVersion();
-        executor.submit(() -> {
-            try {
-                log.debug("Computing: {}", key);
-                long start = System.nanoTime();
-                T result = compute.compute(currentEngine);
-                long elapsed = (System.nanoTime() - start) / 1_000_000;
-                log.debug("Computed: {} in {}ms", key, elapsed);
-                cache.put(key, new CachedComputation<>(result, version));
-                subscription.setResult(result);
-            } catch (Exception e) {
-                log.warn("Indicator computation failed for {}: {}", key, e.getMessage());
-            }
-        });
-
-        return subscription;
+        acquire(active, current.engine(), current.id());
+        return active.subscription;
     }
 
     /**
      * Update data context with a fully-configured IndicatorEngine.
      * Triggers recomputation of all active subscriptions.
+     *
+     * The data fingerprint hashes every record, so it is computed on the indicator executor
+     * (this is typically called on the EDT); subscriptions are acquired once it is known.
      */
     public void setDataContext(IndicatorEngine engine) {
-        this.engine = engine;
-
-        // Invalidate cache
-        cache.clear();
-
         if (engine == null) {
+            context.set(null);
+            for (ActiveSubscription<?> active : activeSubscriptions) {
+                active.release(results);
+            }
             log.info("Data context cleared");
             return;
         }
 
-        log.info("Data context updated, recomputing {} active subscriptions", activeSubscriptions.size());
-        // Recompute all active subscriptions
-        long version = dataVersion();
-        for (ActiveSubscription<?> active : activeSubscriptions) {
-            recompute(active, engine, version);
-        }
+        DataContext pending = new DataContext(engine, null);
+        context.set(pending);
+        CompletableFuture.supplyAsync(engine::dataFingerprint, results.executor()).thenAccept(id -> {
+            DataContext ready = new DataContext(engine, id);
+            // Newer data arrived while hashing: that context acquires for itself
+            if (!context.compareAndSet(pending, ready)) return;
+            log.info("Data context updated, recomputing {} active subscriptions", activeSubscriptions.size());
+            for (ActiveSubscription<?> active : activeSubscriptions) {
+                acquire(active, engine, id);
+            }
+        }).exceptionally(e -> {
+            log.warn("Data fingerprint failed: {}", e.getMessage());
+            return null;
+        });
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> void recompute(ActiveSubscription<T> active, IndicatorEngine engine, long version) {
-        executor.submit(() -> {
-            try {
-                log.debug("Recomputing: {}", active.key);
-                long start = System.nanoTime();
-                T result = active.compute.compute(engine);
-                long elapsed = (System.nanoTime() - start) / 1_000_000;
-                log.debug("Recomputed: {} in {}ms", active.key, elapsed);
-                cache.put(active.key, new CachedComputation<>(result, version));
+    private <T> void acquire(ActiveSubscription<T> active, IndicatorEngine engine, String id) {
+        SharedIndicatorResults.Key key = new SharedIndicatorResults.Key(id, active.compute.key());
+        SharedIndicatorResults.Handle<T> handle;
+        synchronized (active) {
+            if (active.held == null || !key.equals(active.held.key())) {
+                active.release(results);
+                active.held = results.acquire(key, () -> active.compute.compute(engine));
+            }
+            handle = active.held;
+        }
+        // Same data as before still delivers the (shared) result again
+        handle.future().thenAccept(result -> {
+            // Ignore results for data this subscription has moved away from
+            if (active.held == handle) {
                 active.subscription.setResult(result);
-            } catch (Exception e) {
-                log.warn("Indicator recomputation failed for {}: {}", active.key, e.getMessage());
             }
         });
     }
 
-    private long dataVersion() {
-        IndicatorEngine e = engine;
-        if (e == null) return 0;
-        var candles = e.getCandles();
-        if (candles == null || candles.isEmpty()) return 0;
-        return candles.size() * 31L + candles.get(candles.size() - 1).timestamp();
-    }
-
     /**
-     * Shutdown the thread pool.
+     * Release all shared results held by this pool.
      */
     public void shutdown() {
-        log.info("Shutting down IndicatorPool ({} subscriptions, {} cached)", activeSubscriptions.size(), cache.size());
-        executor.shutdownNow();
+        log.info("Shutting down IndicatorPool ({} subscriptions)", activeSubscriptions.size());
+        for (ActiveSubscription<?> active : activeSubscriptions) {
+            active.release(results);
+        }
         activeSubscriptions.clear();
-        cache.clear();
+        context.set(null);
     }
 
-    private record CachedComputation<T>(T result, long dataVersion) {}
+    private static final class ActiveSubscription<T> {
+        final IndicatorCompute<T> compute;
+        IndicatorSubscription<T> subscription;
+        volatile SharedIndicatorResults.Handle<T> held;  // Shared result this subscription references
+
+        ActiveSubscription(IndicatorCompute<T> compute) {
+            this.compute = compute;
+        }
 
-    private record ActiveSubscription<T>(String key, IndicatorCompute<T> compute,
-                                          IndicatorSubscription<T> subscription) {}
+        synchronized void release(SharedIndicatorResults results) {
+            if (held != null) {
+                results.release(held);
+                held = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,304 @@
+package com.tradery.charts.indicator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Application-wide store of computed indicator results.
+ *
+ * Results are keyed by data identity ({@link com.tradery.core.indicators.IndicatorEngine#dataFingerprint()})
+ * plus the compute key, so windows showing the same symbol and timeframe share one
+ * computation and one copy of each array. Every {@link IndicatorPool} holds a reference
+ * per active subscription; results in use are never evicted. Unreferenced results stay
+ * cached (least recently released first out) until their estimated size exceeds the idle
+ * budget. The application can also evict them under memory pressure through
+ * {@link #idleResults()} and {@link #evictIdle(Key)}.
+ *
+ * Results must be treated as immutable - they are handed to every subscriber as-is.
+ */
+public final class SharedIndicatorResults {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedIndicatorResults.class);
+
+    private static final long DEFAULT_IDLE_BUDGET_BYTES = 256L * 1024 * 1024;
+    private static final long UNKNOWN_RESULT_BYTES = 24_000;
+
+    private static final SharedIndicatorResults INSTANCE = new SharedIndicatorResults();
+
+    /**
+     * Cache key: data identity plus compute key.
+     */
+    public record Key(String dataId, String computeKey) {}
+
+    /**
+     * An unreferenced cached result.
+     */
+    public record IdleResult(Key key, long bytes, long releasedAt) {}
+
+    private static final class Entry {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        int refs;
+        long bytes;
+        long releasedAt;
+    }
+
+    /**
+     * One reference to a result, returned by {@link #acquire(Key, Supplier)}. Released
+     * against the entry it was taken on, so a reference outliving its entry (a failed or
+     * abandoned computation replaced by a newer one) can't drop the newer entry's refs.
+     */
+    public static final class Handle<T> {
+        private final Key key;
+        private final Entry entry;
+        private boolean released;  // Guarded by SharedIndicatorResults.this
+
+        private Handle(Key key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        public Key key() {
+            return key;
+        }
+
+        @SuppressWarnings("unchecked")
+        public CompletableFuture<T> future() {
+            return (CompletableFuture<T>) (CompletableFuture<?>) entry.future;
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>();
+    private final LinkedHashMap<Key, Entry> idle = new LinkedHashMap<>();  // refs == 0, oldest release first
+    private long idleBytes;
+    private long idleBudgetBytes = DEFAULT_IDLE_BUDGET_BYTES;
+
+    private SharedIndicatorResults() {
+        int threads = defaultParallelism();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "indicator-compute");
+                t.setDaemon(true);
+                return t;
+            });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static SharedIndicatorResults getInstance() {
+        return INSTANCE;
+    }
+
+    private static int defaultParallelism() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * Set the number of indicator computations that may run in parallel (0 or less: default,
+     * half the processors).
+     */
+    public void setParallelism(int threads) {
+        int n = threads > 0 ? threads : defaultParallelism();
+        if (n > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(n);
+            executor.setCorePoolSize(n);
+        } else {
+            executor.setCorePoolSize(n);
+            executor.setMaximumPoolSize(n);
+        }
+    }
+
+    /**
+     * Executor indicator computations run on, for work that should stay off the caller's thread.
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Set how many bytes of unreferenced results may stay cached.
+     */
+    public synchronized void setIdleBudgetBytes(long bytes) {
+        this.idleBudgetBytes = Math.max(0, bytes);
+        evictIdle();
+    }
+
+    /**
+     * Take a reference to a result, scheduling its computation if nobody has it yet.
+     * Every acquire must be paired with one {@link #release(Handle)}.
+     */
+    public synchronized <T> Handle<T> acquire(Key key, Supplier<T> compute) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(key, entry);
+            schedule(key, entry, compute);
+        } else if (entry.refs == 0) {
+            idle.remove(key);
+            idleBytes -= entry.bytes;
+        }
+        entry.refs++;
+        return new Handle<>(key, entry);
+    }
+
+    private <T> void schedule(Key key, Entry entry, Supplier<T> compute) {
+        executor.execute(() -> {
+            synchronized (this) {
+                if (entries.get(key) != entry) return;  // Released before it started
+            }
+            try {
+                log.debug("Computing: {}", key);
+                long start = System.nanoTime();
+                T result = compute.get();
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                log.debug("Computed: {} in {}ms", key, elapsed);
+                long bytes = estimateBytes(result);
+                synchronized (this) {
+                    entry.bytes = bytes;
+                    if (entry.refs == 0 && entries.get(key) == entry) {
+                        idleBytes += bytes;
+                        evictIdle();
+                    }
+                }
+                entry.future.complete(result);
+            } catch (Exception e) {
+                log.warn("Indicator computation failed for {}: {}", key, e.getMessage());
+                synchronized (this) {
+                    // Forget the failure so the next acquire retries
+                    if (entries.get(key) == entry) {
+                        entries.remove(key);
+                        if (idle.remove(key) != null) idleBytes -= entry.bytes;
+                    }
+                }
+                entry.future.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Drop a reference taken by {@link #acquire(Key, Supplier)}. Releasing twice, or after
+     * the entry was dropped (failed, or abandoned while computing), does nothing.
+     */
+    public synchronized void release(Handle<?> handle) {
+        if (handle.released) return;
+        handle.released = true;
+        Key key = handle.key;
+        Entry entry = handle.entry;
+        if (entries.get(key) != entry || entry.refs == 0) return;
+        if (--entry.refs > 0) return;
+
+        if (!entry.future.isDone()) {
+            // Nobody waits for it any more; don't keep a half-finished result alive
+            entries.remove(key);
+            return;
+        }
+        entry.releasedAt = System.currentTimeMillis();
+        idle.put(key, entry);
+        idleBytes += entry.bytes;
+        evictIdle();
+    }
+
+    private void evictIdle() {
+        Iterator<Map.Entry<Key, Entry>> it = idle.entrySet().iterator();
+        while (idleBytes > idleBudgetBytes && it.hasNext()) {
+            Map.Entry<Key, Entry> oldest = it.next();
+            it.remove();
+            entries.remove(oldest.getKey());
+            idleBytes -= oldest.getValue().bytes;
+        }
+    }
+
+    /**
+     * Unreferenced cached results, oldest release first.
+     */
+    public synchronized List<IdleResult> idleResults() {
+        List<IdleResult> result = new ArrayList<>(idle.size());
+        for (Map.Entry<Key, Entry> e : idle.entrySet()) {
+            result.add(new IdleResult(e.getKey(), e.getValue().bytes, e.getValue().releasedAt));
+        }
+        return result;
+    }
+
+    /**
+     * Drop a cached result if nobody has taken a reference to it since it became idle.
+     */
+    public synchronized void evictIdle(Key key) {
+        Entry entry = idle.remove(key);
+        if (entry != null) {
+            entries.remove(key);
+            idleBytes -= entry.bytes;
+        }
+    }
+
+    // ===== Statistics =====
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Estimated bytes held by all cached results, referenced or not.
+     */
+    public synchronized long estimateMemoryBytes() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            total += entry.bytes;
+        }
+        return total;
+    }
+
+    // ===== Size estimation =====
+
+    static long estimateBytes(Object result) {
+        return estimateBytes(result, 0);
+    }
+
+    private static long estimateBytes(Object value, int depth) {
+        if (value == null) return 0;
+        if (value instanceof double[] a) return a.length * 8L;
+        if (value instanceof long[] a) return a.length * 8L;
+        if (value instanceof int[] a) return a.length * 4L;
+        if (value instanceof float[] a) return a.length * 4L;
+        if (value instanceof boolean[] a) return a.length;
+        if (value instanceof Number || value instanceof Boolean || value instanceof String) return 16;
+        if (depth < 3 && value instanceof Collection<?> c) {
+            long total = 16;
+            for (Object item : c) {
+                total += estimateBytes(item, depth + 1);
+            }
+            return total;
+        }
+        if (depth < 3 && value instanceof Object[] a) {
+            long total = 16;
+            for (Object item : a) {
+                total += estimateBytes(item, depth + 1);
+            }
+            return total;
+        }
+        if (depth < 3 && value.getClass().isRecord()) {
+            long total = 16;
+            try {
+                for (RecordComponent component : value.getClass().getRecordComponents()) {
+                    total += estimateBytes(component.getAccessor().invoke(value), depth + 1);
+                }
+                return total;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return UNKNOWN_RESULT_BYTES;
+            }
+        }
+        return UNKNOWN_RESULT_BYTES;
+    }
+}
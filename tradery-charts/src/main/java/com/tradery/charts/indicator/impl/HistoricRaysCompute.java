@@ -2,8 +2,8 @@ package com.tradery.charts.indicator.impl;
 
 import com.tradery.charts.indicator.IndicatorCompute;
 import com.tradery.core.indicators.IndicatorEngine;
-import com.tradery.core.indicators.RotatingRays;
 import com.tradery.core.indicators.RotatingRays.RaySet;
+import com.tradery.core.indicators.RotatingRays.RayTracker;
 import com.tradery.core.model.Candle;
 
 import java.util.ArrayList;
@@ -37,10 +37,12 @@ public class HistoricRaysCompute extends IndicatorCompute<HistoricRaysCompute.Re
         int startBar = Math.max(20, interval);
         int lastBar = candles.size() - 1;
 
+        // Trackers only ever move forward, so the whole pass is near-linear
+        RayTracker resistanceTracker = new RayTracker(candles, 0, skip, true);
+        RayTracker supportTracker = new RayTracker(candles, 0, skip, false);
         for (int barIndex = startBar; barIndex < lastBar; barIndex += Math.max(1, interval)) {
-            List<Candle> candlesUpToBar = candles.subList(0, barIndex + 1);
-            RaySet resistance = RotatingRays.calculateResistanceRays(candlesUpToBar, 0, skip);
-            RaySet support = RotatingRays.calculateSupportRays(candlesUpToBar, 0, skip);
+            RaySet resistance = resistanceTracker.at(barIndex);
+            RaySet support = supportTracker.at(barIndex);
             entries.add(new Entry(barIndex, resistance, support));
         }
 
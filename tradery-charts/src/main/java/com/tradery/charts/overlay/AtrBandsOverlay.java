@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.AtrBandsCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -58,25 +55,12 @@ public class AtrBandsOverlay implements ChartOverlay {
 
     private void renderBands(XYPlot plot, int datasetIndex, List<Candle> candles,
                               AtrBandsCompute.Result result) {
-        TimeSeries upperSeries = new TimeSeries("ATR Upper");
-        TimeSeries lowerSeries = new TimeSeries("ATR Lower");
-
-        for (int i = result.warmup(); i < candles.size() && i < result.upper().length; i++) {
-            if (!Double.isNaN(result.upper()[i])) {
-                Candle c = candles.get(i);
-                Millisecond time = new Millisecond(new Date(c.timestamp()));
-                upperSeries.addOrUpdate(time, result.upper()[i]);
-                lowerSeries.addOrUpdate(time, result.lower()[i]);
-            }
-        }
+        ArrayXYDataset upperDataset = ArrayXYDataset.of("ATR Upper", candles, result.upper(), result.warmup());
+        ArrayXYDataset lowerDataset = ArrayXYDataset.of("ATR Lower", candles, result.lower(), result.warmup());
 
-        TimeSeriesCollection upperDataset = new TimeSeriesCollection();
-        upperDataset.addSeries(upperSeries);
         plot.setDataset(datasetIndex, upperDataset);
         plot.setRenderer(datasetIndex, RendererBuilder.lineRenderer(UPPER_BAND_COLOR, ChartStyles.DASHED_STROKE));
 
-        TimeSeriesCollection lowerDataset = new TimeSeriesCollection();
-        lowerDataset.addSeries(lowerSeries);
         plot.setDataset(datasetIndex + 1, lowerDataset);
         plot.setRenderer(datasetIndex + 1, RendererBuilder.lineRenderer(LOWER_BAND_COLOR, ChartStyles.DASHED_STROKE));
     }
@@ -4,14 +4,12 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.BollingerCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
-import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.indicators.Indicators;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
 import java.util.List;
@@ -60,14 +58,10 @@ public class BollingerOverlay implements ChartOverlay {
     private void renderBands(XYPlot plot, int datasetIndex, List<Candle> candles,
                               double[] upper, double[] middle, double[] lower) {
         int startIdx = period - 1;
-        TimeSeries upperSeries = TimeSeriesBuilder.createTimeSeries("Upper", candles, upper, startIdx);
-        TimeSeries middleSeries = TimeSeriesBuilder.createTimeSeries("Middle", candles, middle, startIdx);
-        TimeSeries lowerSeries = TimeSeriesBuilder.createTimeSeries("Lower", candles, lower, startIdx);
-
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
-        dataset.addSeries(upperSeries);
-        dataset.addSeries(middleSeries);
-        dataset.addSeries(lowerSeries);
+        ArrayXYDataset dataset = new ArrayXYDataset()
+            .add("Upper", candles, upper, startIdx)
+            .add("Middle", candles, middle, startIdx)
+            .add("Lower", candles, lower, startIdx);
 
         XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
         renderer.setSeriesPaint(0, bandColor);
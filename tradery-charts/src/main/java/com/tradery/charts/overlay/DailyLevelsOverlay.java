@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.DailyLevelsCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -88,18 +85,12 @@ public class DailyLevelsOverlay implements ChartOverlay {
                                 double[] values, Color color, java.awt.Stroke stroke) {
         if (values == null) return index;
 
-        TimeSeries series = new TimeSeries(name);
-        for (int i = 0; i < candles.size() && i < values.length; i++) {
-            double v = values[i];
-            if (!Double.isNaN(v) && v > 0) {
-                Candle c = candles.get(i);
-                series.addOrUpdate(new Millisecond(new Date(c.timestamp())), v);
-            }
-        }
+        // Missing levels (0 before the first session completes) are gaps
+        int end = Math.min(candles.size(), values.length);
+        ArrayXYDataset dataset = new ArrayXYDataset()
+            .add(name, candles, i -> i < end && values[i] > 0 ? values[i] : Double.NaN, 0);
 
-        if (series.getItemCount() > 0) {
-            TimeSeriesCollection dataset = new TimeSeriesCollection();
-            dataset.addSeries(series);
+        if (dataset.getItemCount(0) > 0) {
             plot.setDataset(index, dataset);
             plot.setRenderer(index, RendererBuilder.lineRenderer(color, stroke));
             return index + 1;
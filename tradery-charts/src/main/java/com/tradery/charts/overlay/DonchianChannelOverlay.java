@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.DonchianCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -63,35 +60,19 @@ public class DonchianChannelOverlay implements ChartOverlay {
 
     private void renderChannel(XYPlot plot, int datasetIndex, List<Candle> candles,
                                 double[] highOf, double[] lowOf) {
-        TimeSeries upperSeries = new TimeSeries("DC Upper");
-        TimeSeries middleSeries = new TimeSeries("DC Middle");
-        TimeSeries lowerSeries = new TimeSeries("DC Lower");
-
-        for (int i = period; i < candles.size() && i < highOf.length && i < lowOf.length; i++) {
-            Candle c = candles.get(i);
-            double high = highOf[i];
-            double low = lowOf[i];
-            if (!Double.isNaN(high) && !Double.isNaN(low)) {
-                Millisecond time = new Millisecond(new Date(c.timestamp()));
-                upperSeries.addOrUpdate(time, high);
-                lowerSeries.addOrUpdate(time, low);
-                if (showMiddle) {
-                    middleSeries.addOrUpdate(time, (high + low) / 2);
-                }
-            }
-        }
-
-        plot.setDataset(datasetIndex, new TimeSeriesCollection(upperSeries));
+        plot.setDataset(datasetIndex, ArrayXYDataset.of("DC Upper", candles, highOf, period));
         plot.setRenderer(datasetIndex, RendererBuilder.lineRenderer(UPPER_COLOR, ChartStyles.MEDIUM_STROKE));
 
         int currentIndex = datasetIndex + 1;
         if (showMiddle) {
-            plot.setDataset(currentIndex, new TimeSeriesCollection(middleSeries));
+            int end = Math.min(highOf.length, lowOf.length);
+            plot.setDataset(currentIndex, new ArrayXYDataset()
+                .add("DC Middle", candles, i -> i < end ? (highOf[i] + lowOf[i]) / 2 : Double.NaN, period));
             plot.setRenderer(currentIndex, RendererBuilder.lineRenderer(MIDDLE_COLOR, ChartStyles.DASHED_STROKE));
             currentIndex++;
         }
 
-        plot.setDataset(currentIndex, new TimeSeriesCollection(lowerSeries));
+        plot.setDataset(currentIndex, ArrayXYDataset.of("DC Lower", candles, lowOf, period));
         plot.setRenderer(currentIndex, RendererBuilder.lineRenderer(LOWER_COLOR, ChartStyles.MEDIUM_STROKE));
     }
 
@@ -4,12 +4,12 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.EmaCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
 import java.util.List;
@@ -46,7 +46,7 @@ public class EmaOverlay implements ChartOverlay {
             if (ema == null || ema.length == 0) return;
             List<Candle> candles = provider.getCandles();
             if (candles == null || candles.isEmpty()) return;
-            TimeSeriesCollection dataset = TimeSeriesBuilder.build(
+            ArrayXYDataset dataset = TimeSeriesBuilder.build(
                     getDisplayName(), candles, ema, period - 1);
             plot.setDataset(datasetIndex, dataset);
             plot.setRenderer(datasetIndex, RendererBuilder.lineRenderer(color));
@@ -4,13 +4,11 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.DonchianCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
-import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
 import java.util.List;
@@ -56,12 +54,9 @@ public class HighLowOverlay implements ChartOverlay {
     private void renderHighLow(XYPlot plot, int datasetIndex, List<Candle> candles,
                                 double[] high, double[] low) {
         int startIdx = period - 1;
-        TimeSeries highSeries = TimeSeriesBuilder.createTimeSeries("High(" + period + ")", candles, high, startIdx);
-        TimeSeries lowSeries = TimeSeriesBuilder.createTimeSeries("Low(" + period + ")", candles, low, startIdx);
-
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
-        dataset.addSeries(highSeries);
-        dataset.addSeries(lowSeries);
+        ArrayXYDataset dataset = new ArrayXYDataset()
+            .add("High(" + period + ")", candles, high, startIdx)
+            .add("Low(" + period + ")", candles, low, startIdx);
 
         XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
         renderer.setSeriesPaint(0, HIGH_COLOR);
@@ -4,13 +4,12 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.IchimokuCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
-import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.indicators.Indicators;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
 import java.util.List;
@@ -70,7 +69,7 @@ public class IchimokuOverlay implements ChartOverlay {
     private void renderIchimoku(XYPlot plot, int datasetIndex, List<Candle> candles,
                                  Indicators.IchimokuResult ichi) {
         int warmup = Math.max(Math.max(conversionPeriod, basePeriod), spanBPeriod) - 1;
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
+        ArrayXYDataset dataset = new ArrayXYDataset();
 
         double[][] arrays = { ichi.tenkanSen(), ichi.kijunSen(), ichi.senkouSpanA(), ichi.senkouSpanB(), ichi.chikouSpan() };
         String[] names = { "Tenkan", "Kijun", "Senkou A", "Senkou B", "Chikou" };
@@ -82,7 +81,7 @@ public class IchimokuOverlay implements ChartOverlay {
         for (int s = 0; s < arrays.length; s++) {
             if (arrays[s] != null) {
                 int startIdx = s == 4 ? 0 : warmup; // chikou starts at 0
-                dataset.addSeries(TimeSeriesBuilder.createTimeSeries(names[s], candles, arrays[s], startIdx));
+                dataset.add(names[s], candles, arrays[s], startIdx);
                 renderer.setSeriesPaint(seriesIdx, colors[s]);
                 renderer.setSeriesStroke(seriesIdx, s == 4 ? ChartStyles.DASHED_STROKE : ChartStyles.THIN_STROKE);
                 seriesIdx++;
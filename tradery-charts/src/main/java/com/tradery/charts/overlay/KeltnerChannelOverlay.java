@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.KeltnerCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -61,32 +58,15 @@ public class KeltnerChannelOverlay implements ChartOverlay {
 
     private void renderChannel(XYPlot plot, int datasetIndex, List<Candle> candles,
                                 KeltnerCompute.Result result) {
-        TimeSeries upperSeries = new TimeSeries("KC Upper");
-        TimeSeries middleSeries = new TimeSeries("KC Middle");
-        TimeSeries lowerSeries = new TimeSeries("KC Lower");
-
-        for (int i = result.warmup(); i < candles.size() && i < result.upper().length; i++) {
-            Candle c = candles.get(i);
-            if (!Double.isNaN(result.upper()[i])) {
-                Millisecond time = new Millisecond(new Date(c.timestamp()));
-                upperSeries.addOrUpdate(time, result.upper()[i]);
-                middleSeries.addOrUpdate(time, result.middle()[i]);
-                lowerSeries.addOrUpdate(time, result.lower()[i]);
-            }
-        }
-
-        TimeSeriesCollection upperDataset = new TimeSeriesCollection();
-        upperDataset.addSeries(upperSeries);
+        ArrayXYDataset upperDataset = ArrayXYDataset.of("KC Upper", candles, result.upper(), result.warmup());
         plot.setDataset(datasetIndex, upperDataset);
         plot.setRenderer(datasetIndex, RendererBuilder.lineRenderer(UPPER_COLOR, ChartStyles.THIN_STROKE));
 
-        TimeSeriesCollection middleDataset = new TimeSeriesCollection();
-        middleDataset.addSeries(middleSeries);
+        ArrayXYDataset middleDataset = ArrayXYDataset.of("KC Middle", candles, result.middle(), result.warmup());
         plot.setDataset(datasetIndex + 1, middleDataset);
         plot.setRenderer(datasetIndex + 1, RendererBuilder.lineRenderer(MIDDLE_COLOR, ChartStyles.MEDIUM_STROKE));
 
-        TimeSeriesCollection lowerDataset = new TimeSeriesCollection();
-        lowerDataset.addSeries(lowerSeries);
+        ArrayXYDataset lowerDataset = ArrayXYDataset.of("KC Lower", candles, result.lower(), result.warmup());
         plot.setDataset(datasetIndex + 2, lowerDataset);
         plot.setRenderer(datasetIndex + 2, RendererBuilder.lineRenderer(LOWER_COLOR, ChartStyles.THIN_STROKE));
     }
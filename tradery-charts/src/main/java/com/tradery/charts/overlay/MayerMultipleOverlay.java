@@ -4,17 +4,14 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.SmaCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.annotations.XYTextAnnotation;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -60,16 +57,7 @@ public class MayerMultipleOverlay implements ChartOverlay {
     }
 
     private void renderMayer(XYPlot plot, int datasetIndex, List<Candle> candles, double[] sma) {
-        TimeSeries smaSeries = new TimeSeries("SMA(" + period + ")");
-        for (int i = period - 1; i < candles.size() && i < sma.length; i++) {
-            Candle c = candles.get(i);
-            if (!Double.isNaN(sma[i])) {
-                smaSeries.addOrUpdate(new Millisecond(new Date(c.timestamp())), sma[i]);
-            }
-        }
-
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
-        dataset.addSeries(smaSeries);
+        ArrayXYDataset dataset = ArrayXYDataset.of("SMA(" + period + ")", candles, sma, period - 1);
 
         int lastIdx = candles.size() - 1;
         double currentMM = 0;
@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.PivotPointsCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -79,12 +76,8 @@ public class PivotPointsOverlay implements ChartOverlay {
 
     private int addHorizontalLine(XYPlot plot, int index, String name, double value,
                                    long startTime, long endTime, Color color, java.awt.Stroke stroke) {
-        TimeSeries series = new TimeSeries(name);
-        series.addOrUpdate(new Millisecond(new Date(startTime)), value);
-        series.addOrUpdate(new Millisecond(new Date(endTime)), value);
-
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
-        dataset.addSeries(series);
+        ArrayXYDataset dataset = new ArrayXYDataset()
+            .add(name, new long[] { startTime, endTime }, new double[] { value, value }, 0);
         plot.setDataset(index, dataset);
         plot.setRenderer(index, RendererBuilder.lineRenderer(color, stroke));
 
@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.PocCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -67,18 +64,8 @@ public class PocOverlay implements ChartOverlay {
 
     private void renderPoc(XYPlot plot, int datasetIndex, List<Candle> candles,
                             PocCompute.Result result) {
-        // Build POC time series
-        TimeSeries pocSeries = new TimeSeries("POC(" + period + ")");
-        for (int i = result.warmup() - 1; i < candles.size() && i < result.poc().length; i++) {
-            double poc = result.poc()[i];
-            if (!Double.isNaN(poc)) {
-                Candle c = candles.get(i);
-                pocSeries.addOrUpdate(new Millisecond(new Date(c.timestamp())), poc);
-            }
-        }
-
-        TimeSeriesCollection pocDataset = new TimeSeriesCollection();
-        pocDataset.addSeries(pocSeries);
+        // Build POC series
+        ArrayXYDataset pocDataset = ArrayXYDataset.of("POC(" + period + ")", candles, result.poc(), result.warmup() - 1);
 
         // Add POC line
         plot.setDataset(datasetIndex, pocDataset);
@@ -87,30 +74,12 @@ public class PocOverlay implements ChartOverlay {
         // Add VAH/VAL if enabled
         if (showValueArea && result.vah() != null && result.val() != null) {
             // VAH
-            TimeSeries vahSeries = new TimeSeries("VAH");
-            for (int i = result.warmup() - 1; i < candles.size() && i < result.vah().length; i++) {
-                double vah = result.vah()[i];
-                if (!Double.isNaN(vah)) {
-                    Candle c = candles.get(i);
-                    vahSeries.addOrUpdate(new Millisecond(new Date(c.timestamp())), vah);
-                }
-            }
-            TimeSeriesCollection vahDataset = new TimeSeriesCollection();
-            vahDataset.addSeries(vahSeries);
+            ArrayXYDataset vahDataset = ArrayXYDataset.of("VAH", candles, result.vah(), result.warmup() - 1);
             plot.setDataset(datasetIndex + 1, vahDataset);
             plot.setRenderer(datasetIndex + 1, RendererBuilder.lineRenderer(VAH_COLOR, ChartStyles.DASHED_STROKE));
 
             // VAL
-            TimeSeries valSeries = new TimeSeries("VAL");
-            for (int i = result.warmup() - 1; i < candles.size() && i < result.val().length; i++) {
-                double val = result.val()[i];
-                if (!Double.isNaN(val)) {
-                    Candle c = candles.get(i);
-                    valSeries.addOrUpdate(new Millisecond(new Date(c.timestamp())), val);
-                }
-            }
-            TimeSeriesCollection valDataset = new TimeSeriesCollection();
-            valDataset.addSeries(valSeries);
+            ArrayXYDataset valDataset = ArrayXYDataset.of("VAL", candles, result.val(), result.warmup() - 1);
             plot.setDataset(datasetIndex + 2, valDataset);
             plot.setRenderer(datasetIndex + 2, RendererBuilder.lineRenderer(VAL_COLOR, ChartStyles.DASHED_STROKE));
         }
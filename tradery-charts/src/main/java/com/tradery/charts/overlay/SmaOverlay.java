@@ -4,12 +4,12 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.SmaCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
 import java.util.List;
@@ -46,7 +46,7 @@ public class SmaOverlay implements ChartOverlay {
             if (sma == null || sma.length == 0) return;
             List<Candle> candles = provider.getCandles();
             if (candles == null || candles.isEmpty()) return;
-            TimeSeriesCollection dataset = TimeSeriesBuilder.build(
+            ArrayXYDataset dataset = TimeSeriesBuilder.build(
                     getDisplayName(), candles, sma, period - 1);
             plot.setDataset(datasetIndex, dataset);
             plot.setRenderer(datasetIndex, RendererBuilder.lineRenderer(color));
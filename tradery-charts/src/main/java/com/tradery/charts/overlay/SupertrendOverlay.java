@@ -4,17 +4,14 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.SupertrendCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.core.indicators.Supertrend;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -63,23 +60,12 @@ public class SupertrendOverlay implements ChartOverlay {
         double[] lower = result.lowerBand();
         double[] trend = result.trend();
 
-        TimeSeries uptrendSeries = new TimeSeries("Supertrend Up");
-        TimeSeries downtrendSeries = new TimeSeries("Supertrend Down");
-
+        // Each side is NaN (a gap) while the other trend is active
         int warmup = period;
-        for (int i = warmup; i < candles.size() && i < trend.length; i++) {
-            Candle c = candles.get(i);
-            Millisecond time = new Millisecond(new Date(c.timestamp()));
-            if (trend[i] == 1) {
-                if (!Double.isNaN(lower[i])) uptrendSeries.addOrUpdate(time, lower[i]);
-            } else if (trend[i] == -1) {
-                if (!Double.isNaN(upper[i])) downtrendSeries.addOrUpdate(time, upper[i]);
-            }
-        }
-
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
-        dataset.addSeries(uptrendSeries);
-        dataset.addSeries(downtrendSeries);
+        int end = Math.min(candles.size(), trend.length);
+        ArrayXYDataset dataset = new ArrayXYDataset()
+            .add("Supertrend Up", candles, i -> i < end && trend[i] == 1 ? lower[i] : Double.NaN, warmup)
+            .add("Supertrend Down", candles, i -> i < end && trend[i] == -1 ? upper[i] : Double.NaN, warmup);
 
         XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
         renderer.setSeriesPaint(0, UPTREND_COLOR);
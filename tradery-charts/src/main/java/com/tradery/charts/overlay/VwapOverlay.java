@@ -4,12 +4,12 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.VwapCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
 import java.util.List;
@@ -52,7 +52,7 @@ public class VwapOverlay implements ChartOverlay {
             if (candles == null || candles.isEmpty()) return;
 
             // Build time series (VWAP is valid from bar 0)
-            TimeSeriesCollection dataset = TimeSeriesBuilder.build(
+            ArrayXYDataset dataset = TimeSeriesBuilder.build(
                 getDisplayName(), candles, vwap, 0);
 
             // Add to plot with dashed stroke for distinction
@@ -4,14 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.AdxCompute;
-import com.tradery.core.indicators.Indicators;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartAnnotationHelper;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
-import com.tradery.charts.util.TimeSeriesBuilder;
+import com.tradery.core.indicators.Indicators;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.util.List;
 
@@ -42,13 +41,10 @@ public class AdxRenderer implements IndicatorChartRenderer {
             double[] plusDI = adxResult.plusDI();
             double[] minusDI = adxResult.minusDI();
 
-            TimeSeriesCollection dataset = new TimeSeriesCollection();
-            dataset.addSeries(TimeSeriesBuilder.createTimeSeries(
-                "ADX(" + period + ")", candles, adxValues, period));
-            dataset.addSeries(TimeSeriesBuilder.createTimeSeries(
-                "+DI(" + period + ")", candles, plusDI, period));
-            dataset.addSeries(TimeSeriesBuilder.createTimeSeries(
-                "-DI(" + period + ")", candles, minusDI, period));
+            ArrayXYDataset dataset = new ArrayXYDataset()
+                .add("ADX(" + period + ")", candles, adxValues, period)
+                .add("+DI(" + period + ")", candles, plusDI, period)
+                .add("-DI(" + period + ")", candles, minusDI, period);
 
             plot.setDataset(0, dataset);
             plot.setRenderer(0, RendererBuilder.lineRenderer(
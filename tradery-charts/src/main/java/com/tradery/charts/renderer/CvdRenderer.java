@@ -4,12 +4,12 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.CumulativeDeltaCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
 import java.util.List;
@@ -36,7 +36,7 @@ public class CvdRenderer implements IndicatorChartRenderer {
 
             List<Candle> candles = provider.getCandles();
 
-            TimeSeriesCollection dataset = TimeSeriesBuilder.build("CVD", candles, cvd, 0);
+            ArrayXYDataset dataset = TimeSeriesBuilder.build("CVD", candles, cvd, 0);
 
             plot.setDataset(0, dataset);
             plot.setRenderer(0, RendererBuilder.lineRenderer(CVD_LINE_COLOR, ChartStyles.MEDIUM_STROKE));
@@ -4,17 +4,14 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.OhlcvDeltaCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
 import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -67,26 +64,10 @@ public class DeltaRenderer implements IndicatorChartRenderer {
     }
 
     private void renderDelta(XYPlot plot, List<Candle> candles, double[] delta) {
-        TimeSeries positiveSeries = new TimeSeries("Delta+");
-        TimeSeries negativeSeries = new TimeSeries("Delta-");
-
-        for (int i = 0; i < candles.size() && i < delta.length; i++) {
-            if (Double.isNaN(delta[i])) continue;
-            Candle c = candles.get(i);
-            Millisecond time = new Millisecond(new Date(c.timestamp()));
-
-            if (delta[i] >= 0) {
-                positiveSeries.addOrUpdate(time, delta[i]);
-                negativeSeries.addOrUpdate(time, 0.0);
-            } else {
-                positiveSeries.addOrUpdate(time, 0.0);
-                negativeSeries.addOrUpdate(time, delta[i]);
-            }
-        }
-
-        TimeSeriesCollection deltaDataset = new TimeSeriesCollection();
-        deltaDataset.addSeries(positiveSeries);
-        deltaDataset.addSeries(negativeSeries);
+        int end = Math.min(candles.size(), delta.length);
+        ArrayXYDataset deltaDataset = new ArrayXYDataset()
+            .add("Delta+", candles, i -> i < end ? (delta[i] < 0 ? 0.0 : delta[i]) : Double.NaN, 0)
+            .add("Delta-", candles, i -> i < end ? (delta[i] >= 0 ? 0.0 : delta[i]) : Double.NaN, 0);
 
         XYBarRenderer barRenderer = new XYBarRenderer();
         barRenderer.setSeriesPaint(0, ChartStyles.DELTA_POSITIVE);
@@ -99,7 +80,7 @@ public class DeltaRenderer implements IndicatorChartRenderer {
     }
 
     private void renderCvdLine(XYPlot plot, List<Candle> candles, double[] cvd) {
-        TimeSeriesCollection cvdDataset = TimeSeriesBuilder.build("CVD", candles, cvd, 0);
+        ArrayXYDataset cvdDataset = TimeSeriesBuilder.build("CVD", candles, cvd, 0);
 
         XYLineAndShapeRenderer lineRenderer = new XYLineAndShapeRenderer(true, false);
         lineRenderer.setSeriesPaint(0, ChartStyles.CVD_COLOR);
@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.FundingCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -40,28 +37,11 @@ public class FundingRenderer implements IndicatorChartRenderer {
 
             List<Candle> candles = provider.getCandles();
 
-            TimeSeries positiveSeries = new TimeSeries("Funding+");
-            TimeSeries negativeSeries = new TimeSeries("Funding-");
-
-            for (int i = 0; i < candles.size() && i < funding.length; i++) {
-                if (Double.isNaN(funding[i])) continue;
-                Candle c = candles.get(i);
-                Millisecond time = new Millisecond(new Date(c.timestamp()));
-
-                double value = funding[i] * 100;
-
-                if (value >= 0) {
-                    positiveSeries.addOrUpdate(time, value);
-                    negativeSeries.addOrUpdate(time, 0.0);
-                } else {
-                    positiveSeries.addOrUpdate(time, 0.0);
-                    negativeSeries.addOrUpdate(time, value);
-                }
-            }
-
-            TimeSeriesCollection dataset = new TimeSeriesCollection();
-            dataset.addSeries(positiveSeries);
-            dataset.addSeries(negativeSeries);
+            // Funding rate in percent, split into positive and negative bars
+            int end = Math.min(candles.size(), funding.length);
+            ArrayXYDataset dataset = new ArrayXYDataset()
+                .add("Funding+", candles, i -> i < end ? (funding[i] < 0 ? 0.0 : funding[i] * 100) : Double.NaN, 0)
+                .add("Funding-", candles, i -> i < end ? (funding[i] >= 0 ? 0.0 : funding[i] * 100) : Double.NaN, 0);
 
             XYBarRenderer renderer = new XYBarRenderer();
             renderer.setSeriesPaint(0, POSITIVE_FUNDING);
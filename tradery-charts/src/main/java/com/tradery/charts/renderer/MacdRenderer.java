@@ -4,16 +4,14 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.MacdCompute;
-import com.tradery.core.indicators.Indicators;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartAnnotationHelper;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.charts.util.TimeSeriesBuilder;
+import com.tradery.core.indicators.Indicators;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
-import org.jfree.data.xy.XYSeriesCollection;
 
 import java.util.List;
 
@@ -45,19 +43,16 @@ public class MacdRenderer implements IndicatorChartRenderer {
             List<Candle> candles = provider.getCandles();
             int startIdx = slowPeriod - 1;
 
-            TimeSeries macdSeries = TimeSeriesBuilder.createTimeSeries("MACD", candles, macd.line(), startIdx);
-            TimeSeries signalSeries = TimeSeriesBuilder.createTimeSeries("Signal", candles, macd.signal(), startIdx);
-
-            TimeSeriesCollection lineDataset = new TimeSeriesCollection();
-            lineDataset.addSeries(macdSeries);
-            lineDataset.addSeries(signalSeries);
+            ArrayXYDataset lineDataset = new ArrayXYDataset()
+                .add("MACD", candles, macd.line(), startIdx)
+                .add("Signal", candles, macd.signal(), startIdx);
 
             plot.setDataset(0, lineDataset);
             plot.setRenderer(0, RendererBuilder.lineRenderer(
                 ChartStyles.MACD_LINE_COLOR, ChartStyles.MEDIUM_STROKE,
                 ChartStyles.MACD_SIGNAL_COLOR, ChartStyles.MEDIUM_STROKE));
 
-            XYSeriesCollection histDataset = TimeSeriesBuilder.buildXY("Histogram", candles, macd.histogram(), startIdx);
+            ArrayXYDataset histDataset = TimeSeriesBuilder.build("Histogram", candles, macd.histogram(), startIdx);
 
             plot.setDataset(1, histDataset);
             plot.setRenderer(1, RendererBuilder.colorCodedBarRenderer(
@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.PremiumCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -38,16 +35,7 @@ public class PremiumRenderer implements IndicatorChartRenderer {
 
             List<Candle> candles = provider.getCandles();
 
-            TimeSeries series = new TimeSeries("Premium");
-            for (int i = 0; i < candles.size() && i < premium.length; i++) {
-                Candle c = candles.get(i);
-                if (!Double.isNaN(premium[i])) {
-                    series.addOrUpdate(new Millisecond(new Date(c.timestamp())), premium[i]);
-                }
-            }
-
-            TimeSeriesCollection dataset = new TimeSeriesCollection();
-            dataset.addSeries(series);
+            ArrayXYDataset dataset = ArrayXYDataset.of("Premium", candles, premium, 0);
 
             plot.setDataset(0, dataset);
             plot.setRenderer(0, RendererBuilder.lineRenderer(LINE_COLOR, ChartStyles.MEDIUM_STROKE));
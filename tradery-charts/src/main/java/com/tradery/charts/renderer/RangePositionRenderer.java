@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.RangePositionCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -44,17 +41,8 @@ public class RangePositionRenderer implements IndicatorChartRenderer {
 
             List<Candle> candles = provider.getCandles();
 
-            TimeSeries series = new TimeSeries("Range Position");
             int warmup = period + skip;
-            for (int i = warmup; i < candles.size() && i < rangePos.length; i++) {
-                Candle c = candles.get(i);
-                if (!Double.isNaN(rangePos[i])) {
-                    series.addOrUpdate(new Millisecond(new Date(c.timestamp())), rangePos[i]);
-                }
-            }
-
-            TimeSeriesCollection dataset = new TimeSeriesCollection();
-            dataset.addSeries(series);
+            ArrayXYDataset dataset = ArrayXYDataset.of("Range Position", candles, rangePos, warmup);
 
             plot.setDataset(0, dataset);
             plot.setRenderer(0, RendererBuilder.lineRenderer(LINE_COLOR, ChartStyles.MEDIUM_STROKE));
@@ -4,17 +4,15 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.RetailDeltaCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
+import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.StandardXYBarPainter;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -43,26 +41,7 @@ public class RetailRenderer implements IndicatorChartRenderer {
 
             List<Candle> candles = provider.getCandles();
 
-            TimeSeries buySeries = new TimeSeries("Retail Buy");
-            TimeSeries sellSeries = new TimeSeries("Retail Sell");
-
-            for (int i = 0; i < candles.size() && i < retailDelta.length; i++) {
-                Candle c = candles.get(i);
-                double val = retailDelta[i];
-                if (!Double.isNaN(val)) {
-                    Millisecond time = new Millisecond(new Date(c.timestamp()));
-                    if (val >= 0) {
-                        buySeries.addOrUpdate(time, val);
-                        sellSeries.addOrUpdate(time, 0.0);
-                    } else {
-                        buySeries.addOrUpdate(time, 0.0);
-                        sellSeries.addOrUpdate(time, val);
-                    }
-                }
-            }
-
-            TimeSeriesCollection buyDataset = new TimeSeriesCollection();
-            buyDataset.addSeries(buySeries);
+            ArrayXYDataset buyDataset = TimeSeriesBuilder.buildPositive("Retail Buy", candles, retailDelta);
 
             XYBarRenderer buyRenderer = new XYBarRenderer(0.1);
             buyRenderer.setSeriesPaint(0, RETAIL_BUY_COLOR);
@@ -73,8 +52,7 @@ public class RetailRenderer implements IndicatorChartRenderer {
             plot.setDataset(0, buyDataset);
             plot.setRenderer(0, buyRenderer);
 
-            TimeSeriesCollection sellDataset = new TimeSeriesCollection();
-            sellDataset.addSeries(sellSeries);
+            ArrayXYDataset sellDataset = TimeSeriesBuilder.buildNegative("Retail Sell", candles, retailDelta);
 
             XYBarRenderer sellRenderer = new XYBarRenderer(0.1);
             sellRenderer.setSeriesPaint(0, RETAIL_SELL_COLOR);
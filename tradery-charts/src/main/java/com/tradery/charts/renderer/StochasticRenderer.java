@@ -4,14 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.StochasticCompute;
-import com.tradery.core.indicators.Indicators;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartAnnotationHelper;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
-import com.tradery.charts.util.TimeSeriesBuilder;
+import com.tradery.core.indicators.Indicators;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.util.List;
 
@@ -45,11 +44,9 @@ public class StochasticRenderer implements IndicatorChartRenderer {
 
             List<Candle> candles = provider.getCandles();
 
-            TimeSeriesCollection dataset = new TimeSeriesCollection();
-            dataset.addSeries(TimeSeriesBuilder.createTimeSeries(
-                "%K(" + kPeriod + ")", candles, kValues, kPeriod));
-            dataset.addSeries(TimeSeriesBuilder.createTimeSeries(
-                "%D(" + dPeriod + ")", candles, dValues, kPeriod + dPeriod - 1));
+            ArrayXYDataset dataset = new ArrayXYDataset()
+                .add("%K(" + kPeriod + ")", candles, kValues, kPeriod)
+                .add("%D(" + dPeriod + ")", candles, dValues, kPeriod + dPeriod - 1);
 
             plot.setDataset(0, dataset);
             plot.setRenderer(0, RendererBuilder.lineRenderer(
@@ -4,17 +4,14 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.TradeCountCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.StandardXYBarPainter;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -39,16 +36,7 @@ public class TradeCountRenderer implements IndicatorChartRenderer {
 
             List<Candle> candles = provider.getCandles();
 
-            TimeSeries series = new TimeSeries("Trade Count");
-            for (int i = 0; i < candles.size() && i < tradeCount.length; i++) {
-                Candle c = candles.get(i);
-                if (!Double.isNaN(tradeCount[i])) {
-                    series.addOrUpdate(new Millisecond(new Date(c.timestamp())), tradeCount[i]);
-                }
-            }
-
-            TimeSeriesCollection dataset = new TimeSeriesCollection();
-            dataset.addSeries(series);
+            ArrayXYDataset dataset = ArrayXYDataset.of("Trade Count", candles, tradeCount, 0);
 
             XYBarRenderer renderer = new XYBarRenderer(0.1);
             renderer.setSeriesPaint(0, TRADE_COUNT_COLOR);
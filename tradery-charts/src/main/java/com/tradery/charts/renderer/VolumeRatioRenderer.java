@@ -4,16 +4,13 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.VolumeRatioCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
 import com.tradery.charts.util.RendererBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -49,16 +46,7 @@ public class VolumeRatioRenderer implements IndicatorChartRenderer {
                 ratio[i] = total > 0 ? buyVol[i] / total : 0.5;
             }
 
-            TimeSeries ratioSeries = new TimeSeries("Volume Ratio");
-            for (int i = 0; i < candles.size() && i < ratio.length; i++) {
-                Candle c = candles.get(i);
-                if (!Double.isNaN(ratio[i])) {
-                    ratioSeries.addOrUpdate(new Millisecond(new Date(c.timestamp())), ratio[i]);
-                }
-            }
-
-            TimeSeriesCollection dataset = new TimeSeriesCollection();
-            dataset.addSeries(ratioSeries);
+            ArrayXYDataset dataset = ArrayXYDataset.of("Volume Ratio", candles, ratio, 0);
 
             plot.setDataset(0, dataset);
             plot.setRenderer(0, RendererBuilder.lineRenderer(RATIO_LINE_COLOR, ChartStyles.MEDIUM_STROKE));
@@ -4,17 +4,15 @@ import com.tradery.charts.core.ChartDataProvider;
 import com.tradery.charts.indicator.IndicatorPool;
 import com.tradery.charts.indicator.IndicatorSubscription;
 import com.tradery.charts.indicator.impl.WhaleDeltaCompute;
+import com.tradery.charts.util.ArrayXYDataset;
 import com.tradery.charts.util.ChartStyles;
+import com.tradery.charts.util.TimeSeriesBuilder;
 import com.tradery.core.model.Candle;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.StandardXYBarPainter;
 import org.jfree.chart.renderer.xy.XYBarRenderer;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import java.awt.*;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -43,26 +41,7 @@ public class WhaleRenderer implements IndicatorChartRenderer {
 
             List<Candle> candles = provider.getCandles();
 
-            TimeSeries buySeries = new TimeSeries("Whale Buy");
-            TimeSeries sellSeries = new TimeSeries("Whale Sell");
-
-            for (int i = 0; i < candles.size() && i < whaleDelta.length; i++) {
-                Candle c = candles.get(i);
-                double val = whaleDelta[i];
-                if (!Double.isNaN(val)) {
-                    Millisecond time = new Millisecond(new Date(c.timestamp()));
-                    if (val >= 0) {
-                        buySeries.addOrUpdate(time, val);
-                        sellSeries.addOrUpdate(time, 0.0);
-                    } else {
-                        buySeries.addOrUpdate(time, 0.0);
-                        sellSeries.addOrUpdate(time, val);
-                    }
-                }
-            }
-
-            TimeSeriesCollection buyDataset = new TimeSeriesCollection();
-            buyDataset.addSeries(buySeries);
+            ArrayXYDataset buyDataset = TimeSeriesBuilder.buildPositive("Whale Buy", candles, whaleDelta);
 
             XYBarRenderer buyRenderer = new XYBarRenderer(0.1);
             buyRenderer.setSeriesPaint(0, WHALE_BUY_COLOR);
@@ -73,8 +52,7 @@ public class WhaleRenderer implements IndicatorChartRenderer {
             plot.setDataset(0, buyDataset);
             plot.setRenderer(0, buyRenderer);
 
-            TimeSeriesCollection sellDataset = new TimeSeriesCollection();
-            sellDataset.addSeries(sellSeries);
+            ArrayXYDataset sellDataset = TimeSeriesBuilder.buildNegative("Whale Sell", candles, whaleDelta);
 
             XYBarRenderer sellRenderer = new XYBarRenderer(0.1);
             sellRenderer.setSeriesPaint(0, WHALE_SELL_COLOR);
@@ -0,0 +1,309 @@
+package com.tradery.charts.util;
+
+import com.tradery.core.model.Candle;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * XY dataset that reads directly from primitive indicator arrays and candle timestamps.
+ *
+ * Replaces TimeSeries/XYSeries for bar-indexed data: no per-point objects are created and
+ * no sorted insert is needed, since candle data is already in time order. Leading and
+ * trailing NaN values (indicator warmup) are trimmed; NaN values inside a series are
+ * returned as-is, which renderers draw as gaps.
+ *
+ * Intervals are zero-width at the x value, matching TimeSeriesCollection with
+ * millisecond periods (bar renderers draw them at minimum width).
+ *
+ * When zoomed out past two bars per pixel, each pixel column is reduced to its min and max
+ * bar (in time order), so spikes stay visible and lines keep their envelope.
+ */
+public final class ArrayXYDataset extends AbstractXYDataset
+        implements IntervalXYDataset, DecimatedDataset, XYDomainInfo, XYRangeInfo {
+
+    private static final class Series {
+        final Comparable<?> key;
+        final IntToLongFunction x;
+        final IntToDoubleFunction y;
+        final int start;
+        final int count;
+
+        MinMaxPyramid pyramid;
+        int[] view;         // offsets into the series, null = every item
+        int viewCount;
+        int[] buffer;
+
+        Series(Comparable<?> key, IntToLongFunction x, IntToDoubleFunction y, int start, int count) {
+            this.key = key;
+            this.x = x;
+            this.y = y;
+            this.start = start;
+            this.count = count;
+        }
+
+        long xAt(int offset) {
+            return x.applyAsLong(start + offset);
+        }
+
+        double yAt(int offset) {
+            return y.applyAsDouble(start + offset);
+        }
+
+        int offset(int item) {
+            return view != null ? view[item] : item;
+        }
+
+        MinMaxPyramid pyramid() {
+            if (pyramid == null) {
+                IntToDoubleFunction values = this::yAt;
+                pyramid = new MinMaxPyramid(count, values, values);
+            }
+            return pyramid;
+        }
+
+        /** First offset whose x is >= value. */
+        int lowerBound(double value) {
+            int lo = 0, hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (xAt(mid) < value) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    private final List<Series> series = new ArrayList<>(3);
+
+    private double viewLower = Double.NaN;
+    private double viewUpper = Double.NaN;
+    private int viewPixels;
+
+    /**
+     * Create a dataset with one series from candle timestamps and indicator values.
+     */
+    public static ArrayXYDataset of(String key, List<Candle> candles, double[] values, int startIdx) {
+        return new ArrayXYDataset().add(key, candles, values, startIdx);
+    }
+
+    /**
+     * Add a series backed by an indicator array (same indexing as candles).
+     */
+    public ArrayXYDataset add(String key, List<Candle> candles, double[] values, int startIdx) {
+        return add(key, i -> candles.get(i).timestamp(), i -> values[i],
+            startIdx, Math.min(candles.size(), values.length));
+    }
+
+    /**
+     * Add a series whose values are derived per bar (e.g., split positive/negative, channel midpoint).
+     */
+    public ArrayXYDataset add(String key, List<Candle> candles, IntToDoubleFunction values, int startIdx) {
+        return add(key, i -> candles.get(i).timestamp(), values, startIdx, candles.size());
+    }
+
+    /**
+     * Add a series backed by parallel timestamp and value arrays.
+     */
+    public ArrayXYDataset add(String key, long[] timestamps, double[] values, int startIdx) {
+        return add(key, i -> timestamps[i], i -> values[i],
+            startIdx, Math.min(timestamps.length, values.length));
+    }
+
+    private ArrayXYDataset add(String key, IntToLongFunction x, IntToDoubleFunction y, int startIdx, int endIdx) {
+        int start = Math.max(0, startIdx);
+        int end = endIdx;
+        while (start < end && Double.isNaN(y.applyAsDouble(start))) start++;
+        while (end > start && Double.isNaN(y.applyAsDouble(end - 1))) end--;
+        series.add(new Series(key, x, y, start, end - start));
+        viewPixels = 0;
+        fireDatasetChanged();
+        return this;
+    }
+
+    // ===== Level of detail =====
+
+    @Override
+    public void setViewport(double lower, double upper, int pixels) {
+        if (lower == viewLower && upper == viewUpper && pixels == viewPixels) return;
+        viewLower = lower;
+        viewUpper = upper;
+        viewPixels = pixels;
+        for (Series sr : series) {
+            decimate(sr, lower, upper, pixels);
+        }
+    }
+
+    private static void decimate(Series sr, double lower, double upper, int pixels) {
+        sr.view = null;
+        if (pixels <= 0 || sr.count <= 2 * pixels || !(upper > lower)) return;
+
+        int first = sr.lowerBound(lower);
+        int last = sr.lowerBound(Math.nextUp(upper));
+        if (last - first <= 2 * pixels) return;
+
+        if (sr.buffer == null || sr.buffer.length < 2 * pixels + 2) {
+            sr.buffer = new int[2 * pixels + 2];
+        }
+        int[] view = sr.buffer;
+        int n = 0;
+
+        // Keep the neighbours just outside the viewport so lines run to the edges
+        if (first > 0) view[n++] = first - 1;
+
+        MinMaxPyramid pyramid = sr.pyramid();
+        double columnWidth = (upper - lower) / pixels;
+        int from = first;
+        for (int col = 1; col <= pixels && from < last; col++) {
+            int to = col == pixels ? last : Math.max(from, sr.lowerBound(lower + col * columnWidth));
+            if (to == from) continue;
+
+            pyramid.query(from, to);
+            int min = pyramid.minIndex();
+            int max = pyramid.maxIndex();
+            if (min < 0) {
+                view[n++] = from;  // All NaN: keep one point so the gap is drawn
+            } else if (min == max) {
+                view[n++] = min;
+            } else {
+                view[n++] = Math.min(min, max);
+                view[n++] = Math.max(min, max);
+            }
+            from = to;
+        }
+
+        if (last < sr.count) view[n++] = last;
+
+        sr.view = view;
+        sr.viewCount = n;
+    }
+
+    @Override
+    public int getSourceIndex(int s, int item) {
+        Series sr = series.get(s);
+        return sr.start + sr.offset(item);
+    }
+
+    // ===== Bounds (always full resolution) =====
+
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        double min = Double.NaN, max = Double.NaN;
+        for (Series sr : series) {
+            if (sr.count == 0 || !visibleSeriesKeys.contains(sr.key)) continue;
+            double lo = sr.xAt(0), hi = sr.xAt(sr.count - 1);
+            min = Double.isNaN(min) ? lo : Math.min(min, lo);
+            max = Double.isNaN(max) ? hi : Math.max(max, hi);
+        }
+        return Double.isNaN(min) ? null : new Range(min, max);
+    }
+
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        double min = Double.NaN, max = Double.NaN;
+        for (Series sr : series) {
+            if (sr.count == 0 || !visibleSeriesKeys.contains(sr.key)) continue;
+            MinMaxPyramid pyramid = sr.pyramid();
+            pyramid.query(sr.lowerBound(xRange.getLowerBound()), sr.lowerBound(Math.nextUp(xRange.getUpperBound())));
+            if (pyramid.minIndex() < 0) continue;
+            double lo = sr.yAt(pyramid.minIndex()), hi = sr.yAt(pyramid.maxIndex());
+            min = Double.isNaN(min) ? lo : Math.min(min, lo);
+            max = Double.isNaN(max) ? hi : Math.max(max, hi);
+        }
+        return Double.isNaN(min) ? null : new Range(min, max);
+    }
+
+    // ===== XYDataset =====
+
+    @Override
+    public int getSeriesCount() {
+        return series.size();
+    }
+
+    @Override
+    public Comparable getSeriesKey(int s) {
+        return series.get(s).key;
+    }
+
+    @Override
+    public int getItemCount(int s) {
+        Series sr = series.get(s);
+        return sr.view != null ? sr.viewCount : sr.count;
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public double getXValue(int s, int item) {
+        Series sr = series.get(s);
+        return sr.xAt(sr.offset(item));
+    }
+
+    @Override
+    public double getYValue(int s, int item) {
+        Series sr = series.get(s);
+        return sr.yAt(sr.offset(item));
+    }
+
+    @Override
+    public Number getX(int s, int item) {
+        return getXValue(s, item);
+    }
+
+    @Override
+    public Number getY(int s, int item) {
+        return getYValue(s, item);
+    }
+
+    // ===== IntervalXYDataset (zero-width intervals) =====
+
+    @Override
+    public Number getStartX(int s, int item) {
+        return getXValue(s, item);
+    }
+
+    @Override
+    public double getStartXValue(int s, int item) {
+        return getXValue(s, item);
+    }
+
+    @Override
+    public Number getEndX(int s, int item) {
+        return getXValue(s, item);
+    }
+
+    @Override
+    public double getEndXValue(int s, int item) {
+        return getXValue(s, item);
+    }
+
+    @Override
+    public Number getStartY(int s, int item) {
+        return getYValue(s, item);
+    }
+
+    @Override
+    public double getStartYValue(int s, int item) {
+        return getYValue(s, item);
+    }
+
+    @Override
+    public Number getEndY(int s, int item) {
+        return getYValue(s, item);
+    }
+
+    @Override
+    public double getEndYValue(int s, int item) {
+        return getYValue(s, item);
+    }
+}
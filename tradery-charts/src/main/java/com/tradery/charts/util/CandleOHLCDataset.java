@@ -0,0 +1,254 @@
+package com.tradery.charts.util;
+
+import com.tradery.core.model.Candle;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.OHLCDataset;
+import org.jfree.data.xy.XYDomainInfo;
+import org.jfree.data.xy.XYRangeInfo;
+
+import java.util.List;
+
+/**
+ * OHLC dataset that reads directly from the candle list.
+ * Replaces DefaultHighLowDataset, which copies every candle into Date and double arrays.
+ *
+ * When more candles are visible than there are pixel columns, each column is aggregated
+ * into one candle (first open, max high, min low, last close, summed volume).
+ */
+public final class CandleOHLCDataset extends AbstractXYDataset
+        implements OHLCDataset, DecimatedDataset, XYDomainInfo, XYRangeInfo {
+
+    private final String key;
+    private final List<Candle> candles;
+
+    // Lazily built for zoomed-out views and bounds queries
+    private MinMaxPyramid pyramid;
+    private double[] volumePrefix;
+
+    // Aggregated view, null = one item per candle
+    private int[] viewFirst;
+    private int[] firstBuffer;
+    private int viewCount;
+    private double[] viewOpen, viewHigh, viewLow, viewClose, viewVolume;
+
+    private double viewLower = Double.NaN;
+    private double viewUpper = Double.NaN;
+    private int viewPixels;
+
+    public CandleOHLCDataset(String key, List<Candle> candles) {
+        this.key = key;
+        this.candles = candles;
+    }
+
+    // ===== Level of detail =====
+
+    @Override
+    public void setViewport(double lower, double upper, int pixels) {
+        if (lower == viewLower && upper == viewUpper && pixels == viewPixels) return;
+        viewLower = lower;
+        viewUpper = upper;
+        viewPixels = pixels;
+
+        viewFirst = null;
+        int size = candles.size();
+        if (pixels <= 0 || size <= pixels || !(upper > lower)) return;
+
+        int first = lowerBound(lower);
+        int last = lowerBound(Math.nextUp(upper));
+        if (last - first <= pixels) return;
+
+        allocateView(pixels + 2);
+        MinMaxPyramid pyramid = pyramid();
+        double[] prefix = volumePrefix();
+        int n = 0;
+
+        // Neighbours just outside the viewport stay as-is
+        if (first > 0) n = putCandle(n, first - 1);
+
+        double columnWidth = (upper - lower) / pixels;
+        int from = first;
+        for (int col = 1; col <= pixels && from < last; col++) {
+            int to = col == pixels ? last : Math.max(from, lowerBound(lower + col * columnWidth));
+            if (to == from) continue;
+
+            pyramid.query(from, to);
+            viewFirst[n] = from;
+            viewOpen[n] = candles.get(from).open();
+            viewHigh[n] = candles.get(pyramid.maxIndex()).high();
+            viewLow[n] = candles.get(pyramid.minIndex()).low();
+            viewClose[n] = candles.get(to - 1).close();
+            viewVolume[n] = prefix[to] - prefix[from];
+            n++;
+            from = to;
+        }
+
+        if (last < size) n = putCandle(n, last);
+        viewCount = n;
+    }
+
+    private void allocateView(int capacity) {
+        if (viewOpen == null || viewOpen.length < capacity) {
+            viewOpen = new double[capacity];
+            viewHigh = new double[capacity];
+            viewLow = new double[capacity];
+            viewClose = new double[capacity];
+            viewVolume = new double[capacity];
+            firstBuffer = new int[capacity];
+        }
+        viewFirst = firstBuffer;
+    }
+
+    private int putCandle(int n, int index) {
+        Candle c = candles.get(index);
+        viewFirst[n] = index;
+        viewOpen[n] = c.open();
+        viewHigh[n] = c.high();
+        viewLow[n] = c.low();
+        viewClose[n] = c.close();
+        viewVolume[n] = c.volume();
+        return n + 1;
+    }
+
+    private MinMaxPyramid pyramid() {
+        if (pyramid == null || pyramid.size() != candles.size()) {
+            pyramid = new MinMaxPyramid(candles.size(), i -> candles.get(i).low(), i -> candles.get(i).high());
+        }
+        return pyramid;
+    }
+
+    private double[] volumePrefix() {
+        if (volumePrefix == null || volumePrefix.length != candles.size() + 1) {
+            volumePrefix = new double[candles.size() + 1];
+            for (int i = 0; i < candles.size(); i++) {
+                volumePrefix[i + 1] = volumePrefix[i] + candles.get(i).volume();
+            }
+        }
+        return volumePrefix;
+    }
+
+    /** First candle index whose timestamp is >= value. */
+    private int lowerBound(double value) {
+        int lo = 0, hi = candles.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (candles.get(mid).timestamp() < value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public int getSourceIndex(int series, int item) {
+        return viewFirst != null ? viewFirst[item] : item;
+    }
+
+    // ===== Bounds (always full resolution) =====
+
+    @Override
+    public Range getDomainBounds(List visibleSeriesKeys, boolean includeInterval) {
+        if (candles.isEmpty() || !visibleSeriesKeys.contains(key)) return null;
+        return new Range(candles.get(0).timestamp(), candles.get(candles.size() - 1).timestamp());
+    }
+
+    @Override
+    public Range getRangeBounds(List visibleSeriesKeys, Range xRange, boolean includeInterval) {
+        if (candles.isEmpty() || !visibleSeriesKeys.contains(key)) return null;
+        MinMaxPyramid pyramid = pyramid();
+        pyramid.query(lowerBound(xRange.getLowerBound()), lowerBound(Math.nextUp(xRange.getUpperBound())));
+        if (pyramid.minIndex() < 0) return null;
+        return new Range(candles.get(pyramid.minIndex()).low(), candles.get(pyramid.maxIndex()).high());
+    }
+
+    // ===== OHLCDataset =====
+
+    @Override
+    public int getSeriesCount() {
+        return 1;
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return key;
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return viewFirst != null ? viewCount : candles.size();
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return candles.get(getSourceIndex(series, item)).timestamp();
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return getCloseValue(series, item);
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getCloseValue(series, item);
+    }
+
+    @Override
+    public double getHighValue(int series, int item) {
+        return viewFirst != null ? viewHigh[item] : candles.get(item).high();
+    }
+
+    @Override
+    public Number getHigh(int series, int item) {
+        return getHighValue(series, item);
+    }
+
+    @Override
+    public double getLowValue(int series, int item) {
+        return viewFirst != null ? viewLow[item] : candles.get(item).low();
+    }
+
+    @Override
+    public Number getLow(int series, int item) {
+        return getLowValue(series, item);
+    }
+
+    @Override
+    public double getOpenValue(int series, int item) {
+        return viewFirst != null ? viewOpen[item] : candles.get(item).open();
+    }
+
+    @Override
+    public Number getOpen(int series, int item) {
+        return getOpenValue(series, item);
+    }
+
+    @Override
+    public double getCloseValue(int series, int item) {
+        return viewFirst != null ? viewClose[item] : candles.get(item).close();
+    }
+
+    @Override
+    public Number getClose(int series, int item) {
+        return getCloseValue(series, item);
+    }
+
+    @Override
+    public double getVolumeValue(int series, int item) {
+        return viewFirst != null ? viewVolume[item] : candles.get(item).volume();
+    }
+
+    @Override
+    public Number getVolume(int series, int item) {
+        return getVolumeValue(series, item);
+    }
+}
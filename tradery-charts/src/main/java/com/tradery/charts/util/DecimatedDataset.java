@@ -0,0 +1,32 @@
+package com.tradery.charts.util;
+
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * Dataset that can present a reduced view of its data for the visible domain range.
+ *
+ * When more bars fall into the viewport than there are pixel columns, items are reduced to
+ * roughly one or two per column, so rendering cost is bounded by chart width instead of
+ * data size. Bounds queries (auto-range) always see the full-resolution data.
+ *
+ * Viewports are updated by {@link LevelOfDetail}; renderers that look up per-bar data by
+ * item index must go through {@link #getSourceIndex(int, int)}.
+ */
+public interface DecimatedDataset extends XYDataset {
+
+    /**
+     * Update the view for a domain range drawn across the given number of pixel columns.
+     * Does not fire a change event; callers repaint as part of the axis change.
+     *
+     * @param lower  visible domain lower bound (epoch millis)
+     * @param upper  visible domain upper bound (epoch millis)
+     * @param pixels width of the data area in pixels, or 0 to show every bar
+     */
+    void setViewport(double lower, double upper, int pixels);
+
+    /**
+     * Map an item of the current view back to its bar index (candle index).
+     * For aggregated items this is the first bar of the group.
+     */
+    int getSourceIndex(int series, int item);
+}
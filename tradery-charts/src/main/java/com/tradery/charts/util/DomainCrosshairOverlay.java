@@ -0,0 +1,104 @@
+package com.tradery.charts.util;
+
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.panel.AbstractOverlay;
+import org.jfree.chart.panel.Overlay;
+import org.jfree.chart.plot.Crosshair;
+import org.jfree.chart.plot.XYPlot;
+
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Vertical crosshair drawn on top of a chart panel's buffered image.
+ *
+ * The panel buffer holds the static layers (candles, indicators, phase shading, rays,
+ * annotations) and is only redrawn when the chart changes. JFreeChart's CrosshairOverlay
+ * repaints the whole panel on every move; this overlay repaints just the strips under the
+ * old and new line, so a mouse move across many synced charts costs a few narrow blits.
+ */
+public final class DomainCrosshairOverlay extends AbstractOverlay implements Overlay {
+
+    private static final int STRIP_MARGIN = 2;
+
+    private final ChartPanel panel;
+    private final Crosshair crosshair;
+    private int paintedX = -1;  // Screen x of the line last shown, -1 = none
+
+    private DomainCrosshairOverlay(ChartPanel panel, Crosshair crosshair) {
+        this.panel = panel;
+        this.crosshair = crosshair;
+    }
+
+    /**
+     * Attach a crosshair to a panel. Setting the crosshair's value moves the line.
+     */
+    public static DomainCrosshairOverlay install(ChartPanel panel, Crosshair crosshair) {
+        DomainCrosshairOverlay overlay = new DomainCrosshairOverlay(panel, crosshair);
+        crosshair.addPropertyChangeListener(e -> overlay.moved());
+        panel.addOverlay(overlay);
+        return overlay;
+    }
+
+    public Crosshair getCrosshair() {
+        return crosshair;
+    }
+
+    private void moved() {
+        int x = screenX();
+        if (x == paintedX) return;
+        repaintStrip(paintedX);
+        repaintStrip(x);
+        paintedX = x;
+    }
+
+    private void repaintStrip(int x) {
+        if (x < 0) return;
+        Rectangle2D dataArea = panel.getScreenDataArea();
+        if (dataArea == null) return;
+        int margin = STRIP_MARGIN + (int) Math.ceil(strokeWidth());
+        panel.repaint(x - margin, (int) dataArea.getMinY() - 1,
+            2 * margin + 1, (int) Math.ceil(dataArea.getHeight()) + 2);
+    }
+
+    private float strokeWidth() {
+        return crosshair.getStroke() instanceof BasicStroke bs ? bs.getLineWidth() : 1f;
+    }
+
+    /**
+     * Screen x of the crosshair value, or -1 if hidden or outside the data area.
+     */
+    private int screenX() {
+        double value = crosshair.getValue();
+        if (!crosshair.isVisible() || Double.isNaN(value)) return -1;
+        JFreeChart chart = panel.getChart();
+        Rectangle2D dataArea = panel.getScreenDataArea();
+        if (chart == null || dataArea == null || !(chart.getPlot() instanceof XYPlot plot)) return -1;
+        ValueAxis axis = plot.getDomainAxis();
+        if (axis == null || !axis.getRange().contains(value)) return -1;
+        return (int) Math.round(axis.valueToJava2D(value, dataArea, plot.getDomainAxisEdge()));
+    }
+
+    @Override
+    public void paintOverlay(Graphics2D g2, ChartPanel chartPanel) {
+        // The axis may have moved since the last value change (zoom, pan, resize)
+        int x = screenX();
+        paintedX = x;
+        if (x < 0) return;
+
+        Rectangle2D dataArea = chartPanel.getScreenDataArea();
+        Shape savedClip = g2.getClip();
+        Paint savedPaint = g2.getPaint();
+        Stroke savedStroke = g2.getStroke();
+        g2.clip(dataArea);
+        g2.setPaint(crosshair.getPaint());
+        g2.setStroke(crosshair.getStroke());
+        g2.draw(new Line2D.Double(x, dataArea.getMinY(), x, dataArea.getMaxY()));
+        g2.setStroke(savedStroke);
+        g2.setPaint(savedPaint);
+        g2.setClip(savedClip);
+    }
+}
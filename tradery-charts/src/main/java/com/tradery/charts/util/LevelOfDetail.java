@@ -0,0 +1,72 @@
+package com.tradery.charts.util;
+
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.data.xy.XYDataset;
+
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Keeps {@link DecimatedDataset}s on a chart panel in sync with the visible domain range
+ * and data area width.
+ *
+ * Any plot change (zoom, pan, dataset replaced) and panel resize pushes the current
+ * viewport to every decimated dataset before the panel repaints, so frame time depends on
+ * the chart width rather than on how many bars are loaded.
+ */
+public final class LevelOfDetail {
+
+    private LevelOfDetail() {}
+
+    /**
+     * Attach level-of-detail updates to a chart panel.
+     */
+    public static void install(ChartPanel panel) {
+        JFreeChart chart = panel.getChart();
+        if (chart == null) return;
+        XYPlot plot = chart.getXYPlot();
+
+        plot.addChangeListener(event -> update(panel));
+        panel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                update(panel);
+                panel.repaint();
+            }
+        });
+        update(panel);
+    }
+
+    /**
+     * Push the panel's current viewport to its decimated datasets.
+     */
+    public static void update(ChartPanel panel) {
+        JFreeChart chart = panel.getChart();
+        if (chart == null) return;
+        XYPlot plot = chart.getXYPlot();
+        ValueAxis domainAxis = plot.getDomainAxis();
+        if (domainAxis == null) return;
+
+        int pixels = pixelWidth(panel);
+        double lower = domainAxis.getLowerBound();
+        double upper = domainAxis.getUpperBound();
+        for (XYDataset dataset : plot.getDatasets().values()) {
+            if (dataset instanceof DecimatedDataset decimated) {
+                decimated.setViewport(lower, upper, pixels);
+            }
+        }
+    }
+
+    private static int pixelWidth(ChartPanel panel) {
+        // The data area is known after the first render; until then the panel width is close enough
+        Rectangle2D dataArea = panel.getScreenDataArea();
+        if (dataArea != null && dataArea.getWidth() > 0) {
+            return (int) Math.ceil(dataArea.getWidth());
+        }
+        return Math.max(0, panel.getWidth());
+    }
+}
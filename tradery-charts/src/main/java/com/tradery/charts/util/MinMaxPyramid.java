@@ -0,0 +1,140 @@
+package com.tradery.charts.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Multi-resolution min/max index over a bar-indexed series.
+ *
+ * Level 0 holds the arg-min/arg-max of each block of {@link #BASE} bars; every level above
+ * merges pairs of the level below. A min/max query over any index range touches at most
+ * {@code 2 * BASE} raw bars plus O(log n) blocks, so decimating a viewport costs
+ * O(pixels * log n) regardless of how many bars are visible.
+ *
+ * Only indices are stored (two ints per block); values are read back from the source.
+ * NaN values are ignored. Queries write their result into {@link #minIndex()} and
+ * {@link #maxIndex()}, so an instance must only be used from one thread (the EDT).
+ */
+final class MinMaxPyramid {
+
+    private static final int SHIFT = 3;
+    private static final int BASE = 1 << SHIFT;
+
+    private final int size;
+    private final IntToDoubleFunction low;
+    private final IntToDoubleFunction high;
+    private final List<int[]> minLevels = new ArrayList<>();
+    private final List<int[]> maxLevels = new ArrayList<>();
+
+    private int minIndex;
+    private int maxIndex;
+
+    /**
+     * @param size number of bars
+     * @param low  values tracked for the minimum (e.g., candle low, or the series itself)
+     * @param high values tracked for the maximum (e.g., candle high, or the series itself)
+     */
+    MinMaxPyramid(int size, IntToDoubleFunction low, IntToDoubleFunction high) {
+        this.size = size;
+        this.low = low;
+        this.high = high;
+        build();
+    }
+
+    private void build() {
+        int blocks = size >> SHIFT;
+        if (blocks == 0) return;
+
+        int[] mins = new int[blocks];
+        int[] maxs = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            minIndex = -1;
+            maxIndex = -1;
+            int from = b << SHIFT;
+            for (int i = from; i < from + BASE; i++) {
+                consider(i, i);
+            }
+            mins[b] = minIndex;
+            maxs[b] = maxIndex;
+        }
+        minLevels.add(mins);
+        maxLevels.add(maxs);
+
+        while (mins.length > 1) {
+            int[] upMins = new int[mins.length / 2];
+            int[] upMaxs = new int[maxs.length / 2];
+            for (int b = 0; b < upMins.length; b++) {
+                minIndex = -1;
+                maxIndex = -1;
+                consider(mins[2 * b], maxs[2 * b]);
+                consider(mins[2 * b + 1], maxs[2 * b + 1]);
+                upMins[b] = minIndex;
+                upMaxs[b] = maxIndex;
+            }
+            minLevels.add(upMins);
+            maxLevels.add(upMaxs);
+            mins = upMins;
+            maxs = upMaxs;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Find the min and max over bars [from, to). Afterwards {@link #minIndex()} and
+     * {@link #maxIndex()} hold the bar indices, or -1 if every value in range is NaN.
+     */
+    void query(int from, int to) {
+        minIndex = -1;
+        maxIndex = -1;
+        int lo = Math.max(0, from);
+        int hi = Math.min(size, to);
+
+        // Unaligned head and tail are scanned directly
+        while (lo < hi && (lo & (BASE - 1)) != 0) {
+            consider(lo, lo);
+            lo++;
+        }
+        while (hi > lo && (hi & (BASE - 1)) != 0) {
+            hi--;
+            consider(hi, hi);
+        }
+
+        // Aligned middle: greedily take the largest block that fits
+        int block = lo >> SHIFT;
+        int end = hi >> SHIFT;
+        while (block < end) {
+            int level = Math.min(Integer.numberOfTrailingZeros(block | Integer.highestOneBit(end - block)),
+                minLevels.size() - 1);
+            int slot = block >> level;
+            consider(minLevels.get(level)[slot], maxLevels.get(level)[slot]);
+            block += 1 << level;
+        }
+    }
+
+    int minIndex() {
+        return minIndex;
+    }
+
+    int maxIndex() {
+        return maxIndex;
+    }
+
+    private void consider(int minCandidate, int maxCandidate) {
+        if (minCandidate >= 0) {
+            double v = low.applyAsDouble(minCandidate);
+            if (!Double.isNaN(v) && (minIndex < 0 || v < low.applyAsDouble(minIndex))) {
+                minIndex = minCandidate;
+            }
+        }
+        if (maxCandidate >= 0) {
+            double v = high.applyAsDouble(maxCandidate);
+            if (!Double.isNaN(v) && (maxIndex < 0 || v > high.applyAsDouble(maxIndex))) {
+                maxIndex = maxCandidate;
+            }
+        }
+    }
+}
@@ -1,117 +1,54 @@
 package com.tradery.charts.util;
 
 import com.tradery.core.model.Candle;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
-import java.util.Date;
 import java.util.List;
 
 /**
  * Builder for creating time series data from candles and indicator values.
  * Eliminates duplication of data series construction.
+ *
+ * Datasets wrap the indicator arrays directly (see {@link ArrayXYDataset});
+ * add further series with {@link ArrayXYDataset#add}.
  */
 public final class TimeSeriesBuilder {
 
     private TimeSeriesBuilder() {} // Prevent instantiation
 
     /**
-     * Build a TimeSeries from candle timestamps and indicator data.
+     * Build a dataset from candle timestamps and indicator data.
      *
      * @param label     Series label
      * @param candles   Candle data for timestamps
      * @param data      Indicator values (same length as candles)
      * @param startIdx  Index to start from (for warmup periods)
-     * @return TimeSeriesCollection with the series
+     * @return Dataset with the series
      */
-    public static TimeSeriesCollection build(String label, List<Candle> candles, double[] data, int startIdx) {
-        TimeSeries series = new TimeSeries(label);
-
-        for (int i = startIdx; i < candles.size() && i < data.length; i++) {
-            if (!Double.isNaN(data[i])) {
-                Candle c = candles.get(i);
-                series.addOrUpdate(new Millisecond(new Date(c.timestamp())), data[i]);
-            }
-        }
-
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
-        dataset.addSeries(series);
-        return dataset;
+    public static ArrayXYDataset build(String label, List<Candle> candles, double[] data, int startIdx) {
+        return ArrayXYDataset.of(label, candles, data, startIdx);
     }
 
     /**
-     * Build a TimeSeries from candle timestamps and indicator data, starting from index 0.
+     * Build a dataset from candle timestamps and indicator data, starting from index 0.
      */
-    public static TimeSeriesCollection build(String label, List<Candle> candles, double[] data) {
+    public static ArrayXYDataset build(String label, List<Candle> candles, double[] data) {
         return build(label, candles, data, 0);
     }
 
     /**
-     * Build an XY series from candle timestamps and indicator data.
-     * Useful for bar charts that need x-values as timestamps.
-     *
-     * @param label     Series label
-     * @param candles   Candle data for timestamps
-     * @param data      Indicator values (same length as candles)
-     * @param startIdx  Index to start from (for warmup periods)
-     * @return XYSeriesCollection with the series
+     * Build the positive side of a signed series (negative values become 0).
+     * Used with {@link #buildNegative} for two-colored bar charts.
      */
-    public static XYSeriesCollection buildXY(String label, List<Candle> candles, double[] data, int startIdx) {
-        XYSeries series = new XYSeries(label);
-
-        for (int i = startIdx; i < candles.size() && i < data.length; i++) {
-            Candle c = candles.get(i);
-            if (!Double.isNaN(data[i])) {
-                series.add(c.timestamp(), data[i]);
-            }
-        }
-
-        XYSeriesCollection dataset = new XYSeriesCollection();
-        dataset.addSeries(series);
-        return dataset;
+    public static ArrayXYDataset buildPositive(String label, List<Candle> candles, double[] data) {
+        int end = Math.min(candles.size(), data.length);
+        return new ArrayXYDataset().add(label, candles, i -> i < end ? (data[i] < 0 ? 0.0 : data[i]) : Double.NaN, 0);
     }
 
     /**
-     * Build an XY series from candle timestamps and indicator data, starting from index 0.
+     * Build the negative side of a signed series (positive values become 0).
      */
-    public static XYSeriesCollection buildXY(String label, List<Candle> candles, double[] data) {
-        return buildXY(label, candles, data, 0);
-    }
-
-    /**
-     * Create a TimeSeries object (without wrapping in collection).
-     * Useful when you need to add multiple series to a single collection.
-     */
-    public static TimeSeries createTimeSeries(String label, List<Candle> candles, double[] data, int startIdx) {
-        TimeSeries series = new TimeSeries(label);
-
-        for (int i = startIdx; i < candles.size() && i < data.length; i++) {
-            if (!Double.isNaN(data[i])) {
-                Candle c = candles.get(i);
-                series.addOrUpdate(new Millisecond(new Date(c.timestamp())), data[i]);
-            }
-        }
-
-        return series;
-    }
-
-    /**
-     * Create an XYSeries object (without wrapping in collection).
-     * Useful when you need to add multiple series to a single collection.
-     */
-    public static XYSeries createXYSeries(String label, List<Candle> candles, double[] data, int startIdx) {
-        XYSeries series = new XYSeries(label);
-
-        for (int i = startIdx; i < candles.size() && i < data.length; i++) {
-            Candle c = candles.get(i);
-            if (!Double.isNaN(data[i])) {
-                series.add(c.timestamp(), data[i]);
-            }
-        }
-
-        return series;
+    public static ArrayXYDataset buildNegative(String label, List<Candle> candles, double[] data) {
+        int end = Math.min(candles.size(), data.length);
+        return new ArrayXYDataset().add(label, candles, i -> i < end ? (data[i] >= 0 ? 0.0 : data[i]) : Double.NaN, 0);
     }
 }
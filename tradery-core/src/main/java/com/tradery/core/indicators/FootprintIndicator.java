@@ -9,7 +9,7 @@ import java.util.*;
 /**
  * Footprint chart calculation engine.
  *
- * Aggregates AggTrades into price-level buckets per candle, calculating:
+ * Aggregates AggTrades into price-level buckets per candle (see {@link FootprintGrid}), calculating:
  * - Buy/sell volume per level
  * - Delta and imbalances
  * - POC, VAH, VAL
@@ -84,116 +84,47 @@ public class FootprintIndicator {
             barTimestamps[i] = candles.get(i).timestamp();
         }
 
-        // Group trades by bar index
-        Map<Integer, List<AggTrade>> tradesByBar = groupTradesByBar(aggTrades, barTimestamps, intervalMs, exchangeFilter);
+        List<AggTrade> trades = aggTrades != null ? aggTrades : Collections.emptyList();
+        int[] tradeBars = assignTradesToBars(trades, barTimestamps, intervalMs, exchangeFilter);
 
-        // Calculate footprint for each candle
-        String symbol = null; // Will be set from trades
-        FootprintResult.Builder resultBuilder = new FootprintResult.Builder()
-            .tickSize(tickSize)
-            .timeframe(resolution);
+        // Accumulate volume on the tick grid; footprints are built per bar on access
+        FootprintGrid grid = FootprintGrid.build(candles, tickSize, trades, tradeBars);
 
-        for (int i = 0; i < candles.size(); i++) {
-            Candle candle = candles.get(i);
-            List<AggTrade> barTrades = tradesByBar.getOrDefault(i, Collections.emptyList());
-
-            Footprint footprint = calculateFootprintForBar(candle, barTrades, tickSize, i);
-            resultBuilder.addFootprint(footprint);
-
-            // Get symbol from first trade
-            if (symbol == null && !barTrades.isEmpty()) {
-                symbol = barTrades.get(0).rawSymbol();
+        // Get symbol from first trade
+        String symbol = null;
+        for (int i = 0; i < tradeBars.length && symbol == null; i++) {
+            if (tradeBars[i] >= 0) {
+                symbol = trades.get(i).rawSymbol();
             }
         }
 
-        if (symbol != null) {
-            resultBuilder.symbol(symbol);
-        }
-
-        return resultBuilder.build();
+        return FootprintResult.of(grid, symbol, resolution);
     }
 
     /**
-     * Calculate footprint for a single bar.
-     */
-    private static Footprint calculateFootprintForBar(
-            Candle candle,
-            List<AggTrade> trades,
-            double tickSize,
-            int barIndex) {
-
-        Footprint.Builder builder = new Footprint.Builder()
-            .timestamp(candle.timestamp())
-            .barIndex(barIndex)
-            .high(candle.high())
-            .low(candle.low())
-            .tickSize(tickSize);
-
-        if (trades.isEmpty()) {
-            // Create empty footprint with buckets covering the candle range
-            createEmptyBuckets(candle, tickSize, builder);
-            return builder.build();
-        }
-
-        // Group trades by price bucket
-        Map<Double, FootprintBucket.Builder> bucketBuilders = new TreeMap<>();
-        // First, create empty buckets covering the full candle range
-        // This ensures boxes align with the candle's high/low visually
-        double low = snapToTickSize(candle.low(), tickSize);
-        double high = snapToTickSize(candle.high(), tickSize);
-        for (double price = low; price <= high + tickSize / 2; price += tickSize) {
-            bucketBuilders.computeIfAbsent(price, FootprintBucket.Builder::new);
-        }
-
-        for (AggTrade trade : trades) {
-            double bucketPrice = snapToTickSize(trade.price(), tickSize);
-            FootprintBucket.Builder bucketBuilder = bucketBuilders.computeIfAbsent(
-                bucketPrice, FootprintBucket.Builder::new);
-
-            Exchange exchange = trade.exchange() != null ? trade.exchange() : Exchange.BINANCE;
-            DataMarketType marketType = trade.marketType();
-
-            if (trade.isBuyerMaker()) {
-                // Seller is taker (aggressive sell)
-                bucketBuilder.addSellVolume(exchange, marketType, trade.quantity());
-            } else {
-                // Buyer is taker (aggressive buy)
-                bucketBuilder.addBuyVolume(exchange, marketType, trade.quantity());
-            }
-
-            // Track per-exchange and per-market-type delta/volume
-            builder.addDelta(exchange, trade.delta());
-            builder.addMarketTypeDelta(marketType, trade.delta());
-            builder.addMarketTypeVolume(marketType, trade.quantity());
-        }
-
-        // Build all buckets
-        for (FootprintBucket.Builder bucketBuilder : bucketBuilders.values()) {
-            builder.addBucket(bucketBuilder.build());
-        }
-
-        return builder.build();
-    }
-
-    /**
-     * Group trades by bar index using binary search.
+     * Assign each trade to its bar with a single forward walk (trades are in time order).
+     *
+     * @return bar index per trade, or -1 for trades outside every bar or filtered out
      */
-    private static Map<Integer, List<AggTrade>> groupTradesByBar(
+    private static int[] assignTradesToBars(
             List<AggTrade> aggTrades,
             long[] barTimestamps,
             long intervalMs,
             Set<Exchange> exchangeFilter) {
 
-        Map<Integer, List<AggTrade>> result = new HashMap<>();
+        int[] result = new int[aggTrades.size()];
+        Arrays.fill(result, -1);
 
-        if (aggTrades == null || aggTrades.isEmpty() || barTimestamps.length == 0) {
+        if (barTimestamps.length == 0) {
             return result;
         }
 
         int currentBarIndex = 0;
         long currentBarEnd = barTimestamps[0] + intervalMs;
 
-        for (AggTrade trade : aggTrades) {
+        for (int i = 0; i < result.length; i++) {
+            AggTrade trade = aggTrades.get(i);
+
             // Apply exchange filter
             if (exchangeFilter != null && !exchangeFilter.isEmpty()) {
                 if (trade.exchange() != null && !exchangeFilter.contains(trade.exchange())) {
@@ -211,32 +142,13 @@ public class FootprintIndicator {
             // Check if trade is within current bar
             if (trade.timestamp() >= barTimestamps[currentBarIndex] &&
                 trade.timestamp() < currentBarEnd) {
-                result.computeIfAbsent(currentBarIndex, k -> new ArrayList<>()).add(trade);
+                result[i] = currentBarIndex;
             }
         }
 
         return result;
     }
 
-    /**
-     * Create empty buckets covering the candle's price range.
-     */
-    private static void createEmptyBuckets(Candle candle, double tickSize, Footprint.Builder builder) {
-        double low = snapToTickSize(candle.low(), tickSize);
-        double high = snapToTickSize(candle.high(), tickSize);
-
-        for (double price = low; price <= high + tickSize / 2; price += tickSize) {
-            builder.addBucket(FootprintBucket.empty(price));
-        }
-    }
-
-    /**
-     * Snap a price to the nearest tick size.
-     */
-    private static double snapToTickSize(double price, double tickSize) {
-        return Math.round(price / tickSize) * tickSize;
-    }
-
     /**
      * Calculate auto tick size based on ATR.
      */
@@ -25,6 +25,7 @@ public class IndicatorEngine {
     private List<AggTrade> aggTrades;
     private String resolution = "1h";
     private final Map<String, Object> cache = new ConcurrentHashMap<>();
+    private volatile String dataFingerprint;  // Memoized; reset whenever data is replaced
 
     /**
      * Initialize with candle data
@@ -33,9 +34,126 @@ public class IndicatorEngine {
         log.info("setCandles: {} bars, resolution={}", candles != null ? candles.size() : 0, resolution);
         this.candles = candles;
         this.resolution = resolution;
+        dataFingerprint = null;
         clearCache();
     }
 
+    /**
+     * Replace candle data, keeping cached indicators for bars that did not change.
+     *
+     * When the new candles extend the current ones (same leading bars, typically with the
+     * last live bar updated and new bars appended), cached SMA/EMA/ATR/HIGH_OF/LOW_OF/AVG_VOLUME
+     * arrays are extended from the first changed bar instead of recomputed. All other cached
+     * indicators are dropped and recomputed lazily on next access.
+     *
+     * @return Index of the first changed bar (0 if the cache was fully reset)
+     */
+    public int appendCandles(List<Candle> newCandles, String resolution) {
+        List<Candle> old = this.candles;
+        if (old == null || old.isEmpty() || newCandles == null || newCandles.size() < old.size()
+                || !resolution.equals(this.resolution)) {
+            setCandles(newCandles, resolution);
+            return 0;
+        }
+
+        int firstChanged = 0;
+        int overlap = old.size();
+        while (firstChanged < overlap && old.get(firstChanged).equals(newCandles.get(firstChanged))) {
+            firstChanged++;
+        }
+        if (firstChanged == 0) {
+            setCandles(newCandles, resolution);
+            return 0;
+        }
+
+        this.candles = newCandles;
+        dataFingerprint = null;
+        if (firstChanged == newCandles.size()) {
+            return firstChanged;  // Nothing changed
+        }
+
+        int extended = 0;
+        int dropped = 0;
+        for (Map.Entry<String, Object> entry : cache.entrySet()) {
+            double[] updated = entry.getValue() instanceof double[] values
+                ? extendCached(entry.getKey(), values, firstChanged)
+                : null;
+            if (updated != null) {
+                entry.setValue(updated);
+                extended++;
+            } else {
+                cache.remove(entry.getKey());
+                dropped++;
+            }
+        }
+        dailyProfileCache.clear();
+        log.info("appendCandles: {} bars, first changed bar {}, {} indicators extended, {} dropped",
+            newCandles.size(), firstChanged, extended, dropped);
+        return firstChanged;
+    }
+
+    /**
+     * Extend a cached indicator array to the current candles, recomputing from {@code from}.
+     * Returns null if the indicator can't be extended incrementally.
+     */
+    private double[] extendCached(String key, double[] values, int from) {
+        int sep = key.indexOf(':');
+        if (sep < 0 || key.indexOf(':', sep + 1) >= 0) {
+            return null;
+        }
+        int period;
+        try {
+            period = Integer.parseInt(key.substring(sep + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (period <= 0) {
+            return null;
+        }
+
+        int n = candles.size();
+        double[] result = java.util.Arrays.copyOf(values, n);
+        switch (key.substring(0, sep)) {
+            case "ema" -> {
+                // Recursive: each value depends only on the previous one
+                if (from < period) return null;
+                double multiplier = 2.0 / (period + 1);
+                for (int i = from; i < n; i++) {
+                    result[i] = (candles.get(i).close() - result[i - 1]) * multiplier + result[i - 1];
+                }
+            }
+            case "atr" -> {
+                // Wilder smoothing of true range; the first value needs period + 1 bars,
+                // so a cache holding fewer is all NaN and has to be recomputed
+                if (from <= period || Double.isNaN(result[from - 1])) return null;
+                for (int i = from; i < n; i++) {
+                    Candle curr = candles.get(i);
+                    Candle prev = candles.get(i - 1);
+                    double tr = Math.max(curr.high() - curr.low(),
+                        Math.max(Math.abs(curr.high() - prev.close()), Math.abs(curr.low() - prev.close())));
+                    result[i] = (result[i - 1] * (period - 1) + tr) / period;
+                }
+            }
+            case "sma", "high_of", "low_of", "avg_volume" -> {
+                // Windowed: recompute the tail over a sublist that covers the lookback
+                int start = from - (period - 1);
+                if (start < 0) return null;
+                List<Candle> tail = candles.subList(start, n);
+                double[] tailValues = switch (key.substring(0, sep)) {
+                    case "sma" -> Indicators.sma(tail, period);
+                    case "high_of" -> Indicators.highOf(tail, period);
+                    case "low_of" -> Indicators.lowOf(tail, period);
+                    default -> Indicators.avgVolume(tail, period);
+                };
+                System.arraycopy(tailValues, from - start, result, from, n - from);
+            }
+            default -> {
+                return null;
+            }
+        }
+        return result;
+    }
+
     /**
      * Set aggregated trades data for orderflow indicators.
      * Must be called before using delta indicators.
@@ -43,6 +161,7 @@ public class IndicatorEngine {
     public void setAggTrades(List<AggTrade> aggTrades) {
         log.info("setAggTrades: {} trades", aggTrades != null ? aggTrades.size() : 0);
         this.aggTrades = aggTrades;
+        dataFingerprint = null;
         // Clear orderflow-related cache entries
         cache.remove("delta");
         cache.remove("cumDelta");
@@ -880,6 +999,7 @@ public class IndicatorEngine {
     public void setFundingRates(List<FundingRate> fundingRates) {
         log.info("setFundingRates: {} rates", fundingRates != null ? fundingRates.size() : 0);
         this.fundingRates = fundingRates;
+        dataFingerprint = null;
         // Clear funding-related cache entries
         cache.remove("fundingArray");
         cache.remove("funding8HArray");
@@ -1003,6 +1123,31 @@ public class IndicatorEngine {
         return candles;
     }
 
+    /**
+     * Fingerprint of the loaded data (resolution, candles and auxiliary series).
+     * Engines with equal fingerprints compute equal indicators, so results can be shared
+     * between them. Every record is hashed, so windows that differ anywhere get different
+     * fingerprints; the result is kept until the data is replaced.
+     */
+    public String dataFingerprint() {
+        String fingerprint = dataFingerprint;
+        if (fingerprint == null) {
+            fingerprint = resolution + ":" + fingerprint(candles) + ":" + fingerprint(aggTrades) + ":"
+                + fingerprint(fundingRates) + ":" + fingerprint(premiumIndexData) + ":" + fingerprint(openInterestData);
+            dataFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    private static String fingerprint(List<?> data) {
+        if (data == null || data.isEmpty()) return "0";
+        long hash = 1;
+        for (Object record : data) {
+            hash = 31 * hash + record.hashCode();
+        }
+        return data.size() + "/" + Long.toHexString(hash);
+    }
+
     // ========== Premium Index (requires premium data to be loaded) ==========
 
     private List<PremiumIndex> premiumIndexData;
@@ -1013,6 +1158,7 @@ public class IndicatorEngine {
     public void setPremiumIndex(List<PremiumIndex> premiumIndexData) {
         log.info("setPremiumIndex: {} records", premiumIndexData != null ? premiumIndexData.size() : 0);
         this.premiumIndexData = premiumIndexData;
+        dataFingerprint = null;
         // Clear premium-related cache entries
         cache.remove("premiumArray");
         cache.remove("premiumAvgArray");
@@ -1184,6 +1330,7 @@ public class IndicatorEngine {
     public void setOpenInterest(List<OpenInterest> openInterestData) {
         log.info("setOpenInterest: {} records", openInterestData != null ? openInterestData.size() : 0);
         this.openInterestData = openInterestData;
+        dataFingerprint = null;
         // Clear OI-related cache entries
         cache.remove("oiArray");
         cache.remove("oiChangeArray");
@@ -1527,10 +1674,7 @@ public class IndicatorEngine {
      * @return RaySet computed with historical data only
      */
     private RaySet getResistanceRaysAt(int lookback, int skip, int barIndex) {
-        // Slice candles to only include data available at barIndex
-        int endIndex = Math.min(barIndex + 1, candles.size());
-        List<Candle> availableCandles = candles.subList(0, endIndex);
-        return RotatingRays.calculateResistanceRays(availableCandles, lookback, skip);
+        return rayTracker("resistanceRayTracker:", lookback, skip, true).at(barIndex);
     }
 
     /**
@@ -1542,10 +1686,16 @@ public class IndicatorEngine {
      * @return RaySet computed with historical data only
      */
     private RaySet getSupportRaysAt(int lookback, int skip, int barIndex) {
-        // Slice candles to only include data available at barIndex
-        int endIndex = Math.min(barIndex + 1, candles.size());
-        List<Candle> availableCandles = candles.subList(0, endIndex);
-        return RotatingRays.calculateSupportRays(availableCandles, lookback, skip);
+        return rayTracker("supportRayTracker:", lookback, skip, false).at(barIndex);
+    }
+
+    /**
+     * Per-parameter ray tracker. Backtests walk bars forward, so each step only
+     * extends the hull by one bar instead of recomputing the rays.
+     */
+    private RotatingRays.RayTracker rayTracker(String prefix, int lookback, int skip, boolean resistance) {
+        return (RotatingRays.RayTracker) cache.computeIfAbsent(prefix + lookback + ":" + skip,
+            k -> new RotatingRays.RayTracker(candles, lookback, skip, resistance));
     }
 
     // ===== Resistance Ray Functions =====
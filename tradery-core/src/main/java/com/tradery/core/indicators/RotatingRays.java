@@ -4,6 +4,7 @@ import com.tradery.core.indicators.registry.IndicatorContext;
 import com.tradery.core.model.Candle;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -125,6 +126,10 @@ public final class RotatingRays {
     /**
      * Calculate resistance rays from ATH (rotating clockwise).
      *
+     * Each ray runs from the current peak to the later peak with the flattest slope, so no
+     * high between them lies above it. That chain of peaks is the upper convex hull of the
+     * highs from the ATH to the end of the window, built in a single pass.
+     *
      * @param candles Price data
      * @param lookback Number of bars to look back for ATH
      * @param skip Number of recent bars to skip (allows price to be above rays)
@@ -134,79 +139,15 @@ public final class RotatingRays {
         if (candles == null || candles.isEmpty()) {
             return new RaySet(List.of(), -1, Double.NaN, true);
         }
-
-        int size = candles.size();
-        int effectiveEnd = Math.max(0, size - skip);
-        // lookback=0 means no limit (use all data)
-        int effectiveStart = (lookback <= 0) ? 0 : Math.max(0, effectiveEnd - lookback);
-
-        if (effectiveEnd <= effectiveStart) {
-            return new RaySet(List.of(), -1, Double.NaN, true);
-        }
-
-        // Find ATH in the lookback window (excluding skip zone)
-        int athBar = effectiveStart;
-        double athPrice = candles.get(effectiveStart).high();
-
-        for (int i = effectiveStart + 1; i < effectiveEnd; i++) {
-            double high = candles.get(i).high();
-            if (high > athPrice) {
-                athPrice = high;
-                athBar = i;
-            }
-        }
-
-        // Build rays by rotating clockwise from ATH
-        List<Ray> rays = new ArrayList<>();
-        int currentBar = athBar;
-        double currentPrice = athPrice;
-
-        while (currentBar < effectiveEnd - 1) {
-            // Find next peak by rotating clockwise (find flattest valid slope)
-            int nextBar = -1;
-            double nextPrice = Double.NaN;
-            double bestSlope = Double.NEGATIVE_INFINITY; // Looking for flattest (least negative)
-
-            for (int i = currentBar + 1; i < effectiveEnd; i++) {
-                double candidatePrice = candles.get(i).high();
-                double candidateSlope = (candidatePrice - currentPrice) / (i - currentBar);
-
-                // Check if this ray is valid (no price data crosses above it)
-                boolean valid = true;
-                for (int j = currentBar + 1; j < i; j++) {
-                    double rayPrice = currentPrice + candidateSlope * (j - currentBar);
-                    if (candles.get(j).high() > rayPrice + 0.0001) { // Small tolerance
-                        valid = false;
-                        break;
-                    }
-                }
-
-                if (valid && candidateSlope > bestSlope) {
-                    bestSlope = candidateSlope;
-                    nextBar = i;
-                    nextPrice = candidatePrice;
-                }
-            }
-
-            if (nextBar < 0) {
-                // No more valid peaks found, create final ray to end of data
-                break;
-            }
-
-            // Create ray from current to next peak
-            rays.add(new Ray(currentBar, currentPrice, nextBar, nextPrice, bestSlope));
-
-            // Move to next peak
-            currentBar = nextBar;
-            currentPrice = nextPrice;
-        }
-
-        return new RaySet(rays, athBar, athPrice, true);
+        return new RayTracker(candles, lookback, skip, true).at(candles.size() - 1);
     }
 
     /**
      * Calculate support rays from ATL (rotating counter-clockwise).
      *
+     * Mirror image of {@link #calculateResistanceRays}: the lower convex hull of the lows
+     * from the ATL to the end of the window.
+     *
      * @param candles Price data
      * @param lookback Number of bars to look back for ATL
      * @param skip Number of recent bars to skip (allows price to be below rays)
@@ -216,74 +157,224 @@ public final class RotatingRays {
         if (candles == null || candles.isEmpty()) {
             return new RaySet(List.of(), -1, Double.NaN, false);
         }
+        return new RayTracker(candles, lookback, skip, false).at(candles.size() - 1);
+    }
+
+    /**
+     * Rays as of successive bars, updated incrementally as the window slides forward.
+     *
+     * The window's ATH (ATL) comes from a monotonic deque. The bars are split in two: bars
+     * left of {@code split} have a table of their flattest next peak within that part, built
+     * right to left once; bars from {@code split} on form an upper hull built as they arrive.
+     * The ray chain is walked from the anchor: the next peak is the flatter of the table's
+     * entry and the tangent to the right hull, found by binary search. When the window start
+     * passes the split, the right part is turned into the new table. Every bar enters the
+     * table once, so sliding costs amortized O(1) per bar and a query O(rays * log window),
+     * also when the anchor leaves the window every bar, as in a steady trend.
+     *
+     * The original search accepted a candidate peak if no bar in between rose more than
+     * 0.0001 above its ray, and took the flattest accepted one. The flattest candidate
+     * overall always passes that check, so the tolerance never changed the result (it only
+     * absorbed rounding); the earliest flattest peak is taken directly here.
+     *
+     * Support rays are searched on negated lows, so both sides share the resistance logic.
+     * Negation is exact, so the same peaks are found as when working on lows directly.
+     */
+    public static final class RayTracker {
+
+        private static final int RECENT = 4;
+
+        private final List<Candle> candles;
+        private final int lookback;
+        private final int skip;
+        private final boolean resistance;
+
+        private int end;            // Bars [0, end) have been pushed
+        private int[] maxDeque = new int[16];
+        private int dequeHead, dequeTail;
+
+        private int leftBase;                  // First bar of the table
+        private int split;                     // Bars [leftBase, split) are in the table
+        private int[] leftNext = new int[0];   // Flattest next peak before split, -1 for none
+        private int[] rightHull = new int[16]; // Upper hull of bars [split, end)
+        private int rightSize;
+
+        private int stateBar = -1;  // Bar the state above reflects
+        private boolean windowEmpty;
+
+        // Recently returned rays; expressions like X[1] step back a bar and shouldn't force a rebuild
+        private final int[] recentBars = new int[RECENT];
+        private final RaySet[] recentRays = new RaySet[RECENT];
+        private int recentNext;
+
+        public RayTracker(List<Candle> candles, int lookback, int skip, boolean resistance) {
+            this.candles = candles;
+            this.lookback = lookback;
+            this.skip = skip;
+            this.resistance = resistance;
+        }
 
-        int size = candles.size();
-        int effectiveEnd = Math.max(0, size - skip);
-        // lookback=0 means no limit (use all data)
-        int effectiveStart = (lookback <= 0) ? 0 : Math.max(0, effectiveEnd - lookback);
+        /**
+         * Rays using candles 0..barIndex only (no look-ahead).
+         */
+        public synchronized RaySet at(int barIndex) {
+            for (int i = 0; i < RECENT; i++) {
+                if (recentRays[i] != null && recentBars[i] == barIndex) return recentRays[i];
+            }
+            moveTo(barIndex);
+            RaySet rays = windowEmpty ? new RaySet(List.of(), -1, Double.NaN, resistance) : buildRaySet();
+            recentBars[recentNext] = barIndex;
+            recentRays[recentNext] = rays;
+            recentNext = (recentNext + 1) % RECENT;
+            return rays;
+        }
 
-        if (effectiveEnd <= effectiveStart) {
-            return new RaySet(List.of(), -1, Double.NaN, false);
+        /**
+         * Bar index of the ATH (ATL) as of a bar, or -1 if the window is empty.
+         * Cheaper than {@link #at(int)} when only anchor changes matter.
+         */
+        public synchronized int anchorAt(int barIndex) {
+            moveTo(barIndex);
+            return windowEmpty ? -1 : maxDeque[dequeHead];
         }
 
-        // Find ATL in the lookback window (excluding skip zone)
-        int atlBar = effectiveStart;
-        double atlPrice = candles.get(effectiveStart).low();
+        private void moveTo(int barIndex) {
+            if (barIndex == stateBar) return;
+            int effectiveEnd = Math.max(0, Math.min(barIndex + 1, candles.size()) - skip);
+            // lookback=0 means no limit (use all data)
+            int effectiveStart = (lookback <= 0) ? 0 : Math.max(0, effectiveEnd - lookback);
 
-        for (int i = effectiveStart + 1; i < effectiveEnd; i++) {
-            double low = candles.get(i).low();
-            if (low < atlPrice) {
-                atlPrice = low;
-                atlBar = i;
+            windowEmpty = effectiveEnd <= effectiveStart;
+            if (!windowEmpty) {
+                advance(effectiveStart, effectiveEnd);
             }
+            stateBar = barIndex;
         }
 
-        // Build rays by rotating counter-clockwise from ATL
-        List<Ray> rays = new ArrayList<>();
-        int currentBar = atlBar;
-        double currentPrice = atlPrice;
-
-        while (currentBar < effectiveEnd - 1) {
-            // Find next trough by rotating counter-clockwise (find flattest valid slope)
-            int nextBar = -1;
-            double nextPrice = Double.NaN;
-            double bestSlope = Double.POSITIVE_INFINITY; // Looking for flattest (least positive)
-
-            for (int i = currentBar + 1; i < effectiveEnd; i++) {
-                double candidatePrice = candles.get(i).low();
-                double candidateSlope = (candidatePrice - currentPrice) / (i - currentBar);
-
-                // Check if this ray is valid (no price data crosses below it)
-                boolean valid = true;
-                for (int j = currentBar + 1; j < i; j++) {
-                    double rayPrice = currentPrice + candidateSlope * (j - currentBar);
-                    if (candles.get(j).low() < rayPrice - 0.0001) { // Small tolerance
-                        valid = false;
-                        break;
-                    }
-                }
+        private double value(int bar) {
+            Candle c = candles.get(bar);
+            return resistance ? c.high() : -c.low();
+        }
 
-                if (valid && candidateSlope < bestSlope) {
-                    bestSlope = candidateSlope;
-                    nextBar = i;
-                    nextPrice = candidatePrice;
-                }
+        private double slope(int from, int to) {
+            return (value(to) - value(from)) / (to - from);
+        }
+
+        private void advance(int start, int newEnd) {
+            if (newEnd < end || end < start) {
+                // Going backwards, or the window moved past everything pushed so far
+                end = start;
+                dequeHead = dequeTail = 0;
+                leftBase = split = start;
+                leftNext = new int[0];
+                rightSize = 0;
+            }
+            while (end < newEnd) {
+                push(end++);
+            }
+            while (maxDeque[dequeHead] < start) dequeHead++;
+            if (start >= split) {
+                freezeRight(start);
             }
+        }
 
-            if (nextBar < 0) {
-                // No more valid troughs found
-                break;
+        private void push(int bar) {
+            // Earliest maximum stays in front: only drop strictly lower values
+            double v = value(bar);
+            while (dequeTail > dequeHead && value(maxDeque[dequeTail - 1]) < v) dequeTail--;
+            if (dequeTail == maxDeque.length) {
+                compactDeque();
             }
+            maxDeque[dequeTail++] = bar;
 
-            // Create ray from current to next trough
-            rays.add(new Ray(currentBar, currentPrice, nextBar, nextPrice, bestSlope));
+            // Monotone chain; collinear points stay, so the nearer of equally flat peaks wins
+            while (rightSize >= 2 && slope(rightHull[rightSize - 2], bar)
+                    > slope(rightHull[rightSize - 2], rightHull[rightSize - 1])) {
+                rightSize--;
+            }
+            if (rightSize == rightHull.length) {
+                rightHull = Arrays.copyOf(rightHull, rightSize * 2);
+            }
+            rightHull[rightSize++] = bar;
+        }
 
-            // Move to next trough
-            currentBar = nextBar;
-            currentPrice = nextPrice;
+        private void compactDeque() {
+            int n = dequeTail - dequeHead;
+            if (dequeHead == 0) {
+                maxDeque = Arrays.copyOf(maxDeque, maxDeque.length * 2);
+            } else {
+                System.arraycopy(maxDeque, dequeHead, maxDeque, 0, n);
+            }
+            dequeHead = 0;
+            dequeTail = n;
         }
 
-        return new RaySet(rays, atlBar, atlPrice, false);
+        /**
+         * Turn bars [start, end) into the table and start an empty right hull.
+         */
+        private void freezeRight(int start) {
+            int n = end - start;
+            int[] next = new int[n];
+            int[] stack = new int[Math.max(1, n)];  // Top is the leftmost bar of the hull
+            int size = 0;
+            for (int bar = end - 1; bar >= start; bar--) {
+                // Tangent from this bar: drop hull bars while the one behind is strictly flatter
+                while (size >= 2 && slope(bar, stack[size - 2]) > slope(bar, stack[size - 1])) {
+                    size--;
+                }
+                next[bar - start] = size > 0 ? stack[size - 1] : -1;
+                stack[size++] = bar;
+            }
+            leftNext = next;
+            leftBase = start;
+            split = end;
+            rightSize = 0;
+        }
+
+        /**
+         * Earliest flattest peak on the right hull after a bar, or -1.
+         */
+        private int rightTangent(int from) {
+            int lo = 0;
+            int hi = rightSize;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (rightHull[mid] <= from) lo = mid + 1; else hi = mid;
+            }
+            if (lo == rightSize) return -1;
+            // Slopes from a bar left of a convex chain rise to the tangent, then fall
+            hi = rightSize - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (slope(from, rightHull[mid + 1]) > slope(from, rightHull[mid])) lo = mid + 1; else hi = mid;
+            }
+            return rightHull[lo];
+        }
+
+        private double price(int bar) {
+            Candle c = candles.get(bar);
+            return resistance ? c.high() : c.low();
+        }
+
+        private RaySet buildRaySet() {
+            int anchor = maxDeque[dequeHead];
+            List<Ray> rays = new ArrayList<>();
+            int from = anchor;
+            while (true) {
+                int to = from < split ? leftNext[from - leftBase] : -1;
+                int right = rightTangent(from);
+                // On equal slopes the nearer peak wins, as in the original rotating search
+                if (right >= 0 && (to < 0 || slope(from, right) > slope(from, to))) {
+                    to = right;
+                }
+                if (to < 0) break;
+                // Slope from the actual prices, so a flat support ray stays +0.0
+                double slope = (price(to) - price(from)) / (to - from);
+                rays.add(new Ray(from, price(from), to, price(to), slope));
+                from = to;
+            }
+            return new RaySet(rays, anchor, price(anchor), resistance);
+        }
     }
 
     // ========== Helper methods for DSL evaluation ==========
@@ -397,7 +488,7 @@ public final class RotatingRays {
 
     /**
      * Compute historic resistance rays efficiently, only returning snapshots when the anchor (ATH) changes.
-     * This is much more efficient than computing rays for every bar.
+     * A single {@link RayTracker} slides over the bars, so the whole pass is near-linear.
      *
      * @param candles Full candle list
      * @param lookback Number of bars to look back for ATH (0 = unlimited)
@@ -407,54 +498,12 @@ public final class RotatingRays {
      */
     public static List<HistoricRaySnapshot> computeHistoricResistanceRays(
             List<Candle> candles, int lookback, int skip, int startBar) {
-
-        List<HistoricRaySnapshot> snapshots = new ArrayList<>();
-        if (candles == null || candles.isEmpty()) {
-            return snapshots;
-        }
-
-        int prevAnchorBar = -1;
-        double prevAnchorPrice = Double.NaN;
-
-        // Start from at least startBar, but need minimum 10 bars for meaningful computation
-        int minStart = Math.max(startBar, 10);
-
-        for (int barIndex = minStart; barIndex < candles.size(); barIndex++) {
-            // Find ATH for this bar's view
-            int effectiveEnd = Math.max(0, barIndex + 1 - skip);
-            int effectiveStart = (lookback <= 0) ? 0 : Math.max(0, effectiveEnd - lookback);
-
-            if (effectiveEnd <= effectiveStart) continue;
-
-            // Find ATH in window
-            int athBar = effectiveStart;
-            double athPrice = candles.get(effectiveStart).high();
-            for (int i = effectiveStart + 1; i < effectiveEnd; i++) {
-                double high = candles.get(i).high();
-                if (high > athPrice) {
-                    athPrice = high;
-                    athBar = i;
-                }
-            }
-
-            // Only compute rays if anchor changed
-            if (athBar != prevAnchorBar || athPrice != prevAnchorPrice) {
-                List<Candle> availableCandles = candles.subList(0, barIndex + 1);
-                RaySet raySet = calculateResistanceRays(availableCandles, lookback, skip);
-                if (raySet != null && raySet.count() > 0) {
-                    snapshots.add(new HistoricRaySnapshot(barIndex, raySet));
-                }
-                prevAnchorBar = athBar;
-                prevAnchorPrice = athPrice;
-            }
-        }
-
-        return snapshots;
+        return computeHistoricRays(candles, lookback, skip, startBar, true);
     }
 
     /**
      * Compute historic support rays efficiently, only returning snapshots when the anchor (ATL) changes.
-     * This is much more efficient than computing rays for every bar.
+     * A single {@link RayTracker} slides over the bars, so the whole pass is near-linear.
      *
      * @param candles Full candle list
      * @param lookback Number of bars to look back for ATL (0 = unlimited)
@@ -464,12 +513,18 @@ public final class RotatingRays {
      */
     public static List<HistoricRaySnapshot> computeHistoricSupportRays(
             List<Candle> candles, int lookback, int skip, int startBar) {
+        return computeHistoricRays(candles, lookback, skip, startBar, false);
+    }
+
+    private static List<HistoricRaySnapshot> computeHistoricRays(
+            List<Candle> candles, int lookback, int skip, int startBar, boolean resistance) {
 
         List<HistoricRaySnapshot> snapshots = new ArrayList<>();
         if (candles == null || candles.isEmpty()) {
             return snapshots;
         }
 
+        RayTracker tracker = new RayTracker(candles, lookback, skip, resistance);
         int prevAnchorBar = -1;
         double prevAnchorPrice = Double.NaN;
 
@@ -477,32 +532,19 @@ public final class RotatingRays {
         int minStart = Math.max(startBar, 10);
 
         for (int barIndex = minStart; barIndex < candles.size(); barIndex++) {
-            // Find ATL for this bar's view
-            int effectiveEnd = Math.max(0, barIndex + 1 - skip);
-            int effectiveStart = (lookback <= 0) ? 0 : Math.max(0, effectiveEnd - lookback);
-
-            if (effectiveEnd <= effectiveStart) continue;
-
-            // Find ATL in window
-            int atlBar = effectiveStart;
-            double atlPrice = candles.get(effectiveStart).low();
-            for (int i = effectiveStart + 1; i < effectiveEnd; i++) {
-                double low = candles.get(i).low();
-                if (low < atlPrice) {
-                    atlPrice = low;
-                    atlBar = i;
-                }
-            }
+            int anchorBar = tracker.anchorAt(barIndex);
+            if (anchorBar < 0) continue;
+            Candle anchor = candles.get(anchorBar);
+            double anchorPrice = resistance ? anchor.high() : anchor.low();
 
             // Only compute rays if anchor changed
-            if (atlBar != prevAnchorBar || atlPrice != prevAnchorPrice) {
-                List<Candle> availableCandles = candles.subList(0, barIndex + 1);
-                RaySet raySet = calculateSupportRays(availableCandles, lookback, skip);
-                if (raySet != null && raySet.count() > 0) {
+            if (anchorBar != prevAnchorBar || anchorPrice != prevAnchorPrice) {
+                RaySet raySet = tracker.at(barIndex);
+                if (raySet.count() > 0) {
                     snapshots.add(new HistoricRaySnapshot(barIndex, raySet));
                 }
-                prevAnchorBar = atlBar;
-                prevAnchorPrice = atlPrice;
+                prevAnchorBar = anchorBar;
+                prevAnchorPrice = anchorPrice;
             }
         }
 
@@ -21,6 +21,7 @@ public record BacktestResult(
     BacktestConfig config,
     List<Trade> trades,
     PerformanceMetrics metrics,
+    EquitySeries equityCurve, // Per-bar equity, drawdown and exposure (null if not recorded)
     long startTime,
     long endTime,
     int barsProcessed,
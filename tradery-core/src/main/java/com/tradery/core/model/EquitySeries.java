@@ -0,0 +1,204 @@
+package com.tradery.core.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Per-bar equity, drawdown and exposure of a backtest, in primitive arrays.
+ *
+ * Recorded by the engine while it steps (one point per bar, after the bar is processed), so
+ * metrics and charts don't have to replay the trade list. Equity is initial capital plus
+ * realized P&L; exposure is the capital tied up in open trades, valued at entry price;
+ * drawdown is the distance below the running equity peak.
+ *
+ * Serialized by Jackson as one base64 string: a deflated, column-wise binary layout
+ * (timestamp deltas, then equity, then exposure). Drawdown is derived on load.
+ */
+public final class EquitySeries {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final long[] timestamps;
+    private final double[] equity;
+    private final double[] exposure;
+    private final double[] drawdown;
+
+    private EquitySeries(long[] timestamps, double[] equity, double[] exposure) {
+        this.timestamps = timestamps;
+        this.equity = equity;
+        this.exposure = exposure;
+        this.drawdown = new double[equity.length];
+        double peak = equity.length > 0 ? equity[0] : 0;
+        for (int i = 0; i < equity.length; i++) {
+            if (equity[i] > peak) peak = equity[i];
+            drawdown[i] = peak - equity[i];
+        }
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    // ===== Arrays (shared, do not modify) =====
+
+    public long[] timestamps() {
+        return timestamps;
+    }
+
+    public double[] equity() {
+        return equity;
+    }
+
+    public double[] exposure() {
+        return exposure;
+    }
+
+    /**
+     * Peak equity so far minus equity, per bar (0 at a new high).
+     */
+    public double[] drawdown() {
+        return drawdown;
+    }
+
+    // ===== Derived values =====
+
+    /**
+     * Exposure as a percentage of equity at a bar (0 when equity is not positive).
+     */
+    public double capitalUsagePercent(int bar) {
+        return equity[bar] > 0 ? exposure[bar] / equity[bar] * 100 : 0;
+    }
+
+    // ===== Binary form =====
+
+    @JsonValue
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + timestamps.length * 4);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(timestamps.length);
+            long previous = 0;
+            for (long t : timestamps) {
+                out.writeLong(t - previous);
+                previous = t;
+            }
+            for (double v : equity) out.writeDouble(v);
+            for (double v : exposure) out.writeDouble(v);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @JsonCreator
+    public static EquitySeries fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported equity series format: " + version);
+            }
+            int n = in.readInt();
+            long[] timestamps = new long[n];
+            double[] equity = new double[n];
+            double[] exposure = new double[n];
+            long previous = 0;
+            for (int i = 0; i < n; i++) {
+                previous += in.readLong();
+                timestamps[i] = previous;
+            }
+            for (int i = 0; i < n; i++) equity[i] = in.readDouble();
+            for (int i = 0; i < n; i++) exposure[i] = in.readDouble();
+            return new EquitySeries(timestamps, equity, exposure);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Append-only recorder for a series, filled one bar at a time.
+     * Can be truncated to resume recording from an earlier bar.
+     */
+    public static final class Builder {
+        private long[] timestamps;
+        private double[] equity;
+        private double[] exposure;
+        private int size;
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            timestamps = new long[capacity];
+            equity = new double[capacity];
+            exposure = new double[capacity];
+        }
+
+        public Builder add(long timestamp, double equityValue, double exposureValue) {
+            if (size == timestamps.length) {
+                int capacity = size * 2;
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                equity = Arrays.copyOf(equity, capacity);
+                exposure = Arrays.copyOf(exposure, capacity);
+            }
+            timestamps[size] = timestamp;
+            equity[size] = equityValue;
+            exposure[size] = exposureValue;
+            size++;
+            return this;
+        }
+
+        /**
+         * Overwrite the equity of the last point (e.g. after closing positions at end of data).
+         * Its exposure stays: the positions were still open during that bar.
+         */
+        public Builder updateLastEquity(double equityValue) {
+            if (size > 0) {
+                equity[size - 1] = equityValue;
+            }
+            return this;
+        }
+
+        /**
+         * Drop every point from {@code newSize} on.
+         */
+        public void truncate(int newSize) {
+            size = Math.max(0, Math.min(size, newSize));
+        }
+
+        /**
+         * Replace this builder's points with the first {@code count} points of another.
+         */
+        public void copyFrom(Builder other, int count) {
+            int n = Math.min(count, other.size);
+            size = 0;
+            if (timestamps.length < n) {
+                timestamps = new long[n];
+                equity = new double[n];
+                exposure = new double[n];
+            }
+            System.arraycopy(other.timestamps, 0, timestamps, 0, n);
+            System.arraycopy(other.equity, 0, equity, 0, n);
+            System.arraycopy(other.exposure, 0, exposure, 0, n);
+            size = n;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public EquitySeries build() {
+            return new EquitySeries(
+                Arrays.copyOf(timestamps, size),
+                Arrays.copyOf(equity, size),
+                Arrays.copyOf(exposure, size));
+        }
+    }
+}
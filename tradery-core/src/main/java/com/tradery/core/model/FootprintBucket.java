@@ -116,6 +116,18 @@ public record FootprintBucket(
         return !exchangesWithBuyImbalance.isEmpty() && !exchangesWithSellImbalance.isEmpty();
     }
 
+    /**
+     * Buy/sell imbalance ratio (avoids division by zero).
+     */
+    static double imbalanceRatio(double buyVolume, double sellVolume) {
+        if (sellVolume == 0) {
+            return buyVolume > 0 ? Double.MAX_VALUE : 1.0;
+        } else if (buyVolume == 0) {
+            return 0;
+        }
+        return buyVolume / sellVolume;
+    }
+
     /**
      * Builder for constructing FootprintBucket instances.
      */
@@ -157,15 +169,7 @@ public record FootprintBucket(
             double totalSell = sellVolume.values().stream().mapToDouble(Double::doubleValue).sum();
             double delta = totalBuy - totalSell;
 
-            // Calculate imbalance ratio (avoid division by zero)
-            double ratio;
-            if (totalSell == 0) {
-                ratio = totalBuy > 0 ? Double.MAX_VALUE : 1.0;
-            } else if (totalBuy == 0) {
-                ratio = 0;
-            } else {
-                ratio = totalBuy / totalSell;
-            }
+            double ratio = imbalanceRatio(totalBuy, totalSell);
 
             // Find exchanges with imbalances
             Set<Exchange> buyImbalances = EnumSet.noneOf(Exchange.class);
@@ -0,0 +1,336 @@
+package com.tradery.core.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Footprint volume for a series of candles on an integer tick grid.
+ *
+ * Prices map to ticks ({@code round(price / tickSize)}); each bar owns the levels from its
+ * lowest to its highest tick, i.e. the candle range widened by any trade printing outside it.
+ * Buy and sell volume is accumulated per level and per (exchange, market type) slot into
+ * flat primitive arrays. Only slot combinations that occur in the trades get a column, so a
+ * single-venue footprint costs two doubles per level.
+ *
+ * Bucket prices are computed as {@code tick * tickSize}, so levels line up exactly across
+ * bars. {@link Footprint} and {@link FootprintBucket} objects are only created when a bar is
+ * asked for via {@link #footprintAt(int)} or {@link #footprints()}.
+ */
+public final class FootprintGrid {
+
+    private static final Exchange[] EXCHANGES = Exchange.values();
+    private static final DataMarketType[] MARKET_TYPES = DataMarketType.values();
+    private static final int NO_MARKET_TYPE = MARKET_TYPES.length;
+
+    private final double tickSize;
+    private final long[] timestamps;
+    private final double[] highs;
+    private final double[] lows;
+    private final long[] firstTick;      // tick of level 0, per bar
+    private final long[] candleLowTick;  // candle range in ticks, per bar
+    private final long[] candleHighTick;
+    private final int[] levelStart;      // first level of each bar in the flat arrays (size bars + 1)
+
+    private final Exchange[] slotExchange;
+    private final DataMarketType[] slotMarketType;  // null = trade without market type
+    private final double[] buy;          // [(levelStart[bar] + level) * slots + slot]
+    private final double[] sell;
+    private final int tradeCount;
+
+    private final Footprint[] materialized;
+    private final List<Footprint> footprints;
+    private volatile double maxLevelVolume = Double.NaN;
+
+    private FootprintGrid(double tickSize, long[] timestamps, double[] highs, double[] lows,
+                          long[] firstTick, long[] candleLowTick, long[] candleHighTick, int[] levelStart,
+                          Exchange[] slotExchange, DataMarketType[] slotMarketType,
+                          double[] buy, double[] sell, int tradeCount) {
+        this.tickSize = tickSize;
+        this.timestamps = timestamps;
+        this.highs = highs;
+        this.lows = lows;
+        this.firstTick = firstTick;
+        this.candleLowTick = candleLowTick;
+        this.candleHighTick = candleHighTick;
+        this.levelStart = levelStart;
+        this.slotExchange = slotExchange;
+        this.slotMarketType = slotMarketType;
+        this.buy = buy;
+        this.sell = sell;
+        this.tradeCount = tradeCount;
+        this.materialized = new Footprint[timestamps.length];
+        this.footprints = new LazyFootprints();
+    }
+
+    /**
+     * Accumulate trades onto the tick grid.
+     *
+     * @param candles   Candles defining the bars
+     * @param tickSize  Price level size
+     * @param trades    Trades in time order
+     * @param tradeBars Bar index per trade, or -1 for trades to skip
+     */
+    public static FootprintGrid build(List<Candle> candles, double tickSize, List<AggTrade> trades, int[] tradeBars) {
+        int bars = candles.size();
+        long[] timestamps = new long[bars];
+        double[] highs = new double[bars];
+        double[] lows = new double[bars];
+        long[] lowTick = new long[bars];
+        long[] highTick = new long[bars];
+        long[] firstTick = new long[bars];
+        long[] lastTick = new long[bars];
+
+        for (int b = 0; b < bars; b++) {
+            Candle c = candles.get(b);
+            timestamps[b] = c.timestamp();
+            highs[b] = c.high();
+            lows[b] = c.low();
+            lowTick[b] = Math.round(c.low() / tickSize);
+            highTick[b] = Math.round(c.high() / tickSize);
+            firstTick[b] = lowTick[b];
+            lastTick[b] = highTick[b];
+        }
+
+        // Pass 1: widen bar ranges to cover every trade and assign slots
+        int[] slotOf = new int[EXCHANGES.length * (NO_MARKET_TYPE + 1)];
+        Arrays.fill(slotOf, -1);
+        int slots = 0;
+        int tradeCount = 0;
+        for (int i = 0; i < tradeBars.length; i++) {
+            int b = tradeBars[i];
+            if (b < 0) continue;
+            AggTrade trade = trades.get(i);
+            long tick = Math.round(trade.price() / tickSize);
+            if (tick < firstTick[b]) firstTick[b] = tick;
+            if (tick > lastTick[b]) lastTick[b] = tick;
+            int key = slotKey(trade);
+            if (slotOf[key] < 0) slotOf[key] = slots++;
+            tradeCount++;
+        }
+
+        Exchange[] slotExchange = new Exchange[slots];
+        DataMarketType[] slotMarketType = new DataMarketType[slots];
+        for (int key = 0; key < slotOf.length; key++) {
+            int slot = slotOf[key];
+            if (slot < 0) continue;
+            slotExchange[slot] = EXCHANGES[key / (NO_MARKET_TYPE + 1)];
+            int mt = key % (NO_MARKET_TYPE + 1);
+            slotMarketType[slot] = mt == NO_MARKET_TYPE ? null : MARKET_TYPES[mt];
+        }
+
+        int[] levelStart = new int[bars + 1];
+        for (int b = 0; b < bars; b++) {
+            levelStart[b + 1] = Math.addExact(levelStart[b], Math.toIntExact(lastTick[b] - firstTick[b] + 1));
+        }
+
+        // Pass 2: accumulate volume
+        int cells = Math.multiplyExact(levelStart[bars], slots);
+        double[] buy = new double[cells];
+        double[] sell = new double[cells];
+        for (int i = 0; i < tradeBars.length; i++) {
+            int b = tradeBars[i];
+            if (b < 0) continue;
+            AggTrade trade = trades.get(i);
+            int level = (int) (Math.round(trade.price() / tickSize) - firstTick[b]);
+            int cell = (levelStart[b] + level) * slots + slotOf[slotKey(trade)];
+            if (trade.isBuyerMaker()) {
+                // Seller is taker (aggressive sell)
+                sell[cell] += trade.quantity();
+            } else {
+                // Buyer is taker (aggressive buy)
+                buy[cell] += trade.quantity();
+            }
+        }
+
+        return new FootprintGrid(tickSize, timestamps, highs, lows, firstTick, lowTick, highTick, levelStart,
+            slotExchange, slotMarketType, buy, sell, tradeCount);
+    }
+
+    private static int slotKey(AggTrade trade) {
+        Exchange exchange = trade.exchange() != null ? trade.exchange() : Exchange.BINANCE;
+        DataMarketType marketType = trade.marketType();
+        return exchange.ordinal() * (NO_MARKET_TYPE + 1) + (marketType != null ? marketType.ordinal() : NO_MARKET_TYPE);
+    }
+
+    // ===== Bars =====
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public double tickSize() {
+        return tickSize;
+    }
+
+    public int tradeCount() {
+        return tradeCount;
+    }
+
+    public long timestamp(int bar) {
+        return timestamps[bar];
+    }
+
+    /**
+     * Index of the last bar starting at or before the timestamp, or -1 if before the first bar.
+     */
+    public int barAt(long timestamp) {
+        int lo = 0, hi = timestamps.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] <= timestamp) lo = mid + 1; else hi = mid;
+        }
+        return lo - 1;
+    }
+
+    // ===== Levels =====
+
+    private int levelCount(int bar) {
+        return levelStart[bar + 1] - levelStart[bar];
+    }
+
+    private double levelBuy(int bar, int level) {
+        return sum(buy, (levelStart[bar] + level) * slotExchange.length);
+    }
+
+    private double levelSell(int bar, int level) {
+        return sum(sell, (levelStart[bar] + level) * slotExchange.length);
+    }
+
+    private double sum(double[] cells, int from) {
+        double total = 0;
+        for (int s = 0; s < slotExchange.length; s++) {
+            total += cells[from + s];
+        }
+        return total;
+    }
+
+    /**
+     * Levels inside the candle range always get a bucket; levels outside it only when traded.
+     */
+    private boolean isListed(int bar, int level) {
+        long tick = firstTick[bar] + level;
+        if (tick >= candleLowTick[bar] && tick <= candleHighTick[bar]) return true;
+        return levelBuy(bar, level) + levelSell(bar, level) > 0;
+    }
+
+    /**
+     * Highest buy + sell volume at any single level (heatmap normalization), computed once.
+     */
+    public double maxLevelVolume() {
+        double max = maxLevelVolume;
+        if (Double.isNaN(max)) {
+            int slots = slotExchange.length;
+            max = 0;
+            for (int cell = 0; cell < buy.length; cell += slots) {
+                max = Math.max(max, sum(buy, cell) + sum(sell, cell));
+            }
+            maxLevelVolume = max;
+        }
+        return max;
+    }
+
+    /**
+     * Buy minus sell volume over a bar.
+     */
+    public double totalDelta(int bar) {
+        int from = levelStart[bar] * slotExchange.length;
+        int to = levelStart[bar + 1] * slotExchange.length;
+        double delta = 0;
+        for (int cell = from; cell < to; cell++) {
+            delta += buy[cell] - sell[cell];
+        }
+        return delta;
+    }
+
+    /**
+     * Longest run of consecutive levels with a significant buy (or sell) imbalance.
+     */
+    public int stackedImbalances(int bar, boolean buyImbalance) {
+        int max = 0, current = 0;
+        for (int level = 0; level < levelCount(bar); level++) {
+            if (!isListed(bar, level)) continue;
+            double ratio = FootprintBucket.imbalanceRatio(levelBuy(bar, level), levelSell(bar, level));
+            boolean imbalanced = buyImbalance
+                ? ratio >= FootprintBucket.SIGNIFICANT_IMBALANCE
+                : ratio <= 1.0 / FootprintBucket.SIGNIFICANT_IMBALANCE;
+            if (imbalanced) {
+                current++;
+                max = Math.max(max, current);
+            } else {
+                current = 0;
+            }
+        }
+        return max;
+    }
+
+    // ===== Materialization =====
+
+    /**
+     * Footprint for a bar, built on first access and cached.
+     * Footprints are immutable, so concurrent callers at worst build the same bar twice.
+     */
+    public Footprint footprintAt(int bar) {
+        Footprint footprint = materialized[bar];
+        if (footprint == null) {
+            footprint = materialize(bar);
+            materialized[bar] = footprint;
+        }
+        return footprint;
+    }
+
+    /**
+     * One footprint per bar, materialized on access.
+     */
+    public List<Footprint> footprints() {
+        return footprints;
+    }
+
+    private Footprint materialize(int bar) {
+        Footprint.Builder builder = new Footprint.Builder()
+            .timestamp(timestamps[bar])
+            .barIndex(bar)
+            .high(highs[bar])
+            .low(lows[bar])
+            .tickSize(tickSize);
+
+        int slots = slotExchange.length;
+        for (int level = 0; level < levelCount(bar); level++) {
+            if (!isListed(bar, level)) continue;
+
+            FootprintBucket.Builder bucket = new FootprintBucket.Builder((firstTick[bar] + level) * tickSize);
+            int cell = (levelStart[bar] + level) * slots;
+            for (int s = 0; s < slots; s++, cell++) {
+                double buyVolume = buy[cell];
+                double sellVolume = sell[cell];
+                if (buyVolume == 0 && sellVolume == 0) continue;
+
+                Exchange exchange = slotExchange[s];
+                DataMarketType marketType = slotMarketType[s];
+                if (buyVolume != 0) bucket.addBuyVolume(exchange, marketType, buyVolume);
+                if (sellVolume != 0) bucket.addSellVolume(exchange, marketType, sellVolume);
+
+                // Track per-exchange and per-market-type delta/volume
+                builder.addDelta(exchange, buyVolume - sellVolume);
+                builder.addMarketTypeDelta(marketType, buyVolume - sellVolume);
+                builder.addMarketTypeVolume(marketType, buyVolume + sellVolume);
+            }
+            builder.addBucket(bucket.build());
+        }
+
+        return builder.build();
+    }
+
+    private final class LazyFootprints extends AbstractList<Footprint> implements RandomAccess {
+        @Override
+        public Footprint get(int index) {
+            return footprintAt(index);
+        }
+
+        @Override
+        public int size() {
+            return timestamps.length;
+        }
+    }
+}
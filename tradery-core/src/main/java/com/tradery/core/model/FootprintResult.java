@@ -19,8 +19,37 @@ public record FootprintResult(
     int totalTrades,
     double avgDeltaPerBar,
     int maxStackedBuyImbalances,
-    int maxStackedSellImbalances
+    int maxStackedSellImbalances,
+
+    FootprintGrid grid               // Tick grid backing the footprints (null when built from footprint objects)
 ) {
+    /**
+     * Create a result backed by a tick grid. Footprints are materialized on access;
+     * aggregate statistics are computed from the grid.
+     */
+    public static FootprintResult of(FootprintGrid grid, String symbol, String timeframe) {
+        double totalDelta = 0;
+        int maxBuy = 0, maxSell = 0;
+        for (int i = 0; i < grid.size(); i++) {
+            totalDelta += grid.totalDelta(i);
+            maxBuy = Math.max(maxBuy, grid.stackedImbalances(i, true));
+            maxSell = Math.max(maxSell, grid.stackedImbalances(i, false));
+        }
+        double avgDelta = grid.size() == 0 ? 0 : totalDelta / grid.size();
+
+        return new FootprintResult(
+            grid.footprints(),
+            grid.tickSize(),
+            symbol,
+            timeframe,
+            grid.tradeCount(),
+            avgDelta,
+            maxBuy,
+            maxSell,
+            grid
+        );
+    }
+
     /**
      * Get footprint for a specific bar index.
      */
@@ -35,12 +64,47 @@ public record FootprintResult(
      * Get footprint for a specific timestamp.
      */
     public Footprint getAtTimestamp(long timestamp) {
+        if (grid != null) {
+            int bar = grid.barAt(timestamp);
+            return bar >= 0 && grid.timestamp(bar) == timestamp ? grid.footprintAt(bar) : null;
+        }
         return footprints.stream()
             .filter(f -> f.timestamp() == timestamp)
             .findFirst()
             .orElse(null);
     }
 
+    /**
+     * Get the candle timestamp of a bar without materializing its footprint.
+     */
+    public long timestampAt(int barIndex) {
+        return grid != null ? grid.timestamp(barIndex) : footprints.get(barIndex).timestamp();
+    }
+
+    /**
+     * Index of the last bar starting at or before the timestamp, or -1 if before the first bar.
+     */
+    public int barAt(long timestamp) {
+        int lo = 0, hi = footprints.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestampAt(mid) <= timestamp) lo = mid + 1; else hi = mid;
+        }
+        return lo - 1;
+    }
+
+    /**
+     * Get the highest total volume at any single price level (for heatmap normalization).
+     */
+    public double maxLevelVolume() {
+        if (grid != null) return grid.maxLevelVolume();
+        return footprints.stream()
+            .flatMap(f -> f.buckets().stream())
+            .mapToDouble(FootprintBucket::totalVolume)
+            .max()
+            .orElse(1.0);
+    }
+
     /**
      * Get footprints in a bar index range.
      */
@@ -55,6 +119,13 @@ public record FootprintResult(
      * Get total delta across all footprints.
      */
     public double totalDelta() {
+        if (grid != null) {
+            double total = 0;
+            for (int i = 0; i < grid.size(); i++) {
+                total += grid.totalDelta(i);
+            }
+            return total;
+        }
         return footprints.stream()
             .mapToDouble(Footprint::totalDelta)
             .sum();
@@ -67,7 +138,7 @@ public record FootprintResult(
         double[] result = new double[footprints.size()];
         double cumulative = 0;
         for (int i = 0; i < footprints.size(); i++) {
-            cumulative += footprints.get(i).totalDelta();
+            cumulative += grid != null ? grid.totalDelta(i) : footprints.get(i).totalDelta();
             result[i] = cumulative;
         }
         return result;
@@ -179,7 +250,8 @@ public record FootprintResult(
                 totalTrades,
                 avgDelta,
                 maxBuy,
-                maxSell
+                maxSell,
+                null
             );
         }
     }
@@ -67,8 +67,11 @@ public record PerformanceMetrics(
         double peak = initialCapital;
         double maxDD = 0;
 
-        java.util.List<Double> returns = new java.util.ArrayList<>();
-        java.util.List<Double> negativeReturns = new java.util.ArrayList<>();  // For Sortino
+        // Sharpe/Sortino moments, accumulated in one pass (Welford for the variance)
+        int returnCount = 0;
+        double meanReturn = 0;
+        double squaredDeviations = 0;
+        double downsideSquares = 0;
 
         // Streak tracking
         int currentWinStreak = 0;
@@ -120,9 +123,13 @@ public record PerformanceMetrics(
 
             // Returns for Sharpe/Sortino calculation
             if (t.pnlPercent() != null) {
-                returns.add(t.pnlPercent());
-                if (t.pnlPercent() < 0) {
-                    negativeReturns.add(t.pnlPercent());
+                double r = t.pnlPercent();
+                returnCount++;
+                double delta = r - meanReturn;
+                meanReturn += delta / returnCount;
+                squaredDeviations += delta * (r - meanReturn);
+                if (r < 0) {
+                    downsideSquares += r * r;
                 }
             }
 
@@ -160,22 +167,16 @@ public record PerformanceMetrics(
         // Sharpe and Sortino Ratios (annualized, assuming 252 trading days)
         double sharpe = 0;
         double sortino = 0;
-        if (!returns.isEmpty()) {
-            final double mean = returns.stream().mapToDouble(d -> d).average().orElse(0);
-            double variance = returns.stream().mapToDouble(d -> Math.pow(d - mean, 2)).average().orElse(0);
-            double stdDev = Math.sqrt(variance);
+        if (returnCount > 0) {
+            double stdDev = Math.sqrt(squaredDeviations / returnCount);
             if (stdDev > 0) {
-                sharpe = (mean / stdDev) * Math.sqrt(252);
+                sharpe = (meanReturn / stdDev) * Math.sqrt(252);
             }
 
             // Sortino Ratio (uses only downside deviation)
-            double downsideVariance = returns.stream()
-                .mapToDouble(r -> r < 0 ? r * r : 0)
-                .average()
-                .orElse(0);
-            double downsideDeviation = Math.sqrt(downsideVariance);
+            double downsideDeviation = Math.sqrt(downsideSquares / returnCount);
             if (downsideDeviation > 0) {
-                sortino = (mean / downsideDeviation) * Math.sqrt(252);
+                sortino = (meanReturn / downsideDeviation) * Math.sqrt(252);
             }
         }
 
@@ -183,7 +184,7 @@ public record PerformanceMetrics(
         double avgMfe = mfeCount > 0 ? totalMfe / mfeCount : 0;
         double avgMae = maeCount > 0 ? totalMae / maeCount : 0;
 
-        // Calculate max capital usage
+        // Calculate max capital usage (from trades: the bar-close curve misses intra-bar peaks)
         double[] maxCap = calculateMaxCapitalUsage(trades, initialCapital);
 
         return new PerformanceMetrics(
@@ -195,7 +196,7 @@ public record PerformanceMetrics(
     }
 
     /**
-     * Calculate max capital usage (percentage and dollars) from trades
+     * Calculate max capital usage (percentage and dollars) from trades.
      */
     private static double[] calculateMaxCapitalUsage(java.util.List<Trade> trades, double initialCapital) {
         // Filter valid trades (non-rejected)
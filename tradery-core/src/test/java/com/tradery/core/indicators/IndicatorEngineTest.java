@@ -0,0 +1,77 @@
+package com.tradery.core.indicators;
+
+import com.tradery.core.model.Candle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IndicatorEngine's incremental cache extension.
+ */
+class IndicatorEngineTest {
+
+    private static final String RESOLUTION = "1h";
+
+    @Test
+    @DisplayName("ATR extended from exactly period bars matches a full calculation")
+    void atrExtendedFromPeriodBars() {
+        List<Candle> candles = randomWalk(40);
+        IndicatorEngine engine = new IndicatorEngine();
+        engine.setCandles(candles.subList(0, 14), RESOLUTION);
+        engine.getATR(14);  // All NaN: ATR(14) needs 15 bars
+
+        engine.appendCandles(candles, RESOLUTION);
+
+        assertArrayEquals(Indicators.atr(candles, 14), engine.getATR(14), 1e-9);
+    }
+
+    @Test
+    @DisplayName("ATR extended by appended bars matches a full calculation")
+    void atrExtendedByAppendedBars() {
+        List<Candle> candles = randomWalk(200);
+        IndicatorEngine engine = new IndicatorEngine();
+        engine.setCandles(candles.subList(0, 150), RESOLUTION);
+        engine.getATR(14);
+
+        engine.appendCandles(candles, RESOLUTION);
+
+        assertArrayEquals(Indicators.atr(candles, 14), engine.getATR(14), 1e-9);
+    }
+
+    @Test
+    @DisplayName("EMA extended after the last bar changed matches a full calculation")
+    void emaExtendedAfterLastBarChanged() {
+        List<Candle> candles = randomWalk(100);
+        IndicatorEngine engine = new IndicatorEngine();
+        engine.setCandles(candles, RESOLUTION);
+        engine.getEMA(20);
+
+        List<Candle> updated = new ArrayList<>(candles);
+        Candle last = updated.getLast();
+        updated.set(updated.size() - 1, new Candle(last.timestamp(), last.open(), last.high() + 1,
+            last.low(), last.high() + 0.5, last.volume()));
+        engine.appendCandles(updated, RESOLUTION);
+
+        assertArrayEquals(Indicators.ema(updated, 20), engine.getEMA(20), 1e-9);
+    }
+
+    private static List<Candle> randomWalk(int bars) {
+        Random random = new Random(42);
+        List<Candle> candles = new ArrayList<>(bars);
+        double price = 100;
+        for (int i = 0; i < bars; i++) {
+            double open = price;
+            double close = open * (1 + random.nextGaussian() * 0.01);
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.005);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.005);
+            candles.add(new Candle(1_600_000_000_000L + i * 3_600_000L, open, high, low, close, 1000));
+            price = close;
+        }
+        return candles;
+    }
+}
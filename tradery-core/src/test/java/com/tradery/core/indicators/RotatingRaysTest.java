@@ -0,0 +1,165 @@
+package com.tradery.core.indicators;
+
+import com.tradery.core.indicators.RotatingRays.Ray;
+import com.tradery.core.indicators.RotatingRays.RaySet;
+import com.tradery.core.indicators.RotatingRays.RayTracker;
+import com.tradery.core.model.Candle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RotatingRays, checked against the original brute-force search.
+ */
+class RotatingRaysTest {
+
+    @Test
+    @DisplayName("Rays match the brute-force search on random candles")
+    void matchesBruteForce() {
+        Random random = new Random(7);
+        for (double start : new double[]{100, 50_000, 0.00001}) {
+            for (int run = 0; run < 20; run++) {
+                List<Candle> candles = randomWalk(random, 150, start, 0);
+                int lookback = random.nextInt(60);
+                int skip = random.nextInt(5);
+                assertEquals(bruteForce(candles, lookback, skip, true),
+                    RotatingRays.calculateResistanceRays(candles, lookback, skip));
+                assertEquals(bruteForce(candles, lookback, skip, false),
+                    RotatingRays.calculateSupportRays(candles, lookback, skip));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Tracker sliding forward matches the brute-force search at every bar")
+    void trackerMatchesBruteForce() {
+        Random random = new Random(11);
+        for (double tick : new double[]{0, 0.5, 0.00000001}) {
+            double start = tick == 0.00000001 ? 0.00001 : 100;
+            for (int run = 0; run < 10; run++) {
+                List<Candle> candles = randomWalk(random, 200, start, tick);
+                assertTrackerMatches(candles, 1 + random.nextInt(80), random.nextInt(4));
+                assertTrackerMatches(candles, 0, random.nextInt(4));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Tracker follows a steady trend where the anchor leaves the window every bar")
+    void trackerFollowsSteadyTrend() {
+        List<Candle> candles = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 400; i++) {
+            double base = 1000 - i + random.nextDouble() * 3;
+            candles.add(new Candle(1_600_000_000_000L + i * 3_600_000L, base, base + 2, base - 2, base, 1000));
+        }
+        assertTrackerMatches(candles, 50, 0);
+        assertTrackerMatches(candles, 50, 2);
+    }
+
+    @Test
+    @DisplayName("Tracker asked for an earlier bar matches the brute-force search")
+    void trackerGoingBackwards() {
+        List<Candle> candles = randomWalk(new Random(5), 120, 100, 0);
+        RayTracker tracker = new RayTracker(candles, 40, 1, true);
+        for (int bar : new int[]{110, 119, 30, 31, 90, 2, 119}) {
+            assertEquals(bruteForce(candles.subList(0, bar + 1), 40, 1, true), tracker.at(bar), "bar " + bar);
+        }
+    }
+
+    private static void assertTrackerMatches(List<Candle> candles, int lookback, int skip) {
+        RayTracker resistance = new RayTracker(candles, lookback, skip, true);
+        RayTracker support = new RayTracker(candles, lookback, skip, false);
+        for (int bar = 0; bar < candles.size(); bar++) {
+            List<Candle> visible = candles.subList(0, bar + 1);
+            RaySet expected = bruteForce(visible, lookback, skip, true);
+            assertEquals(expected, resistance.at(bar), "resistance at bar " + bar);
+            assertEquals(expected.anchorBar(), resistance.anchorAt(bar), "anchor at bar " + bar);
+            assertEquals(bruteForce(visible, lookback, skip, false), support.at(bar), "support at bar " + bar);
+        }
+    }
+
+    private static List<Candle> randomWalk(Random random, int bars, double start, double tick) {
+        List<Candle> candles = new ArrayList<>(bars);
+        double price = start;
+        for (int i = 0; i < bars; i++) {
+            double open = price;
+            double close = open * (1 + random.nextGaussian() * 0.02);
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.01);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.01);
+            if (tick > 0) {
+                // Tick-rounded prices repeat, giving equal and collinear peaks
+                high = Math.ceil(high / tick) * tick;
+                low = Math.floor(low / tick) * tick;
+            }
+            candles.add(new Candle(1_600_000_000_000L + i * 3_600_000L, open, high, low, close, 1000));
+            price = close;
+        }
+        return candles;
+    }
+
+    /**
+     * The rotating search as originally written: for each candidate peak, check that no bar
+     * in between rises above its ray (with a small tolerance), and take the flattest one.
+     */
+    private static RaySet bruteForce(List<Candle> candles, int lookback, int skip, boolean resistance) {
+        int size = candles.size();
+        int effectiveEnd = Math.max(0, size - skip);
+        int effectiveStart = (lookback <= 0) ? 0 : Math.max(0, effectiveEnd - lookback);
+        if (effectiveEnd <= effectiveStart) {
+            return new RaySet(List.of(), -1, Double.NaN, resistance);
+        }
+        double sign = resistance ? 1 : -1;
+
+        int anchorBar = effectiveStart;
+        double anchorPrice = price(candles, effectiveStart, resistance);
+        for (int i = effectiveStart + 1; i < effectiveEnd; i++) {
+            double p = price(candles, i, resistance);
+            if (sign * p > sign * anchorPrice) {
+                anchorPrice = p;
+                anchorBar = i;
+            }
+        }
+
+        List<Ray> rays = new ArrayList<>();
+        int currentBar = anchorBar;
+        double currentPrice = anchorPrice;
+        while (currentBar < effectiveEnd - 1) {
+            int nextBar = -1;
+            double nextPrice = Double.NaN;
+            double bestSlope = Double.NaN;
+            for (int i = currentBar + 1; i < effectiveEnd; i++) {
+                double candidatePrice = price(candles, i, resistance);
+                double candidateSlope = (candidatePrice - currentPrice) / (i - currentBar);
+                boolean valid = true;
+                for (int j = currentBar + 1; j < i; j++) {
+                    double rayPrice = currentPrice + candidateSlope * (j - currentBar);
+                    if (sign * price(candles, j, resistance) > sign * rayPrice + 0.0001) {
+                        valid = false;
+                        break;
+                    }
+                }
+                if (valid && (nextBar < 0 || sign * candidateSlope > sign * bestSlope)) {
+                    bestSlope = candidateSlope;
+                    nextBar = i;
+                    nextPrice = candidatePrice;
+                }
+            }
+            if (nextBar < 0) break;
+            rays.add(new Ray(currentBar, currentPrice, nextBar, nextPrice, bestSlope));
+            currentBar = nextBar;
+            currentPrice = nextPrice;
+        }
+        return new RaySet(rays, anchorBar, anchorPrice, resistance);
+    }
+
+    private static double price(List<Candle> candles, int bar, boolean resistance) {
+        Candle c = candles.get(bar);
+        return resistance ? c.high() : c.low();
+    }
+}
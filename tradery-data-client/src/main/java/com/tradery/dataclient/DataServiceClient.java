@@ -93,6 +93,16 @@ public class DataServiceClient {
     public CompletableFuture<byte[]> subscribePage(DataType dataType, String symbol, String timeframe,
                                                      long startTime, long endTime,
                                                      DataPageCallback callback) {
+        return subscribePage(dataType, symbol, timeframe, startTime, endTime, null, callback);
+    }
+
+    /**
+     * Subscribe to a page via WebSocket with a download priority ("interactive" when null,
+     * "backtest" or "preload"). See {@link #subscribePage(DataType, String, String, long, long, DataPageCallback)}.
+     */
+    public CompletableFuture<byte[]> subscribePage(DataType dataType, String symbol, String timeframe,
+                                                     long startTime, long endTime, String priority,
+                                                     DataPageCallback callback) {
         DataServiceConnection conn = this.connection;
         if (conn == null || !conn.isConnected()) {
             CompletableFuture<byte[]> failed = new CompletableFuture<>();
@@ -103,7 +113,7 @@ public class DataServiceClient {
         // WS path: subscribe to page updates + register data callback
         CompletableFuture<byte[]> future = new CompletableFuture<>();
 
-        conn.subscribePage(dataType, symbol, timeframe, startTime, endTime,
+        conn.subscribePage(dataType, symbol, timeframe, startTime, endTime, priority,
             new DataServiceConnection.PageUpdateCallback() {
                 @Override
                 public void onStateChanged(String state, int progress) {
@@ -167,6 +177,17 @@ public class DataServiceClient {
         return future;
     }
 
+    /**
+     * Raise the download priority of a subscribed page (e.g. a read-ahead page a consumer now waits on).
+     */
+    public void raisePagePriority(DataType dataType, String symbol, String timeframe,
+                                  long startTime, long endTime, String priority) {
+        DataServiceConnection conn = this.connection;
+        if (conn != null) {
+            conn.raisePagePriority(dataType, symbol, timeframe, startTime, endTime, priority);
+        }
+    }
+
     /**
      * Unsubscribe from a page.
      */
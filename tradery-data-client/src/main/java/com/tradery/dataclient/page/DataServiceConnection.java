@@ -201,8 +201,19 @@ public class DataServiceConnection {
      */
     public void subscribePage(DataType dataType, String symbol, String timeframe,
                               long startTime, long endTime, PageUpdateCallback callback) {
+        subscribePage(dataType, symbol, timeframe, startTime, endTime, null, callback);
+    }
+
+    /**
+     * Subscribe to page updates with a download priority.
+     *
+     * @param priority   "interactive" (default when null), "backtest" or "preload"; only
+     *                   decides when the data service downloads the page if it isn't cached
+     */
+    public void subscribePage(DataType dataType, String symbol, String timeframe,
+                              long startTime, long endTime, String priority, PageUpdateCallback callback) {
         String pageKey = makePageKey(dataType, symbol, timeframe, "perp", startTime, endTime);
-        PageRequest request = new PageRequest(dataType, symbol, timeframe, startTime, endTime);
+        PageRequest request = new PageRequest(dataType, symbol, timeframe, startTime, endTime, priority);
 
         LOG.debug("Subscribing to page: {} (connected={})", pageKey, isConnected());
 
@@ -263,6 +274,18 @@ public class DataServiceConnection {
         }
     }
 
+    /**
+     * Raise the download priority of a page already subscribed to, e.g. when a page loaded
+     * ahead at "preload" is now waited on. No-op when disconnected (the page is requested again
+     * on reconnect).
+     */
+    public void raisePagePriority(DataType dataType, String symbol, String timeframe,
+                                  long startTime, long endTime, String priority) {
+        if (isConnected()) {
+            sendSubscribePage(new PageRequest(dataType, symbol, timeframe, startTime, endTime, priority));
+        }
+    }
+
     /**
      * Unsubscribe from page updates.
      */
@@ -545,6 +568,9 @@ public class DataServiceConnection {
             message.put("startTime", request.startTime);
             message.put("endTime", request.endTime);
             message.put("consumerName", consumerName);
+            if (request.priority != null) {
+                message.put("priority", request.priority);
+            }
 
             String json = objectMapper.writeValueAsString(message);
             webSocket.send(json);
@@ -1274,14 +1300,15 @@ public class DataServiceConnection {
      * Internal page request tracking.
      */
     private record PageRequest(DataType dataType, String symbol, String timeframe, String marketType,
-                               long startTime, long endTime, long windowDurationMillis, boolean isLive) {
+                               long startTime, long endTime, long windowDurationMillis, boolean isLive,
+                               String priority) {
         // Anchored page constructor (defaults to perp)
-        PageRequest(DataType dataType, String symbol, String timeframe, long startTime, long endTime) {
-            this(dataType, symbol, timeframe, "perp", startTime, endTime, endTime - startTime, false);
+        PageRequest(DataType dataType, String symbol, String timeframe, long startTime, long endTime, String priority) {
+            this(dataType, symbol, timeframe, "perp", startTime, endTime, endTime - startTime, false, priority);
         }
         // Live page constructor with marketType
         PageRequest(DataType dataType, String symbol, String timeframe, String marketType, long windowDurationMillis, boolean isLive) {
-            this(dataType, symbol, timeframe, marketType != null ? marketType : "perp", 0, 0, windowDurationMillis, isLive);
+            this(dataType, symbol, timeframe, marketType != null ? marketType : "perp", 0, 0, windowDurationMillis, isLive, null);
         }
     }
 
@@ -8,6 +8,7 @@ import com.tradery.data.page.DataPageView;
 import com.tradery.data.page.DataType;
 import com.tradery.data.page.PageKey;
 import com.tradery.data.page.PageState;
+import com.tradery.data.page.ReadAheadPolicy;
 import org.msgpack.jackson.dataformat.MessagePackFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +17,7 @@ import javax.swing.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -33,6 +35,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * Key differences:
  * - Data sourced from data-service via HTTP/WebSocket
  * - Live updates can be enabled per-page
+ *
+ * Read-ahead works as in forge's DataPageManager: a request inside a loaded page (anchored,
+ * or the candles a live page holds) is filled from it, and panning or extending a range
+ * subscribes a page covering the next step at "preload" priority. Unrequested read-ahead pages
+ * are dropped after {@link #READ_AHEAD_TTL_MS}, checked on each request.
  */
 public class RemoteCandlePageManager {
     private static final Logger LOG = LoggerFactory.getLogger(RemoteCandlePageManager.class);
@@ -53,6 +60,12 @@ public class RemoteCandlePageManager {
     // Reference counting: pageKey -> count
     private final Map<String, Integer> refCounts = new ConcurrentHashMap<>();
 
+    // Read-ahead pages nobody requested yet: pageKey -> expiry time
+    private static final long READ_AHEAD_TTL_MS = 60_000;
+    private final ReadAheadPolicy readAhead = new ReadAheadPolicy();
+    private final Map<String, Long> readAheadPages = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pageHits = new ConcurrentHashMap<>();
+
     private volatile boolean shutdown = false;
 
     /**
@@ -100,18 +113,29 @@ public class RemoteCandlePageManager {
                                          DataPageListener<Candle> listener,
                                          String consumerName) {
         String key = makeKey(symbol, timeframe, "perp", startTime, endTime);
+        boolean fromReadAhead = readAheadPages.remove(key) != null;
+        expireReadAheads();
 
         // Get or create page
+        boolean[] created = {false};
         DataPage<Candle> page = pages.computeIfAbsent(key, k -> {
-            DataPage<Candle> newPage = new DataPage<>(DataType.CANDLES, symbol, timeframe, startTime, endTime);
-            // Subscribe to updates from data-service
-            connection.subscribePage(DataType.CANDLES, symbol, timeframe, startTime, endTime,
-                createPageCallback(key));
-            // Register for binary data delivery
-            connection.setPageDataCallback(key, createDataCallback(key));
-            return newPage;
+            created[0] = true;
+            return new DataPage<>(DataType.CANDLES, symbol, timeframe, startTime, endTime);
         });
 
+        if (created[0]) {
+            if (!fillFromCoveringPage(key, page)) {
+                readAhead.recordMiss();
+                subscribe(key, page, null);
+            }
+        } else {
+            recordHit(key, page, fromReadAhead);
+            if (fromReadAhead && !page.isReady()) {
+                // Waited on now: no longer a preload
+                connection.raisePagePriority(DataType.CANDLES, symbol, timeframe, startTime, endTime, "interactive");
+            }
+        }
+
         // Register listener
         if (listener != null) {
             listeners.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(listener);
@@ -129,6 +153,7 @@ public class RemoteCandlePageManager {
         refCounts.merge(key, 1, Integer::sum);
 
         LOG.debug("Page requested: {} (refCount={})", key, refCounts.get(key));
+        scheduleReadAhead(symbol, timeframe, startTime, endTime, consumerName);
         return page;
     }
 
@@ -165,7 +190,9 @@ public class RemoteCandlePageManager {
         String key = makeLiveKey(symbol, timeframe, marketType, duration);
 
         // Get or create page
+        boolean[] created = {false};
         DataPage<Candle> page = pages.computeIfAbsent(key, k -> {
+            created[0] = true;
             long now = System.currentTimeMillis();
             DataPage<Candle> newPage = DataPage.live(DataType.CANDLES, symbol, timeframe, marketType, now - duration, now, duration);
             // Subscribe to live page updates from data-service
@@ -191,6 +218,15 @@ public class RemoteCandlePageManager {
         // Increment reference count
         refCounts.merge(key, 1, Integer::sum);
 
+        if (created[0]) {
+            readAhead.recordMiss();
+        } else {
+            recordHit(key, page, false);
+        }
+        // The live window is where panning back starts from
+        long now = System.currentTimeMillis();
+        readAhead.onRequest(consumerName + '|' + symbol + '|' + timeframe, now - duration, now, now);
+
         LOG.debug("Live page requested: {} (refCount={})", key, refCounts.get(key));
         return page;
     }
@@ -281,12 +317,21 @@ public class RemoteCandlePageManager {
                 page.getRecordCount(),
                 page.getLoadProgress(),
                 new ArrayList<>(pageConsumers),
-                page.isLiveEnabled()
+                page.isLiveEnabled(),
+                readAheadPages.containsKey(key),
+                pageHits.getOrDefault(key, 0)
             ));
         }
         return result;
     }
 
+    /**
+     * Read-ahead hit and miss counters.
+     */
+    public ReadAheadPolicy.Stats getReadAheadStats() {
+        return readAhead.stats();
+    }
+
     /**
      * Get number of active pages.
      */
@@ -308,6 +353,103 @@ public class RemoteCandlePageManager {
 
     // ========== Internal Methods ==========
 
+    private void subscribe(String key, DataPage<Candle> page, String priority) {
+        // Subscribe to updates from data-service
+        connection.subscribePage(DataType.CANDLES, page.getSymbol(), page.getTimeframe(),
+            page.getStartTime(), page.getEndTime(), priority, createPageCallback(key));
+        // Register for binary data delivery
+        connection.setPageDataCallback(key, createDataCallback(key));
+    }
+
+    private void recordHit(String key, DataPage<Candle> page, boolean fromReadAhead) {
+        if (page.getState() == PageState.ERROR) return;
+        readAhead.recordHit(fromReadAhead);
+        pageHits.merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * Fill a new page from a loaded page whose range covers it, without subscribing.
+     */
+    private boolean fillFromCoveringPage(String key, DataPage<Candle> page) {
+        for (Map.Entry<String, DataPage<Candle>> entry : pages.entrySet()) {
+            DataPage<Candle> source = entry.getValue();
+            if (source == page || !ReadAheadPolicy.covers(source, page, Candle::timestamp)) continue;
+
+            String sourceKey = entry.getKey();
+            boolean fromReadAhead = readAheadPages.computeIfPresent(sourceKey,
+                (k, expiry) -> System.currentTimeMillis() + READ_AHEAD_TTL_MS) != null;
+            recordHit(sourceKey, source, fromReadAhead);
+
+            page.setData(ReadAheadPolicy.slice(source.getData(), Candle::timestamp,
+                page.getStartTime(), page.getEndTime()));
+            page.setLastSyncTime(source.getLastSyncTime());
+            page.setLoadProgress(100);
+            page.setState(PageState.READY);
+            LOG.debug("Filled {} from {}", key, sourceKey);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Subscribe to the range the read-ahead policy predicts for this consumer, merged with
+     * read-ahead pages it overlaps, unless a page already covers it.
+     */
+    private void scheduleReadAhead(String symbol, String timeframe, long startTime, long endTime,
+                                   String consumerName) {
+        long now = System.currentTimeMillis();
+        long[] range = readAhead.onRequest(consumerName + '|' + symbol + '|' + timeframe,
+            startTime, endTime, now);
+        if (range == null) return;
+
+        long maxSpan = ReadAheadPolicy.MAX_WINDOWS * (endTime - startTime);
+        for (Map.Entry<String, DataPage<Candle>> entry : pages.entrySet()) {
+            DataPage<Candle> other = entry.getValue();
+            if (other.isLiveEnabled() || !other.getSymbol().equals(symbol)
+                    || !Objects.equals(other.getTimeframe(), timeframe)
+                    || !"perp".equals(other.getMarketType()) || other.hasError()) {
+                continue;
+            }
+            if (other.getStartTime() <= range[0] && range[1] <= other.getEndTime()) {
+                // Already loaded or loading
+                readAheadPages.computeIfPresent(entry.getKey(), (k, expiry) -> now + READ_AHEAD_TTL_MS);
+                return;
+            }
+            // Grow into one larger page rather than several overlapping ones
+            boolean overlaps = other.getStartTime() <= range[1] && range[0] <= other.getEndTime();
+            long mergedStart = Math.min(range[0], other.getStartTime());
+            long mergedEnd = Math.max(range[1], other.getEndTime());
+            if (overlaps && readAheadPages.containsKey(entry.getKey()) && mergedEnd - mergedStart <= maxSpan) {
+                range = new long[]{mergedStart, mergedEnd};
+            }
+        }
+
+        String key = makeKey(symbol, timeframe, "perp", range[0], range[1]);
+        long start = range[0];
+        long end = range[1];
+        boolean[] created = {false};
+        DataPage<Candle> page = pages.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new DataPage<>(DataType.CANDLES, symbol, timeframe, start, end);
+        });
+        if (!created[0]) return;
+
+        // Superseded read-ahead pages simply expire
+        readAheadPages.put(key, now + READ_AHEAD_TTL_MS);
+        readAhead.recordPrefetch();
+        LOG.debug("Read-ahead {} for {}", key, consumerName);
+        subscribe(key, page, "preload");
+    }
+
+    private void expireReadAheads() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : readAheadPages.entrySet()) {
+            if (entry.getValue() < now && readAheadPages.remove(entry.getKey(), entry.getValue())) {
+                cleanupPage(entry.getKey());
+            }
+        }
+    }
+
     private DataServiceConnection.PageUpdateCallback createPageCallback(String pageKey) {
         return new DataServiceConnection.PageUpdateCallback() {
             @Override
@@ -457,6 +599,8 @@ public class RemoteCandlePageManager {
         listeners.remove(key);
         consumers.remove(key);
         refCounts.remove(key);
+        readAheadPages.remove(key);
+        pageHits.remove(key);
 
         // Remove binary data callback
         connection.removePageDataCallback(key);
@@ -595,6 +739,8 @@ public class RemoteCandlePageManager {
         int recordCount,
         int loadProgress,
         List<String> consumers,
-        boolean liveEnabled
+        boolean liveEnabled,
+        boolean readAhead,  // Loaded ahead, not requested by any consumer yet
+        int hits            // Requests served by this page without loading
     ) {}
 }
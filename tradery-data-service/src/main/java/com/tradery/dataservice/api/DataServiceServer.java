@@ -2,6 +2,7 @@ package com.tradery.dataservice.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tradery.data.ratelimit.RateLimits;
 import com.tradery.dataservice.ConsumerRegistry;
 import com.tradery.dataservice.coingecko.CoinGeckoClient;
 import com.tradery.dataservice.config.DataServiceConfig;
@@ -158,6 +159,7 @@ public class DataServiceServer {
             pageManager.getActivePageCount(), consumerRegistry.getConsumerCount())));
         app.get("/", ctx -> ctx.json(new ServiceInfo("Plaiiin Data Service", "1.0.0", config.getPort())));
         app.get("/logs", this::handleLogs);
+        app.get("/rate-limits", ctx -> ctx.json(RateLimits.snapshots()));
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.tradery.dataservice.api;
 
 import com.tradery.data.page.PageKey;
+import com.tradery.dataservice.data.DownloadScheduler;
 import com.tradery.dataservice.page.PageManager;
 import com.tradery.dataservice.page.PageStatus;
 import io.javalin.http.Context;
@@ -41,7 +42,8 @@ public class PageHandler {
                 request.endTime() - request.startTime()  // windowDurationMillis
             );
 
-            PageStatus status = pageManager.requestPage(key, request.consumerId(), request.consumerName());
+            PageStatus status = pageManager.requestPage(key, request.consumerId(), request.consumerName(),
+                DownloadScheduler.Priority.parse(request.priority(), DownloadScheduler.Priority.INTERACTIVE));
 
             ctx.json(new PageResponse(
                 key.toKeyString(),
@@ -62,11 +64,14 @@ public class PageHandler {
     public void batchRequestPages(Context ctx) {
         try {
             BatchPageRequest request = ctx.bodyAsClass(BatchPageRequest.class);
+            DownloadScheduler.Priority priority =
+                DownloadScheduler.Priority.parse(request.priority(), DownloadScheduler.Priority.INTERACTIVE);
             List<PageResponse> responses = request.requests().stream()
                 .map(r -> {
                     // Convert startTime/endTime to endTime/windowDurationMillis
                     PageKey key = new PageKey(r.dataType(), "binance", r.symbol(), r.timeframe(), "perp", r.endTime(), r.endTime() - r.startTime());
-                    PageStatus status = pageManager.requestPage(key, request.consumerId(), request.consumerName());
+                    PageStatus status = pageManager.requestPage(key, request.consumerId(), request.consumerName(),
+                        DownloadScheduler.Priority.parse(r.priority(), priority));
                     return new PageResponse(key.toKeyString(), status.state().name(), status.progress(), status.isNew());
                 })
                 .toList();
@@ -157,7 +162,7 @@ public class PageHandler {
 
     /**
      * GET /pages/status
-     * Get status of all active pages.
+     * Get status of all active pages, plus download scheduler queue depth and wait times.
      */
     public void getAllPagesStatus(Context ctx) {
         try {
@@ -175,7 +180,7 @@ public class PageHandler {
                 ))
                 .toList();
 
-            ctx.json(new AllPagesStatusResponse(responses));
+            ctx.json(new AllPagesStatusResponse(responses, pageManager.getDownloadStats()));
         } catch (Exception e) {
             LOG.error("Failed to get all pages status", e);
             ctx.status(500).json(new ErrorResponse(e.getMessage()));
@@ -190,12 +195,14 @@ public class PageHandler {
         long startTime,
         long endTime,
         String consumerId,
-        String consumerName
+        String consumerName,
+        String priority         // "interactive" (default), "backtest" or "preload"
     ) {}
 
     public record BatchPageRequest(
         String consumerId,
         String consumerName,
+        String priority,        // Default for requests without their own
         List<PageRequest> requests
     ) {}
 
@@ -220,7 +227,7 @@ public class PageHandler {
         PageStatus.Coverage coverage
     ) {}
 
-    public record AllPagesStatusResponse(List<PageStatusResponse> pages) {}
+    public record AllPagesStatusResponse(List<PageStatusResponse> pages, DownloadScheduler.Stats downloads) {}
 
     public record ErrorResponse(String error) {}
 }
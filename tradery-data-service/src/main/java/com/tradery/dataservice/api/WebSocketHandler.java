@@ -8,6 +8,7 @@ import com.tradery.core.model.MarkPriceUpdate;
 import com.tradery.core.model.OpenInterestUpdate;
 import com.tradery.dataservice.ConsumerRegistry;
 import com.tradery.dataservice.data.AggTradesStore;
+import com.tradery.dataservice.data.DownloadScheduler;
 import com.tradery.dataservice.live.LiveAggTradeManager;
 import com.tradery.dataservice.live.LiveCandleManager;
 import com.tradery.dataservice.live.LiveMarkPriceManager;
@@ -76,7 +77,8 @@ public class WebSocketHandler implements PageUpdateListener {
     private final Map<String, BiConsumer<String, OpenInterestUpdate>> oiCallbacks = new ConcurrentHashMap<>();
 
     // Historical aggTrades streaming
-    private final ExecutorService streamExecutor = Executors.newFixedThreadPool(4);
+    private final ExecutorService streamExecutor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("ws-stream-", 1).factory());
     private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor();
     private final Map<String, AggTradesStreamState> activeStreams = new ConcurrentHashMap<>(); // requestId -> state
     private final Map<String, Set<String>> consumerStreams = new ConcurrentHashMap<>(); // consumerId -> requestIds
@@ -315,6 +317,9 @@ public class WebSocketHandler implements PageUpdateListener {
             long endTime = message.get("endTime").asLong();
             String consumerName = message.has("consumerName")
                 ? message.get("consumerName").asText() : "WebSocket-" + consumerId;
+            DownloadScheduler.Priority priority = DownloadScheduler.Priority.parse(
+                message.has("priority") ? message.get("priority").asText() : null,
+                DownloadScheduler.Priority.INTERACTIVE);
 
             // Create PageKey (convert startTime/endTime to endTime/windowDurationMillis)
             PageKey key = new PageKey(dataType.toUpperCase(), "binance", symbol.toUpperCase(), timeframe, marketType, endTime, endTime - startTime);
@@ -323,7 +328,7 @@ public class WebSocketHandler implements PageUpdateListener {
             LOG.info("Consumer {} requesting page {}", consumerId, pageKeyStr);
 
             // Request page from manager (creates if needed, adds consumer)
-            PageStatus status = pageManager.requestPage(key, consumerId, consumerName);
+            PageStatus status = pageManager.requestPage(key, consumerId, consumerName, priority);
 
             // Add to subscription maps for future updates
             subscriptions.computeIfAbsent(consumerId, k -> new CopyOnWriteArraySet<>()).add(pageKeyStr);
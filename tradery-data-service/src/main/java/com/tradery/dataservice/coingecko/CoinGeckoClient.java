@@ -15,6 +15,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * CoinGecko API client with rate limiting and circuit breaker.
@@ -39,7 +40,7 @@ public class CoinGeckoClient {
 
     // Rate limiting state
     private volatile long lastRequestTime = 0;
-    private final Object rateLimitLock = new Object();
+    private final ReentrantLock rateLimitLock = new ReentrantLock();
 
     // Circuit breaker state
     private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
@@ -233,21 +234,26 @@ public class CoinGeckoClient {
      * Wait for rate limit.
      */
     private void waitForRateLimit() {
-        synchronized (rateLimitLock) {
+        // Reserve the next slot under the lock and sleep outside it, so waiting
+        // callers on virtual threads don't pin their carriers
+        long waitTime;
+        rateLimitLock.lock();
+        try {
             long now = System.currentTimeMillis();
-            long timeSinceLastRequest = now - lastRequestTime;
+            long slot = Math.max(now, lastRequestTime + RATE_LIMIT_MS);
+            lastRequestTime = slot;
+            waitTime = slot - now;
+        } finally {
+            rateLimitLock.unlock();
+        }
 
-            if (timeSinceLastRequest < RATE_LIMIT_MS) {
-                long waitTime = RATE_LIMIT_MS - timeSinceLastRequest;
-                log.debug("Rate limiting: waiting {}ms", waitTime);
-                try {
-                    Thread.sleep(waitTime);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+        if (waitTime > 0) {
+            log.debug("Rate limiting: waiting {}ms", waitTime);
+            try {
+                Thread.sleep(waitTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-
-            lastRequestTime = System.currentTimeMillis();
         }
     }
 
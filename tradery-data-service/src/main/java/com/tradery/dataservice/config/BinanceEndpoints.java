@@ -0,0 +1,67 @@
+package com.tradery.dataservice.config;
+
+/**
+ * Base URLs of the Binance services the data service downloads from.
+ *
+ * Defaults are the production hosts. Setting tradery.binance.endpoint / TRADERY_BINANCE_ENDPOINT
+ * (or calling {@link #override}) points all of them at one server instead, e.g. a local
+ * stand-in for offline tests and benchmarks. The services' paths don't overlap (/fapi,
+ * /futures/data, /api/v3, /data, /ws), so a single host can serve them all; WebSocket URLs use
+ * the same host with ws:// or wss://.
+ *
+ * Clients read these when they build a request or connection, so an override also applies
+ * to clients created before it.
+ */
+public final class BinanceEndpoints {
+
+    private static volatile String override = normalize(System.getProperty("tradery.binance.endpoint",
+        System.getenv("TRADERY_BINANCE_ENDPOINT")));
+
+    private BinanceEndpoints() {}
+
+    /** USD-M futures REST (/fapi/v1, /futures/data). */
+    public static String futuresRest() {
+        return override != null ? override : "https://fapi.binance.com";
+    }
+
+    /** Spot REST (/api/v3). */
+    public static String spotRest() {
+        return override != null ? override : "https://api.binance.com";
+    }
+
+    /** Binance Vision bulk archives (/data/...). */
+    public static String vision() {
+        return override != null ? override : "https://data.binance.vision";
+    }
+
+    /** USD-M futures market streams (/ws/...). */
+    public static String futuresWs() {
+        return override != null ? toWs(override) : "wss://fstream.binance.com";
+    }
+
+    /** Spot market streams (/ws/...). */
+    public static String spotWs() {
+        return override != null ? toWs(override) : "wss://stream.binance.com:9443";
+    }
+
+    /**
+     * Send all Binance traffic to one base URL (e.g. "http://127.0.0.1:9811"), or back to the
+     * production hosts with null.
+     */
+    public static void override(String baseUrl) {
+        override = normalize(baseUrl);
+    }
+
+    public static boolean isOverridden() {
+        return override != null;
+    }
+
+    private static String normalize(String baseUrl) {
+        if (baseUrl == null || baseUrl.isBlank()) return null;
+        return baseUrl.trim().replaceAll("/+$", "");
+    }
+
+    private static String toWs(String baseUrl) {
+        return baseUrl.replaceFirst("^http", "ws");
+    }
+}
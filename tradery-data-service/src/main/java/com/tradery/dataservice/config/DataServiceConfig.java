@@ -33,7 +33,7 @@ public class DataServiceConfig {
         Path dataDir = Paths.get(dataDirStr);
 
         int maxDownloads = Integer.parseInt(System.getProperty("tradery.data.max_downloads",
-            System.getenv().getOrDefault("TRADERY_MAX_DOWNLOADS", "3")));
+            System.getenv().getOrDefault("TRADERY_MAX_DOWNLOADS", "8")));
 
         long maxMemory = Long.parseLong(System.getProperty("tradery.data.max_memory_mb",
             System.getenv().getOrDefault("TRADERY_MAX_MEMORY_MB", "2048")));
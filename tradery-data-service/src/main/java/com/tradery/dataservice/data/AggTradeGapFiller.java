@@ -0,0 +1,271 @@
+package com.tradery.dataservice.data;
+
+import com.tradery.core.model.AggTrade;
+import com.tradery.core.model.FetchProgress;
+import com.tradery.dataservice.data.sqlite.SqliteDataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Fills an aggTrades gap from the Binance API with many requests in flight.
+ *
+ * The gap is cut into hour segments (the API rejects time windows of an hour or more) and
+ * each segment is fetched on its own virtual thread: one time-bounded request, then paging
+ * by aggTradeId so trades sharing a millisecond at a page boundary are never skipped. Up to
+ * {@link #SEGMENTS_AHEAD} segments download ahead of the writer; the spot weight budget and
+ * per-host connection limit pace the requests themselves.
+ *
+ * The calling thread is the only writer: it takes batches in time order, hands them to the
+ * caller's consumer and writes them to SQLite in large transactions while later segments
+ * are still downloading. Each finished hour is marked covered as soon as it is written, so
+ * a cancelled or failed fill keeps what it got.
+ */
+final class AggTradeGapFiller {
+
+    private static final Logger log = LoggerFactory.getLogger(AggTradeGapFiller.class);
+
+    private static final long SEGMENT_MS = 60 * 60 * 1000;
+    private static final int PAGE_SIZE = 1000;
+    private static final int SEGMENTS_AHEAD = 8;
+    private static final int BATCHES_PER_SEGMENT = 16;   // Buffered pages before a segment waits for the writer
+    private static final int WRITE_BATCH = 20_000;       // Trades per SQLite transaction
+
+    // Identity marker for the end of a segment
+    private static final List<AggTrade> END = new ArrayList<>(0);
+
+    private final AggTradesClient client;
+    private final SqliteDataStore store;
+
+    AggTradeGapFiller(AggTradesClient client, SqliteDataStore store) {
+        this.client = client;
+        this.store = store;
+    }
+
+    /**
+     * Fetch and store all trades in [start, end].
+     *
+     * @param cancelled  Checked between requests; a cancelled fill returns what was written
+     * @param onProgress Optional progress, with trade counts and an ETA in the message
+     * @param consumer   Optional, receives every batch in time order before it is stored
+     * @return Number of trades fetched
+     */
+    int fill(String symbol, long start, long end, AtomicBoolean cancelled,
+             Consumer<FetchProgress> onProgress, Consumer<List<AggTrade>> consumer) throws IOException {
+
+        List<Segment> segments = new ArrayList<>();
+        for (long s = start; s <= end; s += SEGMENT_MS) {
+            segments.add(new Segment(segments.size(), s, Math.min(s + SEGMENT_MS, end + 1)));
+        }
+
+        // Hours that are still running are stored but not marked covered
+        long currentHourStart = System.currentTimeMillis() / SEGMENT_MS * SEGMENT_MS;
+        long startedAt = System.currentTimeMillis();
+        long estimatedTotal = Math.max(1, SyncEstimator.getTradesPerDay(symbol) * (end - start) / (24 * SEGMENT_MS));
+
+        log.info("Filling {} aggTrades gap [{} - {}] in {} segments", symbol, start, end, segments.size());
+        if (onProgress != null) {
+            onProgress.accept(FetchProgress.starting(symbol, "aggTrades"));
+        }
+
+        Window window = new Window();
+        int fetched = 0;
+        int segmentsDone = 0;
+
+        try (FetchScope<Void> scope = new FetchScope<>("aggtrades-" + symbol)) {
+            for (Segment segment : segments) {
+                scope.fork(() -> {
+                    fetchSegment(symbol, segment, window, cancelled);
+                    return null;
+                });
+            }
+
+            List<AggTrade> pending = new ArrayList<>(WRITE_BATCH + PAGE_SIZE);
+            for (Segment segment : segments) {
+                List<AggTrade> batch;
+                while ((batch = segment.take()) != END) {
+                    if (consumer != null) {
+                        consumer.accept(batch);
+                    }
+                    pending.addAll(batch);
+                    fetched += batch.size();
+                    if (pending.size() >= WRITE_BATCH) {
+                        store.saveAggTrades(symbol, pending);
+                        pending.clear();
+                    }
+                    if (onProgress != null) {
+                        onProgress.accept(progress(symbol, fetched, estimatedTotal, segmentsDone, segments.size(), startedAt));
+                    }
+                }
+                segment.rethrowFailure();
+
+                if (!pending.isEmpty()) {
+                    store.saveAggTrades(symbol, pending);
+                    pending.clear();
+                }
+                if (cancelled != null && cancelled.get()) {
+                    break;
+                }
+                if (segment.end <= currentHourStart) {
+                    store.addCoverage(symbol, "agg_trades", "default", segment.start, segment.end - 1, true);
+                }
+                window.advance();
+                segmentsDone++;
+
+                // Measured rate beats the per-symbol guess once an hour is in
+                estimatedTotal = Math.max(fetched, (long) fetched * segments.size() / segmentsDone);
+
+                // Let interactive loads go first; fetchers stop when their buffers fill
+                try {
+                    DownloadScheduler.checkpoint();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Gap fill interrupted");
+                }
+            }
+
+            if (cancelled != null && cancelled.get()) {
+                log.debug("Gap fill cancelled after {} trades", fetched);
+                if (onProgress != null) {
+                    onProgress.accept(FetchProgress.cancelled(fetched));
+                }
+                return fetched;
+            }
+            scope.join();
+        }
+
+        log.info("Filled {} aggTrades gap: {} trades in {} ms", symbol, fetched, System.currentTimeMillis() - startedAt);
+        if (onProgress != null) {
+            onProgress.accept(FetchProgress.complete(fetched));
+        }
+        return fetched;
+    }
+
+    /**
+     * Download one segment into its queue, ended by {@link #END} also on failure. An interrupt
+     * means the writer is gone, so nothing is queued then.
+     */
+    private void fetchSegment(String symbol, Segment segment, Window window, AtomicBoolean cancelled)
+            throws InterruptedException {
+        window.awaitTurn(segment.index);
+        boolean interrupted = false;
+        try {
+            download(symbol, segment, cancelled);
+        } catch (InterruptedException e) {
+            interrupted = true;
+            throw e;
+        } catch (Exception e) {
+            // Parse errors too: without END the writer would wait on this segment forever
+            segment.failure = e;
+        } finally {
+            if (!interrupted) {
+                segment.queue.put(END);
+            }
+        }
+    }
+
+    private void download(String symbol, Segment segment, AtomicBoolean cancelled)
+            throws IOException, InterruptedException {
+        if (cancelled != null && cancelled.get()) return;
+
+        List<AggTrade> page = client.fetchAggTrades(symbol, segment.start, segment.end - 1, PAGE_SIZE);
+        while (!page.isEmpty()) {
+            int full = page.size();
+            long nextId = page.get(full - 1).aggTradeId() + 1;
+
+            // Id paging runs past the segment; the next segment has those trades
+            int inRange = full;
+            while (inRange > 0 && page.get(inRange - 1).timestamp() >= segment.end) {
+                inRange--;
+            }
+            if (inRange > 0) {
+                segment.queue.put(inRange == full ? page : page.subList(0, inRange));
+            }
+            if (inRange < full || full < PAGE_SIZE) return;
+            if (cancelled != null && cancelled.get()) return;
+
+            page = client.fetchAggTradesFromId(symbol, nextId, PAGE_SIZE);
+        }
+    }
+
+    private static FetchProgress progress(String symbol, int fetched, long estimatedTotal,
+                                          int segmentsDone, int segmentCount, long startedAt) {
+        String eta = SyncEstimator.estimateRemaining(System.currentTimeMillis() - startedAt, segmentsDone, segmentCount);
+        String msg = String.format("Fetching %s trades: %,d (hour %d/%d%s)",
+            symbol, fetched, Math.min(segmentsDone + 1, segmentCount), segmentCount,
+            eta != null ? ", " + eta + " left" : "");
+        int total = (int) Math.min(Integer.MAX_VALUE, Math.max(estimatedTotal, fetched));
+        return new FetchProgress(fetched, total, msg);
+    }
+
+    /**
+     * Lets segment n start once the writer is within {@link #SEGMENTS_AHEAD} of it, so
+     * downloads start in time order and the segment the writer waits for is never starved.
+     */
+    private static final class Window {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition advanced = lock.newCondition();
+        private int delivered;
+
+        void awaitTurn(int index) throws InterruptedException {
+            lock.lock();
+            try {
+                while (index >= delivered + SEGMENTS_AHEAD) {
+                    advanced.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void advance() {
+            lock.lock();
+            try {
+                delivered++;
+                advanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Segment {
+        final int index;
+        final long start;
+        final long end;     // Exclusive
+        final BlockingQueue<List<AggTrade>> queue = new ArrayBlockingQueue<>(BATCHES_PER_SEGMENT);
+        volatile Exception failure;
+
+        Segment(int index, long start, long end) {
+            this.index = index;
+            this.start = start;
+            this.end = end;
+        }
+
+        List<AggTrade> take() throws InterruptedIOException {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Gap fill interrupted");
+            }
+        }
+
+        void rethrowFailure() throws IOException {
+            if (failure != null) {
+                throw new IOException("Failed to fetch aggTrades " + start + " - " + end + ": "
+                    + failure.getMessage(), failure);
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.AggTrade;
 import com.tradery.core.model.FetchProgress;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -23,7 +24,6 @@ import java.util.function.Consumer;
 public class AggTradesClient {
 
     private static final Logger log = LoggerFactory.getLogger(AggTradesClient.class);
-    private static final String BASE_URL = "https://api.binance.com/api/v3";
     private static final int MAX_TRADES_PER_REQUEST = 1000;
 
     private final OkHttpClient client;
@@ -46,7 +46,7 @@ public class AggTradesClient {
     public List<AggTrade> fetchAggTrades(String symbol, long startTime, long endTime, int limit)
             throws IOException {
 
-        StringBuilder url = new StringBuilder(BASE_URL + "/aggTrades")
+        StringBuilder url = new StringBuilder(BinanceEndpoints.spotRest() + "/api/v3/aggTrades")
             .append("?symbol=").append(symbol)
             .append("&limit=").append(Math.min(limit, MAX_TRADES_PER_REQUEST));
 
@@ -57,8 +57,26 @@ public class AggTradesClient {
             url.append("&endTime=").append(endTime);
         }
 
+        return execute(url.toString());
+    }
+
+    /**
+     * Fetch aggregated trades starting at an aggTradeId, in id order.
+     * Unlike time-based paging this never skips trades that share a millisecond.
+     *
+     * @param symbol Trading pair (e.g., "BTCUSDT")
+     * @param fromId First aggTradeId to return
+     * @param limit  Max number of trades (max 1000)
+     */
+    public List<AggTrade> fetchAggTradesFromId(String symbol, long fromId, int limit) throws IOException {
+        return execute(BinanceEndpoints.spotRest() + "/api/v3/aggTrades?symbol=" + symbol
+            + "&fromId=" + fromId
+            + "&limit=" + Math.min(limit, MAX_TRADES_PER_REQUEST));
+    }
+
+    private List<AggTrade> execute(String url) throws IOException {
         Request request = new Request.Builder()
-            .url(url.toString())
+            .url(url)
             .get()
             .build();
 
@@ -70,7 +88,7 @@ public class AggTradesClient {
             String body = response.body().string();
             JsonNode root = mapper.readTree(body);
 
-            List<AggTrade> trades = new ArrayList<>();
+            List<AggTrade> trades = new ArrayList<>(root.size());
 
             for (JsonNode trade : root) {
                 // AggTrade format: {"a":id,"p":"price","q":"qty","f":firstId,"l":lastId,"T":time,"m":isBuyerMaker}
@@ -181,17 +199,7 @@ public class AggTradesClient {
             if (totalCount % 50000 == 0) {
                 log.debug("Streamed {} trades so far...", formatCount(totalCount));
             }
-
-            // Rate limiting - Binance allows 1200 requests per minute
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                if (onProgress != null) {
-                    onProgress.accept(FetchProgress.cancelled(totalCount));
-                }
-                return totalCount;
-            }
+            // No pause between pages: the shared spot weight budget paces requests
         }
 
         log.info("Stream complete. Total: {} trades", formatCount(totalCount));
@@ -2,10 +2,9 @@ package com.tradery.dataservice.data;
 
 import com.tradery.core.model.AggTrade;
 import com.tradery.core.model.FetchProgress;
+import com.tradery.data.archive.ArchiveCache;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import com.tradery.dataservice.data.sqlite.SqliteDataStore;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,7 +13,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -53,13 +51,12 @@ public class AggTradesStore {
     // Use Vision for >= 3 days (aggTrades are massive - 500K+ trades/day)
     private static final int VISION_THRESHOLD_DAYS = 3;
     // Use DAILY Vision files - monthly files are too large (10-50GB each)
-    private static final String VISION_BASE_URL = "https://data.binance.vision/data/futures/um/daily/aggTrades";
+    private static final String VISION_PATH = "/data/futures/um/daily/aggTrades";
 
     private final File dataDir;
     private final AggTradesClient client;
-    private final OkHttpClient httpClient;
-    private final OkHttpClient bulkDownloadClient;
     private final SqliteDataStore sqliteStore;
+    private final AggTradeGapFiller gapFiller;
 
     // Cancellation support
     private final AtomicBoolean fetchCancelled = new AtomicBoolean(false);
@@ -72,9 +69,8 @@ public class AggTradesStore {
     public AggTradesStore(AggTradesClient client, SqliteDataStore sqliteStore) {
         this.dataDir = DataConfig.getInstance().getDataDir();
         this.client = client;
-        this.httpClient = HttpClientFactory.getClient();
-        this.bulkDownloadClient = HttpClientFactory.getBulkDownloadClient();
         this.sqliteStore = sqliteStore;
+        this.gapFiller = new AggTradeGapFiller(client, sqliteStore);
 
         if (!dataDir.exists()) {
             dataDir.mkdirs();
@@ -210,7 +206,7 @@ public class AggTradesStore {
 
             // Build Vision URL for daily file
             String url = String.format("%s/%s/%s-aggTrades-%s.zip",
-                VISION_BASE_URL, symbol, symbol, dateKey);
+                BinanceEndpoints.vision() + VISION_PATH, symbol, symbol, dateKey);
 
             log.info("Vision: Downloading aggTrades {}", dateKey);
             currentDayIndex[0] = completedDays;
@@ -275,64 +271,42 @@ public class AggTradesStore {
      */
     private int downloadAndStreamToHourlyFiles(String symbol, String url, LocalDate date,
                                                 int currentDayIndex, int totalDays) throws IOException {
-        Request request = new Request.Builder()
-            .url(url)
-            .get()
-            .build();
-
-        // Use bulk download client with 10-minute timeout for large Vision files
-        try (Response response = bulkDownloadClient.newCall(request).execute()) {
-            if (response.code() == 404) {
-                throw new IOException("404 Not Found");
-            }
-            if (!response.isSuccessful()) {
-                throw new IOException("Download failed: " + response.code());
-            }
-
-            // Get content length for progress tracking
-            long contentLength = response.body().contentLength();
-            String dateKey = date.format(DATE_FORMAT);
+        // Local verified copy from the archive cache; downloads (and resumes) only if missing
+        Path archive = VisionArchives.cache().fetch(url,
+            dayProgress(progressCallback, date.format(DATE_FORMAT), currentDayIndex, totalDays));
 
-            // Wrap input stream with progress tracking
-            // Calculate combined progress: days completed + current file progress
-            InputStream rawStream = response.body().byteStream();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archive))) {
+            return streamZipToSqlite(symbol, in, date);
+        }
+    }
 
-            // Estimated file size when content length unknown (typical daily aggTrades: 50-200MB)
-            long estimatedSize = contentLength > 0 ? contentLength : 100_000_000L; // 100MB estimate
+    /**
+     * Combined progress for a day file download: days completed plus the current file.
+     */
+    private ArchiveCache.Progress dayProgress(Consumer<FetchProgress> onProgress, String dateKey,
+                                              int dayIndex, int totalDays) {
+        if (onProgress == null) return null;
 
-            ProgressInputStream progressStream = new ProgressInputStream(rawStream, contentLength, bytesRead -> {
-                if (progressCallback != null) {
-                    int overallPercent;
-                    String progressMsg;
-
-                    if (contentLength > 0) {
-                        // File progress within current day (0-100)
-                        int filePercent = (int) ((bytesRead * 100) / contentLength);
-                        // Overall progress: completed days + fraction of current day
-                        overallPercent = totalDays > 0
-                            ? (currentDayIndex * 100 + filePercent) / totalDays
-                            : filePercent;
-                        String size = formatBytes(contentLength);
-                        String downloaded = formatBytes(bytesRead);
-                        progressMsg = String.format("Day %d/%d: %s %s / %s",
-                            currentDayIndex + 1, totalDays, dateKey, downloaded, size);
-                    } else {
-                        // Content length unknown - estimate progress based on typical file size
-                        // Cap file progress at 95% since we don't know actual size
-                        int filePercent = (int) Math.min(95, (bytesRead * 100) / estimatedSize);
-                        overallPercent = totalDays > 0
-                            ? (currentDayIndex * 100 + filePercent) / totalDays
-                            : filePercent;
-                        progressMsg = String.format("Day %d/%d: %s %s downloaded",
-                            currentDayIndex + 1, totalDays, dateKey, formatBytes(bytesRead));
-                    }
-                    overallPercent = Math.min(99, Math.max(0, overallPercent));
-                    progressCallback.accept(new FetchProgress(overallPercent, 100, progressMsg));
-                }
-            });
+        // Estimated file size when content length unknown (typical daily aggTrades: 50-200MB)
+        long estimatedSize = 100_000_000L;
 
-            return streamZipToSqlite(symbol, progressStream, date);
-        }
+        return (bytesRead, contentLength) -> {
+            int filePercent;
+            String progressMsg;
+            if (contentLength > 0) {
+                filePercent = (int) ((bytesRead * 100) / contentLength);
+                progressMsg = String.format("Day %d/%d: %s %s / %s",
+                    dayIndex + 1, totalDays, dateKey, formatBytes(bytesRead), formatBytes(contentLength));
+            } else {
+                // Cap file progress at 95% since we don't know actual size
+                filePercent = (int) Math.min(95, (bytesRead * 100) / estimatedSize);
+                progressMsg = String.format("Day %d/%d: %s %s downloaded",
+                    dayIndex + 1, totalDays, dateKey, formatBytes(bytesRead));
+            }
+            int overallPercent = totalDays > 0 ? (dayIndex * 100 + filePercent) / totalDays : filePercent;
+            overallPercent = Math.min(99, Math.max(0, overallPercent));
+            onProgress.accept(new FetchProgress(overallPercent, 100, progressMsg));
+        };
     }
 
     /**
@@ -545,12 +519,12 @@ public class AggTradesStore {
     }
 
     /**
-     * Fetch missing data via API for each gap.
+     * Fetch missing data via API for each gap. Each gap is split into hours fetched in
+     * parallel and written (and marked covered) as they arrive.
      */
     private void fetchGaps(String symbol, List<long[]> gaps) throws IOException {
-        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
         final int totalGaps = gaps.size();
-        final int[] completedGaps = {0};
+        int completedGaps = 0;
 
         for (long[] gap : gaps) {
             if (fetchCancelled.get()) {
@@ -558,43 +532,26 @@ public class AggTradesStore {
                 break;
             }
 
-            long gapStart = gap[0];
-            long gapEnd = gap[1];
-
-            // Progress reporting
-            if (progressCallback != null) {
-                int pct = totalGaps > 0 ? (completedGaps[0] * 100) / totalGaps : 0;
-                progressCallback.accept(new FetchProgress(pct, 100,
-                    String.format("Fetching gap %d/%d...", completedGaps[0] + 1, totalGaps)));
+            // Let interactive loads go first if this is background work
+            try {
+                DownloadScheduler.checkpoint();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Fetch interrupted", e);
             }
 
-            // Check if this gap includes the current hour (needs special handling)
-            LocalDateTime gapEndTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(gapEnd), ZoneOffset.UTC);
-            boolean includesCurrentHour = gapEndTime.getHour() == now.getHour() &&
-                                          gapEndTime.toLocalDate().equals(now.toLocalDate());
-
-            log.info("Fetching aggTrades gap: {} - {}", gapStart, gapEnd);
+            log.info("Fetching aggTrades gap: {} - {}", gap[0], gap[1]);
 
-            List<AggTrade> fresh = client.fetchAllAggTrades(symbol, gapStart, gapEnd,
-                fetchCancelled, progress -> {
-                    if (progressCallback != null) {
-                        int basePct = totalGaps > 0 ? (completedGaps[0] * 100) / totalGaps : 0;
-                        int gapPct = progress.percentComplete() / totalGaps;
-                        progressCallback.accept(new FetchProgress(basePct + gapPct, 100, progress.message()));
-                    }
-                });
-
-            if (!fresh.isEmpty()) {
-                // Save to SQLite
-                saveToSqlite(symbol, fresh);
-
-                // Mark coverage (not complete if includes current hour)
-                if (!includesCurrentHour && !fetchCancelled.get()) {
-                    markCoverage(symbol, gapStart, gapEnd, true);
+            final int basePct = totalGaps > 0 ? (completedGaps * 100) / totalGaps : 0;
+            final String prefix = totalGaps > 1 ? String.format("Gap %d/%d: ", completedGaps + 1, totalGaps) : "";
+            gapFiller.fill(symbol, gap[0], gap[1], fetchCancelled, progress -> {
+                if (progressCallback != null) {
+                    int gapPct = totalGaps > 0 ? progress.percentComplete() / totalGaps : 0;
+                    progressCallback.accept(new FetchProgress(basePct + gapPct, 100, prefix + progress.message()));
                 }
-            }
+            }, null);
 
-            completedGaps[0]++;
+            completedGaps++;
         }
 
         // Report completion
@@ -739,40 +696,22 @@ public class AggTradesStore {
     }
 
     /**
-     * Stream gap via Binance API, tee'ing to SQLite.
+     * Stream gap via Binance API, tee'ing to SQLite. Hours are fetched in parallel but
+     * reach the consumer in time order.
      */
     private int streamGapViaApi(String symbol, long gapStart, long gapEnd,
                                 StreamChunkConsumer chunkConsumer,
                                 Consumer<FetchProgress> onProgress,
                                 int gapIndex, int totalGaps) throws IOException {
 
-        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
-        LocalDateTime gapEndTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(gapEnd), ZoneOffset.UTC);
-        boolean includesCurrentHour = gapEndTime.getHour() == now.getHour() &&
-                                      gapEndTime.toLocalDate().equals(now.toLocalDate());
-
-        final int[] totalFetched = {0};
-
-        int fetched = client.streamAggTrades(symbol, gapStart, gapEnd, fetchCancelled,
+        return gapFiller.fill(symbol, gapStart, gapEnd, fetchCancelled,
             progress -> {
                 if (onProgress != null) {
                     String msg = String.format("Gap %d/%d: %s", gapIndex, totalGaps, progress.message());
                     onProgress.accept(new FetchProgress(progress.fetchedCandles(), progress.estimatedTotal(), msg));
                 }
             },
-            batch -> {
-                // Tee: stream to client AND save to SQLite
-                chunkConsumer.accept(batch, "api");
-                saveToSqlite(symbol, batch);
-                totalFetched[0] += batch.size();
-            });
-
-        // Mark coverage (not complete if includes current hour)
-        if (!includesCurrentHour && !fetchCancelled.get() && fetched > 0) {
-            markCoverage(symbol, gapStart, gapEnd, true);
-        }
-
-        return fetched;
+            batch -> chunkConsumer.accept(batch, "api"));
     }
 
     /**
@@ -832,7 +771,7 @@ public class AggTradesStore {
 
             // Build Vision URL
             String url = String.format("%s/%s/%s-aggTrades-%s.zip",
-                VISION_BASE_URL, symbol, symbol, dateKey);
+                BinanceEndpoints.vision() + VISION_PATH, symbol, symbol, dateKey);
 
             log.info("Vision: Downloading and streaming {}", dateKey);
 
@@ -871,51 +810,11 @@ public class AggTradesStore {
                                            StreamChunkConsumer chunkConsumer,
                                            Consumer<FetchProgress> onProgress,
                                            int dayIndex, int totalDays) throws IOException {
-        Request request = new Request.Builder()
-            .url(url)
-            .get()
-            .build();
-
-        try (Response response = bulkDownloadClient.newCall(request).execute()) {
-            if (response.code() == 404) {
-                throw new IOException("404 Not Found");
-            }
-            if (!response.isSuccessful()) {
-                throw new IOException("Download failed: " + response.code());
-            }
-
-            long contentLength = response.body().contentLength();
-            String dateKey = date.format(DATE_FORMAT);
-
-            InputStream rawStream = response.body().byteStream();
-            long estimatedSize = contentLength > 0 ? contentLength : 100_000_000L;
-
-            ProgressInputStream progressStream = new ProgressInputStream(rawStream, contentLength, bytesRead -> {
-                if (onProgress != null) {
-                    int overallPercent;
-                    String progressMsg;
-
-                    if (contentLength > 0) {
-                        int filePercent = (int) ((bytesRead * 100) / contentLength);
-                        overallPercent = totalDays > 0
-                            ? (dayIndex * 100 + filePercent) / totalDays
-                            : filePercent;
-                        progressMsg = String.format("Day %d/%d: %s %s / %s",
-                            dayIndex + 1, totalDays, dateKey, formatBytes(bytesRead), formatBytes(contentLength));
-                    } else {
-                        int filePercent = (int) Math.min(95, (bytesRead * 100) / estimatedSize);
-                        overallPercent = totalDays > 0
-                            ? (dayIndex * 100 + filePercent) / totalDays
-                            : filePercent;
-                        progressMsg = String.format("Day %d/%d: %s %s downloaded",
-                            dayIndex + 1, totalDays, dateKey, formatBytes(bytesRead));
-                    }
-                    overallPercent = Math.min(99, Math.max(0, overallPercent));
-                    onProgress.accept(new FetchProgress(overallPercent, 100, progressMsg));
-                }
-            });
+        Path archive = VisionArchives.cache().fetch(url,
+            dayProgress(onProgress, date.format(DATE_FORMAT), dayIndex, totalDays));
 
-            return streamZipToConsumerAndSqlite(symbol, progressStream, date, chunkSize, chunkConsumer);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archive))) {
+            return streamZipToConsumerAndSqlite(symbol, in, date, chunkSize, chunkConsumer);
         }
     }
 
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.Candle;
 import com.tradery.core.model.FetchProgress;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -24,15 +25,15 @@ import java.util.function.Consumer;
 public class BinanceClient {
 
     private static final Logger log = LoggerFactory.getLogger(BinanceClient.class);
-    private static final String FUTURES_BASE_URL = "https://fapi.binance.com/fapi/v1";
-    private static final String SPOT_BASE_URL = "https://api.binance.com/api/v3";
     private static final int MAX_KLINES_PER_REQUEST = 1000;
 
     /**
      * Get the appropriate base URL for the market type.
      */
     private static String getBaseUrl(String marketType) {
-        return "spot".equals(marketType) ? SPOT_BASE_URL : FUTURES_BASE_URL;
+        return "spot".equals(marketType)
+            ? BinanceEndpoints.spotRest() + "/api/v3"
+            : BinanceEndpoints.futuresRest() + "/fapi/v1";
     }
 
     private final OkHttpClient client;
@@ -228,7 +229,7 @@ public class BinanceClient {
      */
     public long getServerTime() throws IOException {
         Request request = new Request.Builder()
-            .url(FUTURES_BASE_URL + "/time")
+            .url(BinanceEndpoints.futuresRest() + "/fapi/v1/time")
             .get()
             .build();
 
@@ -247,7 +248,7 @@ public class BinanceClient {
      */
     public boolean ping() {
         Request request = new Request.Builder()
-            .url(FUTURES_BASE_URL + "/ping")
+            .url(BinanceEndpoints.futuresRest() + "/fapi/v1/ping")
             .get()
             .build();
 
@@ -4,6 +4,7 @@ import com.tradery.core.model.AggTrade;
 import com.tradery.core.model.Candle;
 import com.tradery.core.model.FundingRate;
 import com.tradery.core.model.PremiumIndex;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import com.tradery.dataservice.data.sqlite.SqliteDataStore;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -11,10 +12,13 @@ import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
@@ -33,25 +37,25 @@ import java.util.zip.ZipInputStream;
  * Benefits:
  * - Single file per month vs hundreds of API calls
  * - No rate limits on Vision downloads
- * - Parallel downloads for multiple months
+ * - Parallel downloads for multiple months (one virtual thread each, a few months in flight)
  * - Hybrid sync: Vision for historical, API for recent gap
  */
 public class BinanceVisionClient {
 
     private static final Logger log = LoggerFactory.getLogger(BinanceVisionClient.class);
-    private static final String FUTURES_BASE_URL = "https://data.binance.vision/data/futures/um/monthly";
-    private static final String SPOT_BASE_URL = "https://data.binance.vision/data/spot/monthly";
-    private static final int DEFAULT_THREAD_COUNT = 4;
     private static final int BATCH_SIZE = 10000; // Save to DB in batches
 
+    // Months being downloaded and parsed at once, across all clients. A month's CSV is held in
+    // memory while it is parsed, and cached archives skip the connection limit entirely.
+    private static final int MONTHS_IN_FLIGHT = 4;
+    private static final Semaphore MONTH_SLOTS = new Semaphore(MONTHS_IN_FLIGHT);
+
     private final OkHttpClient client;
-    private final OkHttpClient bulkClient;
     private final SqliteDataStore dataStore;
-    private final int threadCount;
     private final String marketType;  // "spot" or "perp"
 
     private String getBaseUrl() {
-        return "spot".equals(marketType) ? SPOT_BASE_URL : FUTURES_BASE_URL;
+        return BinanceEndpoints.vision() + ("spot".equals(marketType) ? "/data/spot/monthly" : "/data/futures/um/monthly");
     }
 
     /**
@@ -112,19 +116,13 @@ public class BinanceVisionClient {
     }
 
     public BinanceVisionClient(SqliteDataStore dataStore) {
-        this(dataStore, "perp", DEFAULT_THREAD_COUNT);
+        this(dataStore, "perp");
     }
 
     public BinanceVisionClient(SqliteDataStore dataStore, String marketType) {
-        this(dataStore, marketType, DEFAULT_THREAD_COUNT);
-    }
-
-    public BinanceVisionClient(SqliteDataStore dataStore, String marketType, int threadCount) {
         this.client = HttpClientFactory.getClient();
-        this.bulkClient = HttpClientFactory.getBulkDownloadClient();
         this.dataStore = dataStore;
         this.marketType = marketType;
-        this.threadCount = threadCount;
     }
 
     // ========== URL Building ==========
@@ -166,9 +164,19 @@ public class BinanceVisionClient {
      */
     public long downloadKlines(String symbol, String interval, YearMonth startMonth, YearMonth endMonth,
                                AtomicBoolean cancelled, Consumer<VisionProgress> onProgress) throws IOException {
+        return downloadKlines(symbol, interval, startMonth, endMonth, cancelled, onProgress,
+            DownloadScheduler.currentJob());
+    }
+
+    /**
+     * Download klines as part of a scheduled job captured on another thread.
+     */
+    private long downloadKlines(String symbol, String interval, YearMonth startMonth, YearMonth endMonth,
+                                AtomicBoolean cancelled, Consumer<VisionProgress> onProgress,
+                                DownloadScheduler.Job job) throws IOException {
 
         List<YearMonth> months = getMonthsToDownload(startMonth, endMonth);
-        return downloadParallel(VisionDataType.KLINES, symbol, interval, months, cancelled, onProgress,
+        return downloadParallel(VisionDataType.KLINES, symbol, interval, months, cancelled, onProgress, job,
             (records, sym, intv) -> saveKlines(records, sym, intv));
     }
 
@@ -180,6 +188,7 @@ public class BinanceVisionClient {
 
         List<YearMonth> months = getMonthsToDownload(startMonth, endMonth);
         return downloadParallel(VisionDataType.AGG_TRADES, symbol, null, months, cancelled, onProgress,
+            DownloadScheduler.currentJob(),
             (records, sym, intv) -> saveAggTrades(records, sym));
     }
 
@@ -191,6 +200,7 @@ public class BinanceVisionClient {
 
         List<YearMonth> months = getMonthsToDownload(startMonth, endMonth);
         return downloadParallel(VisionDataType.FUNDING_RATE, symbol, null, months, cancelled, onProgress,
+            DownloadScheduler.currentJob(),
             (records, sym, intv) -> saveFundingRates(records, sym));
     }
 
@@ -202,6 +212,7 @@ public class BinanceVisionClient {
 
         List<YearMonth> months = getMonthsToDownload(startMonth, endMonth);
         return downloadParallel(VisionDataType.PREMIUM_INDEX, symbol, interval, months, cancelled, onProgress,
+            DownloadScheduler.currentJob(),
             (records, sym, intv) -> savePremiumIndex(records, sym, intv));
     }
 
@@ -214,10 +225,13 @@ public class BinanceVisionClient {
 
     /**
      * Download multiple months in parallel with progress tracking.
+     *
+     * @param job Scheduled job the download belongs to, or null; month workers honour its checkpoints
      */
     private long downloadParallel(VisionDataType dataType, String symbol, String interval,
                                    List<YearMonth> months, AtomicBoolean cancelled,
-                                   Consumer<VisionProgress> onProgress, RecordSaver saver) throws IOException {
+                                   Consumer<VisionProgress> onProgress, DownloadScheduler.Job job,
+                                   RecordSaver saver) throws IOException {
 
         if (months.isEmpty()) {
             if (onProgress != null) {
@@ -245,20 +259,26 @@ public class BinanceVisionClient {
             onProgress.accept(VisionProgress.starting(uncoveredMonths.size()));
         }
 
-        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        // Month workers park with the calling download when the scheduler preempts it
         AtomicLong totalRecords = new AtomicLong(0);
         AtomicLong completedCount = new AtomicLong(0);
 
-        try {
-            List<Future<Long>> futures = new ArrayList<>();
-
+        // One virtual thread per month; at most MONTHS_IN_FLIGHT of them download at a time
+        try (FetchScope<Long> scope = new FetchScope<>("vision-" + symbol)) {
             for (YearMonth month : uncoveredMonths) {
-                futures.add(executor.submit(() -> {
+                scope.fork(() -> {
                     if (cancelled != null && cancelled.get()) {
                         return 0L;
                     }
+                    if (job != null) {
+                        job.checkpoint();
+                    }
 
+                    MONTH_SLOTS.acquire();
                     try {
+                        if (cancelled != null && cancelled.get()) {
+                            return 0L;
+                        }
                         long records = downloadAndSaveMonth(dataType, symbol, interval, month, saver);
                         long completed = completedCount.incrementAndGet();
                         long total = totalRecords.addAndGet(records);
@@ -277,54 +297,30 @@ public class BinanceVisionClient {
                             return 0L;
                         }
                         throw e;
+                    } finally {
+                        MONTH_SLOTS.release();
                     }
-                }));
+                });
             }
 
-            // Wait for all downloads to complete
-            for (Future<Long> future : futures) {
-                if (cancelled != null && cancelled.get()) {
-                    break;
-                }
-                try {
-                    future.get();
-                } catch (ExecutionException e) {
-                    if (e.getCause() instanceof IOException ioe) {
-                        throw ioe;
-                    }
-                    throw new IOException("Download failed: " + e.getCause().getMessage(), e.getCause());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IOException("Download interrupted", e);
-                }
-            }
+            // Wait for all downloads; the first failure cancels the rest
+            scope.join();
+        }
 
-            long total = totalRecords.get();
+        long total = totalRecords.get();
 
-            if (cancelled != null && cancelled.get()) {
-                if (onProgress != null) {
-                    onProgress.accept(VisionProgress.cancelled(
-                        (int) completedCount.get(), uncoveredMonths.size(), total));
-                }
-            } else {
-                if (onProgress != null) {
-                    onProgress.accept(VisionProgress.complete(uncoveredMonths.size(), total));
-                }
+        if (cancelled != null && cancelled.get()) {
+            if (onProgress != null) {
+                onProgress.accept(VisionProgress.cancelled(
+                    (int) completedCount.get(), uncoveredMonths.size(), total));
             }
-
-            return total;
-
-        } finally {
-            executor.shutdown();
-            try {
-                if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                    executor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                executor.shutdownNow();
-                Thread.currentThread().interrupt();
+        } else {
+            if (onProgress != null) {
+                onProgress.accept(VisionProgress.complete(uncoveredMonths.size(), total));
             }
         }
+
+        return total;
     }
 
     /**
@@ -336,43 +332,28 @@ public class BinanceVisionClient {
         String url = buildUrl(dataType, symbol, interval, month);
         log.debug("Downloading: {}", url);
 
-        Request request = new Request.Builder()
-            .url(url)
-            .get()
-            .build();
-
-        // Use bulk client with 10-minute timeout for large ZIP files
-        try (Response response = bulkClient.newCall(request).execute()) {
-            if (response.code() == 404) {
-                throw new IOException("404 Not Found: " + url);
-            }
-            if (!response.isSuccessful()) {
-                throw new IOException("Download failed: " + response.code() + " " + response.message());
-            }
-
-            // Get content length for progress logging
-            long contentLength = response.body().contentLength();
-            if (contentLength > 0) {
-                log.info("Downloading {} ({} MB)...", month, String.format("%.1f", contentLength / 1_000_000.0));
-            }
+        // Local verified copy from the archive cache; downloads (and resumes) only if missing
+        Path archive = VisionArchives.cache().fetch(url);
+        log.debug("Parsing {} ({} MB)", month, String.format("%.1f", Files.size(archive) / 1_000_000.0));
 
-            // Parse ZIP in memory and extract CSV records
-            List<String> records = parseZipStream(response.body().byteStream());
+        List<String> records;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archive))) {
+            records = parseZipStream(in);
+        }
 
-            if (records.isEmpty()) {
-                log.debug("No records in {}", url);
-                return 0;
-            }
+        if (records.isEmpty()) {
+            log.debug("No records in {}", url);
+            return 0;
+        }
 
-            // Save records to database
-            saver.save(records, symbol, interval);
+        // Save records to database
+        saver.save(records, symbol, interval);
 
-            // Mark month as covered
-            markMonthCovered(dataType, symbol, interval, month);
+        // Mark month as covered
+        markMonthCovered(dataType, symbol, interval, month);
 
-            log.debug("Saved {} records for {} {}", records.size(), symbol, month);
-            return records.size();
-        }
+        log.debug("Saved {} records for {} {}", records.size(), symbol, month);
+        return records.size();
     }
 
     /**
@@ -679,6 +660,14 @@ public class BinanceVisionClient {
     public boolean isMonthAvailable(VisionDataType dataType, String symbol, String interval, YearMonth month) {
         String url = buildUrl(dataType, symbol, interval, month);
 
+        try {
+            if (VisionArchives.cache().lookup(url) != null) {
+                return true;
+            }
+        } catch (IOException e) {
+            log.debug("Archive cache lookup failed for {}: {}", url, e.getMessage());
+        }
+
         Request request = new Request.Builder()
             .url(url)
             .head()
@@ -715,7 +704,11 @@ public class BinanceVisionClient {
 
     /**
      * Sync using Vision for historical data and API for recent gap.
-     * Vision for complete months, BinanceClient for current month.
+     * Vision for complete months, BinanceClient for current month, fetched concurrently
+     * as one unit: if either part fails, the other is cancelled.
+     *
+     * If the last complete month is not on Vision yet (it is published a few days into the
+     * next month), it is backfilled from the API afterwards.
      *
      * @param symbol      Trading pair
      * @param interval    Kline interval
@@ -728,44 +721,66 @@ public class BinanceVisionClient {
                                      BinanceClient apiClient, AtomicBoolean cancelled,
                                      Consumer<VisionProgress> onProgress) throws IOException {
 
-        // 1. Download complete months via Vision
         YearMonth lastCompleteMonth = getLastCompleteMonth();
+        boolean useVision = !startMonth.isAfter(lastCompleteMonth);
+        YearMonth currentMonth = YearMonth.now();
+        long[] currentRange = getMonthRange(currentMonth);
+
+        // Resume the current month from the latest candle we have; Vision covers everything before it
+        Candle latest = dataStore.getLatestCandle(symbol, marketType, interval);
+        long apiStart = latest == null ? currentRange[0]
+            : useVision ? Math.max(latest.timestamp() + 1, currentRange[0]) : latest.timestamp() + 1;
 
-        if (!startMonth.isAfter(lastCompleteMonth)) {
-            downloadKlines(symbol, interval, startMonth, lastCompleteMonth, cancelled, onProgress);
+        if (onProgress != null && !useVision) {
+            onProgress.accept(new VisionProgress(0, 1, 0, "Backfilling current month via API...", currentMonth.toString()));
+        }
+
+        long apiRecords;
+        // The fork below runs on another thread; hand it the job so Vision months still checkpoint
+        DownloadScheduler.Job job = DownloadScheduler.currentJob();
+        try (FetchScope<Long> scope = new FetchScope<>("sync-" + symbol)) {
+            // 1. Complete months via Vision
+            if (useVision) {
+                scope.fork(() -> downloadKlines(symbol, interval, startMonth, lastCompleteMonth, cancelled, onProgress, job));
+            }
+            // 2. Current month via API (reports progress only when it is the whole sync)
+            Future<Long> api = scope.fork(() -> backfillFromApi(symbol, interval, apiStart, System.currentTimeMillis(),
+                apiClient, cancelled, useVision ? null : onProgress, currentMonth.toString()));
+            scope.join();
+            apiRecords = api.resultNow();
         }
 
         if (cancelled != null && cancelled.get()) {
             return;
         }
 
-        // 2. Backfill current month via API
-        YearMonth currentMonth = YearMonth.now();
-        long[] currentRange = getMonthRange(currentMonth);
+        // 3. Last complete month not published on Vision yet
+        if (useVision && !filterUncoveredMonths(VisionDataType.KLINES, symbol, interval, List.of(lastCompleteMonth)).isEmpty()) {
+            long[] lastRange = getMonthRange(lastCompleteMonth);
+            apiRecords += backfillFromApi(symbol, interval, lastRange[0], currentRange[0],
+                apiClient, cancelled, null, lastCompleteMonth.toString());
+        }
 
         if (onProgress != null) {
-            onProgress.accept(new VisionProgress(0, 1, 0, "Backfilling current month via API...", currentMonth.toString()));
+            onProgress.accept(VisionProgress.complete(1, apiRecords));
         }
+    }
 
-        // Get the latest candle we have
-        Candle latest = dataStore.getLatestCandle(symbol, marketType, interval);
-        long apiStart = latest != null ? latest.timestamp() + 1 : currentRange[0];
-
-        List<Candle> apiCandles = apiClient.fetchAllKlines(symbol, marketType, interval, apiStart, System.currentTimeMillis(),
+    private long backfillFromApi(String symbol, String interval, long start, long end, BinanceClient apiClient,
+                                 AtomicBoolean cancelled, Consumer<VisionProgress> onProgress,
+                                 String label) throws IOException {
+        List<Candle> apiCandles = apiClient.fetchAllKlines(symbol, marketType, interval, start, end,
             cancelled, progress -> {
                 if (onProgress != null) {
                     onProgress.accept(new VisionProgress(0, 1, progress.fetchedCandles(),
-                        "API backfill: " + progress.message(), currentMonth.toString()));
+                        "API backfill: " + progress.message(), label));
                 }
             });
 
         if (!apiCandles.isEmpty()) {
             dataStore.saveCandles(symbol, marketType, interval, apiCandles);
-            log.info("API backfill added {} candles for {} {} {}", apiCandles.size(), symbol, marketType, interval);
-        }
-
-        if (onProgress != null) {
-            onProgress.accept(VisionProgress.complete(1, apiCandles.size()));
+            log.info("API backfill added {} candles for {} {} {} ({})", apiCandles.size(), symbol, marketType, interval, label);
         }
+        return apiCandles.size();
     }
 }
@@ -0,0 +1,81 @@
+package com.tradery.dataservice.data;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps concurrent requests per host.
+ *
+ * Downloads run on virtual threads, so there is no pool size to bound them; this keeps each
+ * host within what it tolerates and what the connection pool keeps alive. Request rate is
+ * the {@link com.tradery.data.ratelimit.RateLimitInterceptor}'s job; it runs first, so
+ * nobody holds a connection slot while waiting for weight.
+ *
+ * API responses are buffered before the slot is released, so a slot covers the whole
+ * exchange. Bulk downloads hold a slot explicitly with {@link #acquire(String)} while they
+ * stream the file.
+ */
+final class ConnectionLimitInterceptor implements Interceptor {
+
+    static final ConnectionLimitInterceptor INSTANCE = new ConnectionLimitInterceptor();
+
+    private static final int DEFAULT_LIMIT = 8;
+    private static final Map<String, Integer> LIMITS = Map.of(
+        "data.binance.vision", 6,      // 50-200MB files: more streams don't add bandwidth
+        "api.coingecko.com", 2
+    );
+    private static final Map<String, Semaphore> PERMITS = new ConcurrentHashMap<>();
+
+    private ConnectionLimitInterceptor() {}
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        try (Slot slot = acquire(chain.request().url().host())) {
+            Response response = chain.proceed(chain.request());
+            if (response.body() == null) {
+                return response;
+            }
+            try (response) {
+                return response.newBuilder().body(response.peekBody(Long.MAX_VALUE)).build();
+            }
+        }
+    }
+
+    /**
+     * Wait for a connection slot on a host. Close the slot when the transfer is done.
+     */
+    static Slot acquire(String host) throws InterruptedIOException {
+        Semaphore permits = PERMITS.computeIfAbsent(host,
+            h -> new Semaphore(LIMITS.getOrDefault(h, DEFAULT_LIMIT), true));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection to " + host);
+        }
+        return new Slot(permits);
+    }
+
+    static final class Slot implements AutoCloseable {
+        private final Semaphore permits;
+        private boolean released;
+
+        private Slot(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.tradery.dataservice.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single scheduler for all downloads in the data service.
+ *
+ * At most {@code maxConcurrent} jobs hold a slot at a time. Free slots go to the highest
+ * priority class first (interactive page &gt; backtest &gt; preload); within a class, to the
+ * symbol served least recently, so one symbol's backfill cannot starve another; then FIFO.
+ *
+ * Jobs are described by symbol, resource (data type, market, timeframe) and time range.
+ * A job whose range overlaps a started job on the same resource is held back until that
+ * one finishes, and then finds the data cached instead of downloading it again. A new job
+ * raises the priority of older overlapping jobs to its own, so an interactive request never
+ * waits behind a preload that is doing its work.
+ *
+ * Long downloads call {@link #checkpoint()} between units of work (Vision months, API gaps).
+ * When a higher-priority job is waiting and no slot is free, the job parks there and gives
+ * up its slot until the scheduler hands it one again.
+ */
+public final class DownloadScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DownloadScheduler.class);
+    private static final ThreadLocal<Job> CURRENT = new ThreadLocal<>();
+
+    public enum Priority {
+        INTERACTIVE, BACKTEST, PRELOAD;
+
+        /**
+         * Parse a wire value ("interactive", "backtest", "preload"), falling back for null or unknown values.
+         */
+        public static Priority parse(String value, Priority fallback) {
+            if (value == null || value.isBlank()) return fallback;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return fallback;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private enum State { QUEUED, RUNNING, PARKED, DONE }
+
+    private final int maxConcurrent;
+    private final ExecutorService executor;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private final List<Job> waiting = new ArrayList<>();    // Queued or parked, in submission order
+    private final List<Job> active = new ArrayList<>();     // Holding a slot
+    private final Map<String, Long> symbolLastServed = new HashMap<>();
+    private final ClassCounters[] counters = new ClassCounters[Priority.values().length];
+    private long jobSequence;
+    private long dispatchSequence;
+    private boolean shutdown;
+
+    public DownloadScheduler(int maxConcurrent) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        // Jobs block on HTTP and SQLite; a virtual thread each, the slots above bound how many run
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("DownloadScheduler-", 1).factory());
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new ClassCounters();
+        }
+    }
+
+    /**
+     * The job running on the current thread, or null outside a scheduled job.
+     * Capture it before fanning work out to other threads that should honour {@link Job#checkpoint()}.
+     */
+    public static Job currentJob() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Yield the current job's slot if higher-priority work is waiting. No-op outside a scheduled job.
+     */
+    public static void checkpoint() throws InterruptedException {
+        Job job = CURRENT.get();
+        if (job != null) {
+            job.checkpoint();
+        }
+    }
+
+    /**
+     * Queue a download.
+     *
+     * @param resource What is downloaded, e.g. "CANDLES:perp:1h"; only jobs on the same
+     *                 resource and symbol are considered overlapping
+     */
+    public Job submit(String symbol, String resource, long start, long end, Priority priority, Task task) {
+        lock.lock();
+        try {
+            Job job = new Job(++jobSequence, symbol, resource, start, end, priority, task);
+            if (shutdown) {
+                job.state = State.DONE;
+                job.future.completeExceptionally(new IllegalStateException("Download scheduler is shut down"));
+                return job;
+            }
+
+            boolean overlapping = false;
+            for (Job other : allJobs()) {
+                if (other.overlaps(job)) {
+                    overlapping = true;
+                    raise(other, priority);
+                }
+            }
+            counters[priority.ordinal()].submitted++;
+            if (overlapping) counters[priority.ordinal()].deduplicated++;
+
+            waiting.add(job);
+            dispatch();
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Raise a job's priority (never lowers it). Used when a higher-priority consumer
+     * asks for a page whose load is already queued.
+     */
+    public void promote(Job job, Priority priority) {
+        lock.lock();
+        try {
+            if (job.state == State.DONE) return;
+            raise(job, priority);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop a job that has not started yet.
+     *
+     * @return true if the job was removed from the queue
+     */
+    public boolean cancel(Job job) {
+        lock.lock();
+        try {
+            if (job.state != State.QUEUED) return false;
+            waiting.remove(job);
+            job.state = State.DONE;
+            counters[job.requested.ordinal()].cancelled++;
+            job.future.cancel(false);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            shutdown = true;
+            for (Job job : new ArrayList<>(waiting)) {
+                if (job.state == State.QUEUED) {
+                    waiting.remove(job);
+                    job.state = State.DONE;
+                    job.future.cancel(false);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        executor.shutdown();
+        executor.awaitTermination(timeout, unit);
+    }
+
+    // ========== Dispatch (all under lock) ==========
+
+    private void dispatch() {
+        while (active.size() < maxConcurrent) {
+            Job next = pickNext();
+            if (next == null) return;
+
+            waiting.remove(next);
+            active.add(next);
+            symbolLastServed.put(next.symbol, ++dispatchSequence);
+            counters[next.priority.ordinal()].recordWait(System.nanoTime() - next.waitingSince);
+
+            if (next.state == State.PARKED) {
+                next.state = State.RUNNING;
+                next.resumed.signalAll();
+            } else {
+                next.state = State.RUNNING;
+                counters[next.requested.ordinal()].started++;
+                executor.execute(() -> run(next));
+            }
+        }
+    }
+
+    /**
+     * Best runnable waiting job: priority class, then least recently served symbol, then FIFO.
+     */
+    private Job pickNext() {
+        Job best = null;
+        long bestServed = 0;
+        for (Job job : waiting) {
+            if (isBlocked(job)) continue;
+            long served = symbolLastServed.getOrDefault(job.symbol, 0L);
+            if (best == null
+                    || job.priority.ordinal() < best.priority.ordinal()
+                    || (job.priority == best.priority && served < bestServed)) {
+                best = job;
+                bestServed = served;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A queued job waits while an overlapping job has started (running or parked).
+     */
+    private boolean isBlocked(Job job) {
+        if (job.state != State.QUEUED) return false;
+        for (Job other : active) {
+            if (other.overlaps(job)) return true;
+        }
+        for (Job other : waiting) {
+            if (other.state == State.PARKED && other.overlaps(job)) return true;
+        }
+        return false;
+    }
+
+    private boolean shouldYield(Job job) {
+        if (active.size() < maxConcurrent) return false;
+        boolean higherWaiting = false;
+        for (Job other : waiting) {
+            // Someone needs this job's range: finishing it is the fastest way to serve them
+            if (other.overlaps(job)) return false;
+            if (other.priority.ordinal() < job.priority.ordinal() && !isBlocked(other)) {
+                higherWaiting = true;
+            }
+        }
+        return higherWaiting;
+    }
+
+    private void raise(Job job, Priority priority) {
+        if (priority.ordinal() < job.priority.ordinal()) {
+            job.priority = priority;
+        }
+    }
+
+    private List<Job> allJobs() {
+        List<Job> all = new ArrayList<>(active.size() + waiting.size());
+        all.addAll(active);
+        all.addAll(waiting);
+        return all;
+    }
+
+    private void run(Job job) {
+        CURRENT.set(job);
+        Throwable failure = null;
+        try {
+            job.task.run();
+        } catch (Throwable t) {
+            failure = t;
+            if (!(t instanceof InterruptedException)) {
+                LOG.warn("Download {} {} failed: {}", job.symbol, job.resource, t.getMessage());
+            }
+        } finally {
+            CURRENT.remove();
+            lock.lock();
+            try {
+                active.remove(job);
+                waiting.remove(job);
+                job.state = State.DONE;
+                ClassCounters c = counters[job.requested.ordinal()];
+                if (failure == null) c.completed++; else c.failed++;
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (failure == null) {
+            job.future.complete(null);
+        } else {
+            job.future.completeExceptionally(failure);
+        }
+    }
+
+    // ========== Metrics ==========
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            List<ClassStats> classes = new ArrayList<>();
+            for (Priority priority : Priority.values()) {
+                int queued = 0;
+                int parked = 0;
+                int running = 0;
+                for (Job job : waiting) {
+                    if (job.priority != priority) continue;
+                    if (job.state == State.PARKED) parked++; else queued++;
+                }
+                for (Job job : active) {
+                    if (job.priority == priority) running++;
+                }
+                ClassCounters c = counters[priority.ordinal()];
+                long oldestWaitMs = 0;
+                long now = System.nanoTime();
+                for (Job job : waiting) {
+                    if (job.priority == priority) {
+                        oldestWaitMs = Math.max(oldestWaitMs, TimeUnit.NANOSECONDS.toMillis(now - job.waitingSince));
+                    }
+                }
+                classes.add(new ClassStats(priority.name(), queued, parked, running,
+                    c.submitted, c.started, c.completed, c.failed, c.cancelled, c.deduplicated, c.preempted,
+                    c.dispatches > 0 ? TimeUnit.NANOSECONDS.toMillis(c.totalWaitNanos / c.dispatches) : 0,
+                    TimeUnit.NANOSECONDS.toMillis(c.maxWaitNanos), oldestWaitMs));
+            }
+            return new Stats(maxConcurrent, active.size(), waiting.size(), classes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class ClassCounters {
+        long submitted;
+        long started;
+        long completed;
+        long failed;
+        long cancelled;
+        long deduplicated;
+        long preempted;
+        long dispatches;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        void recordWait(long nanos) {
+            dispatches++;
+            totalWaitNanos += nanos;
+            maxWaitNanos = Math.max(maxWaitNanos, nanos);
+        }
+    }
+
+    /**
+     * Scheduler state for /pages/status.
+     */
+    public record Stats(int maxConcurrent, int running, int waiting, List<ClassStats> classes) {}
+
+    /**
+     * Queue depth and wait times of one priority class. Depth and waits count jobs by their
+     * current (possibly raised) priority, the lifecycle counters by the priority they were
+     * submitted at. Waits are measured from submission (or from parking) until a slot is granted.
+     *
+     * @param deduplicated Jobs that overlapped already scheduled work and reused its download
+     * @param preempted    Times a running job of this class parked for higher-priority work
+     */
+    public record ClassStats(String priority, int queued, int parked, int running,
+                             long submitted, long started, long completed, long failed, long cancelled,
+                             long deduplicated, long preempted,
+                             long avgWaitMs, long maxWaitMs, long oldestWaitingMs) {}
+
+    // ========== Job ==========
+
+    /**
+     * A scheduled download. Completes its future when the task returns.
+     */
+    public final class Job {
+        private final long id;
+        private final String symbol;
+        private final String resource;
+        private final long start;
+        private final long end;
+        private final Task task;
+        private final Priority requested;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final Condition resumed = lock.newCondition();
+
+        // Guarded by lock
+        private Priority priority;
+        private State state = State.QUEUED;
+        private long waitingSince = System.nanoTime();
+
+        private Job(long id, String symbol, String resource, long start, long end, Priority priority, Task task) {
+            this.id = id;
+            this.symbol = symbol;
+            this.resource = resource;
+            this.start = start;
+            this.end = end;
+            this.requested = priority;
+            this.priority = priority;
+            this.task = task;
+        }
+
+        public CompletableFuture<Void> future() {
+            return future;
+        }
+
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        public Priority getPriority() {
+            lock.lock();
+            try {
+                return priority;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Give up the slot while higher-priority work waits. Safe to call from any thread
+         * working for this job; all of them park until the slot is granted back.
+         */
+        public void checkpoint() throws InterruptedException {
+            lock.lock();
+            try {
+                if (state == State.RUNNING && shouldYield(this)) {
+                    LOG.debug("Parking {} {} job {} for higher-priority downloads", priority, symbol, id);
+                    active.remove(this);
+                    state = State.PARKED;
+                    waitingSince = System.nanoTime();
+                    waiting.add(this);
+                    counters[requested.ordinal()].preempted++;
+                    dispatch();
+                }
+                while (state == State.PARKED) {
+                    resumed.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean overlaps(Job other) {
+            return other != this && symbol.equals(other.symbol) && resource.equals(other.resource)
+                && start < other.end && other.start < end;
+        }
+    }
+}
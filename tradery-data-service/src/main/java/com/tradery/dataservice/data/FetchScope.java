@@ -0,0 +1,82 @@
+package com.tradery.dataservice.data;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The parts of one multi-part fetch (Vision months, API backfill), each on its own virtual
+ * thread, joined as a unit: the first failure cancels the other parts and is rethrown, and
+ * nothing forked in the scope outlives it.
+ *
+ * Equivalent to {@code StructuredTaskScope.ShutdownOnFailure}, which is still a preview API
+ * on Java 21. Parallelism is not capped here; the rate limit budgets and per-host connection
+ * limits in the HTTP client decide how many requests are actually in flight.
+ *
+ * <pre>
+ * try (FetchScope&lt;Long&gt; scope = new FetchScope&lt;&gt;("vision-BTCUSDT")) {
+ *     for (YearMonth month : months) scope.fork(() -&gt; downloadMonth(month));
+ *     scope.join();
+ * }
+ * </pre>
+ */
+final class FetchScope<T> implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final CompletionService<T> completion;
+    private int forked;
+
+    FetchScope(String name) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        this.completion = new ExecutorCompletionService<>(executor);
+    }
+
+    Future<T> fork(Callable<T> part) {
+        forked++;
+        return completion.submit(part);
+    }
+
+    /**
+     * Wait for every forked part. On the first failure the remaining parts are interrupted
+     * and the failure is rethrown (IOExceptions as-is, anything else wrapped).
+     */
+    void join() throws IOException {
+        try {
+            for (int i = 0; i < forked; i++) {
+                completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioe) throw ioe;
+            if (cause instanceof InterruptedException) throw new InterruptedIOException("Fetch interrupted");
+            throw new IOException("Fetch failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Fetch interrupted");
+        } finally {
+            forked = 0;
+        }
+    }
+
+    /**
+     * Interrupt anything still running and wait for it to stop.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
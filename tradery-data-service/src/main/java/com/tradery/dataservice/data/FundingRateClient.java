@@ -3,6 +3,7 @@ package com.tradery.dataservice.data;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.FundingRate;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -23,7 +24,6 @@ import java.util.List;
 public class FundingRateClient {
 
     private static final Logger log = LoggerFactory.getLogger(FundingRateClient.class);
-    private static final String BASE_URL = "https://fapi.binance.com/fapi/v1";
     private static final int MAX_RECORDS_PER_REQUEST = 1000;
 
     private final OkHttpClient client;
@@ -82,7 +82,7 @@ public class FundingRateClient {
     private List<FundingRate> fetchBatch(String symbol, long startTime, long endTime)
             throws IOException {
 
-        StringBuilder url = new StringBuilder(BASE_URL + "/fundingRate")
+        StringBuilder url = new StringBuilder(BinanceEndpoints.futuresRest() + "/fapi/v1/fundingRate")
             .append("?symbol=").append(symbol)
             .append("&limit=").append(MAX_RECORDS_PER_REQUEST);
 
@@ -127,7 +127,7 @@ public class FundingRateClient {
      * Fetch the latest funding rate for a symbol.
      */
     public FundingRate fetchLatestFundingRate(String symbol) throws IOException {
-        StringBuilder url = new StringBuilder(BASE_URL + "/fundingRate")
+        StringBuilder url = new StringBuilder(BinanceEndpoints.futuresRest() + "/fapi/v1/fundingRate")
             .append("?symbol=").append(symbol)
             .append("&limit=1");
 
@@ -1,6 +1,8 @@
 package com.tradery.dataservice.data;
 
 import com.tradery.core.model.FundingRate;
+import com.tradery.data.ratelimit.RateLimitInterceptor;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import com.tradery.dataservice.data.sqlite.SqliteDataStore;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -35,7 +37,7 @@ public class FundingRateStore {
     private static final String CSV_HEADER = "symbol,fundingRate,fundingTime,markPrice";
 
     // Vision bulk download settings
-    private static final String VISION_BASE_URL = "https://data.binance.vision/data/futures/um/monthly/fundingRate";
+    private static final String VISION_PATH = "/data/futures/um/monthly/fundingRate";
     private static final int VISION_THRESHOLD_DAYS = 60; // Use Vision for >= 2 months of data
 
     private final File dataDir;
@@ -54,6 +56,7 @@ public class FundingRateStore {
         this.httpClient = new OkHttpClient.Builder()
             .connectTimeout(30, java.util.concurrent.TimeUnit.SECONDS)
             .readTimeout(60, java.util.concurrent.TimeUnit.SECONDS)
+            .addInterceptor(RateLimitInterceptor.INSTANCE)
             .build();
 
         if (!dataDir.exists()) {
@@ -243,7 +246,7 @@ public class FundingRateStore {
     private void downloadVisionMonth(String symbol, YearMonth month) throws IOException {
         // URL: https://data.binance.vision/data/futures/um/monthly/fundingRate/BTCUSDT/BTCUSDT-fundingRate-2024-01.zip
         String url = String.format("%s/%s/%s-fundingRate-%s.zip",
-            VISION_BASE_URL, symbol, symbol, month.format(MONTH_FORMAT));
+            BinanceEndpoints.vision() + VISION_PATH, symbol, symbol, month.format(MONTH_FORMAT));
 
         log.info("Vision: Downloading funding rates {}", month);
 
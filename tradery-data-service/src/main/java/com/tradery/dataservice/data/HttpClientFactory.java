@@ -3,6 +3,7 @@ package com.tradery.dataservice.data;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tradery.data.ratelimit.RateLimitInterceptor;
 import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 
@@ -13,7 +14,8 @@ import java.util.concurrent.TimeUnit;
  * Eliminates duplicate client creation across API classes.
  *
  * Thread-safe singleton pattern for shared resources:
- * - OkHttpClient with connection pooling
+ * - OkHttpClient with connection pooling, charging exchange calls against shared rate limit budgets
+ *   and capping concurrent requests per host (callers run on virtual threads, not a sized pool)
  * - ObjectMapper with standard configuration
  */
 public final class HttpClientFactory {
@@ -25,16 +27,19 @@ public final class HttpClientFactory {
     static {
         // Shared HTTP client with connection pooling (for API calls)
         SHARED_CLIENT = new OkHttpClient.Builder()
-            .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+            .connectionPool(new ConnectionPool(16, 5, TimeUnit.MINUTES))
             .connectTimeout(30, TimeUnit.SECONDS)
             .readTimeout(30, TimeUnit.SECONDS)
             .writeTimeout(30, TimeUnit.SECONDS)
             .retryOnConnectionFailure(true)
+            .addInterceptor(RateLimitInterceptor.INSTANCE)
+            .addInterceptor(ConnectionLimitInterceptor.INSTANCE)
             .build();
 
-        // Client for bulk file downloads (Vision ZIP files can be 50-200MB)
+        // Client for bulk file downloads (Vision ZIP files can be 50-200MB).
+        // Callers hold a ConnectionLimitInterceptor slot while streaming the body.
         BULK_DOWNLOAD_CLIENT = new OkHttpClient.Builder()
-            .connectionPool(new ConnectionPool(2, 5, TimeUnit.MINUTES))
+            .connectionPool(new ConnectionPool(6, 5, TimeUnit.MINUTES))
             .connectTimeout(60, TimeUnit.SECONDS)
             .readTimeout(10, TimeUnit.MINUTES)  // Large files need time
             .writeTimeout(30, TimeUnit.SECONDS)
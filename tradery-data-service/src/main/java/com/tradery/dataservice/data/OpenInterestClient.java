@@ -3,6 +3,7 @@ package com.tradery.dataservice.data;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.OpenInterest;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -28,7 +29,6 @@ import java.util.function.Consumer;
 public class OpenInterestClient {
 
     private static final Logger log = LoggerFactory.getLogger(OpenInterestClient.class);
-    private static final String BASE_URL = "https://fapi.binance.com/futures/data";
     private static final int MAX_RECORDS_PER_REQUEST = 500;
     private static final String DEFAULT_PERIOD = "5m";
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d HH:mm");
@@ -182,7 +182,7 @@ public class OpenInterestClient {
     private List<OpenInterest> fetchBatch(String symbol, long startTime, long endTime, String period)
             throws IOException {
 
-        StringBuilder url = new StringBuilder(BASE_URL + "/openInterestHist")
+        StringBuilder url = new StringBuilder(BinanceEndpoints.futuresRest() + "/futures/data/openInterestHist")
             .append("?symbol=").append(symbol)
             .append("&period=").append(period)
             .append("&limit=").append(MAX_RECORDS_PER_REQUEST);
@@ -229,7 +229,7 @@ public class OpenInterestClient {
      * Uses the current OI endpoint (not historical).
      */
     public OpenInterest fetchLatestOpenInterest(String symbol) throws IOException {
-        String url = "https://fapi.binance.com/fapi/v1/openInterest?symbol=" + symbol;
+        String url = BinanceEndpoints.futuresRest() + "/fapi/v1/openInterest?symbol=" + symbol;
 
         Request request = new Request.Builder()
             .url(url)
@@ -3,6 +3,7 @@ package com.tradery.dataservice.data;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.PremiumIndex;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -25,7 +26,6 @@ import java.util.List;
 public class PremiumIndexClient {
 
     private static final Logger log = LoggerFactory.getLogger(PremiumIndexClient.class);
-    private static final String BASE_URL = "https://fapi.binance.com/fapi/v1";
     private static final int MAX_RECORDS_PER_REQUEST = 1500;
 
     private final OkHttpClient client;
@@ -86,7 +86,7 @@ public class PremiumIndexClient {
                                            long startTime, long endTime)
             throws IOException {
 
-        StringBuilder url = new StringBuilder(BASE_URL + "/premiumIndexKlines")
+        StringBuilder url = new StringBuilder(BinanceEndpoints.futuresRest() + "/fapi/v1/premiumIndexKlines")
             .append("?symbol=").append(symbol)
             .append("&interval=").append(interval)
             .append("&limit=").append(MAX_RECORDS_PER_REQUEST);
@@ -137,7 +137,7 @@ public class PremiumIndexClient {
      * Fetch the current premium index value.
      */
     public PremiumIndex fetchCurrentPremiumIndex(String symbol, String interval) throws IOException {
-        StringBuilder url = new StringBuilder(BASE_URL + "/premiumIndexKlines")
+        StringBuilder url = new StringBuilder(BinanceEndpoints.futuresRest() + "/fapi/v1/premiumIndexKlines")
             .append("?symbol=").append(symbol)
             .append("&interval=").append(interval)
             .append("&limit=1");
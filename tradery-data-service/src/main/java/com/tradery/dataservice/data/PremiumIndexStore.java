@@ -1,6 +1,8 @@
 package com.tradery.dataservice.data;
 
 import com.tradery.core.model.PremiumIndex;
+import com.tradery.data.ratelimit.RateLimitInterceptor;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import com.tradery.dataservice.data.sqlite.SqliteDataStore;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -32,7 +34,7 @@ public class PremiumIndexStore {
     private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
 
     // Vision bulk download settings
-    private static final String VISION_BASE_URL = "https://data.binance.vision/data/futures/um/monthly/premiumIndexKlines";
+    private static final String VISION_PATH = "/data/futures/um/monthly/premiumIndexKlines";
     private static final int VISION_THRESHOLD_API_CALLS = 10;
 
     private final File dataDir;
@@ -51,6 +53,7 @@ public class PremiumIndexStore {
         this.httpClient = new OkHttpClient.Builder()
             .connectTimeout(30, TimeUnit.SECONDS)
             .readTimeout(60, TimeUnit.SECONDS)
+            .addInterceptor(RateLimitInterceptor.INSTANCE)
             .build();
 
         if (!dataDir.exists()) {
@@ -256,7 +259,7 @@ public class PremiumIndexStore {
     private void downloadVisionMonth(String symbol, String interval, YearMonth month) throws IOException {
         // URL: https://data.binance.vision/data/futures/um/monthly/premiumIndexKlines/BTCUSDT/1h/BTCUSDT-1h-2024-01.zip
         String url = String.format("%s/%s/%s/%s-%s-%s.zip",
-            VISION_BASE_URL, symbol, interval, symbol, interval, month.format(MONTH_FORMAT));
+            BinanceEndpoints.vision() + VISION_PATH, symbol, interval, symbol, interval, month.format(MONTH_FORMAT));
 
         log.info("Vision: Downloading premium index {}", month);
 
@@ -48,10 +48,29 @@ public final class SyncEstimator {
         long tradesPerDay = getTradesPerDay(symbol);
         long totalTrades = days * tradesPerDay;
 
-        // 1000 trades per request, ~50ms per request
+        // 1000 trades per request; hour segments are fetched in parallel, so the spot
+        // weight budget (~20 aggTrades requests/s) is the limit rather than latency
         long requests = totalTrades / 1000;
-        long seconds = requests * 50 / 1000;
+        long seconds = requests / 20;
 
+        return formatDuration(seconds);
+    }
+
+    /**
+     * Estimate the time left for a running sync from its progress so far.
+     *
+     * @param elapsedMs Time spent so far
+     * @param done      Units of work finished (e.g. hour segments)
+     * @param total     Total units of work
+     * @return Human-readable time estimate, or null before anything has finished
+     */
+    public static String estimateRemaining(long elapsedMs, int done, int total) {
+        if (done <= 0 || total <= done) return null;
+        long seconds = elapsedMs * (total - done) / done / 1000;
+        return formatDuration(seconds);
+    }
+
+    private static String formatDuration(long seconds) {
         if (seconds < 30) return "<1 min";
         if (seconds < 90) return "~1 min";
         if (seconds < 150) return "~2 min";
@@ -0,0 +1,56 @@
+package com.tradery.dataservice.data;
+
+import com.tradery.data.archive.ArchiveCache;
+import com.tradery.data.archive.ArchiveTransport;
+import com.tradery.dataservice.config.DataServiceConfig;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * The Binance Vision archive cache (~/.tradery/archives, shared with forge).
+ *
+ * Downloads go through the bulk download client and hold a per-host connection slot only
+ * while bytes are transferred; parsing and database writes read the local file afterwards.
+ * Size limit: tradery.data.archive_cache_gb / TRADERY_ARCHIVE_CACHE_GB (default 20, 0 = unlimited).
+ */
+final class VisionArchives {
+
+    private static final ArchiveCache CACHE = new ArchiveCache(
+        DataServiceConfig.getTraderyDir().resolve("archives"), VisionArchives::get, maxBytes());
+
+    private VisionArchives() {}
+
+    static ArchiveCache cache() {
+        return CACHE;
+    }
+
+    private static ArchiveTransport.Body get(String url, long offset) throws IOException {
+        Request.Builder builder = new Request.Builder().url(url).get();
+        if (offset > 0) {
+            builder.header("Range", "bytes=" + offset + "-");
+        }
+        Request request = builder.build();
+
+        ConnectionLimitInterceptor.Slot slot = ConnectionLimitInterceptor.acquire(request.url().host());
+        Response response;
+        try {
+            response = HttpClientFactory.getBulkDownloadClient().newCall(request).execute();
+        } catch (IOException e) {
+            slot.close();
+            throw e;
+        }
+        return ArchiveTransport.fromResponse(url, offset, response.code(), response.body().contentLength(),
+            response.header("Content-Range"), response.body().byteStream(), () -> {
+                response.close();
+                slot.close();
+            });
+    }
+
+    private static long maxBytes() {
+        long gb = Long.parseLong(System.getProperty("tradery.data.archive_cache_gb",
+            System.getenv().getOrDefault("TRADERY_ARCHIVE_CACHE_GB", "20")));
+        return gb * 1024 * 1024 * 1024;
+    }
+}
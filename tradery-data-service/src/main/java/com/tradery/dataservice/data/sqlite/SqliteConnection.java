@@ -1,6 +1,7 @@
 package com.tradery.dataservice.data.sqlite;
 
 import com.tradery.dataservice.data.DataConfig;
+import com.tradery.data.coverage.CoverageIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,6 +12,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages SQLite database connections with WAL mode for concurrent reads.
@@ -26,7 +28,10 @@ public class SqliteConnection {
     private final String symbol;
     private final File dbFile;
     private Connection connection;
-    private final Object lock = new Object();
+    // Shared by every CoverageDao on this database
+    private final CoverageIndex coverageIndex = new CoverageIndex();
+    // Not a monitor: writers wait here from virtual threads, which a monitor would pin to their carrier
+    private final ReentrantLock lock = new ReentrantLock();
 
     private SqliteConnection(String symbol) {
         this.symbol = symbol;
@@ -63,12 +68,15 @@ public class SqliteConnection {
         }
 
         // Slow path: create connection with synchronization
-        synchronized (lock) {
+        lock.lock();
+        try {
             // Double-check after acquiring lock
             if (connection == null || connection.isClosed()) {
                 connection = createConnection();
             }
             return connection;
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -117,7 +125,8 @@ public class SqliteConnection {
      * Automatically commits on success, rolls back on failure.
      */
     public <T> T executeInTransaction(TransactionFunction<T> function) throws SQLException {
-        synchronized (lock) {
+        lock.lock();
+        try {
             Connection conn = getConnection();
             boolean autoCommitOriginal = conn.getAutoCommit();
             try {
@@ -138,6 +147,8 @@ public class SqliteConnection {
                 } catch (SQLException ignored) {
                 }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -155,7 +166,8 @@ public class SqliteConnection {
      * Close the connection for this symbol.
      */
     public void close() {
-        synchronized (lock) {
+        lock.lock();
+        try {
             if (connection != null) {
                 try {
                     connection.close();
@@ -165,6 +177,8 @@ public class SqliteConnection {
                 }
                 connection = null;
             }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -185,6 +199,13 @@ public class SqliteConnection {
         return dbFile.exists();
     }
 
+    /**
+     * In-memory coverage of this database (see CoverageDao).
+     */
+    public CoverageIndex coverageIndex() {
+        return coverageIndex;
+    }
+
     /**
      * Get the symbol associated with this connection.
      */
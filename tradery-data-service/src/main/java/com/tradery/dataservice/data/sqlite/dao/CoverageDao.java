@@ -1,5 +1,7 @@
 package com.tradery.dataservice.data.sqlite.dao;
 
+import com.tradery.data.coverage.CoverageIndex;
+import com.tradery.data.coverage.Intervals;
 import com.tradery.dataservice.data.sqlite.SqliteConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,8 +10,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for tracking data coverage ranges in the database.
@@ -21,15 +26,20 @@ import java.util.List;
  * - "funding_rates" with sub_key = ""
  * - "open_interest" with sub_key = ""
  * - "premium_index" with sub_key = interval (e.g., "1h", "5m")
+ *
+ * Gap and coverage checks are answered from the connection's {@link CoverageIndex}, loaded
+ * from the table on first use; writes go to the table and the index together.
  */
 public class CoverageDao {
 
     private static final Logger log = LoggerFactory.getLogger(CoverageDao.class);
 
     private final SqliteConnection conn;
+    private final CoverageIndex index;
 
     public CoverageDao(SqliteConnection conn) {
         this.conn = conn;
+        this.index = conn.coverageIndex();
     }
 
     /**
@@ -38,7 +48,7 @@ public class CoverageDao {
      */
     public void addCoverage(String dataType, String subKey, long rangeStart, long rangeEnd,
                             boolean isComplete) throws SQLException {
-        conn.executeInTransaction(c -> {
+        inTransaction(c -> {
             // Find all ranges that overlap or are adjacent (within 1ms) to the new range
             List<CoverageRange> overlapping = new ArrayList<>();
             String selectSql = """
@@ -107,6 +117,7 @@ public class CoverageDao {
                 stmt.setLong(6, System.currentTimeMillis());
                 stmt.executeUpdate();
             }
+            index.add(dataType, subKey, mergedStart, mergedEnd);
 
             if (overlapping.size() > 1) {
                 log.debug("Coverage compacted: merged {} ranges into 1 for {}/{} [{} - {}]",
@@ -151,82 +162,71 @@ public class CoverageDao {
     /**
      * Find gaps in coverage for a given time range.
      * Returns a list of [start, end] pairs representing missing data.
-     * Triggers consolidation if too many fragmented ranges are found.
      */
     public List<long[]> findGaps(String dataType, String subKey, long start, long end) throws SQLException {
-        List<CoverageRange> ranges = getCoverageRangesOverlapping(dataType, subKey, start, end);
-
-        // Auto-consolidate if heavily fragmented
-        if (ranges.size() > 50) {
-            log.info("Coverage fragmented ({} ranges for {}/{}), consolidating...", ranges.size(), dataType, subKey);
-            consolidateRanges(dataType, subKey);
-            ranges = getCoverageRangesOverlapping(dataType, subKey, start, end);
-            log.info("After consolidation: {} ranges", ranges.size());
-        }
-
-        List<long[]> gaps = new ArrayList<>();
-        long cursor = start;
-
-        for (CoverageRange range : ranges) {
-            if (range.rangeStart() > cursor) {
-                // Gap before this range
-                gaps.add(new long[]{cursor, range.rangeStart() - 1});
-            }
-            cursor = Math.max(cursor, range.rangeEnd() + 1);
-        }
-
-        if (cursor <= end) {
-            // Gap at the end
-            gaps.add(new long[]{cursor, end});
-        }
+        return coverage(dataType, subKey).gaps(start, end);
+    }
 
-        return gaps;
+    /**
+     * Check if a time range is fully covered (no gaps).
+     */
+    public boolean isFullyCovered(String dataType, String subKey, long start, long end) throws SQLException {
+        return coverage(dataType, subKey).covers(start, end);
     }
 
     /**
-     * Get coverage ranges that overlap with the given time range.
+     * Covered ranges of a data type and sub key, from the index.
      */
-    private List<CoverageRange> getCoverageRangesOverlapping(String dataType, String subKey,
-                                                              long start, long end) throws SQLException {
+    public Intervals coverage(String dataType, String subKey) throws SQLException {
         Connection c = conn.getConnection();
-        List<CoverageRange> ranges = new ArrayList<>();
-
-        // Ranges overlap if: range_start <= end AND range_end >= start
-        String sql = """
-            SELECT range_start, range_end, is_complete, last_updated
-            FROM data_coverage
-            WHERE data_type = ? AND sub_key = ?
-              AND range_start <= ? AND range_end >= ?
-            ORDER BY range_start
-            """;
-
-        try (PreparedStatement stmt = c.prepareStatement(sql)) {
-            stmt.setString(1, dataType);
-            stmt.setString(2, subKey);
-            stmt.setLong(3, end);
-            stmt.setLong(4, start);
+        if (!index.isLoadedFrom(c)) {
+            reload();
+        } else if (index.claimRecheck(System.currentTimeMillis()) && dataVersion(c) != index.version()) {
+            // Another process (forge or the data service) committed to this database
+            reload();
+        }
+        return index.get(dataType, subKey);
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
+    /**
+     * Load the index from the table. Runs under the write lock so no coverage write lands
+     * between the read and the swap.
+     */
+    private void reload() throws SQLException {
+        conn.executeInTransaction(c -> {
+            Map<String, List<long[]>> rows = new HashMap<>();
+            try (Statement stmt = c.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                     "SELECT data_type, sub_key, range_start, range_end FROM data_coverage")) {
                 while (rs.next()) {
-                    ranges.add(new CoverageRange(
-                        rs.getLong("range_start"),
-                        rs.getLong("range_end"),
-                        rs.getInt("is_complete") == 1,
-                        rs.getLong("last_updated")
-                    ));
+                    rows.computeIfAbsent(CoverageIndex.key(rs.getString(1), rs.getString(2)), k -> new ArrayList<>())
+                        .add(new long[]{rs.getLong(3), rs.getLong(4)});
                 }
             }
-        }
+            Map<String, Intervals> ranges = new HashMap<>();
+            rows.forEach((key, list) -> ranges.put(key, Intervals.of(list)));
+            index.load(c, dataVersion(c), ranges);
+        });
+    }
 
-        return ranges;
+    private static long dataVersion(Connection c) throws SQLException {
+        try (Statement stmt = c.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
     }
 
     /**
-     * Check if a time range is fully covered (no gaps).
+     * Run a coverage write. If it fails after touching the index, the index is dropped and
+     * reloaded from the table on next use.
      */
-    public boolean isFullyCovered(String dataType, String subKey, long start, long end) throws SQLException {
-        List<long[]> gaps = findGaps(dataType, subKey, start, end);
-        return gaps.isEmpty();
+    private void inTransaction(SqliteConnection.TransactionConsumer write) throws SQLException {
+        try {
+            conn.executeInTransaction(write);
+        } catch (SQLException e) {
+            index.invalidate();
+            throw e;
+        }
     }
 
     /**
@@ -299,13 +299,14 @@ public class CoverageDao {
      * Delete coverage records for a data type (used when clearing cache).
      */
     public void deleteCoverage(String dataType, String subKey) throws SQLException {
-        conn.executeInTransaction(c -> {
+        inTransaction(c -> {
             try (PreparedStatement stmt = c.prepareStatement(
                     "DELETE FROM data_coverage WHERE data_type = ? AND sub_key = ?")) {
                 stmt.setString(1, dataType);
                 stmt.setString(2, subKey);
                 stmt.executeUpdate();
             }
+            index.remove(dataType, subKey);
         });
     }
 
@@ -313,12 +314,13 @@ public class CoverageDao {
      * Delete all coverage records for a data type (all sub keys).
      */
     public void deleteAllCoverage(String dataType) throws SQLException {
-        conn.executeInTransaction(c -> {
+        inTransaction(c -> {
             try (PreparedStatement stmt = c.prepareStatement(
                     "DELETE FROM data_coverage WHERE data_type = ?")) {
                 stmt.setString(1, dataType);
                 stmt.executeUpdate();
             }
+            index.removeAll(dataType);
         });
     }
 
@@ -3,6 +3,7 @@ package com.tradery.dataservice.live;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.AggTrade;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.handshake.ServerHandshake;
 import org.slf4j.Logger;
@@ -23,7 +24,6 @@ import java.util.function.BiConsumer;
  */
 public class LiveAggTradeManager {
     private static final Logger LOG = LoggerFactory.getLogger(LiveAggTradeManager.class);
-    private static final String BINANCE_WS_BASE = "wss://fstream.binance.com/ws/";
     private static final int RECONNECT_DELAY_MS = 5000;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -59,7 +59,7 @@ public class LiveAggTradeManager {
 
     private void startConnection(String symbol) {
         String streamName = symbol.toLowerCase() + "@aggTrade";
-        String wsUrl = BINANCE_WS_BASE + streamName;
+        String wsUrl = BinanceEndpoints.futuresWs() + "/ws/" + streamName;
 
         LOG.info("Starting aggTrade stream for {}", symbol);
 
@@ -3,6 +3,7 @@ package com.tradery.dataservice.live;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.Candle;
+import com.tradery.dataservice.config.BinanceEndpoints;
 import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.handshake.ServerHandshake;
 import org.slf4j.Logger;
@@ -21,8 +22,6 @@ import java.util.function.BiConsumer;
  */
 public class LiveCandleManager {
     private static final Logger LOG = LoggerFactory.getLogger(LiveCandleManager.class);
-    private static final String BINANCE_FUTURES_WS = "wss://fstream.binance.com/ws/";
-    private static final String BINANCE_SPOT_WS = "wss://stream.binance.com:9443/ws/";
     private static final int RECONNECT_DELAY_MS = 5000;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -158,7 +157,7 @@ public class LiveCandleManager {
         String key = makeKey(symbol, timeframe, marketType);
         String streamName = symbol.toLowerCase() + "@kline_" + timeframe;
         boolean isSpot = "spot".equalsIgnoreCase(marketType);
-        String wsUrl = (isSpot ? BINANCE_SPOT_WS : BINANCE_FUTURES_WS) + streamName;
+        String wsUrl = (isSpot ? BinanceEndpoints.spotWs() : BinanceEndpoints.futuresWs()) + "/ws/" + streamName;
 
         LOG.info("Starting live stream for {} {} {} ({})", symbol, timeframe, marketType, isSpot ? "SPOT" : "PERP");
 
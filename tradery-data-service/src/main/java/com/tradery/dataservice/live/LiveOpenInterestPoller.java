@@ -3,6 +3,8 @@ package com.tradery.dataservice.live;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.OpenInterestUpdate;
+import com.tradery.dataservice.config.BinanceEndpoints;
+import com.tradery.dataservice.data.HttpClientFactory;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -20,10 +22,9 @@ import java.util.function.BiConsumer;
  */
 public class LiveOpenInterestPoller {
     private static final Logger LOG = LoggerFactory.getLogger(LiveOpenInterestPoller.class);
-    private static final String BINANCE_OI_URL = "https://fapi.binance.com/fapi/v1/openInterest";
     private static final int POLL_INTERVAL_MS = 15_000;
 
-    private final OkHttpClient httpClient = new OkHttpClient();
+    private final OkHttpClient httpClient = HttpClientFactory.getClient();
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Map<String, Set<BiConsumer<String, OpenInterestUpdate>>> listeners = new ConcurrentHashMap<>();
     private final Map<String, Double> previousOi = new ConcurrentHashMap<>();
@@ -78,7 +79,7 @@ public class LiveOpenInterestPoller {
 
     private void pollOpenInterest(String symbol) {
         try {
-            String url = BINANCE_OI_URL + "?symbol=" + symbol;
+            String url = BinanceEndpoints.futuresRest() + "/fapi/v1/openInterest?symbol=" + symbol;
             Request request = new Request.Builder().url(url).build();
 
             try (Response response = httpClient.newCall(request).execute()) {
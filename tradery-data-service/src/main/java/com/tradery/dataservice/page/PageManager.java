@@ -42,7 +42,8 @@ public class PageManager {
     // Use key string as map key to handle live pages correctly (PageKey has computed startTime/endTime)
     private final Map<String, Page> pages = new ConcurrentHashMap<>();
     private final List<PageUpdateListener> listeners = new CopyOnWriteArrayList<>();
-    private final ExecutorService loadExecutor;
+    private final DownloadScheduler downloadScheduler;
+    private final Map<String, DownloadScheduler.Job> loadJobs = new ConcurrentHashMap<>();
     private final ScheduledExecutorService cleanupExecutor;
 
     // Data stores for fetching
@@ -67,7 +68,7 @@ public class PageManager {
         this.premiumIndexStore = new PremiumIndexStore(new PremiumIndexClient(), dataStore);
         // Use default ObjectMapper for MessagePack - records are handled correctly
         this.msgpackMapper = new ObjectMapper(new MessagePackFactory());
-        this.loadExecutor = Executors.newFixedThreadPool(config.getMaxConcurrentDownloads());
+        this.downloadScheduler = new DownloadScheduler(config.getMaxConcurrentDownloads());
         this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor();
 
         // Schedule periodic cleanup of unused pages
@@ -83,10 +84,9 @@ public class PageManager {
     }
 
     public void shutdown() {
-        loadExecutor.shutdown();
         cleanupExecutor.shutdown();
         try {
-            loadExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            downloadScheduler.shutdown(10, TimeUnit.SECONDS);
             cleanupExecutor.awaitTermination(5, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -107,17 +107,37 @@ public class PageManager {
     }
 
     /**
-     * Request a page for a consumer.
+     * Request a page for a consumer at interactive priority.
      * Creates the page if it doesn't exist, or adds the consumer if it does.
      */
     public PageStatus requestPage(PageKey key, String consumerId, String consumerName) {
+        return requestPage(key, consumerId, consumerName, DownloadScheduler.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Request a page for a consumer.
+     * A new page's load is queued on the download scheduler at the given priority; if the
+     * page's load is still waiting, it is raised to this priority.
+     */
+    public PageStatus requestPage(PageKey key, String consumerId, String consumerName,
+                                  DownloadScheduler.Priority priority) {
         String keyStr = key.toKeyString();
         Page page = pages.computeIfAbsent(keyStr, k -> {
             Page newPage = new Page(key, config);
-            loadExecutor.submit(() -> loadPage(newPage));
+            loadJobs.put(k, downloadScheduler.submit(key.symbol(), downloadResource(key),
+                key.getEffectiveStartTime(), key.getEffectiveEndTime(), priority, () -> loadPage(newPage)));
             return newPage;
         });
 
+        DownloadScheduler.Job job = loadJobs.get(keyStr);
+        if (job != null) {
+            if (job.isDone()) {
+                loadJobs.remove(keyStr, job);
+            } else {
+                downloadScheduler.promote(job, priority);
+            }
+        }
+
         boolean isNew = page.addConsumer(consumerId, consumerName);
         return page.getStatus().withConsumers(page.getConsumers());
     }
@@ -161,6 +181,13 @@ public class PageManager {
         return result;
     }
 
+    /**
+     * Queue depth and wait times of the download scheduler.
+     */
+    public DownloadScheduler.Stats getDownloadStats() {
+        return downloadScheduler.getStats();
+    }
+
     /**
      * Get the data for a page as MessagePack binary.
      */
@@ -347,6 +374,14 @@ public class PageManager {
         return aggTradesStore;
     }
 
+    /**
+     * What a page downloads, for overlap detection in the scheduler.
+     */
+    private static String downloadResource(PageKey key) {
+        return key.dataType() + ":" + key.exchange() + ":" + key.marketType()
+            + (key.timeframe() != null ? ":" + key.timeframe() : "");
+    }
+
     /**
      * Load a page's data.
      */
@@ -680,6 +715,12 @@ public class PageManager {
                 unsubscribeFromLive(pageKeyStr);
             }
 
+            // Nobody wants it anymore: drop the load if it hasn't started
+            DownloadScheduler.Job job = loadJobs.remove(pageKeyStr);
+            if (job != null) {
+                downloadScheduler.cancel(job);
+            }
+
             pages.remove(pageKeyStr);
             notifyEvicted(key);
         }
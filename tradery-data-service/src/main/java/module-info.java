@@ -2,6 +2,7 @@ module com.tradery.dataservice {
     // Exports - public API
     exports com.tradery.dataservice;
     exports com.tradery.dataservice.api;
+    exports com.tradery.dataservice.config;
     exports com.tradery.dataservice.data;
     exports com.tradery.dataservice.log;
 
@@ -0,0 +1,330 @@
+package com.tradery.data.archive;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Local content-addressed cache of downloaded archives (Binance Vision ZIPs).
+ *
+ * <pre>
+ * root/
+ *   sha256/ab/abcd....zip          archives, named by their SHA-256
+ *   refs/{host}/{path}.sha256      which archive a URL resolved to
+ *   partial/{url key}.part         interrupted downloads, resumed with a Range request
+ * </pre>
+ *
+ * {@link #fetch} returns the local copy of a URL and downloads only when there is none.
+ * Vision publishes a {@code .CHECKSUM} file next to every archive ("{sha256}  {file name}");
+ * downloads are verified against it and discarded on mismatch. A dropped connection is
+ * resumed from the bytes already on disk instead of starting over. Published archives never
+ * change, so re-ingesting a range or rebuilding a database reads the cache, not the network.
+ *
+ * Forge and the data service share the cache: downloads of one URL are serialized by a file
+ * lock, and archives are moved into place atomically. Once the cache grows past its size
+ * limit the least recently used archives are deleted.
+ */
+public final class ArchiveCache {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BASE_MS = 1_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final ArchiveTransport transport;
+    private final long maxBytes;
+    private final ConcurrentHashMap<String, ReentrantLock> urlLocks = new ConcurrentHashMap<>();
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    /**
+     * Progress of a transfer. {@code totalBytes} is -1 when the server doesn't say.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        void update(long bytes, long totalBytes);
+    }
+
+    /**
+     * @param maxBytes Size limit for cached archives; 0 for no limit
+     */
+    public ArchiveCache(Path root, ArchiveTransport transport, long maxBytes) {
+        this.root = root;
+        this.transport = transport;
+        this.maxBytes = maxBytes;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * The cached copy of a URL, or null if it hasn't been downloaded. Never touches the network.
+     */
+    public Path lookup(String url) throws IOException {
+        Path ref = refPath(url);
+        if (!Files.exists(ref)) return null;
+        Path archive = archivePath(Files.readString(ref, StandardCharsets.US_ASCII).trim());
+        if (!Files.exists(archive)) return null;
+        Files.setLastModifiedTime(archive, FileTime.fromMillis(System.currentTimeMillis()));
+        return archive;
+    }
+
+    public Path fetch(String url) throws IOException {
+        return fetch(url, null);
+    }
+
+    /**
+     * The local copy of a URL, downloading, resuming and verifying it if needed.
+     *
+     * @param progress Optional, called as bytes arrive (not called on a cache hit)
+     * @throws FileNotFoundException if the archive doesn't exist (message contains "404")
+     * @throws IOException           if the download fails after retries or fails verification
+     */
+    public Path fetch(String url, Progress progress) throws IOException {
+        Path cached = lookup(url);
+        if (cached != null) return cached;
+
+        ReentrantLock urlLock = urlLocks.computeIfAbsent(url, u -> new ReentrantLock());
+        try {
+            urlLock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + url);
+        }
+        try {
+            Path part = partialPath(url);
+            Path lockFile = part.resolveSibling(part.getFileName() + ".lock");
+            Files.createDirectories(part.getParent());
+            Path archive;
+            try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                // Another thread or process may have finished it while we waited
+                archive = lookup(url);
+                if (archive == null) {
+                    archive = download(url, part, progress);
+                }
+            }
+            try {
+                Files.deleteIfExists(lockFile);   // Late waiters still find the ref after locking
+            } catch (IOException ignored) {
+                // Still open elsewhere (Windows); harmless
+            }
+            return archive;
+        } finally {
+            urlLock.unlock();
+        }
+    }
+
+    private Path download(String url, Path part, Progress progress) throws IOException {
+        String expected = fetchChecksum(url);
+        if (expected != null && Files.exists(archivePath(expected))) {
+            // Same content under another URL
+            writeRef(url, expected);
+            return lookup(url);
+        }
+
+        for (int pass = 0; ; pass++) {
+            transferWithRetry(url, part, progress);
+            String actual = sha256(part);
+            if (expected == null || expected.equals(actual)) {
+                return store(url, part, actual);
+            }
+            Files.deleteIfExists(part);
+            if (pass > 0) {
+                throw new IOException("Checksum mismatch for " + url + ": expected " + expected + ", got " + actual);
+            }
+            // A corrupt resumed prefix is the usual cause; try once more from scratch
+        }
+    }
+
+    private void transferWithRetry(String url, Path part, Progress progress) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transfer(url, part, progress);
+                return;
+            } catch (FileNotFoundException e) {
+                Files.deleteIfExists(part);
+                throw e;
+            } catch (InterruptedIOException e) {
+                throw e;  // The partial file stays for the next fetch
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new IOException("Download failed after " + attempt + " attempts: " + url
+                        + " (" + e.getMessage() + ")", e);
+                }
+                try {
+                    Thread.sleep(RETRY_BASE_MS << (attempt - 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted downloading " + url);
+                }
+            }
+        }
+    }
+
+    /**
+     * Append the rest of the file to the partial download. Throws if the stream ends early.
+     */
+    private void transfer(String url, Path part, Progress progress) throws IOException {
+        long have = Files.exists(part) ? Files.size(part) : 0;
+        try (ArchiveTransport.Body body = transport.get(url, have);
+             FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long position = Math.min(body.offset(), have);
+            out.truncate(position);
+            out.position(position);
+
+            long total = body.totalLength();
+            InputStream in = body.stream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+                while (chunk.hasRemaining()) {
+                    out.write(chunk);
+                }
+                position += n;
+                if (progress != null) {
+                    progress.update(position, total);
+                }
+            }
+            if (total >= 0 && position < total) {
+                throw new IOException("Connection closed at " + position + " of " + total + " bytes");
+            }
+        }
+    }
+
+    /**
+     * SHA-256 from the archive's {@code .CHECKSUM} file, or null if none is published.
+     */
+    private String fetchChecksum(String url) throws IOException {
+        try (ArchiveTransport.Body body = transport.get(url + ".CHECKSUM", 0)) {
+            String text = new String(body.stream().readAllBytes(), StandardCharsets.US_ASCII).trim();
+            String hash = text.split("\\s+", 2)[0].toLowerCase();
+            return hash.matches("[0-9a-f]{64}") ? hash : null;
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    private Path store(String url, Path part, String sha256) throws IOException {
+        Path archive = archivePath(sha256);
+        Files.createDirectories(archive.getParent());
+        try {
+            Files.move(part, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, archive, StandardCopyOption.REPLACE_EXISTING);
+        }
+        writeRef(url, sha256);
+        trim(archive);
+        return archive;
+    }
+
+    private void writeRef(String url, String sha256) throws IOException {
+        Path ref = refPath(url);
+        Files.createDirectories(ref.getParent());
+        Path tmp = ref.resolveSibling(ref.getFileName() + ".tmp");
+        Files.writeString(tmp, sha256, StandardCharsets.US_ASCII);
+        Files.move(tmp, ref, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Delete least recently used archives until the cache fits its limit. Refs to deleted
+     * archives are left behind and simply miss.
+     */
+    private void trim(Path keep) throws IOException {
+        if (maxBytes <= 0 || !trimLock.tryLock()) return;
+        try {
+            record Entry(Path path, long size, long lastUsed) {}
+            List<Entry> entries = new ArrayList<>();
+            long total = 0;
+            try (Stream<Path> files = Files.walk(root.resolve("sha256"))) {
+                for (Path p : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    long size = Files.size(p);
+                    entries.add(new Entry(p, size, Files.getLastModifiedTime(p).toMillis()));
+                    total += size;
+                }
+            }
+            if (total <= maxBytes) return;
+            entries.sort(Comparator.comparingLong(Entry::lastUsed));
+            for (Entry entry : entries) {
+                if (total <= maxBytes) break;
+                if (entry.path().equals(keep)) continue;
+                if (Files.deleteIfExists(entry.path())) {
+                    total -= entry.size();
+                }
+            }
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    private Path archivePath(String sha256) {
+        return root.resolve("sha256").resolve(sha256.substring(0, 2)).resolve(sha256 + ".zip");
+    }
+
+    private Path refPath(String url) {
+        Path refs = root.resolve("refs");
+        URI uri = URI.create(url);
+        if (uri.getHost() != null && uri.getPath() != null) {
+            Path ref = refs.resolve(uri.getHost()).resolve(uri.getPath().replaceFirst("^/+", "") + ".sha256").normalize();
+            if (ref.startsWith(refs.resolve(uri.getHost()))) {
+                return ref;
+            }
+        }
+        return refs.resolve("other").resolve(hex(digest(url.getBytes(StandardCharsets.UTF_8))) + ".sha256");
+    }
+
+    private Path partialPath(String url) {
+        String key = hex(digest(url.getBytes(StandardCharsets.UTF_8))).substring(0, 32);
+        return root.resolve("partial").resolve(key + ".part");
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        return newDigest().digest(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
@@ -0,0 +1,82 @@
+package com.tradery.data.archive;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * HTTP GET with an optional byte range, supplied by the module that owns the HTTP client
+ * (so downloads go through its connection pool, timeouts and per-host limits).
+ */
+@FunctionalInterface
+public interface ArchiveTransport {
+
+    /**
+     * Request a file from a byte offset.
+     *
+     * @param offset First byte wanted; 0 for the whole file
+     * @throws FileNotFoundException if the server answers 404
+     */
+    Body get(String url, long offset) throws IOException;
+
+    /**
+     * Map an HTTP response to a {@link Body}: 206 resumes at the Content-Range start, 200 is
+     * the whole file, 416 (offset already at the end) is an empty body, 404 throws
+     * {@link FileNotFoundException}. The response is released on any error.
+     *
+     * @param contentLength Content-Length of this response, or -1
+     * @param contentRange  Content-Range header, or null
+     */
+    static Body fromResponse(String url, long offset, int status, long contentLength, String contentRange,
+                             InputStream stream, Closeable onClose) throws IOException {
+        if (status == 206 && contentRange != null) {
+            // "bytes 1000-4999/5000"
+            String range = contentRange.trim().replaceFirst("^bytes\\s+", "");
+            int dash = range.indexOf('-');
+            int slash = range.indexOf('/');
+            if (dash > 0 && slash > dash) {
+                try {
+                    long start = Long.parseLong(range.substring(0, dash));
+                    String total = range.substring(slash + 1);
+                    return new Body(stream, start, "*".equals(total) ? -1 : Long.parseLong(total), onClose);
+                } catch (NumberFormatException ignored) {
+                    // Fall through to the error below
+                }
+            }
+        } else if (status == 416) {
+            stream.close();
+            return new Body(InputStream.nullInputStream(), offset, -1, onClose);
+        } else if (status >= 200 && status < 300 && status != 206) {
+            return new Body(stream, 0, contentLength, onClose);
+        }
+
+        try (onClose) {
+            stream.close();
+        }
+        if (status == 404) {
+            throw new FileNotFoundException("404 Not Found: " + url);
+        }
+        throw new IOException("Download failed: " + status + " " + url);
+    }
+
+    /**
+     * A response body.
+     *
+     * @param stream      The bytes, starting at {@code offset}
+     * @param offset      Where the stream starts: the requested offset if the server honored
+     *                    the range, 0 if it sent the whole file
+     * @param totalLength Length of the complete file, or -1 if unknown
+     * @param onClose     Releases the response (and any connection slot held for it)
+     */
+    record Body(InputStream stream, long offset, long totalLength, Closeable onClose) implements Closeable {
+        @Override
+        public void close() throws IOException {
+            try {
+                stream.close();
+            } finally {
+                onClose.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.tradery.data.coverage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * In-memory copy of one database's data_coverage table: an {@link Intervals} per
+ * data type and sub key.
+ *
+ * The owner loads it once from the table and then applies its own coverage writes to both,
+ * so gap and coverage checks never query SQLite. The whole index is one immutable snapshot
+ * swapped atomically: reads don't lock, and a reload can't interleave with a write.
+ *
+ * Forge and the data service write the same database files. Each snapshot remembers the
+ * connection it was loaded through and that connection's {@code PRAGMA data_version}, which
+ * changes only when another connection commits; owners compare it at most every
+ * {@link #RECHECK_MS} ms and reload on a difference, so writes from the other process show
+ * up within that time.
+ */
+public final class CoverageIndex {
+
+    public static final long RECHECK_MS = 250;
+
+    private record Snapshot(Object source, long version, Map<String, Intervals> ranges) {
+        Snapshot with(String key, Intervals intervals) {
+            Map<String, Intervals> updated = new HashMap<>(ranges);
+            updated.put(key, intervals);
+            return new Snapshot(source, version, Map.copyOf(updated));
+        }
+
+        Snapshot without(Predicate<String> keys) {
+            Map<String, Intervals> updated = new HashMap<>(ranges);
+            updated.keySet().removeIf(keys);
+            return new Snapshot(source, version, Map.copyOf(updated));
+        }
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private volatile long checkedAt;
+
+    /**
+     * Whether the index holds a load made through {@code source} (the JDBC connection).
+     */
+    public boolean isLoadedFrom(Object source) {
+        Snapshot s = snapshot.get();
+        return s != null && s.source() == source;
+    }
+
+    /**
+     * Whether it's time to compare the data version again; claims the check if so.
+     */
+    public boolean claimRecheck(long now) {
+        if (now - checkedAt < RECHECK_MS) return false;
+        checkedAt = now;
+        return true;
+    }
+
+    /** data_version of the last load, or -1 if not loaded. */
+    public long version() {
+        Snapshot s = snapshot.get();
+        return s != null ? s.version() : -1;
+    }
+
+    /**
+     * Replace the whole index with a fresh load.
+     */
+    public void load(Object source, long version, Map<String, Intervals> ranges) {
+        snapshot.set(new Snapshot(source, version, Map.copyOf(ranges)));
+        checkedAt = System.currentTimeMillis();
+    }
+
+    /** Forget everything; the next query reloads. */
+    public void invalidate() {
+        snapshot.set(null);
+    }
+
+    /**
+     * Coverage for a data type and sub key; empty if none is recorded or nothing is loaded.
+     */
+    public Intervals get(String dataType, String subKey) {
+        Snapshot s = snapshot.get();
+        if (s == null) return Intervals.EMPTY;
+        return s.ranges().getOrDefault(key(dataType, subKey), Intervals.EMPTY);
+    }
+
+    /**
+     * Record [start, end] as covered. No-op until loaded (the load reads it from the table).
+     */
+    public void add(String dataType, String subKey, long start, long end) {
+        String key = key(dataType, subKey);
+        snapshot.updateAndGet(s -> {
+            if (s == null) return null;
+            Intervals current = s.ranges().getOrDefault(key, Intervals.EMPTY);
+            Intervals updated = current.with(start, end);
+            return updated == current ? s : s.with(key, updated);
+        });
+    }
+
+    /** Drop the coverage of one sub key. */
+    public void remove(String dataType, String subKey) {
+        String key = key(dataType, subKey);
+        snapshot.updateAndGet(s -> s == null ? null : s.without(key::equals));
+    }
+
+    /** Drop the coverage of all sub keys of a data type. */
+    public void removeAll(String dataType) {
+        String prefix = dataType + '\0';
+        snapshot.updateAndGet(s -> s == null ? null : s.without(k -> k.startsWith(prefix)));
+    }
+
+    /** Index key for a data type and sub key. */
+    public static String key(String dataType, String subKey) {
+        return dataType + '\0' + subKey;
+    }
+}
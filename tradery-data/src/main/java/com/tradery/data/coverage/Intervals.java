@@ -0,0 +1,171 @@
+package com.tradery.data.coverage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable set of time ranges, stored as two sorted arrays.
+ *
+ * Ranges are inclusive [start, end] in milliseconds, as in the data_coverage table. Ranges
+ * that overlap or touch (one ends 1 ms before the next starts) are merged, so every query is
+ * a binary search plus a scan of the ranges inside the query window. Updates return a new
+ * instance; readers never lock.
+ */
+public final class Intervals {
+
+    public static final Intervals EMPTY = new Intervals(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private Intervals(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Build from [start, end] pairs in any order, merging overlaps. Pairs with start > end
+     * are ignored.
+     */
+    public static Intervals of(Collection<long[]> ranges) {
+        List<long[]> sorted = new ArrayList<>(ranges.size());
+        for (long[] r : ranges) {
+            if (r[0] <= r[1]) sorted.add(r);
+        }
+        if (sorted.isEmpty()) return EMPTY;
+        sorted.sort(Comparator.comparingLong(r -> r[0]));
+
+        long[] starts = new long[sorted.size()];
+        long[] ends = new long[sorted.size()];
+        int n = 0;
+        for (long[] r : sorted) {
+            if (n > 0 && r[0] <= ends[n - 1] + 1) {
+                ends[n - 1] = Math.max(ends[n - 1], r[1]);
+            } else {
+                starts[n] = r[0];
+                ends[n] = r[1];
+                n++;
+            }
+        }
+        return new Intervals(Arrays.copyOf(starts, n), Arrays.copyOf(ends, n));
+    }
+
+    /**
+     * This set plus [start, end].
+     */
+    public Intervals with(long start, long end) {
+        if (start > end) return this;
+        int n = starts.length;
+        int first = firstEndingAtOrAfter(start == Long.MIN_VALUE ? start : start - 1);
+        int last = first;
+        while (last < n && starts[last] <= (end == Long.MAX_VALUE ? end : end + 1)) {
+            last++;
+        }
+        // [first, last) are merged into the new range
+        if (last > first) {
+            if (starts[first] <= start && ends[last - 1] >= end && last - first == 1) return this;
+            start = Math.min(start, starts[first]);
+            end = Math.max(end, ends[last - 1]);
+        }
+        int size = n - (last - first) + 1;
+        long[] newStarts = new long[size];
+        long[] newEnds = new long[size];
+        System.arraycopy(starts, 0, newStarts, 0, first);
+        System.arraycopy(ends, 0, newEnds, 0, first);
+        newStarts[first] = start;
+        newEnds[first] = end;
+        System.arraycopy(starts, last, newStarts, first + 1, n - last);
+        System.arraycopy(ends, last, newEnds, first + 1, n - last);
+        return new Intervals(newStarts, newEnds);
+    }
+
+    /**
+     * The parts of [start, end] not in this set, as [start, end] pairs in order.
+     */
+    public List<long[]> gaps(long start, long end) {
+        List<long[]> gaps = new ArrayList<>();
+        if (start > end) return gaps;
+        long cursor = start;
+        for (int i = firstEndingAtOrAfter(start); i < starts.length && starts[i] <= end; i++) {
+            if (starts[i] > cursor) {
+                gaps.add(new long[]{cursor, starts[i] - 1});
+            }
+            if (ends[i] >= end) return gaps;
+            cursor = ends[i] + 1;
+        }
+        gaps.add(new long[]{cursor, end});
+        return gaps;
+    }
+
+    /**
+     * Whether all of [start, end] is in this set. An empty query (start > end) is covered.
+     */
+    public boolean covers(long start, long end) {
+        if (start > end) return true;
+        int i = firstEndingAtOrAfter(start);
+        // Ranges never touch, so one range has to hold the whole query
+        return i < starts.length && starts[i] <= start && ends[i] >= end;
+    }
+
+    public boolean contains(long time) {
+        return covers(time, time);
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /** Number of disjoint ranges. */
+    public int size() {
+        return starts.length;
+    }
+
+    public long start(int index) {
+        return starts[index];
+    }
+
+    public long end(int index) {
+        return ends[index];
+    }
+
+    /** Covered milliseconds. */
+    public long totalLength() {
+        long total = 0;
+        for (int i = 0; i < starts.length; i++) {
+            total += ends[i] - starts[i] + 1;
+        }
+        return total;
+    }
+
+    /** All ranges as [start, end] pairs in order. */
+    public List<long[]> ranges() {
+        List<long[]> result = new ArrayList<>(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            result.add(new long[]{starts[i], ends[i]});
+        }
+        return result;
+    }
+
+    /** Index of the first range with end >= time, or size() if none. */
+    private int firstEndingAtOrAfter(long time) {
+        int lo = 0;
+        int hi = ends.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ends[mid] < time) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    @Override
+    public String toString() {
+        return "Intervals[" + starts.length + " ranges, " + (totalLength() / 3_600_000) + "h]";
+    }
+}
@@ -0,0 +1,142 @@
+package com.tradery.data.page;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-ahead for page managers.
+ *
+ * Watches how each consumer's requested range moves for a symbol and timeframe. When a
+ * chart pans or a backtest range is extended, the next request is usually one more step in
+ * the same direction, so the policy proposes one larger range: the current one plus the
+ * next step. The manager loads it in the background; later requests that fall inside it are
+ * served from that page instead of a new load.
+ *
+ * Also counts hits (served from a loaded or loading page) and misses (a new load), so the
+ * managers can report them.
+ */
+public final class ReadAheadPolicy {
+
+    /** A read-ahead page never spans more than this many viewport lengths. */
+    public static final int MAX_WINDOWS = 4;
+
+    private final Map<String, long[]> lastRanges = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder prefetches = new LongAdder();
+    private final LongAdder prefetchHits = new LongAdder();
+
+    /**
+     * Record a request and return the range worth loading ahead, or null.
+     *
+     * @param stream Consumer, symbol and timeframe the request belongs to
+     * @param now    Current time; ranges are never extended past it
+     * @return [start, end] covering the request plus the predicted next step
+     */
+    public long[] onRequest(String stream, long start, long end, long now) {
+        long[] prev = lastRanges.put(stream, new long[]{start, end});
+        if (prev == null || end <= start) return null;
+        // A jump elsewhere is not a slide; nothing to predict
+        if (start > prev[1] || end < prev[0]) return null;
+
+        long window = end - start;
+        if (start < prev[0] && end <= prev[1]) {
+            // Panned back (same length, earlier) or start moved back (range extended)
+            long step = end < prev[1] ? window : prev[0] - start;
+            return new long[]{start - Math.min(step, window), end};
+        }
+        if (end > prev[1] && start >= prev[0]) {
+            long step = start > prev[0] ? window : end - prev[1];
+            long aheadEnd = Math.min(end + Math.min(step, window), now);
+            return aheadEnd > end ? new long[]{start, aheadEnd} : null;
+        }
+        return null;
+    }
+
+    /** Forget the request history of all streams. */
+    public void reset() {
+        lastRanges.clear();
+    }
+
+    /**
+     * Whether a loaded page holds all records of another page's data identity and range.
+     * The source must have been synced after the end of the range, so recent data isn't
+     * missing. Live pages are judged by the records they currently hold.
+     */
+    public static <T> boolean covers(DataPage<T> source, DataPageView<?> target, ToLongFunction<T> time) {
+        long start = target.getStartTime();
+        long end = target.getEndTime();
+        if (!source.isReady() || source.getDataType() != target.getDataType()
+                || !source.getSymbol().equals(target.getSymbol())
+                || !Objects.equals(source.getTimeframe(), target.getTimeframe())
+                || !Objects.equals(source.getMarketType(), target.getMarketType())
+                || end > source.getLastSyncTime()) {
+            return false;
+        }
+        if (source.isLiveEnabled()) {
+            List<T> data = source.getData();
+            return !data.isEmpty() && time.applyAsLong(data.get(0)) <= start;
+        }
+        return source.getStartTime() <= start && end <= source.getEndTime();
+    }
+
+    /**
+     * Records of a time-sorted list within [start, end].
+     */
+    public static <T> List<T> slice(List<T> data, ToLongFunction<T> time, long start, long end) {
+        int from = firstAtOrAfter(data, time, start);
+        int to = firstAtOrAfter(data, time, end == Long.MAX_VALUE ? end : end + 1);
+        return List.copyOf(data.subList(from, Math.max(from, to)));
+    }
+
+    private static <T> int firstAtOrAfter(List<T> data, ToLongFunction<T> time, long t) {
+        int lo = 0;
+        int hi = data.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (time.applyAsLong(data.get(mid)) < t) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public void recordHit(boolean fromReadAhead) {
+        hits.increment();
+        if (fromReadAhead) prefetchHits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordPrefetch() {
+        prefetches.increment();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), prefetches.sum(), prefetchHits.sum());
+    }
+
+    /**
+     * Request counters since the manager started.
+     *
+     * @param hits         Requests served by an existing page (loaded, loading, or covering)
+     * @param misses       Requests that started a new load
+     * @param prefetches   Read-ahead pages loaded
+     * @param prefetchHits Hits served by a read-ahead page
+     */
+    public record Stats(long hits, long misses, long prefetches, long prefetchHits) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total > 0 ? (double) hits / total : 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tradery.data.ratelimit;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Charges every exchange REST call against its shared {@link RateLimits} budget.
+ *
+ * Waits for the request's weight before sending, feeds the used-weight and Retry-After
+ * headers back into the budget, and retries GETs that were rejected with 429 once the
+ * budget's backoff has passed. One instance serves the forge and data service clients.
+ */
+public final class RateLimitInterceptor implements Interceptor {
+
+    public static final RateLimitInterceptor INSTANCE = new RateLimitInterceptor();
+
+    private static final int MAX_RETRIES = 2;
+
+    private RateLimitInterceptor() {}
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        HttpUrl url = request.url();
+        RateLimits.Permit permit = RateLimits.forRequest(url.host(), url.encodedPath(), url.queryParameter("limit"));
+        if (permit == null) {
+            return chain.proceed(request);
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                permit.budget().acquire(permit.weight());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for " + permit.budget().getName() + " rate limit");
+            }
+
+            Response response = chain.proceed(request);
+            permit.budget().onResponse(response.code(),
+                permit.reportsUsedWeight() ? response.header("X-MBX-USED-WEIGHT-1M") : null,
+                response.header("Retry-After"));
+
+            if (response.code() != 429 || attempt >= MAX_RETRIES || !"GET".equals(request.method())) {
+                return response;
+            }
+            response.close();
+        }
+    }
+}
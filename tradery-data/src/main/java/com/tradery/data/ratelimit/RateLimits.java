@@ -0,0 +1,117 @@
+package com.tradery.data.ratelimit;
+
+import java.util.List;
+
+/**
+ * Process-wide request weight budgets per exchange endpoint class, and the weight of each
+ * REST endpoint we call.
+ *
+ * Budgets are set a little below the published IP limits; forge and the data service share
+ * the IP, which the Binance budgets learn from the used-weight headers.
+ *
+ * <ul>
+ *   <li>Binance futures: 2400 weight/min, plus funding rate (500/5min) and
+ *       open interest history (1000/5min) counted separately</li>
+ *   <li>Binance spot: 6000 weight/min</li>
+ *   <li>Bybit: 600 requests/5s</li>
+ *   <li>OKX: 20 requests/2s per public endpoint</li>
+ * </ul>
+ */
+public final class RateLimits {
+
+    private static final WeightBudget BINANCE_FUTURES = new WeightBudget("binance-futures", 2200, 60_000);
+    private static final WeightBudget BINANCE_FUTURES_FUNDING = new WeightBudget("binance-futures-funding", 450, 300_000);
+    private static final WeightBudget BINANCE_FUTURES_DATA = new WeightBudget("binance-futures-data", 900, 300_000);
+    private static final WeightBudget BINANCE_SPOT = new WeightBudget("binance-spot", 5500, 60_000);
+    private static final WeightBudget BYBIT = new WeightBudget("bybit", 500, 5_000);
+    private static final WeightBudget OKX = new WeightBudget("okx", 18, 2_000);
+
+    private RateLimits() {}
+
+    public static WeightBudget binanceFutures() {
+        return BINANCE_FUTURES;
+    }
+
+    public static WeightBudget binanceSpot() {
+        return BINANCE_SPOT;
+    }
+
+    public static WeightBudget bybit() {
+        return BYBIT;
+    }
+
+    public static WeightBudget okx() {
+        return OKX;
+    }
+
+    public static List<WeightBudget> all() {
+        return List.of(BINANCE_FUTURES, BINANCE_FUTURES_FUNDING, BINANCE_FUTURES_DATA, BINANCE_SPOT, BYBIT, OKX);
+    }
+
+    public static List<WeightBudget.Snapshot> snapshots() {
+        return all().stream().map(WeightBudget::snapshot).toList();
+    }
+
+    /**
+     * Budget and weight for a request, or null for hosts without a budget (e.g. Binance Vision).
+     *
+     * @param limit The request's "limit" query parameter, or null
+     */
+    public static Permit forRequest(String host, String path, String limit) {
+        switch (host) {
+            case "fapi.binance.com" -> {
+                if (path.endsWith("/fundingRate") || path.endsWith("/fundingInfo")) {
+                    return new Permit(BINANCE_FUTURES_FUNDING, 1, false);
+                }
+                if (path.startsWith("/futures/data/")) {
+                    return new Permit(BINANCE_FUTURES_DATA, 1, false);
+                }
+                if (path.endsWith("/aggTrades")) return new Permit(BINANCE_FUTURES, 20, true);
+                if (path.endsWith("Klines") || path.endsWith("/klines")) {
+                    return new Permit(BINANCE_FUTURES, futuresKlineWeight(parseLimit(limit, 500)), true);
+                }
+                return new Permit(BINANCE_FUTURES, 1, true);
+            }
+            case "api.binance.com" -> {
+                if (path.endsWith("/aggTrades")) return new Permit(BINANCE_SPOT, 4, true);
+                if (path.endsWith("/klines")) return new Permit(BINANCE_SPOT, 2, true);
+                if (path.endsWith("/exchangeInfo")) return new Permit(BINANCE_SPOT, 20, true);
+                return new Permit(BINANCE_SPOT, 2, true);
+            }
+            case "api.bybit.com" -> {
+                return new Permit(BYBIT, 1, false);
+            }
+            case "www.okx.com" -> {
+                return new Permit(OKX, 1, false);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /** Binance futures kline weight by limit: 1 / 2 / 5 / 10. */
+    private static int futuresKlineWeight(int limit) {
+        if (limit < 100) return 1;
+        if (limit < 500) return 2;
+        if (limit <= 1000) return 5;
+        return 10;
+    }
+
+    private static int parseLimit(String limit, int defaultLimit) {
+        if (limit == null) return defaultLimit;
+        try {
+            return Integer.parseInt(limit);
+        } catch (NumberFormatException e) {
+            return defaultLimit;
+        }
+    }
+
+    /**
+     * A request's charge against a budget.
+     *
+     * @param reportsUsedWeight Whether the exchange returns the used weight for this budget
+     *                          (X-MBX-USED-WEIGHT-1M covers the main Binance budgets only)
+     */
+    public record Permit(WeightBudget budget, int weight, boolean reportsUsedWeight) {}
+}
@@ -0,0 +1,212 @@
+package com.tradery.data.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket of request weight for one exchange endpoint class (e.g. Binance futures REST).
+ *
+ * Capacity refills continuously over the window. {@link #acquire(int)} reserves the weight at
+ * once and sleeps off any deficit outside the lock, so callers queue in arrival order and
+ * virtual threads are never pinned. The bucket is kept honest by the exchange: reported used
+ * weight ({@code X-MBX-USED-WEIGHT-1M}) lowers what is left, and 429/418 responses pause the
+ * whole bucket for Retry-After or an exponential backoff.
+ */
+public final class WeightBudget {
+
+    private static final long MIN_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+    private static final long BAN_BACKOFF_MS = 120_000;
+
+    private final String name;
+    private final int capacity;
+    private final long windowMs;
+    private final double refillPerNano;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;                  // May go negative: weight reserved by waiting callers
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private long backoffMs;
+
+    // Metrics (guarded by lock)
+    private long requests;
+    private long weightUsed;
+    private long throttledRequests;
+    private long throttledNanos;
+    private long rateLimitedResponses;
+    private long serverUsedWeight = -1;
+
+    public WeightBudget(String name, int capacity, long windowMs) {
+        this.name = name;
+        this.capacity = capacity;
+        this.windowMs = windowMs;
+        this.refillPerNano = capacity / (double) TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    /**
+     * Take weight from the budget, waiting until it is available and any backoff has passed.
+     */
+    public void acquire(int weight) throws InterruptedException {
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            tokens -= Math.min(weight, capacity);
+            waitNanos = Math.max(deficitNanos(), pausedUntilNanos - now);
+            requests++;
+            weightUsed += weight;
+            if (waitNanos > 0) {
+                throttledRequests++;
+                throttledNanos += waitNanos;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Wait until at least {@code weight} is available without taking it.
+     * For callers whose requests are charged elsewhere (by the HTTP interceptor).
+     *
+     * @return false if the wait would exceed the timeout
+     */
+    public boolean awaitAvailable(int weight, long timeoutMs) throws InterruptedException {
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            double missing = Math.min(weight, capacity) - tokens;
+            waitNanos = Math.max(missing > 0 ? (long) (missing / refillPerNano) : 0, pausedUntilNanos - now);
+        } finally {
+            lock.unlock();
+        }
+        if (waitNanos > TimeUnit.MILLISECONDS.toNanos(timeoutMs)) return false;
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+        return true;
+    }
+
+    /**
+     * Account an exchange response.
+     *
+     * @param status           HTTP status
+     * @param usedWeightHeader Weight the exchange reports as used in the current window, or null
+     * @param retryAfterHeader Retry-After in seconds, or null
+     */
+    public void onResponse(int status, String usedWeightHeader, String retryAfterHeader) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            if (usedWeightHeader != null) {
+                try {
+                    long used = Long.parseLong(usedWeightHeader.trim());
+                    serverUsedWeight = used;
+                    // Other processes on this IP count too; never believe we have more than the server says
+                    tokens = Math.min(tokens, capacity - used);
+                } catch (NumberFormatException ignored) {
+                    // Malformed header - keep the local estimate
+                }
+            }
+
+            if (status == 429 || status == 418) {
+                rateLimitedResponses++;
+                long pauseMs = parseRetryAfterMs(retryAfterHeader);
+                if (pauseMs <= 0) {
+                    backoffMs = status == 418 ? BAN_BACKOFF_MS
+                        : Math.min(MAX_BACKOFF_MS, Math.max(MIN_BACKOFF_MS, backoffMs * 2));
+                    pauseMs = backoffMs;
+                }
+                pausedUntilNanos = Math.max(pausedUntilNanos, now + TimeUnit.MILLISECONDS.toNanos(pauseMs));
+                tokens = Math.min(tokens, 0);
+            } else if (status < 400) {
+                backoffMs = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fraction of the budget currently spent or reserved (0..1, 1 while paused).
+     */
+    public double utilization() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            if (pausedUntilNanos > now) return 1.0;
+            return Math.min(1.0, Math.max(0.0, 1.0 - tokens / capacity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            long pausedMs = Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - now));
+            double used = pausedMs > 0 ? 1.0 : Math.min(1.0, Math.max(0.0, 1.0 - tokens / capacity));
+            return new Snapshot(name, capacity, windowMs, Math.max(0, (int) tokens), used * 100,
+                serverUsedWeight, requests, weightUsed, throttledRequests,
+                TimeUnit.NANOSECONDS.toMillis(throttledNanos), rateLimitedResponses, pausedMs);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+
+    private long deficitNanos() {
+        return tokens < 0 ? (long) (-tokens / refillPerNano) : 0;
+    }
+
+    private static long parseRetryAfterMs(String header) {
+        if (header == null) return 0;
+        try {
+            return Long.parseLong(header.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Live view of a budget for monitoring endpoints.
+     *
+     * @param available        Weight left right now
+     * @param utilizationPct   Share of the budget spent or reserved (100 while paused)
+     * @param serverUsedWeight Last weight reported by the exchange (-1 if it doesn't report)
+     * @param throttledMs      Total time callers waited for weight
+     * @param pausedForMs      Remaining backoff after a 429/418
+     */
+    public record Snapshot(String name, int capacity, long windowMs, int available, double utilizationPct,
+                           long serverUsedWeight, long requests, long weightUsed, long throttledRequests,
+                           long throttledMs, long rateLimitedResponses, long pausedForMs) {}
+}
@@ -1,5 +1,9 @@
 module com.tradery.data {
     requires transitive com.tradery.core;
+    requires okhttp3;
 
+    exports com.tradery.data.archive;
+    exports com.tradery.data.coverage;
     exports com.tradery.data.page;
+    exports com.tradery.data.ratelimit;
 }
@@ -0,0 +1,73 @@
+package com.tradery.data.coverage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CoverageIndex.
+ */
+class CoverageIndexTest {
+
+    private static final Object SOURCE = new Object();
+
+    @Test
+    @DisplayName("Writes before the first load are left to the load")
+    void addBeforeLoadIgnored() {
+        CoverageIndex index = new CoverageIndex();
+        index.add("candles", "1h", 0, 99);
+        assertTrue(index.get("candles", "1h").isEmpty());
+        assertEquals(-1, index.version());
+    }
+
+    @Test
+    @DisplayName("Adjacent, overlapping and contained writes merge into the loaded ranges")
+    void addMerges() {
+        CoverageIndex index = new CoverageIndex();
+        index.load(SOURCE, 7, Map.of(CoverageIndex.key("candles", "1h"), Intervals.EMPTY.with(0, 99)));
+
+        index.add("candles", "1h", 100, 199);  // Adjacent
+        index.add("candles", "1h", 150, 250);  // Overlapping
+        index.add("candles", "1h", 10, 20);    // Contained
+        Intervals candles = index.get("candles", "1h");
+        assertEquals(1, candles.size());
+        assertTrue(candles.covers(0, 250));
+        assertTrue(candles.gaps(0, 250).isEmpty());
+
+        // Other sub keys are separate
+        assertTrue(index.get("candles", "4h").isEmpty());
+        assertEquals(7, index.version());
+        assertTrue(index.isLoadedFrom(SOURCE));
+    }
+
+    @Test
+    @DisplayName("Remove drops one sub key, removeAll every sub key of a data type")
+    void removeAndRemoveAll() {
+        CoverageIndex index = new CoverageIndex();
+        index.load(SOURCE, 1, Map.of());
+        index.add("candles", "1h", 0, 99);
+        index.add("candles", "4h", 0, 99);
+        index.add("funding_rates", "", 0, 99);
+
+        index.remove("candles", "1h");
+        assertTrue(index.get("candles", "1h").isEmpty());
+        assertFalse(index.get("candles", "4h").isEmpty());
+
+        index.removeAll("candles");
+        assertTrue(index.get("candles", "4h").isEmpty());
+        assertFalse(index.get("funding_rates", "").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Invalidate forgets the load")
+    void invalidate() {
+        CoverageIndex index = new CoverageIndex();
+        index.load(SOURCE, 3, Map.of(CoverageIndex.key("candles", "1h"), Intervals.EMPTY.with(0, 99)));
+        index.invalidate();
+        assertFalse(index.isLoadedFrom(SOURCE));
+        assertTrue(index.get("candles", "1h").isEmpty());
+    }
+}
@@ -0,0 +1,200 @@
+package com.tradery.data.coverage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Intervals.
+ */
+class IntervalsTest {
+
+    @Nested
+    @DisplayName("with")
+    class With {
+
+        @Test
+        @DisplayName("Adjacent ranges (end + 1 == start) merge into one")
+        void adjacentMerge() {
+            Intervals intervals = Intervals.EMPTY.with(100, 199).with(200, 299);
+            assertRanges(intervals, 100, 299);
+
+            // Also when the new range comes first
+            assertRanges(Intervals.EMPTY.with(200, 299).with(100, 199), 100, 299);
+        }
+
+        @Test
+        @DisplayName("Ranges 1 ms apart stay separate")
+        void oneMillisecondApart() {
+            Intervals intervals = Intervals.EMPTY.with(100, 199).with(201, 299);
+            assertRanges(intervals, 100, 199, 201, 299);
+        }
+
+        @Test
+        @DisplayName("Overlapping ranges merge")
+        void overlappingMerge() {
+            assertRanges(Intervals.EMPTY.with(100, 250).with(200, 300), 100, 300);
+            assertRanges(Intervals.EMPTY.with(200, 300).with(100, 250), 100, 300);
+        }
+
+        @Test
+        @DisplayName("A range bridging several ranges merges them all")
+        void bridgeMerge() {
+            Intervals intervals = Intervals.EMPTY.with(0, 9).with(20, 29).with(40, 49).with(60, 69);
+            assertRanges(intervals.with(10, 45), 0, 49, 60, 69);
+        }
+
+        @Test
+        @DisplayName("A contained range returns the same instance")
+        void containedUnchanged() {
+            Intervals intervals = Intervals.EMPTY.with(100, 300);
+            assertSame(intervals, intervals.with(150, 250));
+            assertSame(intervals, intervals.with(100, 300));
+        }
+
+        @Test
+        @DisplayName("A containing range replaces the ranges inside it")
+        void containingReplaces() {
+            Intervals intervals = Intervals.EMPTY.with(150, 160).with(200, 210);
+            assertRanges(intervals.with(100, 300), 100, 300);
+        }
+
+        @Test
+        @DisplayName("Inverted range is ignored")
+        void invertedIgnored() {
+            assertSame(Intervals.EMPTY, Intervals.EMPTY.with(10, 5));
+        }
+
+        @Test
+        @DisplayName("Extreme bounds don't overflow")
+        void extremeBounds() {
+            Intervals intervals = Intervals.EMPTY.with(Long.MIN_VALUE, 0).with(1, Long.MAX_VALUE);
+            assertRanges(intervals, Long.MIN_VALUE, Long.MAX_VALUE);
+            assertTrue(intervals.gaps(Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("gaps")
+    class Gaps {
+
+        @Test
+        @DisplayName("Empty set: the whole query is a gap")
+        void emptySet() {
+            assertGaps(Intervals.EMPTY.gaps(100, 200), 100, 200);
+            assertFalse(Intervals.EMPTY.covers(100, 200));
+        }
+
+        @Test
+        @DisplayName("Fully covered query has no gaps")
+        void fullyCovered() {
+            Intervals intervals = Intervals.EMPTY.with(0, 1000);
+            assertTrue(intervals.gaps(0, 1000).isEmpty());
+            assertTrue(intervals.gaps(100, 200).isEmpty());
+            assertTrue(intervals.covers(0, 1000));
+        }
+
+        @Test
+        @DisplayName("Query covered by adjacent ranges has no gaps")
+        void coveredByAdjacent() {
+            Intervals intervals = Intervals.of(List.of(new long[]{0, 99}, new long[]{100, 199}));
+            assertTrue(intervals.gaps(0, 199).isEmpty());
+            assertTrue(intervals.covers(50, 150));
+        }
+
+        @Test
+        @DisplayName("Gaps before, between and after ranges")
+        void gapsAround() {
+            Intervals intervals = Intervals.EMPTY.with(100, 199).with(300, 399);
+            assertGaps(intervals.gaps(0, 500), 0, 99, 200, 299, 400, 500);
+            assertGaps(intervals.gaps(150, 350), 200, 299);
+            assertFalse(intervals.covers(150, 350));
+        }
+
+        @Test
+        @DisplayName("Query inside a hole is one gap")
+        void queryInsideHole() {
+            Intervals intervals = Intervals.EMPTY.with(100, 199).with(300, 399);
+            assertGaps(intervals.gaps(220, 280), 220, 280);
+        }
+
+        @Test
+        @DisplayName("Empty query (start > end) has no gaps and is covered")
+        void emptyQuery() {
+            assertTrue(Intervals.EMPTY.gaps(10, 5).isEmpty());
+            assertTrue(Intervals.EMPTY.covers(10, 5));
+        }
+    }
+
+    @Test
+    @DisplayName("of() merges overlapping, adjacent and contained rows in any order")
+    void ofMergesRows() {
+        Intervals intervals = Intervals.of(List.of(
+            new long[]{500, 600},
+            new long[]{0, 100},
+            new long[]{101, 200},   // Adjacent to [0, 100]
+            new long[]{150, 180},   // Contained
+            new long[]{550, 700},   // Overlapping
+            new long[]{900, 800})); // Inverted, ignored
+        assertRanges(intervals, 0, 200, 500, 700);
+        assertEquals(402, intervals.totalLength());
+    }
+
+    @Test
+    @DisplayName("Random ranges: gaps and coverage match a per-millisecond bitmap")
+    void matchesBitmap() {
+        Random random = new Random(17);
+        for (int run = 0; run < 200; run++) {
+            boolean[] covered = new boolean[200];
+            Intervals intervals = Intervals.EMPTY;
+            List<long[]> rows = new ArrayList<>();
+            for (int k = random.nextInt(8); k > 0; k--) {
+                int start = random.nextInt(200);
+                int end = Math.min(199, start + random.nextInt(40));
+                rows.add(new long[]{start, end});
+                intervals = intervals.with(start, end);
+                for (int t = start; t <= end; t++) covered[t] = true;
+            }
+            assertEquals(Intervals.of(rows).ranges().size(), intervals.size());
+
+            int start = random.nextInt(200);
+            int end = start + random.nextInt(200 - start);
+            List<long[]> expected = new ArrayList<>();
+            for (int t = start; t <= end; t++) {
+                if (covered[t]) continue;
+                if (!expected.isEmpty() && expected.getLast()[1] == t - 1) {
+                    expected.getLast()[1] = t;
+                } else {
+                    expected.add(new long[]{t, t});
+                }
+            }
+            List<long[]> gaps = intervals.gaps(start, end);
+            assertEquals(expected.size(), gaps.size());
+            for (int i = 0; i < gaps.size(); i++) {
+                assertArrayEquals(expected.get(i), gaps.get(i));
+            }
+            assertEquals(expected.isEmpty(), intervals.covers(start, end));
+        }
+    }
+
+    private static void assertRanges(Intervals intervals, long... bounds) {
+        assertEquals(bounds.length / 2, intervals.size(), intervals.ranges().toString());
+        for (int i = 0; i < intervals.size(); i++) {
+            assertEquals(bounds[2 * i], intervals.start(i));
+            assertEquals(bounds[2 * i + 1], intervals.end(i));
+        }
+    }
+
+    private static void assertGaps(List<long[]> gaps, long... bounds) {
+        assertEquals(bounds.length / 2, gaps.size());
+        for (int i = 0; i < gaps.size(); i++) {
+            assertArrayEquals(new long[]{bounds[2 * i], bounds[2 * i + 1]}, gaps.get(i));
+        }
+    }
+}
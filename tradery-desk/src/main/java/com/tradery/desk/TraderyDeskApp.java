@@ -1,6 +1,7 @@
 package com.tradery.desk;
 
 import com.tradery.ui.ThemeHelper;
+import com.tradery.ui.status.EdtWatchdog;
 import com.tradery.license.LicenseGate;
 import com.tradery.license.UpdateChecker;
 import com.tradery.core.model.Candle;
@@ -764,6 +765,9 @@ public class TraderyDeskApp {
         // Check for updates (non-blocking)
         UpdateChecker.checkAsync(version, "https://plaiiin.com/api/app/trading-desk/latest.json");
 
+        // Time EDT events so stalls show up in the status window and /edt-stalls
+        EdtWatchdog.install();
+
         TraderyDeskApp app = new TraderyDeskApp();
         app.start();
 
@@ -6,6 +6,7 @@ import com.tradery.desk.signal.SignalEvent;
 import com.tradery.desk.strategy.DeskStrategyStore;
 import com.tradery.desk.strategy.PublishedStrategy;
 import com.tradery.desk.ui.DeskFrame;
+import com.tradery.ui.status.EdtWatchdog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +30,7 @@ import java.util.function.Supplier;
  *   GET /signals      - Recent signals from signal log
  *   GET /connection   - Connection state info
  *   GET /thread-dump  - All thread stack traces
+ *   GET /edt-stalls   - Worst EDT stalls and off-EDT violations
  */
 public class DeskApiServer {
 
@@ -72,6 +74,7 @@ public class DeskApiServer {
         server.createContext("/signals", this::handleSignals);
         server.createContext("/connection", this::handleConnection);
         server.createContext("/thread-dump", this::handleThreadDump);
+        server.createContext("/edt-stalls", this::handleEdtStalls);
 
         server.start();
 
@@ -214,6 +217,51 @@ public class DeskApiServer {
         sendJson(exchange, 200, sb.toString());
     }
 
+    private void handleEdtStalls(HttpExchange exchange) throws IOException {
+        if (!checkGet(exchange)) return;
+
+        EdtWatchdog watchdog = EdtWatchdog.getInstance();
+        if (watchdog == null) {
+            sendJson(exchange, 503, "{\"error\":\"EDT watchdog not installed\"}");
+            return;
+        }
+
+        EdtWatchdog.Stats stats = watchdog.getStats();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"thresholdMs\":").append(stats.thresholdMs());
+        sb.append(",\"auditMode\":").append(stats.auditMode());
+        sb.append(",\"eventCount\":").append(stats.eventCount());
+        sb.append(",\"stallCount\":").append(stats.stallCount());
+        sb.append(",\"maxDispatchMs\":").append(stats.maxDispatchMs());
+        sb.append(",\"stalls\":");
+        appendOffenders(sb, watchdog.getStalls());
+        sb.append(",\"offEdtViolations\":");
+        appendOffenders(sb, watchdog.getViolations());
+        sb.append('}');
+        sendJson(exchange, 200, sb.toString());
+    }
+
+    private void appendOffenders(StringBuilder sb, List<EdtWatchdog.Offender> offenders) {
+        sb.append('[');
+        int limit = Math.min(offenders.size(), 20);
+        for (int i = 0; i < limit; i++) {
+            EdtWatchdog.Offender o = offenders.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"location\":\"").append(escape(o.location())).append('"');
+            sb.append(",\"count\":").append(o.count());
+            sb.append(",\"totalMs\":").append(o.totalMs());
+            sb.append(",\"maxMs\":").append(o.maxMs());
+            sb.append(",\"worstStack\":[");
+            int frames = Math.min(o.worstStack().size(), 20);
+            for (int f = 0; f < frames; f++) {
+                if (f > 0) sb.append(',');
+                sb.append('"').append(escape(o.worstStack().get(f))).append('"');
+            }
+            sb.append("]}");
+        }
+        sb.append(']');
+    }
+
     // ========== Helpers ==========
 
     private boolean checkGet(HttpExchange exchange) throws IOException {
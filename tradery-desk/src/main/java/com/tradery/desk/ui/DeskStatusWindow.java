@@ -13,6 +13,7 @@ import com.tradery.ui.dashboard.DashboardPageInfo;
 import com.tradery.ui.dashboard.DashboardSection;
 import com.tradery.ui.controls.BorderlessScrollPane;
 import com.tradery.ui.dashboard.DashboardWindow;
+import com.tradery.ui.status.EdtStallPanel;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -28,7 +29,7 @@ import java.util.concurrent.atomic.AtomicReference;
 /**
  * Desk status dashboard. Extends the shared DashboardWindow,
  * mapping remote page types to common DashboardPageInfo (same sidebar as forge).
- * Adds desk-specific sections: overview, connection, alerts, system.
+ * Adds desk-specific sections: overview, connection, alerts, system, EDT stalls.
  */
 public class DeskStatusWindow extends DashboardWindow {
 
@@ -38,6 +39,7 @@ public class DeskStatusWindow extends DashboardWindow {
     private static final String SECTION_CONNECTION = "connection";
     private static final String SECTION_ALERTS = "alerts";
     private static final String SECTION_SYSTEM = "system";
+    private static final String SECTION_EDT = "edt";
 
     // Overview labels
     private JLabel ovConnectionLabel;
@@ -62,6 +64,8 @@ public class DeskStatusWindow extends DashboardWindow {
     private JLabel sysHeapLabel;
     private JLabel sysUptimeLabel;
 
+    private EdtStallPanel edtStallPanel;
+
     // Strategy section (dynamic)
     private JPanel strategyPanel;
     private final Map<String, StrategyCardLabels> strategyLabels = new HashMap<>();
@@ -95,6 +99,8 @@ public class DeskStatusWindow extends DashboardWindow {
         sections.add(new DashboardSection(SECTION_CONNECTION, "Connection", buildConnectionCard()));
         sections.add(new DashboardSection(SECTION_ALERTS, "Alerts", buildAlertsCard()));
         sections.add(new DashboardSection(SECTION_SYSTEM, "System", buildSystemCard()));
+        edtStallPanel = new EdtStallPanel();
+        sections.add(new DashboardSection(SECTION_EDT, "EDT Stalls", edtStallPanel, EdtStallPanel.getStatus()));
 
         // Bottom buttons
         JButton refreshBtn = new JButton("Refresh");
@@ -156,6 +162,7 @@ public class DeskStatusWindow extends DashboardWindow {
         refreshAlerts(ctx);
         refreshSystem(ctx);
         refreshStrategies(ctx);
+        edtStallPanel.refresh();
     }
 
     // ========== Section cards ==========
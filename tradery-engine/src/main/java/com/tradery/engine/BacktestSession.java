@@ -0,0 +1,1365 @@
+package com.tradery.engine;
+
+import com.tradery.core.dsl.AstNode;
+import com.tradery.core.dsl.Parser;
+import com.tradery.core.indicators.IndicatorEngine;
+import com.tradery.core.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bar-by-bar simulation state for one strategy on one symbol.
+ *
+ * Holds everything the backtest loop mutates (open trades, pending order, DCA group,
+ * entry cooldowns) so the loop can be driven one bar at a time. {@link BacktestEngine}
+ * steps a single session over all bars; {@link PortfolioBacktestEngine} interleaves
+ * sessions of several symbols by timestamp against a shared {@link CapitalPool}.
+ */
+public class BacktestSession {
+
+    private final Strategy strategy;
+    private final BacktestConfig config;
+    private final List<Candle> candles;
+    private final IndicatorEngine indicatorEngine;
+    private final PositionSizer positionSizer;
+    private final TradeAnalytics tradeAnalytics;
+    private final IndicatorSnapshots snapshots;
+    private final List<FundingRate> fundingRates;
+    private final CapitalPool capital;
+    private final ConditionEvaluator evaluator;
+
+    // Phase and hoop pattern filters
+    private final Map<String, boolean[]> phaseStates;
+    private final List<String> requiredPhaseIds;
+    private final List<String> excludedPhaseIds;
+    private final Map<String, boolean[]> hoopPatternStates;
+    private final List<String> requiredEntryPatternIds;
+    private final List<String> excludedEntryPatternIds;
+    private final List<String> requiredExitPatternIds;
+    private final List<String> excludedExitPatternIds;
+
+    // Parsed conditions
+    private final AstNode entryAst;
+    private final List<ParsedExitZone> parsedZones = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+    private final int warmupBars;
+
+    // maxOpenTrades limits concurrent positions (DCA groups count as one position)
+    private final int maxPositions;
+    private final int maxEntriesPerPosition;
+    private final int minCandlesBetween;
+
+    // Simulation state
+    private final List<Trade> trades = new ArrayList<>();
+    private final PositionBook book;
+    private final List<String> errors = new ArrayList<>();
+    private final List<Trade> expiredOrders = new ArrayList<>();  // Track expired pending orders
+    private final EquitySeries.Builder equityCurve;  // One point per bar, recorded as bars are stepped
+    private int lastEntryBar = -9999;  // Track last entry bar for min candle distance
+    private String currentGroupId = null;  // Groups DCA entries together
+    private int groupCounter = 0;
+    private PendingOrder pendingOrder = null;  // Tracks pending entry order (LIMIT/STOP/TRAILING)
+
+    // Entry signal evaluated ahead of step() (portfolio runs evaluate signals in parallel)
+    private int presetSignalBar = -1;
+    private boolean presetSignal;
+
+    /**
+     * Parse the strategy conditions and prepare an empty simulation.
+     * The indicator engine must already be initialized with this session's candles.
+     *
+     * @throws IllegalArgumentException if an entry or exit condition fails to parse
+     */
+    BacktestSession(Strategy strategy, BacktestConfig config, BacktestContext context,
+                    IndicatorEngine indicatorEngine, PositionSizer positionSizer,
+                    TradeAnalytics tradeAnalytics, List<FundingRate> fundingRates,
+                    CapitalPool capital) {
+        this.strategy = strategy;
+        this.config = config;
+        this.candles = context.candles();
+        this.indicatorEngine = indicatorEngine;
+        this.positionSizer = positionSizer;
+        this.tradeAnalytics = tradeAnalytics;
+        this.snapshots = tradeAnalytics.snapshots(strategy);
+        this.fundingRates = fundingRates;
+        this.capital = capital;
+
+        // Use pre-computed phase states from context
+        this.phaseStates = context.phaseStates() != null
+            ? context.phaseStates()
+            : new HashMap<>();
+        this.requiredPhaseIds = strategy.getRequiredPhaseIds();
+        this.excludedPhaseIds = strategy.getExcludedPhaseIds();
+
+        // Use pre-computed hoop pattern states from context
+        this.hoopPatternStates = context.hoopPatternStates() != null
+            ? context.hoopPatternStates()
+            : new HashMap<>();
+        HoopPatternSettings hoopSettings = strategy.getHoopPatternSettings();
+        this.requiredEntryPatternIds = hoopSettings.getRequiredEntryPatternIds();
+        this.excludedEntryPatternIds = hoopSettings.getExcludedEntryPatternIds();
+        this.requiredExitPatternIds = hoopSettings.getRequiredExitPatternIds();
+        this.excludedExitPatternIds = hoopSettings.getExcludedExitPatternIds();
+
+        // Parse entry and exit conditions
+        Parser parser = new Parser();
+
+        Parser.ParseResult entryResult = parser.parse(strategy.getEntry());
+        if (!entryResult.success()) {
+            throw new IllegalArgumentException("Entry condition parse error: " + entryResult.error());
+        }
+        this.entryAst = entryResult.ast();
+
+        // Parse exit zone conditions (zones are always present now)
+        for (ExitZone zone : strategy.getExitZones()) {
+            AstNode zoneExitAst = null;
+            String zoneExitCond = zone.exitCondition();
+            if (zoneExitCond != null && !zoneExitCond.trim().isEmpty()) {
+                Parser.ParseResult zoneResult = parser.parse(zoneExitCond);
+                if (!zoneResult.success()) {
+                    throw new IllegalArgumentException(
+                        "Exit condition parse error in zone '" + zone.name() + "': " + zoneResult.error());
+                }
+                zoneExitAst = zoneResult.ast();
+            }
+            parsedZones.add(new ParsedExitZone(zone, zoneExitAst));
+        }
+
+        // Check for overlapping exit zones (warning, not error)
+        ExitSettings exitSettings = strategy.getExitSettings();
+        if (exitSettings != null) {
+            warnings.addAll(exitSettings.findOverlappingZones());
+        }
+
+        this.evaluator = new ConditionEvaluator(indicatorEngine);
+        this.warmupBars = calculateWarmupPeriod(strategy);
+
+        this.maxPositions = strategy.getMaxOpenTrades();
+        this.maxEntriesPerPosition = strategy.isDcaEnabled() ? strategy.getDcaMaxEntries() : 1;
+        this.minCandlesBetween = strategy.getMinCandlesBetweenTrades();
+        this.book = new PositionBook(maxPositions * maxEntriesPerPosition);
+
+        // Warmup bars are never stepped: flat equity, nothing invested
+        this.equityCurve = new EquitySeries.Builder(candles.size());
+        for (int i = 0; i < Math.min(warmupBars, candles.size()); i++) {
+            equityCurve.add(candles.get(i).timestamp(), capital.getEquity(), 0);
+        }
+
+        capital.register(this);
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public BacktestConfig getConfig() {
+        return config;
+    }
+
+    public List<Candle> getCandles() {
+        return candles;
+    }
+
+    /**
+     * First bar the simulation evaluates (indicator warmup).
+     */
+    public int getWarmupBars() {
+        return warmupBars;
+    }
+
+    /**
+     * Trades recorded so far (closed, partial, rejected and expired).
+     */
+    public List<Trade> getTrades() {
+        return trades;
+    }
+
+    /**
+     * Equity, drawdown and exposure per bar recorded so far.
+     * Equity is the capital pool's, so in a portfolio run it includes the other symbols.
+     */
+    public EquitySeries getEquityCurve() {
+        return equityCurve.build();
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    /**
+     * Number of open positions (trades with same groupId count as one position).
+     */
+    public int getOpenPositionCount() {
+        return book.positionCount();
+    }
+
+    /**
+     * Capital currently tied up in open trades, valued at entry price.
+     */
+    public double getUsedCapital() {
+        return book.usedCapital();
+    }
+
+    /**
+     * Evaluate the entry condition for a bar ahead of {@link #step(int)}.
+     * Only reads indicator data, so sessions of different symbols can do this concurrently.
+     * If evaluation fails, step() re-evaluates and records the error.
+     */
+    public void precomputeEntrySignal(int i) {
+        try {
+            presetSignal = evaluator.evaluate(entryAst, i);
+            presetSignalBar = i;
+        } catch (Exception e) {
+            presetSignalBar = -1;
+        }
+    }
+
+    private boolean entrySignal(int i) {
+        if (presetSignalBar == i) {
+            presetSignalBar = -1;
+            return presetSignal;
+        }
+        return evaluator.evaluate(entryAst, i);
+    }
+
+    /**
+     * Snapshot the simulation state before {@code nextBar} (call right after stepping nextBar - 1).
+     * Recorded trades, errors, expired orders and equity points are only ever appended to, so the
+     * snapshot keeps their counts and shares the lists; open trades and the pending order are copied.
+     */
+    public Checkpoint checkpoint(int nextBar) {
+        List<OpenTradeState> openCopy = new ArrayList<>(book.size());
+        for (OpenTradeState ots : book.trades()) {
+            openCopy.add(ots.copy());
+        }
+        return new Checkpoint(
+            nextBar,
+            trades, trades.size(),
+            errors, errors.size(),
+            expiredOrders, expiredOrders.size(),
+            equityCurve, equityCurve.size(),
+            openCopy,
+            pendingOrder != null ? pendingOrder.copy() : null,
+            lastEntryBar,
+            currentGroupId,
+            groupCounter,
+            capital.getEquity()
+        );
+    }
+
+    /**
+     * Restore state from a checkpoint taken by a previous session of the same strategy and config.
+     * Continue by stepping from {@link Checkpoint#nextBar()}.
+     */
+    public void restore(Checkpoint checkpoint) {
+        trades.clear();
+        trades.addAll(checkpoint.trades().subList(0, checkpoint.tradeCount()));
+        errors.clear();
+        errors.addAll(checkpoint.errors().subList(0, checkpoint.errorCount()));
+        expiredOrders.clear();
+        expiredOrders.addAll(checkpoint.expiredOrders().subList(0, checkpoint.expiredOrderCount()));
+        equityCurve.copyFrom(checkpoint.equityCurve(), checkpoint.equityCurvePoints());
+        book.clear();
+        for (OpenTradeState ots : checkpoint.openTrades()) {
+            book.add(ots.copy());
+        }
+        pendingOrder = checkpoint.pendingOrder() != null ? checkpoint.pendingOrder().copy() : null;
+        lastEntryBar = checkpoint.lastEntryBar();
+        currentGroupId = checkpoint.currentGroupId();
+        groupCounter = checkpoint.groupCounter();
+        capital.realize(checkpoint.equity() - capital.getEquity());
+    }
+
+    /**
+     * Simulate one bar: update open trades, check exits, fill pending orders and check entries.
+     */
+    public void step(int i) {
+        Candle candle = candles.get(i);
+
+        // Update MFE/MAE tracking for all open trades
+        for (int t = 0; t < book.size(); t++) {
+            OpenTradeState ots = book.get(t);
+            ots.updateExcursions(candle.high(), candle.low(), i, ots.isLong);
+        }
+
+        // Process holding costs for all open trades
+        if (config.marketType().hasHoldingCosts() && !book.isEmpty()) {
+            MarketType marketType = config.marketType();
+
+            if (marketType == MarketType.FUTURES && fundingRates != null && !fundingRates.isEmpty()) {
+                // Check for funding settlement in this bar's time window
+                long prevBarTime = i > 0 ? candles.get(i - 1).timestamp() : candle.timestamp();
+                FundingRate settlement = findFundingSettlement(prevBarTime, candle.timestamp());
+                if (settlement != null) {
+                    for (int t = 0; t < book.size(); t++) {
+                        OpenTradeState ots = book.get(t);
+                        double fee = calculateFundingFee(settlement, ots.remainingQuantity, candle.close(), ots.isLong);
+                        ots.processFundingSettlement(fee, settlement.fundingTime());
+                    }
+                }
+            } else if (marketType == MarketType.MARGIN) {
+                // Calculate hourly interest for margin positions
+                for (int t = 0; t < book.size(); t++) {
+                    OpenTradeState ots = book.get(t);
+                    long lastTime = ots.getLastInterestTime();
+                    double notional = ots.remainingQuantity * candle.close();
+                    double interest = calculateMarginInterest(notional, lastTime, candle.timestamp(), config.marginInterestHourly());
+                    if (interest > 0) {
+                        ots.processMarginInterest(interest, candle.timestamp());
+                    }
+                }
+            }
+        }
+
+        try {
+            // Count entries in current position (for DCA)
+            int entriesInCurrentPosition = book.legsInGroup(currentGroupId);
+
+            // In DCA mode, only check normal exits after current position has all entries
+            boolean dcaComplete = !strategy.isDcaEnabled() || entriesInCurrentPosition >= maxEntriesPerPosition;
+
+            // Check exit conditions for all open trades
+            book.beginBar();
+            List<OpenTradeState> toClose = book.toClose();
+            String dcaExitReason = null;
+            double dcaExitPrice = candle.close();
+
+            // If DCA exit triggered, close all trades in the position
+            ExitZone dcaMatchedZone = null;
+            if (dcaExitReason != null) {
+                // Find the zone that triggered the exit
+                for (OpenTradeState ots : book.trades()) {
+                    if (ots.matchedZone != null) {
+                        dcaMatchedZone = ots.matchedZone;
+                        break;
+                    }
+                }
+                for (OpenTradeState ots : book.trades()) {
+                    ots.exitReason = dcaExitReason;
+                    ots.exitPrice = dcaExitPrice;
+                    ots.matchedZone = dcaMatchedZone;
+                    if (!toClose.contains(ots)) {
+                        toClose.add(ots);
+                    }
+                }
+            }
+
+            // Check normal exit conditions only if DCA is complete and no emergency exit
+            if (dcaComplete && dcaExitReason == null) {
+                // For DCA mode, calculate exits based on weighted average entry
+                boolean isDcaPosition = strategy.isDcaEnabled() && book.size() > 1;
+                double avgEntryPrice = 0;
+                OpenTradeState firstTrade = book.isEmpty() ? null : book.get(0);
+
+                if (isDcaPosition) {
+                    double totalValue = 0;
+                    double totalQty = 0;
+                    for (int t = 0; t < book.size(); t++) {
+                        OpenTradeState ots = book.get(t);
+                        totalValue += ots.trade.entryPrice() * ots.trade.quantity();
+                        totalQty += ots.trade.quantity();
+                    }
+                    avgEntryPrice = totalQty > 0 ? totalValue / totalQty : 0;
+
+                    // For DCA, use first trade's price tracking (it's been open longest)
+                    // and sync all other trades to it
+                    if (firstTrade != null) {
+                        for (int t = 0; t < book.size(); t++) {
+                            OpenTradeState ots = book.get(t);
+                            if (ots != firstTrade) {
+                                ots.highestPriceSinceEntry = firstTrade.highestPriceSinceEntry;
+                                ots.trailingStopPrice = firstTrade.trailingStopPrice;
+                            }
+                        }
+                    }
+                }
+
+                for (int t = 0; t < book.size(); t++) {
+                    OpenTradeState ots = book.get(t);
+                    Trade openTrade = ots.trade;
+                    // Use average entry for DCA, individual entry otherwise
+                    double entryPrice = (isDcaPosition && avgEntryPrice > 0) ? avgEntryPrice : openTrade.entryPrice();
+                    String exitReason = null;
+                    double exitPrice = candle.close();
+                    String exitZoneName = null;
+
+                    // Find matching exit zone based on current P&L
+                    double currentPnlPercent = calculatePnlPercent(openTrade, ots.isLong, candle.close());
+
+                    ParsedExitZone matchingZone = null;
+                    for (ParsedExitZone pz : parsedZones) {
+                        if (pz.zone.matches(currentPnlPercent)) {
+                            // Check zone phase filters
+                            if (pz.zone.hasPhaseFilters()) {
+                                boolean zonePhasesActive = PhaseEvaluator.allPhasesActive(
+                                    phaseStates, pz.zone.requiredPhaseIds(), pz.zone.excludedPhaseIds(), i
+                                );
+                                if (!zonePhasesActive) {
+                                    continue;  // Zone phases not satisfied, try next zone
+                                }
+                            }
+                            matchingZone = pz;
+                            break;
+                        }
+                    }
+
+                    // If no zone matches, use first zone as fallback (but don't apply exitImmediately)
+                    boolean isZoneFallback = false;
+                    if (matchingZone == null && !parsedZones.isEmpty()) {
+                        matchingZone = parsedZones.getFirst();
+                        isZoneFallback = true;
+                    }
+
+                    if (matchingZone == null) {
+                        continue;  // No exit config available
+                    }
+
+                    ExitZone zone = matchingZone.zone;
+                    exitZoneName = zone.name();
+
+                    // Check if enough bars have passed for this zone's minBarsBeforeExit
+                    if ((i - lastEntryBar) < zone.minBarsBeforeExit()) {
+                        continue;  // Not enough bars passed yet
+                    }
+
+                    // Use zone's exit configuration
+                    AstNode exitConditionAst = matchingZone.exitConditionAst;
+                    boolean isMarketExit = !isZoneFallback && zone.exitImmediately();
+
+                    // For Market Exit zones, skip SL/TP - only use DSL condition
+                    StopLossType slType = isMarketExit ? StopLossType.NONE : zone.stopLossType();
+                    Double slValue = isMarketExit ? null : zone.stopLossValue();
+                    TakeProfitType tpType = isMarketExit ? TakeProfitType.NONE : zone.takeProfitType();
+                    Double tpValue = isMarketExit ? null : zone.takeProfitValue();
+
+                    // Determine if this is a long or short trade
+                    boolean isLong = ots.isLong;
+
+                    // Handle CLEAR - reset trailing stop state
+                    if (slType == StopLossType.CLEAR) {
+                        ots.trailingStopPrice = 0;
+                        if (isLong) {
+                            ots.highestPriceSinceEntry = candle.close();
+                        } else {
+                            ots.lowestPriceSinceEntry = candle.close();
+                        }
+                    }
+
+                    // Calculate stop distance based on type
+                    double stopDistance = 0;
+                    if (slValue != null && slType != StopLossType.NONE) {
+                        if (slType.isPercent()) {
+                            stopDistance = entryPrice * (slValue / 100.0);
+                        } else if (slType.isAtr()) {
+                            stopDistance = positionSizer.calculateATR(candles, i, 14) * slValue;
+                        }
+                    }
+
+                    // Handle trailing stop
+                    if (slType != null && slType.isTrailing() && stopDistance > 0) {
+                        if (isLong) {
+                            // Long: track highest price, stop below
+                            if (candle.high() > ots.highestPriceSinceEntry) {
+                                ots.highestPriceSinceEntry = candle.high();
+                                ots.trailingStopPrice = ots.highestPriceSinceEntry - stopDistance;
+                            }
+                            if (candle.low() <= ots.trailingStopPrice) {
+                                exitReason = "trailing_stop";
+                                exitPrice = ots.trailingStopPrice;
+                            }
+                        } else {
+                            // Short: track lowest price, stop above
+                            if (candle.low() < ots.lowestPriceSinceEntry) {
+                                ots.lowestPriceSinceEntry = candle.low();
+                                ots.trailingStopPrice = ots.lowestPriceSinceEntry + stopDistance;
+                            }
+                            if (candle.high() >= ots.trailingStopPrice) {
+                                exitReason = "trailing_stop";
+                                exitPrice = ots.trailingStopPrice;
+                            }
+                        }
+                    }
+                    // Handle fixed stop-loss
+                    else if (slType != null && !slType.isTrailing() && slType != StopLossType.NONE && stopDistance > 0) {
+                        if (isLong) {
+                            // Long: stop below entry
+                            double stopPrice = entryPrice - stopDistance;
+                            if (candle.low() <= stopPrice) {
+                                exitReason = "stop_loss";
+                                exitPrice = stopPrice;
+                            }
+                        } else {
+                            // Short: stop above entry
+                            double stopPrice = entryPrice + stopDistance;
+                            if (candle.high() >= stopPrice) {
+                                exitReason = "stop_loss";
+                                exitPrice = stopPrice;
+                            }
+                        }
+                    }
+
+                    // Check take-profit
+                    if (exitReason == null && tpValue != null && tpType != TakeProfitType.NONE) {
+                        double tpDistance = 0;
+                        if (tpType.isPercent()) {
+                            tpDistance = entryPrice * (tpValue / 100.0);
+                        } else if (tpType.isAtr()) {
+                            tpDistance = positionSizer.calculateATR(candles, i, 14) * tpValue;
+                        }
+
+                        if (isLong) {
+                            // Long: TP above entry
+                            double tpPrice = entryPrice + tpDistance;
+                            if (candle.high() >= tpPrice) {
+                                exitReason = "take_profit";
+                                exitPrice = tpPrice;
+                            }
+                        } else {
+                            // Short: TP below entry
+                            double tpPrice = entryPrice - tpDistance;
+                            if (candle.low() <= tpPrice) {
+                                exitReason = "take_profit";
+                                exitPrice = tpPrice;
+                            }
+                        }
+                    }
+
+                    // Check DSL exit condition (zone's or strategy's) and hoop patterns
+                    if (exitReason == null) {
+                        // Evaluate DSL exit condition
+                        boolean dslExitSignal = exitConditionAst != null && evaluator.evaluate(exitConditionAst, i);
+
+                        // Evaluate hoop exit pattern
+                        boolean hoopExitSignal = HoopPatternEvaluator.patternsMatch(
+                            hoopPatternStates, requiredExitPatternIds, excludedExitPatternIds, i
+                        );
+
+                        // Hoops are always AND'ed with DSL (like phases)
+                        // DSL must trigger AND all required hoops must match AND no excluded hoops active
+                        boolean shouldExit = dslExitSignal && hoopExitSignal;
+
+                        if (shouldExit) {
+                            exitReason = isMarketExit ? "market_exit" : "signal";
+                            exitPrice = candle.close();
+                        }
+                    }
+
+                    if (exitReason != null) {
+                        // In DCA mode, one exit triggers all exits
+                        if (isDcaPosition) {
+                            dcaExitReason = exitReason;
+                            dcaExitPrice = exitPrice;
+                            dcaMatchedZone = zone;
+                            break;  // Exit the loop - we'll close all trades
+                        } else {
+                            // Mark for closing
+                            ots.exitReason = exitReason;
+                            ots.exitPrice = exitPrice;
+                            ots.exitZone = exitZoneName;
+                            ots.matchedZone = zone;
+                            toClose.add(ots);
+                        }
+                    }
+                }
+
+                // In DCA mode, if any exit triggered, close ALL open trades
+                if (dcaExitReason != null) {
+                    for (OpenTradeState ots : book.trades()) {
+                        ots.exitReason = dcaExitReason;
+                        ots.exitPrice = dcaExitPrice;
+                        ots.matchedZone = dcaMatchedZone;
+                        ots.exitZone = dcaMatchedZone != null ? dcaMatchedZone.name() : null;
+                        if (!toClose.contains(ots)) {
+                            toClose.add(ots);
+                        }
+                    }
+                }
+            }
+
+            // Close marked trades (with partial exit support)
+            List<OpenTradeState> fullyClosedTrades = book.fullyClosed();
+
+            // For DCA positions, calculate proportional exits
+            boolean isDcaPartialExit = strategy.isDcaEnabled() && toClose.size() > 1;
+
+            if (isDcaPartialExit && !toClose.isEmpty()) {
+                // DCA mode: distribute exit proportionally across all entries
+                OpenTradeState firstTrade = toClose.get(0);
+                ExitZone zone = firstTrade.matchedZone;
+
+                if (zone != null && zone.exitPercent() != null && zone.exitPercent() < 100) {
+                    // Calculate total remaining across all DCA entries
+                    double totalRemaining = 0;
+                    double totalOriginal = 0;
+                    for (int t = 0; t < toClose.size(); t++) {
+                        totalRemaining += toClose.get(t).remainingQuantity;
+                        totalOriginal += toClose.get(t).originalQuantity;
+                    }
+
+                    // Check zone exit count (use first trade as representative)
+                    String zoneName = zone.name();
+                    int exitsDone = firstTrade.zoneExitCount.getOrDefault(zoneName, 0);
+                    int maxExits = zone.getEffectiveMaxExits();
+
+                    // Only proceed if max exits not reached
+                    if (exitsDone < maxExits) {
+                        // Calculate target exit based on zone config
+                        double exitPercent = zone.getEffectiveExitPercent();
+                        double toExit;
+                        if (zone.exitBasis() == ExitBasis.ORIGINAL) {
+                            toExit = totalOriginal * (exitPercent / 100.0);
+                        } else {
+                            toExit = totalRemaining * (exitPercent / 100.0);
+                        }
+                        toExit = Math.min(toExit, totalRemaining);
+
+                        // Check minBarsBetweenExits constraint (using first trade as representative)
+                        boolean canExit = firstTrade.canExitInZone(zone, i);
+
+                        if (toExit > 0 && canExit) {
+                            // Capture phases and indicators once for this bar
+                            List<String> exitPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, i);
+                            Map<String, Double> exitIndicators = snapshots.at(i);
+
+                            // Distribute proportionally across entries
+                            for (OpenTradeState ots : toClose) {
+                                double proportion = totalRemaining > 0 ? ots.remainingQuantity / totalRemaining : 0;
+                                double exitQty = toExit * proportion;
+                                exitQty = Math.min(exitQty, ots.remainingQuantity);
+
+                                if (exitQty > 0.0001) {
+                                    // Capture indicators at MFE/MAE points
+                                    Map<String, Double> mfeIndicators = snapshots.at(ots.mfeBar);
+                                    Map<String, Double> maeIndicators = snapshots.at(ots.maeBar);
+                                    // Calculate proportional holding costs for partial exit
+                                    Double holdingCosts = calculateProportionalHoldingCosts(ots, exitQty);
+                                    // Analyze better exit context
+                                    boolean isLong = ots.isLong;
+                                    BetterExitContext betterExit = analyzeBetterExit(candles, i, ots.exitPrice, isLong);
+                                    Trade partialTrade = ots.trade.partialCloseWithAnalytics(
+                                        i, candle.timestamp(), ots.exitPrice, exitQty,
+                                        config.commission(), ots.exitReason, ots.exitZone,
+                                        ots.mfePercent, ots.maePercent, ots.mfeBar, ots.maeBar,
+                                        exitPhases, exitIndicators, mfeIndicators, maeIndicators,
+                                        holdingCosts,
+                                        ots.getBetterEntryBar(), ots.getBetterEntryPrice(), ots.getBetterEntryImprovement(),
+                                        betterExit.bar(), betterExit.price(), betterExit.improvement()
+                                    );
+                                    trades.add(partialTrade);
+                                    capital.realize(partialTrade.pnl() != null ? partialTrade.pnl() : 0);
+                                    ots.recordPartialExit(zoneName, exitQty, i);
+                                }
+
+                                if (ots.isFullyClosed()) {
+                                    fullyClosedTrades.add(ots);
+                                }
+                            }
+                        }
+                    }
+                } else {
+                    // No partial exit configured, close everything
+                    // Capture phases and indicators at exit once for this bar
+                    List<String> exitPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, i);
+                    Map<String, Double> exitIndicators = snapshots.at(i);
+                    for (OpenTradeState ots : toClose) {
+                        // Capture indicators at MFE/MAE points
+                        Map<String, Double> mfeIndicators = snapshots.at(ots.mfeBar);
+                        Map<String, Double> maeIndicators = snapshots.at(ots.maeBar);
+                        // Full close - take all accumulated holding costs
+                        Double holdingCosts = ots.getAccumulatedHoldingCosts() != 0 ? ots.getAccumulatedHoldingCosts() : null;
+                        // Analyze better exit context
+                        boolean isLong = ots.isLong;
+                        BetterExitContext betterExit = analyzeBetterExit(candles, i, ots.exitPrice, isLong);
+                        Trade closedTrade = ots.trade.partialCloseWithAnalytics(
+                            i, candle.timestamp(), ots.exitPrice, ots.remainingQuantity,
+                            config.commission(), ots.exitReason, ots.exitZone,
+                            ots.mfePercent, ots.maePercent, ots.mfeBar, ots.maeBar,
+                            exitPhases, exitIndicators, mfeIndicators, maeIndicators,
+                            holdingCosts,
+                            ots.getBetterEntryBar(), ots.getBetterEntryPrice(), ots.getBetterEntryImprovement(),
+                            betterExit.bar(), betterExit.price(), betterExit.improvement()
+                        );
+                        trades.add(closedTrade);
+                        capital.realize(closedTrade.pnl() != null ? closedTrade.pnl() : 0);
+                        ots.remainingQuantity = 0;
+                        fullyClosedTrades.add(ots);
+                    }
+                }
+            } else {
+                // Non-DCA or single trade: handle each individually
+                for (OpenTradeState ots : toClose) {
+                    ExitZone zone = ots.matchedZone;
+                    double exitQty;
+                    boolean isPartialExit = zone != null && zone.exitPercent() != null && zone.exitPercent() < 100;
+
+                    if (isPartialExit) {
+                        // Check minBarsBetweenExits constraint
+                        if (!ots.canExitInZone(zone, i)) {
+                            continue;  // Skip this partial exit, not enough bars passed
+                        }
+                        // Partial exit
+                        exitQty = ots.calculateExitQuantity(zone);
+                    } else {
+                        // Full exit - no bars between constraint for full exits
+                        exitQty = ots.remainingQuantity;
+                    }
+
+                    if (exitQty > 0.0001) {
+                        // Capture phases and indicators at exit
+                        List<String> exitPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, i);
+                        Map<String, Double> exitIndicators = snapshots.at(i);
+                        // Capture indicators at MFE/MAE points
+                        Map<String, Double> mfeIndicators = snapshots.at(ots.mfeBar);
+                        Map<String, Double> maeIndicators = snapshots.at(ots.maeBar);
+                        // Calculate proportional holding costs for this exit
+                        Double holdingCosts = calculateProportionalHoldingCosts(ots, exitQty);
+                        // Analyze better exit context
+                        boolean isLong = ots.isLong;
+                        BetterExitContext betterExit = analyzeBetterExit(candles, i, ots.exitPrice, isLong);
+                        Trade partialTrade = ots.trade.partialCloseWithAnalytics(
+                            i, candle.timestamp(), ots.exitPrice, exitQty,
+                            config.commission(), ots.exitReason, ots.exitZone,
+                            ots.mfePercent, ots.maePercent, ots.mfeBar, ots.maeBar,
+                            exitPhases, exitIndicators, mfeIndicators, maeIndicators,
+                            holdingCosts,
+                            ots.getBetterEntryBar(), ots.getBetterEntryPrice(), ots.getBetterEntryImprovement(),
+                            betterExit.bar(), betterExit.price(), betterExit.improvement()
+                        );
+                        trades.add(partialTrade);
+                        capital.realize(partialTrade.pnl() != null ? partialTrade.pnl() : 0);
+
+                        if (zone != null) {
+                            ots.recordPartialExit(zone.name(), exitQty, i);
+                        } else {
+                            ots.remainingQuantity -= exitQty;
+                        }
+                    }
+
+                    if (ots.isFullyClosed()) {
+                        fullyClosedTrades.add(ots);
+                    }
+                }
+            }
+
+            // Remove fully closed trades
+            for (int t = 0; t < fullyClosedTrades.size(); t++) {
+                book.remove(fullyClosedTrades.get(t));
+            }
+
+            // Reset currentGroupId if position was closed (so next signal starts new position)
+            if (!toClose.isEmpty() && strategy.isDcaEnabled()) {
+                // Check if current group still has open trades
+                if (book.legsInGroup(currentGroupId) == 0) {
+                    currentGroupId = null;
+                }
+            }
+
+            // Recalculate after closes
+            int openPositionsAfterClose = book.positionCount();
+            int entriesInCurrentPositionAfterClose = book.legsInGroup(currentGroupId);
+
+            // Process pending entry order (LIMIT/STOP/TRAILING)
+            boolean pendingOrderFilled = false;
+            if (pendingOrder != null) {
+                // Check expiration first
+                if (pendingOrder.isExpired(i)) {
+                    // Record expired order
+                    String side = strategy.getDirection().getValue();
+                    Trade expiredTrade = Trade.expired(
+                        strategy.getId(),
+                        side,
+                        pendingOrder.signalBar,
+                        candles.get(pendingOrder.signalBar).timestamp(),
+                        pendingOrder.signalPrice,
+                        i  // Expiration bar
+                    );
+                    expiredOrders.add(expiredTrade);
+                    trades.add(expiredTrade);
+                    pendingOrder = null;
+                } else {
+                    // Check fill conditions based on order type
+                    Double fillPrice = null;
+
+                    if (pendingOrder.shouldFillLimit(candle.high(), candle.low())) {
+                        fillPrice = pendingOrder.getFillPrice();
+                    } else if (pendingOrder.shouldFillStop(candle.high(), candle.low())) {
+                        fillPrice = pendingOrder.getFillPrice();
+                    } else if (pendingOrder.orderType == EntryOrderType.TRAILING) {
+                        fillPrice = pendingOrder.updateTrailingAndCheckFill(
+                            candle.high(), candle.low(), candle.close()
+                        );
+                    }
+
+                    if (fillPrice != null) {
+                        // Calculate position size at fill time
+                        double availableCapital = capital.getAvailableCapital();
+
+                        double quantity = positionSizer.calculate(config, strategy, capital.getEquity(), fillPrice, candles, i);
+                        if (strategy.isDcaEnabled() && maxEntriesPerPosition > 1) {
+                            quantity = quantity / maxEntriesPerPosition;
+                        }
+                        double positionValue = quantity * fillPrice;
+
+                        if (positionValue > availableCapital) {
+                            quantity = 0;
+                        }
+
+                        if (quantity > 0) {
+                            // Execute the fill
+                            groupCounter++;
+                            currentGroupId = strategy.isDcaEnabled() ? "dca-" + groupCounter : "pos-" + groupCounter;
+
+                            // Capture active phases and indicators at entry
+                            List<String> entryPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, i);
+                            Map<String, Double> entryIndicators = snapshots.at(i);
+
+                            String side = strategy.getDirection().getValue();
+                            Trade newTrade = Trade.open(
+                                strategy.getId(),
+                                side,
+                                i,
+                                candle.timestamp(),
+                                fillPrice,
+                                quantity,
+                                config.commission(),
+                                currentGroupId,
+                                entryPhases,
+                                entryIndicators
+                            );
+
+                            OpenTradeState ots = new OpenTradeState(newTrade, fillPrice, entryPhases);
+                            ots.analyzeContextBars(candles, strategy.isLong());
+
+                            // Initialize trailing stop from default zone
+                            ExitZone defaultZone = strategy.findMatchingZone(0.0);
+                            if (defaultZone != null) {
+                                StopLossType slType = defaultZone.stopLossType();
+                                Double slValue = defaultZone.stopLossValue();
+                                if (slType != null && slType.isTrailing() && slValue != null && slValue > 0) {
+                                    double stopDistance = 0;
+                                    if (slType.isPercent()) {
+                                        stopDistance = fillPrice * (slValue / 100.0);
+                                    } else if (slType.isAtr()) {
+                                        stopDistance = positionSizer.calculateATR(candles, i, 14) * slValue;
+                                    }
+                                    // Long: stop below entry; Short: stop above entry
+                                    boolean isLong = strategy.isLong();
+                                    ots.trailingStopPrice = isLong ? (fillPrice - stopDistance) : (fillPrice + stopDistance);
+                                }
+                            }
+
+                            book.add(ots);
+                            lastEntryBar = i;
+                            pendingOrderFilled = true;
+                        } else {
+                            // Rejected due to no capital
+                            List<String> rejectedPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, i);
+                            Map<String, Double> rejectedIndicators = snapshots.at(i);
+                            String side = strategy.getDirection().getValue();
+                            Trade rejectedTrade = Trade.rejected(
+                                strategy.getId(),
+                                side,
+                                i,
+                                candle.timestamp(),
+                                fillPrice,
+                                rejectedPhases,
+                                rejectedIndicators
+                            );
+                            trades.add(rejectedTrade);
+                        }
+                        pendingOrder = null;
+                    }
+                }
+            }
+
+            // Check entry condition if we can open more positions
+            boolean canAddToCurrentPosition = strategy.isDcaEnabled() &&
+                currentGroupId != null &&
+                entriesInCurrentPositionAfterClose > 0 &&
+                entriesInCurrentPositionAfterClose < maxEntriesPerPosition;
+            boolean canStartNewPosition = openPositionsAfterClose < maxPositions && capital.hasPositionCapacity();
+            boolean canOpenMore = canAddToCurrentPosition || canStartNewPosition;
+            boolean isDcaEntry = canAddToCurrentPosition;
+            int requiredDistance = isDcaEntry ? strategy.getDcaBarsBetween() : minCandlesBetween;
+            boolean passesMinDistance = (i - lastEntryBar) >= requiredDistance;
+            DcaMode dcaMode = strategy.getDcaMode();
+
+            // Check if entry signal is present (DSL condition)
+            boolean dslSignal = entrySignal(i);
+
+            // Check if hoop pattern signal is present
+            boolean hoopSignal = HoopPatternEvaluator.patternsMatch(
+                hoopPatternStates, requiredEntryPatternIds, excludedEntryPatternIds, i
+            );
+
+            // Hoops are always AND'ed with DSL (like phases)
+            // DSL must trigger AND all required hoops must match AND no excluded hoops active
+            boolean signalPresent = dslSignal && hoopSignal;
+
+            // Handle DCA abort mode - close all trades if signal lost
+            if (isDcaEntry && dcaMode == DcaMode.ABORT && !signalPresent && toClose.isEmpty()) {
+                List<OpenTradeState> abortedTrades = book.aborted();
+                for (OpenTradeState ots : book.trades()) {
+                    ots.exitReason = "signal_lost";
+                    ots.exitPrice = candle.close();
+                    abortedTrades.add(ots);
+                }
+                // Close the aborted trades (close remaining quantity)
+                // Capture phases and indicators at exit once for this bar
+                List<String> abortExitPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, i);
+                Map<String, Double> abortExitIndicators = snapshots.at(i);
+                for (OpenTradeState ots : abortedTrades) {
+                    if (ots.remainingQuantity > 0.0001) {
+                        // Capture indicators at MFE/MAE points
+                        Map<String, Double> mfeIndicators = snapshots.at(ots.mfeBar);
+                        Map<String, Double> maeIndicators = snapshots.at(ots.maeBar);
+                        // Full close - take all accumulated holding costs
+                        Double holdingCosts = ots.getAccumulatedHoldingCosts() != 0 ? ots.getAccumulatedHoldingCosts() : null;
+                        // Analyze better exit context
+                        boolean isLong = ots.isLong;
+                        BetterExitContext betterExit = analyzeBetterExit(candles, i, ots.exitPrice, isLong);
+                        Trade closedTrade = ots.trade.partialCloseWithAnalytics(
+                            i, candle.timestamp(), ots.exitPrice, ots.remainingQuantity,
+                            config.commission(), ots.exitReason, ots.exitZone,
+                            ots.mfePercent, ots.maePercent, ots.mfeBar, ots.maeBar,
+                            abortExitPhases, abortExitIndicators, mfeIndicators, maeIndicators,
+                            holdingCosts,
+                            ots.getBetterEntryBar(), ots.getBetterEntryPrice(), ots.getBetterEntryImprovement(),
+                            betterExit.bar(), betterExit.price(), betterExit.improvement()
+                        );
+                        trades.add(closedTrade);
+                        capital.realize(closedTrade.pnl() != null ? closedTrade.pnl() : 0);
+                        ots.remainingQuantity = 0;
+                    }
+                    book.remove(ots);
+                }
+            }
+
+            // Skip new entry signals if a pending order was just filled this bar
+            if (!pendingOrderFilled && canOpenMore && passesMinDistance) {
+                boolean shouldEnter;
+                if (isDcaEntry && dcaMode == DcaMode.CONTINUE) {
+                    // In continue mode, DCA entries don't require signal
+                    shouldEnter = true;
+                } else {
+                    // pause mode or first entry - require signal
+                    shouldEnter = signalPresent;
+                }
+
+                // Check if all required phases are active and no excluded phases are active
+                if (shouldEnter && (!requiredPhaseIds.isEmpty() || !excludedPhaseIds.isEmpty())) {
+                    boolean phasesActive = PhaseEvaluator.allPhasesActive(
+                        phaseStates, requiredPhaseIds, excludedPhaseIds, i
+                    );
+                    if (!phasesActive) {
+                        shouldEnter = false; // Skip entry - phase filter not met
+                    }
+                }
+
+                if (shouldEnter) {
+                    // Get entry order type from strategy
+                    EntryOrderType orderType = strategy.getEntrySettings().getOrderType();
+
+                    if (orderType == EntryOrderType.MARKET) {
+                        // MARKET order: immediate entry (original behavior)
+                        double availableCapital = capital.getAvailableCapital();
+
+                        double quantity = positionSizer.calculate(config, strategy, capital.getEquity(), candle.close(), candles, i);
+                        if (strategy.isDcaEnabled() && maxEntriesPerPosition > 1) {
+                            quantity = quantity / maxEntriesPerPosition;
+                        }
+                        double positionValue = quantity * candle.close();
+
+                        if (positionValue > availableCapital) {
+                            quantity = 0;
+                        }
+
+                        if (quantity > 0) {
+                            boolean startingNewPosition = !isDcaEntry;
+
+                            if (startingNewPosition) {
+                                groupCounter++;
+                                currentGroupId = strategy.isDcaEnabled() ? "dca-" + groupCounter : "pos-" + groupCounter;
+                            }
+
+                            // Capture active phases and indicators at entry
+                            List<String> entryPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, i);
+                            Map<String, Double> entryIndicators = snapshots.at(i);
+
+                            String side = strategy.getDirection().getValue();
+                            Trade newTrade = Trade.open(
+                                strategy.getId(),
+                                side,
+                                i,
+                                candle.timestamp(),
+                                candle.close(),
+                                quantity,
+                                config.commission(),
+                                currentGroupId,
+                                entryPhases,
+                                entryIndicators
+                            );
+
+                            OpenTradeState ots = new OpenTradeState(newTrade, candle.close(), entryPhases);
+                            ots.analyzeContextBars(candles, strategy.isLong());
+
+                            ExitZone defaultZone = strategy.findMatchingZone(0.0);
+                            if (defaultZone != null) {
+                                StopLossType slType = defaultZone.stopLossType();
+                                Double slValue = defaultZone.stopLossValue();
+                                if (slType != null && slType.isTrailing() && slValue != null && slValue > 0) {
+                                    double stopDistance = 0;
+                                    if (slType.isPercent()) {
+                                        stopDistance = candle.close() * (slValue / 100.0);
+                                    } else if (slType.isAtr()) {
+                                        stopDistance = positionSizer.calculateATR(candles, i, 14) * slValue;
+                                    }
+                                    // Long: stop below entry; Short: stop above entry
+                                    boolean isLong = strategy.isLong();
+                                    ots.trailingStopPrice = isLong ? (candle.close() - stopDistance) : (candle.close() + stopDistance);
+                                }
+                            }
+
+                            book.add(ots);
+                            lastEntryBar = i;
+                        } else {
+                            // Capture active phases and indicators for rejected trade too
+                            List<String> rejectedPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, i);
+                            Map<String, Double> rejectedIndicators = snapshots.at(i);
+                            String side = strategy.getDirection().getValue();
+                            Trade rejectedTrade = Trade.rejected(
+                                strategy.getId(),
+                                side,
+                                i,
+                                candle.timestamp(),
+                                candle.close(),
+                                rejectedPhases,
+                                rejectedIndicators
+                            );
+                            trades.add(rejectedTrade);
+                        }
+                    } else {
+                        // LIMIT, STOP, or TRAILING order: create pending order
+                        // New signal replaces any existing pending order
+                        OffsetUnit offsetUnit = strategy.getEntrySettings().getOrderOffsetUnit();
+                        Double atr = offsetUnit == OffsetUnit.ATR ? indicatorEngine.getATRAt(14, i) : null;
+                        pendingOrder = new PendingOrder(
+                            i,
+                            candle.close(),
+                            orderType,
+                            offsetUnit,
+                            strategy.getEntrySettings().getOrderOffsetValue(),
+                            atr,
+                            strategy.getEntrySettings().getTrailingReversePercent(),
+                            strategy.getEntrySettings().getExpirationBars(),
+                            strategy.isLong()
+                        );
+                    }
+                }
+            }
+        } catch (Exception e) {
+            errors.add("Error at bar " + i + ": " + e.getMessage());
+        }
+
+        equityCurve.add(candle.timestamp(), capital.getEquity(), book.usedCapital());
+    }
+
+    /**
+     * Close all open trades at the last bar (close remaining quantities).
+     * Call once after the final step.
+     */
+    public void finish() {
+        // Close all open trades at the end (close remaining quantities)
+        Candle lastCandle = candles.get(candles.size() - 1);
+        int lastBar = candles.size() - 1;
+        // Capture phases and indicators at end of data
+        List<String> endPhases = tradeAnalytics.getActivePhasesAtBar(phaseStates, lastBar);
+        Map<String, Double> endIndicators = snapshots.at(lastBar);
+        for (OpenTradeState ots : book.trades()) {
+            // Final MFE/MAE update for last candle
+            boolean isLong = ots.isLong;
+            ots.updateExcursions(lastCandle.high(), lastCandle.low(), lastBar, isLong);
+            if (ots.remainingQuantity > 0.0001) {
+                // Capture indicators at MFE/MAE points
+                Map<String, Double> mfeIndicators = snapshots.at(ots.mfeBar);
+                Map<String, Double> maeIndicators = snapshots.at(ots.maeBar);
+                // Full close - take all accumulated holding costs
+                Double holdingCosts = ots.getAccumulatedHoldingCosts() != 0 ? ots.getAccumulatedHoldingCosts() : null;
+                // No better exit analysis for end_of_data (no future bars available)
+                Trade closedTrade = ots.trade.partialCloseWithAnalytics(
+                    lastBar,
+                    lastCandle.timestamp(),
+                    lastCandle.close(),
+                    ots.remainingQuantity,
+                    config.commission(),
+                    "end_of_data",
+                    null,
+                    ots.mfePercent, ots.maePercent, ots.mfeBar, ots.maeBar,
+                    endPhases, endIndicators, mfeIndicators, maeIndicators,
+                    holdingCosts,
+                    ots.getBetterEntryBar(), ots.getBetterEntryPrice(), ots.getBetterEntryImprovement(),
+                    null, null, null  // No future bars for better exit analysis
+                );
+                trades.add(closedTrade);
+                capital.realize(closedTrade.pnl() != null ? closedTrade.pnl() : 0);
+            }
+        }
+        book.clear();
+        equityCurve.updateLastEquity(capital.getEquity());
+    }
+
+    /**
+     * Simulation state before a bar, used to resume a backtest without replaying earlier bars.
+     */
+    public record Checkpoint(
+        int nextBar,
+        List<Trade> trades, int tradeCount,
+        List<String> errors, int errorCount,
+        List<Trade> expiredOrders, int expiredOrderCount,
+        EquitySeries.Builder equityCurve, int equityCurvePoints,
+        List<OpenTradeState> openTrades,
+        PendingOrder pendingOrder,
+        int lastEntryBar,
+        String currentGroupId,
+        int groupCounter,
+        double equity
+    ) {}
+
+    /**
+     * Calculate the warmup period needed for indicators
+     */
+    private int calculateWarmupPeriod(Strategy strategy) {
+        List<Integer> periods = new ArrayList<>();
+
+        // Extract from entry condition
+        periods.addAll(extractPeriods(strategy.getEntry()));
+
+        // Extract from all exit zone conditions
+        for (ExitZone zone : strategy.getExitZones()) {
+            if (zone.exitCondition() != null) {
+                periods.addAll(extractPeriods(zone.exitCondition()));
+            }
+        }
+
+        if (periods.isEmpty()) {
+            return 50; // Default warmup
+        }
+
+        // Return max period + buffer
+        return periods.stream().max(Integer::compareTo).orElse(50) + 10;
+    }
+
+    /**
+     * Extract periods from a DSL expression
+     */
+    private List<Integer> extractPeriods(String expression) {
+        List<Integer> periods = new ArrayList<>();
+
+        Pattern pattern = Pattern.compile("(SMA|EMA|RSI|MACD|BBANDS|HIGH_OF|LOW_OF|AVG_VOLUME|ATR|RANGE_POSITION)\\((\\d+(?:,\\s*\\d+)*)\\)");
+        Matcher matcher = pattern.matcher(expression);
+
+        while (matcher.find()) {
+            String params = matcher.group(2);
+            for (String p : params.split(",")) {
+                try {
+                    periods.add(Integer.parseInt(p.trim()));
+                } catch (NumberFormatException ignored) {}
+            }
+        }
+
+        return periods;
+    }
+
+    /**
+     * Holds parsed exit zone information
+     */
+    private static class ParsedExitZone {
+        ExitZone zone;
+        AstNode exitConditionAst;
+
+        ParsedExitZone(ExitZone zone, AstNode exitConditionAst) {
+            this.zone = zone;
+            this.exitConditionAst = exitConditionAst;
+        }
+    }
+
+    /**
+     * Calculate current P&L percentage for an open trade at a given price
+     */
+    private double calculatePnlPercent(Trade trade, boolean isLong, double currentPrice) {
+        double pnl = (currentPrice - trade.entryPrice()) * trade.quantity();
+        if (!isLong) {
+            pnl = -pnl;
+        }
+        return (pnl / (trade.entryPrice() * trade.quantity())) * 100;
+    }
+
+    /**
+     * Find funding settlement that occurred within a time window.
+     * Funding settlements happen every 8 hours at 00:00, 08:00, 16:00 UTC.
+     *
+     * @param windowStart Start of time window (exclusive)
+     * @param windowEnd   End of time window (inclusive)
+     * @return The funding rate if a settlement occurred in window, null otherwise
+     */
+    private FundingRate findFundingSettlement(long windowStart, long windowEnd) {
+        if (fundingRates == null || fundingRates.isEmpty()) {
+            return null;
+        }
+
+        // Find funding rate where fundingTime is in (windowStart, windowEnd]
+        for (FundingRate fr : fundingRates) {
+            if (fr.fundingTime() > windowStart && fr.fundingTime() <= windowEnd) {
+                return fr;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Calculate funding fee for a position at a funding settlement.
+     *
+     * Formula: fundingFee = quantity × price × fundingRate
+     *
+     * @param rate       The funding rate record
+     * @param quantity   Position size in base asset
+     * @param price      Current market price (used if mark price not available)
+     * @param isLong     True if long position, false if short
+     * @return The funding fee (positive = pay, negative = receive)
+     */
+    private double calculateFundingFee(FundingRate rate, double quantity, double price, boolean isLong) {
+        if (rate == null) {
+            return 0;
+        }
+
+        // Use mark price from funding rate if available, otherwise use current price
+        double markPrice = rate.markPrice() > 0 ? rate.markPrice() : price;
+        double notional = quantity * markPrice;
+        double fee = notional * rate.fundingRate();
+
+        // Long pays positive funding, receives negative funding
+        // Short receives positive funding, pays negative funding
+        return isLong ? fee : -fee;
+    }
+
+    /**
+     * Calculate margin interest for a time period.
+     * Interest accrues hourly on notional value.
+     *
+     * Formula: interest = notionalValue × (hourlyRatePercent / 100) × hoursHeld
+     *
+     * @param notionalValue  Position value in quote currency
+     * @param startTime      Start time in milliseconds
+     * @param endTime        End time in milliseconds
+     * @param marginInterestHourly Hourly interest rate in percent (e.g., 0.00042 = 0.00042%/hr)
+     * @return The interest cost (always positive)
+     */
+    private double calculateMarginInterest(double notionalValue, long startTime, long endTime, double marginInterestHourly) {
+        if (marginInterestHourly <= 0) {
+            return 0;
+        }
+
+        double hoursHeld = (endTime - startTime) / (1000.0 * 60 * 60);
+        if (hoursHeld <= 0) {
+            return 0;
+        }
+
+        // marginInterestHourly is in percent (e.g., 0.00042 means 0.00042%)
+        double hourlyRateDecimal = marginInterestHourly / 100.0;
+        return notionalValue * hourlyRateDecimal * hoursHeld;
+    }
+
+    /**
+     * Calculate proportional holding costs for a partial exit.
+     * For partial exits, we allocate costs proportionally based on quantity exited.
+     *
+     * @param ots       The open trade state
+     * @param exitQty   The quantity being exited
+     * @return The holding costs for this exit, or null if no costs
+     */
+    private Double calculateProportionalHoldingCosts(OpenTradeState ots, double exitQty) {
+        double totalCosts = ots.getAccumulatedHoldingCosts();
+        if (totalCosts == 0) {
+            return null;
+        }
+
+        // Calculate proportion of costs for this exit
+        double proportion = exitQty / ots.remainingQuantity;
+        double exitCosts = totalCosts * proportion;
+
+        // Reduce accumulated costs by the portion we're taking
+        ots.accumulatedHoldingCosts -= exitCosts;
+
+        return exitCosts;
+    }
+
+    /**
+     * Result of better exit context analysis.
+     */
+    private record BetterExitContext(Integer bar, Double price, Double improvement) {}
+
+    /**
+     * Analyze context bars after exit to find if there was a better exit point.
+     * For longs: find highest high within CONTEXT_BARS after exit
+     * For shorts: find lowest low within CONTEXT_BARS after exit
+     *
+     * @param candles The candle data
+     * @param exitBar The bar where trade was exited
+     * @param exitPrice The price at which trade was exited
+     * @param isLong Whether this is a long trade
+     * @return BetterExitContext with bar/price/improvement, or null values if exit was optimal
+     */
+    private BetterExitContext analyzeBetterExit(List<Candle> candles, int exitBar, double exitPrice, boolean isLong) {
+        int contextBars = Trade.CONTEXT_BARS;
+        int endBar = Math.min(candles.size() - 1, exitBar + contextBars);
+
+        if (exitBar >= endBar) {
+            return new BetterExitContext(null, null, null);  // No context bars available after exit
+        }
+
+        double bestPrice = exitPrice;
+        int bestBar = exitBar;
+
+        for (int i = exitBar + 1; i <= endBar; i++) {
+            Candle c = candles.get(i);
+            if (isLong) {
+                // For longs, higher price is better exit
+                if (c.high() > bestPrice) {
+                    bestPrice = c.high();
+                    bestBar = i;
+                }
+            } else {
+                // For shorts, lower price is better exit
+                if (c.low() < bestPrice) {
+                    bestPrice = c.low();
+                    bestBar = i;
+                }
+            }
+        }
+
+        // Only return if we found a better exit
+        if (bestBar != exitBar) {
+            // Calculate improvement: for longs, (better - exit) / exit * 100
+            // For shorts, (exit - better) / exit * 100
+            double improvement;
+            if (isLong) {
+                improvement = ((bestPrice - exitPrice) / exitPrice) * 100;
+            } else {
+                improvement = ((exitPrice - bestPrice) / exitPrice) * 100;
+            }
+            return new BetterExitContext(bestBar, bestPrice, improvement);
+        }
+
+        return new BetterExitContext(null, null, null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.tradery.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Capital account backing one or more backtest sessions.
+ *
+ * A single-symbol backtest owns a private pool. A portfolio backtest shares one pool
+ * across all symbols, so realized P&L, capital tied up in open trades and the
+ * basket-wide position limit apply to every symbol's sizing decisions.
+ */
+public class CapitalPool {
+
+    private final double initialCapital;
+    private final int maxOpenPositions;  // 0 = no basket-wide limit
+    private final List<BacktestSession> sessions = new ArrayList<>();
+    private double equity;
+
+    public CapitalPool(double initialCapital) {
+        this(initialCapital, 0);
+    }
+
+    /**
+     * @param initialCapital Starting equity
+     * @param maxOpenPositions Maximum positions open across all sessions (0 = unlimited)
+     */
+    public CapitalPool(double initialCapital, int maxOpenPositions) {
+        this.initialCapital = initialCapital;
+        this.maxOpenPositions = maxOpenPositions;
+        this.equity = initialCapital;
+    }
+
+    void register(BacktestSession session) {
+        sessions.add(session);
+    }
+
+    public double getInitialCapital() {
+        return initialCapital;
+    }
+
+    /**
+     * Current equity (initial capital plus realized P&L).
+     */
+    public double getEquity() {
+        return equity;
+    }
+
+    /**
+     * Book realized P&L from a closed (or partially closed) trade.
+     */
+    public void realize(double pnl) {
+        equity += pnl;
+    }
+
+    /**
+     * Capital tied up in open trades across all sessions, valued at entry price.
+     */
+    public double getUsedCapital() {
+        double used = 0;
+        for (BacktestSession session : sessions) {
+            used += session.getUsedCapital();
+        }
+        return used;
+    }
+
+    public double getAvailableCapital() {
+        return equity - getUsedCapital();
+    }
+
+    /**
+     * Open positions across all sessions (DCA groups count as one position).
+     */
+    public int getOpenPositions() {
+        int open = 0;
+        for (BacktestSession session : sessions) {
+            open += session.getOpenPositionCount();
+        }
+        return open;
+    }
+
+    /**
+     * Check if the basket-wide position limit allows starting another position.
+     */
+    public boolean hasPositionCapacity() {
+        return maxOpenPositions <= 0 || getOpenPositions() < maxOpenPositions;
+    }
+}
@@ -0,0 +1,150 @@
+package com.tradery.engine;
+
+import com.tradery.core.indicators.IndicatorEngine;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Indicator values captured at trade entry/exit/MFE/MAE bars.
+ *
+ * The set of indicators (keys) is fixed per strategy. Each captured bar becomes one row of
+ * primitives, computed on first request and shared by every trade that references that bar.
+ * Trades receive a read-only Map over the key array and their row; map entries are only
+ * created when it is iterated (UI, JSON export). The maps don't point back to this store,
+ * so finished trades don't keep the indicator engine reachable. NaN values are treated as absent.
+ */
+final class IndicatorSnapshots {
+
+    @FunctionalInterface
+    interface Reader {
+        double read(IndicatorEngine engine, int barIndex);
+    }
+
+    private final IndicatorEngine engine;
+    private final String[] keys;
+    private final Reader[] readers;
+    private Snapshot[] snapshotOfBar;
+    private int rows;
+
+    IndicatorSnapshots(IndicatorEngine engine, Map<String, Reader> layout) {
+        this.engine = engine;
+        this.keys = layout.keySet().toArray(new String[0]);
+        this.readers = layout.values().toArray(new Reader[0]);
+        this.snapshotOfBar = new Snapshot[Math.max(16, engine.getBarCount())];
+    }
+
+    /**
+     * Indicator values at a bar, as a read-only map (e.g., "RSI(14)" -> 28.5).
+     */
+    Map<String, Double> at(int barIndex) {
+        if (barIndex < 0) {
+            return Map.of();
+        }
+        if (barIndex >= snapshotOfBar.length) {
+            snapshotOfBar = Arrays.copyOf(snapshotOfBar, Math.max(barIndex + 1, snapshotOfBar.length * 2));
+        }
+        Snapshot snapshot = snapshotOfBar[barIndex];
+        if (snapshot == null) {
+            snapshot = capture(barIndex);
+            snapshotOfBar[barIndex] = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Number of distinct bars captured so far.
+     */
+    int capturedBars() {
+        return rows;
+    }
+
+    private Snapshot capture(int barIndex) {
+        double[] values = new double[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            values[k] = readers[k].read(engine, barIndex);
+        }
+        rows++;
+        return new Snapshot(keys, values);
+    }
+
+    /**
+     * Read-only map over the shared key array and one captured row.
+     */
+    private static final class Snapshot extends AbstractMap<String, Double> {
+        private final String[] keys;
+        private final double[] values;
+
+        Snapshot(String[] keys, double[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Override
+        public Double get(Object key) {
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k].equals(key)) {
+                    double v = values[k];
+                    return Double.isNaN(v) ? null : v;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<String, Double>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Double>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            int k = from;
+                            while (k < keys.length && Double.isNaN(values[k])) {
+                                k++;
+                            }
+                            return k;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Double> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Double> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+                            next = advance(next + 1);
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int count = 0;
+                    for (double v : values) {
+                        if (!Double.isNaN(v)) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }
+            };
+        }
+    }
+}
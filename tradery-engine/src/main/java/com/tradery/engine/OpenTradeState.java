@@ -12,6 +12,7 @@ import java.util.Map;
  */
 public class OpenTradeState {
     Trade trade;
+    final boolean isLong;                 // Trade side, resolved once at entry
     double highestPriceSinceEntry;
     double lowestPriceSinceEntry;  // For MAE tracking
     double trailingStopPrice;
@@ -47,6 +48,7 @@ public class OpenTradeState {
 
     public OpenTradeState(Trade trade, double entryPrice, List<String> activePhasesAtEntry) {
         this.trade = trade;
+        this.isLong = "long".equalsIgnoreCase(trade.side());
         this.highestPriceSinceEntry = entryPrice;
         this.lowestPriceSinceEntry = entryPrice;
         this.trailingStopPrice = 0;
@@ -68,6 +70,36 @@ public class OpenTradeState {
         this.lastInterestTime = trade.entryTime();
     }
 
+    /**
+     * Create an independent copy of this state (for backtest checkpoints).
+     */
+    public OpenTradeState copy() {
+        OpenTradeState copy = new OpenTradeState(trade, trade.entryPrice(), activePhasesAtEntry);
+        copy.highestPriceSinceEntry = highestPriceSinceEntry;
+        copy.lowestPriceSinceEntry = lowestPriceSinceEntry;
+        copy.trailingStopPrice = trailingStopPrice;
+        copy.exitReason = exitReason;
+        copy.exitPrice = exitPrice;
+        copy.exitZone = exitZone;
+        copy.matchedZone = matchedZone;
+        copy.originalQuantity = originalQuantity;
+        copy.remainingQuantity = remainingQuantity;
+        copy.zoneExitCount = new HashMap<>(zoneExitCount);
+        copy.lastZoneName = lastZoneName;
+        copy.lastExitBar = lastExitBar;
+        copy.mfePercent = mfePercent;
+        copy.maePercent = maePercent;
+        copy.mfeBar = mfeBar;
+        copy.maeBar = maeBar;
+        copy.accumulatedHoldingCosts = accumulatedHoldingCosts;
+        copy.lastFundingTime = lastFundingTime;
+        copy.lastInterestTime = lastInterestTime;
+        copy.betterEntryBar = betterEntryBar;
+        copy.betterEntryPrice = betterEntryPrice;
+        copy.betterEntryImprovement = betterEntryImprovement;
+        return copy;
+    }
+
     /**
      * Update MFE/MAE tracking based on current bar's price action.
      * Call this at the start of each bar while trade is open.
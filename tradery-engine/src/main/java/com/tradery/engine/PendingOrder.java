@@ -51,6 +51,24 @@ public class PendingOrder {
         this.expirationBar = expirationBars != null ? signalBar + expirationBars : null;
     }
 
+    private PendingOrder(PendingOrder other) {
+        this.signalBar = other.signalBar;
+        this.signalPrice = other.signalPrice;
+        this.orderPrice = other.orderPrice;
+        this.trailPrice = other.trailPrice;
+        this.orderType = other.orderType;
+        this.expirationBar = other.expirationBar;
+        this.trailingReversePercent = other.trailingReversePercent;
+        this.isLong = other.isLong;
+    }
+
+    /**
+     * Create an independent copy of this order (for backtest checkpoints).
+     */
+    public PendingOrder copy() {
+        return new PendingOrder(this);
+    }
+
     /**
      * Check if this order has expired.
      */
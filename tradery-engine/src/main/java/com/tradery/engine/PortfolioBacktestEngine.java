@@ -0,0 +1,301 @@
+package com.tradery.engine;
+
+import com.tradery.core.model.BacktestConfig;
+import com.tradery.core.model.BacktestResult;
+import com.tradery.core.model.EquitySeries;
+import com.tradery.core.model.Strategy;
+import com.tradery.core.model.Trade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs one strategy over a basket of symbols against a shared capital pool.
+ *
+ * Each symbol gets its own {@link BacktestEngine} (and indicator engine). The symbols' bar
+ * streams are merged by timestamp through a priority queue of per-symbol cursors, so the
+ * combined timeline is never materialized: beyond each symbol's own context, memory grows
+ * by one equity point per timestamp and the trades. For every timestamp slice the entry
+ * conditions of all symbols with a bar at that time are evaluated in parallel, then the
+ * sessions are stepped sequentially in basket order so capital and position limits are
+ * applied deterministically.
+ */
+public class PortfolioBacktestEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioBacktestEngine.class);
+
+    private final int parallelism;
+
+    public PortfolioBacktestEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Number of worker threads for indicator setup and condition evaluation
+     */
+    public PortfolioBacktestEngine(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Run a portfolio backtest.
+     *
+     * @param strategy The strategy to run on every symbol
+     * @param config Shared configuration; initialCapital is the basket's capital pool, symbol is ignored
+     * @param contexts Per-symbol contexts (symbol -> context), iteration order is the basket order
+     * @param maxOpenPositions Maximum positions open across the basket (0 = only the strategy's per-symbol limit)
+     * @param onProgress Progress callback
+     * @return Portfolio result with per-symbol breakdowns
+     */
+    public PortfolioBacktestResult run(
+            Strategy strategy,
+            BacktestConfig config,
+            Map<String, BacktestContext> contexts,
+            int maxOpenPositions,
+            Consumer<BacktestEngine.Progress> onProgress
+    ) {
+        long startTime = System.currentTimeMillis();
+        List<String> symbols = new ArrayList<>(contexts.keySet());
+        CapitalPool capital = new CapitalPool(config.initialCapital(), maxOpenPositions);
+        List<String> errors = new ArrayList<>();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, symbols.size())), r -> {
+            Thread t = new Thread(r, "PortfolioBacktest-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            // Initialize every symbol's indicator engine in parallel
+            if (onProgress != null) {
+                onProgress.accept(new BacktestEngine.Progress(0, symbols.size(), 0, "Initializing indicators..."));
+            }
+            List<BacktestEngine> engines = new ArrayList<>();
+            List<Callable<Void>> setupTasks = new ArrayList<>();
+            for (String symbol : symbols) {
+                BacktestEngine engine = new BacktestEngine();
+                engines.add(engine);
+                BacktestConfig symbolConfig = forSymbol(config, symbol);
+                BacktestContext context = contexts.get(symbol);
+                setupTasks.add(() -> {
+                    engine.prepare(symbolConfig, context, null);
+                    return null;
+                });
+            }
+            invokeAll(executor, setupTasks);
+
+            // Open sessions sequentially so the capital pool sees them in basket order
+            if (onProgress != null) {
+                onProgress.accept(new BacktestEngine.Progress(0, symbols.size(), 0, "Parsing strategy..."));
+            }
+            Map<String, BacktestSession> sessions = new LinkedHashMap<>();
+            for (int s = 0; s < symbols.size(); s++) {
+                String symbol = symbols.get(s);
+                try {
+                    sessions.put(symbol, engines.get(s).openSession(
+                        strategy, forSymbol(config, symbol), contexts.get(symbol), capital));
+                } catch (IllegalArgumentException e) {
+                    // Same strategy on every symbol - a parse error fails the whole basket
+                    return errorResult(strategy, config, symbols, startTime, e.getMessage());
+                }
+            }
+
+            // One cursor per symbol, ordered by timestamp then basket order
+            PriorityQueue<Cursor> queue = new PriorityQueue<>(
+                Comparator.comparingLong(Cursor::timestamp).thenComparingInt(c -> c.order));
+            int totalBars = 0;
+            int order = 0;
+            for (BacktestSession session : sessions.values()) {
+                int warmup = session.getWarmupBars();
+                int size = session.getCandles().size();
+                if (warmup < size) {
+                    queue.add(new Cursor(session, order, warmup));
+                    totalBars += size - warmup;
+                }
+                order++;
+            }
+
+            if (onProgress != null) {
+                onProgress.accept(new BacktestEngine.Progress(0, totalBars, 0, "Running portfolio backtest..."));
+            }
+
+            // Basket equity and exposure after each timestamp slice
+            EquitySeries.Builder equityCurve = new EquitySeries.Builder(totalBars / Math.max(1, sessions.size()));
+            int processed = 0;
+            int nextProgress = 0;
+            List<Cursor> slice = new ArrayList<>(sessions.size());
+            List<Callable<Void>> evalTasks = new ArrayList<>(sessions.size());
+            while (!queue.isEmpty()) {
+                long timestamp = queue.peek().timestamp();
+                slice.clear();
+                while (!queue.isEmpty() && queue.peek().timestamp() == timestamp) {
+                    slice.add(queue.poll());
+                }
+
+                // Evaluate entry conditions of the whole slice in parallel (read-only per symbol)
+                if (slice.size() > 1) {
+                    evalTasks.clear();
+                    for (Cursor cursor : slice) {
+                        BacktestSession session = cursor.session;
+                        int bar = cursor.bar;
+                        evalTasks.add(() -> {
+                            session.precomputeEntrySignal(bar);
+                            return null;
+                        });
+                    }
+                    invokeAll(executor, evalTasks);
+                }
+
+                // Step sequentially - these mutate the shared capital pool
+                for (Cursor cursor : slice) {
+                    cursor.session.step(cursor.bar);
+                    cursor.bar++;
+                }
+                equityCurve.add(timestamp, capital.getEquity(), capital.getUsedCapital());
+
+                // Close out symbols at their last bar only after the whole slice stepped, so
+                // capital and position slots they free aren't used by others on the same bar
+                boolean finished = false;
+                for (Cursor cursor : slice) {
+                    if (cursor.bar < cursor.session.getCandles().size()) {
+                        queue.add(cursor);
+                    } else {
+                        cursor.session.finish();
+                        finished = true;
+                    }
+                }
+                if (finished) {
+                    // Positions were open during this slice: keep its exposure
+                    equityCurve.updateLastEquity(capital.getEquity());
+                }
+
+                processed += slice.size();
+                if (processed >= nextProgress) {
+                    nextProgress = processed + 500;
+                    if (onProgress != null) {
+                        int percentage = totalBars > 0 ? (int) ((double) processed / totalBars * 100) : 100;
+                        onProgress.accept(new BacktestEngine.Progress(processed, totalBars, percentage,
+                            "Processing bar " + processed + " of " + totalBars));
+                    }
+                }
+            }
+
+            if (onProgress != null) {
+                onProgress.accept(new BacktestEngine.Progress(totalBars, totalBars, 100, "Calculating metrics..."));
+            }
+
+            // Per-symbol breakdowns
+            Map<String, BacktestResult> symbolResults = new LinkedHashMap<>();
+            List<Trade> allTrades = new ArrayList<>();
+            LinkedHashSet<String> warnings = new LinkedHashSet<>();
+            for (Map.Entry<String, BacktestSession> entry : sessions.entrySet()) {
+                String symbol = entry.getKey();
+                BacktestSession session = entry.getValue();
+                int bars = Math.max(0, session.getCandles().size() - session.getWarmupBars());
+                // Session equity is the whole pool's, so per-symbol results carry no curve
+                symbolResults.put(symbol, BacktestEngine.buildResult(
+                    strategy, session.getConfig(), session.getTrades(), null, startTime, bars,
+                    session.getErrors(), session.getWarnings()));
+                allTrades.addAll(session.getTrades());
+                for (String error : session.getErrors()) {
+                    errors.add(symbol + ": " + error);
+                }
+                warnings.addAll(session.getWarnings());
+            }
+
+            // Portfolio equity is realized in time order across symbols
+            allTrades.sort(Comparator.comparingLong(PortfolioBacktestEngine::realizedAt));
+
+            BacktestResult portfolio = BacktestEngine.buildResult(
+                strategy, forSymbol(config, String.join(",", symbols)), allTrades, equityCurve.build(), startTime,
+                totalBars, errors, new ArrayList<>(warnings));
+
+            log.info("Portfolio backtest: {} symbols, {} bars, {} trades in {}ms",
+                symbols.size(), totalBars, allTrades.size(), System.currentTimeMillis() - startTime);
+
+            return new PortfolioBacktestResult(portfolio, symbolResults);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long realizedAt(Trade trade) {
+        return trade.exitTime() != null ? trade.exitTime() : trade.entryTime();
+    }
+
+    private static BacktestConfig forSymbol(BacktestConfig config, String symbol) {
+        return new BacktestConfig(
+            symbol,
+            config.resolution(),
+            config.startDate(),
+            config.endDate(),
+            config.initialCapital(),
+            config.positionSizingType(),
+            config.positionSizingValue(),
+            config.commission(),
+            config.marketType(),
+            config.marginInterestHourly()
+        );
+    }
+
+    private PortfolioBacktestResult errorResult(Strategy strategy, BacktestConfig config,
+                                                List<String> symbols, long startTime, String error) {
+        Map<String, BacktestResult> symbolResults = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            symbolResults.put(symbol, BacktestEngine.createErrorResult(strategy, forSymbol(config, symbol), startTime, error));
+        }
+        BacktestResult portfolio = BacktestEngine.createErrorResult(
+            strategy, forSymbol(config, String.join(",", symbols)), startTime, error);
+        return new PortfolioBacktestResult(portfolio, symbolResults);
+    }
+
+    /**
+     * Run tasks on the executor and wait for all of them, rethrowing the first failure.
+     */
+    private static void invokeAll(ExecutorService executor, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Portfolio backtest interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Portfolio backtest task failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Read position of one symbol's bar stream.
+     */
+    private static class Cursor {
+        final BacktestSession session;
+        final int order;
+        int bar;
+
+        Cursor(BacktestSession session, int order, int bar) {
+            this.session = session;
+            this.order = order;
+            this.bar = bar;
+        }
+
+        long timestamp() {
+            return session.getCandles().get(bar).timestamp();
+        }
+    }
+}
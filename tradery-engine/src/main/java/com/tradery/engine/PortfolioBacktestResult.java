@@ -0,0 +1,24 @@
+package com.tradery.engine;
+
+import com.tradery.core.model.BacktestResult;
+
+import java.util.Map;
+
+/**
+ * Result of a portfolio backtest.
+ *
+ * @param portfolio     Basket-level result: all trades of all symbols in realization order,
+ *                      metrics computed against the shared initial capital
+ * @param symbolResults Per-symbol breakdown (symbol -> result), in basket order
+ */
+public record PortfolioBacktestResult(
+    BacktestResult portfolio,
+    Map<String, BacktestResult> symbolResults
+) {
+    /**
+     * Get the result for one symbol of the basket, or null if the symbol was not part of it.
+     */
+    public BacktestResult forSymbol(String symbol) {
+        return symbolResults.get(symbol);
+    }
+}
@@ -0,0 +1,146 @@
+package com.tradery.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Open trades of a backtest session with position bookkeeping maintained incrementally.
+ *
+ * Open-position and per-group leg counts (DCA entries share a group) are updated when
+ * trades are added or removed, so per-bar checks don't scan open trades. The scratch
+ * lists used for a bar's exit processing are reused across bars.
+ */
+final class PositionBook {
+
+    private static final int MAX_PRESIZE = 256;
+
+    private final ArrayList<OpenTradeState> open;
+    private final List<OpenTradeState> openView;
+    private final Map<String, int[]> legsByGroup = new HashMap<>();
+    private int positions;
+
+    private final ArrayList<OpenTradeState> toClose;
+    private final ArrayList<OpenTradeState> fullyClosed;
+    private final ArrayList<OpenTradeState> aborted;
+
+    PositionBook(int expectedLegs) {
+        int capacity = Math.max(4, Math.min(expectedLegs, MAX_PRESIZE));
+        this.open = new ArrayList<>(capacity);
+        this.openView = Collections.unmodifiableList(open);
+        this.toClose = new ArrayList<>(capacity);
+        this.fullyClosed = new ArrayList<>(capacity);
+        this.aborted = new ArrayList<>(capacity);
+    }
+
+    int size() {
+        return open.size();
+    }
+
+    boolean isEmpty() {
+        return open.isEmpty();
+    }
+
+    OpenTradeState get(int index) {
+        return open.get(index);
+    }
+
+    /**
+     * Read-only view of open trades, in entry order.
+     */
+    List<OpenTradeState> trades() {
+        return openView;
+    }
+
+    void add(OpenTradeState ots) {
+        open.add(ots);
+        int[] legs = legsByGroup.get(ots.trade.groupId());
+        if (legs == null) {
+            legsByGroup.put(ots.trade.groupId(), new int[] { 1 });
+            positions++;
+        } else {
+            legs[0]++;
+        }
+    }
+
+    boolean remove(OpenTradeState ots) {
+        if (!open.remove(ots)) {
+            return false;
+        }
+        String groupId = ots.trade.groupId();
+        int[] legs = legsByGroup.get(groupId);
+        if (legs != null && --legs[0] <= 0) {
+            legsByGroup.remove(groupId);
+            positions--;
+        }
+        return true;
+    }
+
+    void clear() {
+        open.clear();
+        legsByGroup.clear();
+        positions = 0;
+    }
+
+    /**
+     * Number of open positions (trades with same groupId count as one position).
+     */
+    int positionCount() {
+        return positions;
+    }
+
+    /**
+     * Number of open trades (DCA legs) in a group, 0 if the group is null or closed.
+     */
+    int legsInGroup(String groupId) {
+        if (groupId == null) {
+            return 0;
+        }
+        int[] legs = legsByGroup.get(groupId);
+        return legs != null ? legs[0] : 0;
+    }
+
+    /**
+     * Capital tied up in open trades, valued at entry price.
+     */
+    double usedCapital() {
+        double used = 0;
+        for (int i = 0; i < open.size(); i++) {
+            OpenTradeState ots = open.get(i);
+            used += ots.trade.entryPrice() * ots.remainingQuantity;
+        }
+        return used;
+    }
+
+    /**
+     * Reset the per-bar scratch lists.
+     */
+    void beginBar() {
+        toClose.clear();
+        fullyClosed.clear();
+        aborted.clear();
+    }
+
+    /**
+     * Scratch list of trades marked for exit on the current bar.
+     */
+    List<OpenTradeState> toClose() {
+        return toClose;
+    }
+
+    /**
+     * Scratch list of trades fully closed on the current bar.
+     */
+    List<OpenTradeState> fullyClosed() {
+        return fullyClosed;
+    }
+
+    /**
+     * Scratch list of DCA legs aborted on the current bar because the entry signal was lost.
+     */
+    List<OpenTradeState> aborted() {
+        return aborted;
+    }
+}
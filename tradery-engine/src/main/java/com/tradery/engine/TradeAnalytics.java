@@ -1,13 +1,13 @@
 package com.tradery.engine;
 
+import com.tradery.core.dsl.AstNode;
+import com.tradery.core.dsl.Parser;
 import com.tradery.core.indicators.IndicatorEngine;
 import com.tradery.core.model.Candle;
 import com.tradery.core.model.ExitZone;
 import com.tradery.core.model.Strategy;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Extracts indicator values at specific bars for trade analytics.
@@ -42,149 +42,156 @@ public class TradeAnalytics {
     /**
      * Extract indicator values at a given bar based on indicators used in DSL expressions.
      * Parses the entry/exit conditions to find indicator references and captures their values.
+     * Backtests should use {@link #snapshots(Strategy)} once per run instead.
      *
      * @param strategy Strategy containing DSL expressions
      * @param barIndex Bar index to extract values at
      * @return Map of indicator name to value
      */
     public Map<String, Double> getIndicatorValuesAtBar(Strategy strategy, int barIndex) {
-        Map<String, Double> values = new HashMap<>();
+        return snapshots(strategy).at(barIndex);
+    }
+
+    /**
+     * Create a snapshot store for a strategy. Indicator references are extracted once from the
+     * parsed entry/exit conditions; values are captured per bar on demand.
+     */
+    IndicatorSnapshots snapshots(Strategy strategy) {
+        Map<String, IndicatorSnapshots.Reader> layout = new LinkedHashMap<>();
 
-        // Collect all DSL expressions to analyze
-        StringBuilder allExpressions = new StringBuilder();
+        // Indicators referenced in DSL expressions
+        List<String> expressions = new ArrayList<>();
         if (strategy.getEntry() != null) {
-            allExpressions.append(strategy.getEntry()).append(" ");
+            expressions.add(strategy.getEntry());
         }
         for (ExitZone zone : strategy.getExitZones()) {
             if (zone.exitCondition() != null) {
-                allExpressions.append(zone.exitCondition()).append(" ");
+                expressions.add(zone.exitCondition());
+            }
+        }
+        Parser parser = new Parser();
+        for (String expression : expressions) {
+            if (expression.isBlank()) continue;
+            Parser.ParseResult result = parser.parse(expression);
+            if (result.success()) {
+                collectIndicators(result.ast(), layout);
             }
         }
-
-        String expr = allExpressions.toString();
-
-        // Extract single-parameter indicators
-        extractSimpleIndicator(expr, barIndex, values, "SMA", indicatorEngine::getSMAAt);
-        extractSimpleIndicator(expr, barIndex, values, "EMA", indicatorEngine::getEMAAt);
-        extractSimpleIndicator(expr, barIndex, values, "RSI", indicatorEngine::getRSIAt);
-        extractSimpleIndicator(expr, barIndex, values, "ATR", indicatorEngine::getATRAt);
-
-        // Extract multi-value indicators
-        extractADXIndicators(expr, barIndex, values);
-        extractMACDIndicators(expr, barIndex, values);
-        extractBBandsIndicators(expr, barIndex, values);
 
         // Always add context indicators for AI analysis
-        addContextIndicators(barIndex, values);
+        addContextIndicators(layout);
 
         // Always include price for context
-        Candle candle = indicatorEngine.getCandleAt(barIndex);
-        if (candle != null) {
-            values.put("price", candle.close());
-            values.put("volume", candle.volume());
-        }
+        layout.putIfAbsent("price", (e, bar) -> candleValue(e, bar, true));
+        layout.putIfAbsent("volume", (e, bar) -> candleValue(e, bar, false));
 
-        return values;
+        return new IndicatorSnapshots(indicatorEngine, layout);
+    }
+
+    private static double candleValue(IndicatorEngine engine, int barIndex, boolean close) {
+        Candle candle = engine.getCandleAt(barIndex);
+        if (candle == null) return Double.NaN;
+        return close ? candle.close() : candle.volume();
     }
 
     /**
      * Add standard context indicators for AI analysis.
      * These are always captured regardless of what's in the DSL conditions.
      */
-    private void addContextIndicators(int barIndex, Map<String, Double> values) {
+    private void addContextIndicators(Map<String, IndicatorSnapshots.Reader> layout) {
         // Volatility context
-        double atr14 = indicatorEngine.getATRAt(14, barIndex);
-        if (!Double.isNaN(atr14)) values.putIfAbsent("ATR(14)", atr14);
+        layout.putIfAbsent("ATR(14)", (e, bar) -> e.getATRAt(14, bar));
 
         // Trend context - short and long term
-        double sma50 = indicatorEngine.getSMAAt(50, barIndex);
-        double sma200 = indicatorEngine.getSMAAt(200, barIndex);
-        if (!Double.isNaN(sma50)) values.putIfAbsent("SMA(50)", sma50);
-        if (!Double.isNaN(sma200)) values.putIfAbsent("SMA(200)", sma200);
+        layout.putIfAbsent("SMA(50)", (e, bar) -> e.getSMAAt(50, bar));
+        layout.putIfAbsent("SMA(200)", (e, bar) -> e.getSMAAt(200, bar));
 
         // Momentum context
-        double rsi14 = indicatorEngine.getRSIAt(14, barIndex);
-        if (!Double.isNaN(rsi14)) values.putIfAbsent("RSI(14)", rsi14);
+        layout.putIfAbsent("RSI(14)", (e, bar) -> e.getRSIAt(14, bar));
 
         // Trend strength
-        double adx14 = indicatorEngine.getADXAt(14, barIndex);
-        if (!Double.isNaN(adx14)) values.putIfAbsent("ADX(14)", adx14);
+        layout.putIfAbsent("ADX(14)", (e, bar) -> e.getADXAt(14, bar));
 
         // Volume context
-        double avgVol20 = indicatorEngine.getAvgVolumeAt(20, barIndex);
-        if (!Double.isNaN(avgVol20)) values.putIfAbsent("AVG_VOLUME(20)", avgVol20);
+        layout.putIfAbsent("AVG_VOLUME(20)", (e, bar) -> e.getAvgVolumeAt(20, bar));
     }
 
     /**
-     * Generic extraction for single-parameter indicators (SMA, EMA, RSI, ATR).
+     * Walk an AST and register readers for the indicators it references.
      */
-    private void extractSimpleIndicator(String expr, int barIndex, Map<String, Double> values,
-                                        String indicatorName, java.util.function.BiFunction<Integer, Integer, Double> evaluator) {
-        Pattern pattern = Pattern.compile(indicatorName + "\\((\\d+)\\)");
-        Matcher matcher = pattern.matcher(expr);
-        while (matcher.find()) {
-            int period = Integer.parseInt(matcher.group(1));
-            String key = indicatorName + "(" + period + ")";
-            if (!values.containsKey(key)) {
-                double value = evaluator.apply(period, barIndex);
-                if (!Double.isNaN(value)) {
-                    values.put(key, value);
+    private void collectIndicators(AstNode node, Map<String, IndicatorSnapshots.Reader> layout) {
+        switch (node) {
+            case AstNode.Comparison c -> {
+                collectIndicators(c.left(), layout);
+                collectIndicators(c.right(), layout);
+            }
+            case AstNode.CrossComparison c -> {
+                collectIndicators(c.left(), layout);
+                collectIndicators(c.right(), layout);
+            }
+            case AstNode.LogicalExpression l -> {
+                collectIndicators(l.left(), layout);
+                collectIndicators(l.right(), layout);
+            }
+            case AstNode.ArithmeticExpression a -> {
+                collectIndicators(a.left(), layout);
+                collectIndicators(a.right(), layout);
+            }
+            case AstNode.PropertyAccess p -> collectIndicators(p.object(), layout);
+            case AstNode.AggregateFunctionCall a -> collectIndicators(a.expression(), layout);
+            case AstNode.LookbackAccess l -> collectIndicators(l.expression(), layout);
+            case AstNode.MathFunctionCall m -> {
+                for (AstNode arg : m.args()) {
+                    collectIndicators(arg, layout);
                 }
             }
+            case AstNode.IndicatorCall call -> addIndicator(call, layout);
+            default -> { }
         }
     }
 
-    private void extractADXIndicators(String expr, int barIndex, Map<String, Double> values) {
-        Pattern pattern = Pattern.compile("(ADX|PLUS_DI|MINUS_DI)\\((\\d+)\\)");
-        Matcher matcher = pattern.matcher(expr);
-        Set<Integer> periods = new HashSet<>();
-        while (matcher.find()) {
-            periods.add(Integer.parseInt(matcher.group(2)));
-        }
-        for (int period : periods) {
-            double adx = indicatorEngine.getADXAt(period, barIndex);
-            double plusDi = indicatorEngine.getPlusDIAt(period, barIndex);
-            double minusDi = indicatorEngine.getMinusDIAt(period, barIndex);
-            if (!Double.isNaN(adx)) values.put("ADX(" + period + ")", adx);
-            if (!Double.isNaN(plusDi)) values.put("PLUS_DI(" + period + ")", plusDi);
-            if (!Double.isNaN(minusDi)) values.put("MINUS_DI(" + period + ")", minusDi);
-        }
-    }
-
-    private void extractMACDIndicators(String expr, int barIndex, Map<String, Double> values) {
-        Pattern pattern = Pattern.compile("MACD\\((\\d+)\\s*,\\s*(\\d+)\\s*,\\s*(\\d+)\\)");
-        Matcher matcher = pattern.matcher(expr);
-        while (matcher.find()) {
-            int fast = Integer.parseInt(matcher.group(1));
-            int slow = Integer.parseInt(matcher.group(2));
-            int signal = Integer.parseInt(matcher.group(3));
-            String prefix = "MACD(" + fast + "," + slow + "," + signal + ")";
-            if (!values.containsKey(prefix + ".line")) {
-                double line = indicatorEngine.getMACDLineAt(fast, slow, signal, barIndex);
-                double sig = indicatorEngine.getMACDSignalAt(fast, slow, signal, barIndex);
-                double hist = indicatorEngine.getMACDHistogramAt(fast, slow, signal, barIndex);
-                if (!Double.isNaN(line)) values.put(prefix + ".line", line);
-                if (!Double.isNaN(sig)) values.put(prefix + ".signal", sig);
-                if (!Double.isNaN(hist)) values.put(prefix + ".histogram", hist);
+    private void addIndicator(AstNode.IndicatorCall call, Map<String, IndicatorSnapshots.Reader> layout) {
+        List<Double> params = call.params();
+        switch (call.indicator()) {
+            case "SMA", "EMA", "RSI", "ATR" -> {
+                if (params.isEmpty()) return;
+                int period = params.get(0).intValue();
+                String key = call.indicator() + "(" + period + ")";
+                IndicatorSnapshots.Reader reader = switch (call.indicator()) {
+                    case "SMA" -> (e, bar) -> e.getSMAAt(period, bar);
+                    case "EMA" -> (e, bar) -> e.getEMAAt(period, bar);
+                    case "RSI" -> (e, bar) -> e.getRSIAt(period, bar);
+                    default -> (e, bar) -> e.getATRAt(period, bar);
+                };
+                layout.putIfAbsent(key, reader);
             }
-        }
-    }
-
-    private void extractBBandsIndicators(String expr, int barIndex, Map<String, Double> values) {
-        Pattern pattern = Pattern.compile("BBANDS\\((\\d+)\\s*,\\s*([\\d.]+)\\)");
-        Matcher matcher = pattern.matcher(expr);
-        while (matcher.find()) {
-            int period = Integer.parseInt(matcher.group(1));
-            double stdDev = Double.parseDouble(matcher.group(2));
-            String prefix = "BBANDS(" + period + "," + (int) stdDev + ")";
-            if (!values.containsKey(prefix + ".upper")) {
-                double upper = indicatorEngine.getBollingerUpperAt(period, stdDev, barIndex);
-                double middle = indicatorEngine.getBollingerMiddleAt(period, stdDev, barIndex);
-                double lower = indicatorEngine.getBollingerLowerAt(period, stdDev, barIndex);
-                if (!Double.isNaN(upper)) values.put(prefix + ".upper", upper);
-                if (!Double.isNaN(middle)) values.put(prefix + ".middle", middle);
-                if (!Double.isNaN(lower)) values.put(prefix + ".lower", lower);
+            case "ADX", "PLUS_DI", "MINUS_DI" -> {
+                if (params.isEmpty()) return;
+                int period = params.get(0).intValue();
+                layout.putIfAbsent("ADX(" + period + ")", (e, bar) -> e.getADXAt(period, bar));
+                layout.putIfAbsent("PLUS_DI(" + period + ")", (e, bar) -> e.getPlusDIAt(period, bar));
+                layout.putIfAbsent("MINUS_DI(" + period + ")", (e, bar) -> e.getMinusDIAt(period, bar));
+            }
+            case "MACD" -> {
+                if (params.size() < 3) return;
+                int fast = params.get(0).intValue();
+                int slow = params.get(1).intValue();
+                int signal = params.get(2).intValue();
+                String prefix = "MACD(" + fast + "," + slow + "," + signal + ")";
+                layout.putIfAbsent(prefix + ".line", (e, bar) -> e.getMACDLineAt(fast, slow, signal, bar));
+                layout.putIfAbsent(prefix + ".signal", (e, bar) -> e.getMACDSignalAt(fast, slow, signal, bar));
+                layout.putIfAbsent(prefix + ".histogram", (e, bar) -> e.getMACDHistogramAt(fast, slow, signal, bar));
+            }
+            case "BBANDS" -> {
+                if (params.size() < 2) return;
+                int period = params.get(0).intValue();
+                double stdDev = params.get(1);
+                String prefix = "BBANDS(" + period + "," + (int) stdDev + ")";
+                layout.putIfAbsent(prefix + ".upper", (e, bar) -> e.getBollingerUpperAt(period, stdDev, bar));
+                layout.putIfAbsent(prefix + ".middle", (e, bar) -> e.getBollingerMiddleAt(period, stdDev, bar));
+                layout.putIfAbsent(prefix + ".lower", (e, bar) -> e.getBollingerLowerAt(period, stdDev, bar));
             }
+            default -> { }
         }
     }
 }
@@ -0,0 +1,145 @@
+package com.tradery.engine;
+
+import com.tradery.core.model.BacktestConfig;
+import com.tradery.core.model.BacktestResult;
+import com.tradery.core.model.Candle;
+import com.tradery.core.model.ExitZone;
+import com.tradery.core.model.MarketType;
+import com.tradery.core.model.PositionSizingType;
+import com.tradery.core.model.Strategy;
+import com.tradery.core.model.TakeProfitType;
+import com.tradery.core.model.Trade;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PortfolioBacktestEngine's shared capital pool.
+ */
+class PortfolioBacktestEngineTest {
+
+    private static final double CAPITAL = 100_000;
+    private static final long START = 1_600_000_000_000L;
+    private static final long HOUR = 3_600_000L;
+    private static final int BARS = 100;  // Strategies without indicators warm up for 50 bars
+
+    @Test
+    @DisplayName("Second symbol is rejected when the first holds most of the shared capital")
+    void sharedCapitalLimitsSecondSymbol() {
+        Strategy strategy = holdForever();
+        BacktestConfig config = config(60);
+
+        PortfolioBacktestResult result = new PortfolioBacktestEngine(2)
+            .run(strategy, config, basket(), 0, null);
+
+        // First in basket order takes 60% of equity; 60% more doesn't fit in the remaining 40%
+        assertEquals(1, filled(result.forSymbol("AAAUSDT")).size());
+        assertEquals(60_000, filled(result.forSymbol("AAAUSDT")).getFirst().value(), 1e-6);
+        assertTrue(filled(result.forSymbol("BBBUSDT")).isEmpty());
+        assertFalse(result.forSymbol("BBBUSDT").trades().isEmpty(), "entries should be recorded as rejected");
+
+        // On its own, the second symbol has all the capital and enters
+        BacktestResult alone = new BacktestEngine().run(strategy, config, candles(100, BARS), null);
+        assertEquals(1, filled(alone).size());
+    }
+
+    @Test
+    @DisplayName("Both symbols enter when their positions fit in the shared capital")
+    void bothSymbolsEnterWhenCapitalAllows() {
+        PortfolioBacktestResult result = new PortfolioBacktestEngine(2)
+            .run(holdForever(), config(40), basket(), 0, null);
+
+        assertEquals(1, filled(result.forSymbol("AAAUSDT")).size());
+        assertEquals(1, filled(result.forSymbol("BBBUSDT")).size());
+        assertEquals(2, filled(result.portfolio()).size());
+        // Basket exposure: both positions are open at the end
+        double[] exposure = result.portfolio().equityCurve().exposure();
+        assertEquals(80_000, exposure[exposure.length - 1], 1e-6);
+    }
+
+    @Test
+    @DisplayName("Basket-wide position limit applies across symbols")
+    void basketPositionLimit() {
+        PortfolioBacktestResult result = new PortfolioBacktestEngine(2)
+            .run(holdForever(), config(10), basket(), 1, null);
+
+        assertEquals(1, filled(result.forSymbol("AAAUSDT")).size());
+        assertTrue(result.forSymbol("BBBUSDT").trades().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Profits realized on one symbol size the next entry on the other")
+    void realizedProfitIsShared() {
+        Strategy strategy = new Strategy("portfolio-test", "Portfolio test", "", "close > 0", true);
+        strategy.setMaxOpenTrades(1);
+        strategy.setExitZones(List.of(ExitZone.builder("Default")
+            .takeProfit(TakeProfitType.FIXED_PERCENT, 10.0)
+            .build()));
+
+        // AAA enters on bar 50 and jumps 20% on bar 55, taking profit; BBB starts 10 bars
+        // later, so its first entry comes after that
+        List<Candle> aaa = new ArrayList<>();
+        for (int i = 0; i < BARS; i++) {
+            double price = i < 55 ? 100 : 120;
+            aaa.add(new Candle(START + i * HOUR, price, price, price, price, 1000));
+        }
+        List<Candle> bbb = new ArrayList<>();
+        for (int i = 10; i < BARS; i++) {
+            bbb.add(new Candle(START + i * HOUR, 100, 100, 100, 100, 1000));
+        }
+
+        Map<String, BacktestContext> contexts = new LinkedHashMap<>();
+        contexts.put("AAAUSDT", BacktestContext.ofCandles(aaa));
+        contexts.put("BBBUSDT", BacktestContext.ofCandles(bbb));
+        PortfolioBacktestResult result = new PortfolioBacktestEngine(2)
+            .run(strategy, config(10), contexts, 0, null);
+
+        Trade first = filled(result.forSymbol("AAAUSDT")).getFirst();
+        assertTrue(first.pnl() > 0);
+        Trade second = filled(result.forSymbol("BBBUSDT")).getFirst();
+        assertTrue(second.entryTime() > first.exitTime());
+        assertEquals((CAPITAL + first.pnl()) * 0.10, second.value(), 1e-6);
+    }
+
+    private static Strategy holdForever() {
+        Strategy strategy = new Strategy("portfolio-test", "Portfolio test", "", "close > 0", true);
+        strategy.setMaxOpenTrades(1);
+        strategy.setExitZones(List.of(ExitZone.builder("Default")
+            .takeProfit(TakeProfitType.FIXED_PERCENT, 25.0)
+            .build()));
+        return strategy;
+    }
+
+    private static BacktestConfig config(double percentOfEquity) {
+        return new BacktestConfig("BASKET", "1h", START, START + BARS * HOUR, CAPITAL,
+            PositionSizingType.FIXED_PERCENT, percentOfEquity, 0, MarketType.SPOT, 0);
+    }
+
+    private static Map<String, BacktestContext> basket() {
+        Map<String, BacktestContext> contexts = new LinkedHashMap<>();
+        contexts.put("AAAUSDT", BacktestContext.ofCandles(candles(100, BARS)));
+        contexts.put("BBBUSDT", BacktestContext.ofCandles(candles(50, BARS)));
+        return contexts;
+    }
+
+    /**
+     * Flat hourly candles at one price.
+     */
+    private static List<Candle> candles(double price, int bars) {
+        List<Candle> candles = new ArrayList<>(bars);
+        for (int i = 0; i < bars; i++) {
+            candles.add(new Candle(START + i * HOUR, price, price, price, price, 1000));
+        }
+        return candles;
+    }
+
+    private static List<Trade> filled(BacktestResult result) {
+        return result.trades().stream().filter(t -> t.quantity() > 0).toList();
+    }
+}
@@ -1,5 +1,6 @@
 package com.tradery.forge;
 
+import com.tradery.charts.indicator.SharedIndicatorResults;
 import com.tradery.core.indicators.registry.IndicatorRegistryInitializer;
 import com.tradery.core.model.Candle;
 import com.tradery.core.model.FundingRate;
@@ -63,6 +64,7 @@ public class ApplicationContext {
     private final AggTradesPageManager aggTradesPageManager;
     private final PremiumPageManager premiumPageManager;
     private final IndicatorPageManager indicatorPageManager;
+    private final PageMemoryBudget pageMemoryBudget;
 
     // Data service client (for remote data access)
     private DataServiceClient dataServiceClient;
@@ -93,6 +95,16 @@ public class ApplicationContext {
         this.indicatorPageManager = new IndicatorPageManager(
             candlePageManager, aggTradesPageManager);
 
+        // One memory budget across all page managers
+        this.pageMemoryBudget = new PageMemoryBudget();
+        candlePageManager.setMemoryBudget(pageMemoryBudget);
+        fundingPageManager.setMemoryBudget(pageMemoryBudget);
+        oiPageManager.setMemoryBudget(pageMemoryBudget);
+        aggTradesPageManager.setMemoryBudget(pageMemoryBudget);
+        premiumPageManager.setMemoryBudget(pageMemoryBudget);
+        indicatorPageManager.setMemoryBudget(pageMemoryBudget);
+        pageMemoryBudget.register(new SharedIndicatorResultsPool(SharedIndicatorResults.getInstance()));
+
         this.strategyStore = new StrategyStore(new File(TraderyApp.USER_DIR, "strategies"));
         this.phaseStore = new PhaseStore(new File(TraderyApp.USER_DIR, "phases"));
         this.hoopPatternStore = new HoopPatternStore(new File(TraderyApp.USER_DIR, "hoops"));
@@ -249,6 +261,10 @@ public class ApplicationContext {
         return indicatorPageManager;
     }
 
+    public PageMemoryBudget getPageMemoryBudget() {
+        return pageMemoryBudget;
+    }
+
     /**
      * Get the data service client for remote data access.
      * @return the client, or null if service is not available
@@ -306,6 +322,9 @@ public class ApplicationContext {
         if (premiumPageManager != null) {
             premiumPageManager.shutdown();
         }
+        if (pageMemoryBudget != null) {
+            pageMemoryBudget.shutdown();
+        }
 
         // Close WebSocket connection
         if (dataServiceConnection != null) {
@@ -7,6 +7,7 @@ import com.tradery.forge.ui.LauncherFrame;
 import com.tradery.license.LicenseGate;
 import com.tradery.license.UpdateChecker;
 import com.tradery.ui.ThemeHelper;
+import com.tradery.ui.status.EdtWatchdog;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -88,6 +89,9 @@ public class TraderyApp {
         // Initialize shared application context
         ApplicationContext.getInstance();
 
+        // Time EDT events so stalls show up in the dashboard and /edt-stalls
+        EdtWatchdog.install();
+
         // Launch UI on Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
             LauncherFrame launcher = new LauncherFrame();
@@ -13,10 +13,12 @@ import com.tradery.core.model.AggTrade;
 import com.tradery.core.model.Candle;
 import com.tradery.core.model.FundingRate;
 import com.tradery.core.model.OpenInterest;
+import com.tradery.data.ratelimit.RateLimits;
 import com.tradery.engine.ConditionEvaluator;
 import com.tradery.forge.ApplicationContext;
 import com.tradery.forge.data.AggTradesStore;
 import com.tradery.data.page.DataType;
+import com.tradery.data.page.ReadAheadPolicy;
 import com.tradery.forge.data.FundingRateStore;
 import com.tradery.forge.data.OpenInterestStore;
 import com.tradery.forge.data.log.DownloadEvent;
@@ -29,6 +31,7 @@ import com.tradery.forge.io.StrategyStore;
 import com.tradery.forge.ui.LauncherFrame;
 import com.tradery.forge.ui.ProjectWindow;
 import com.tradery.forge.ui.charts.ChartConfig;
+import com.tradery.ui.status.EdtWatchdog;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -66,6 +69,8 @@ import java.util.regex.Pattern;
  *   GET  /ui                            - Open windows and chart/indicator config (debugging)
  *   POST /ui/open?window={type}         - Open a window (phases, hoops, settings, data, dsl-help, strategy-help, launcher, project)
  *   GET  /thread-dump                   - Thread dump with EDT analysis (debugging)
+ *   GET  /edt-stalls?limit=20&reset=false - Worst EDT stalls and off-EDT violations (debugging)
+ *   GET  /rate-limits                   - Exchange API budget utilization (debugging)
  */
 public class ApiServer {
 
@@ -132,6 +137,8 @@ public class ApiServer {
         server.createContext("/ui/open", this::handleUIOpen);
         server.createContext("/ui", this::handleUI);
         server.createContext("/thread-dump", this::handleThreadDump);
+        server.createContext("/edt-stalls", this::handleEdtStalls);
+        server.createContext("/rate-limits", this::handleRateLimits);
         server.createContext("/download-log", this::handleDownloadLog);
         server.createContext("/download-stats", this::handleDownloadStats);
 
@@ -630,6 +637,8 @@ public class ApiServer {
                 pageNode.put("loadProgress", info.loadProgress());
                 pageNode.put("listeners", info.listenerCount());
                 pageNode.put("records", info.recordCount());
+                pageNode.put("readAhead", info.readAhead());
+                pageNode.put("hits", info.hits());
                 ArrayNode consumers = pageNode.putArray("consumers");
                 if (info.consumers() != null) {
                     info.consumers().forEach(consumers::add);
@@ -651,6 +660,8 @@ public class ApiServer {
                 pageNode.put("loadProgress", info.loadProgress());
                 pageNode.put("listeners", info.listenerCount());
                 pageNode.put("records", info.recordCount());
+                pageNode.put("readAhead", info.readAhead());
+                pageNode.put("hits", info.hits());
                 ArrayNode consumers = pageNode.putArray("consumers");
                 if (info.consumers() != null) {
                     info.consumers().forEach(consumers::add);
@@ -672,6 +683,8 @@ public class ApiServer {
                 pageNode.put("loadProgress", info.loadProgress());
                 pageNode.put("listeners", info.listenerCount());
                 pageNode.put("records", info.recordCount());
+                pageNode.put("readAhead", info.readAhead());
+                pageNode.put("hits", info.hits());
                 ArrayNode consumers = pageNode.putArray("consumers");
                 if (info.consumers() != null) {
                     info.consumers().forEach(consumers::add);
@@ -693,6 +706,8 @@ public class ApiServer {
                 pageNode.put("loadProgress", info.loadProgress());
                 pageNode.put("listeners", info.listenerCount());
                 pageNode.put("records", info.recordCount());
+                pageNode.put("readAhead", info.readAhead());
+                pageNode.put("hits", info.hits());
                 ArrayNode consumers = pageNode.putArray("consumers");
                 if (info.consumers() != null) {
                     info.consumers().forEach(consumers::add);
@@ -717,6 +732,8 @@ public class ApiServer {
                 pageNode.put("loadProgress", info.loadProgress());
                 pageNode.put("listeners", info.listenerCount());
                 pageNode.put("records", info.recordCount());
+                pageNode.put("readAhead", info.readAhead());
+                pageNode.put("hits", info.hits());
                 ArrayNode consumers = pageNode.putArray("consumers");
                 if (info.consumers() != null) {
                     info.consumers().forEach(consumers::add);
@@ -756,9 +773,27 @@ public class ApiServer {
         summary.put("totalPages", totalPages);
         summary.put("totalListeners", totalListeners);
 
+        // Read-ahead hit/miss counters per manager
+        ObjectNode readAhead = summary.putObject("readAhead");
+        putReadAheadStats(readAhead, "candles", candlePageMgr);
+        putReadAheadStats(readAhead, "funding", fundingPageMgr);
+        putReadAheadStats(readAhead, "openInterest", oiPageMgr);
+        putReadAheadStats(readAhead, "premium", premiumPageMgr);
+
         sendJson(exchange, 200, response);
     }
 
+    private void putReadAheadStats(ObjectNode parent, String name, DataPageManager<?> manager) {
+        if (manager == null) return;
+        ReadAheadPolicy.Stats stats = manager.getReadAheadStats();
+        ObjectNode node = parent.putObject(name);
+        node.put("hits", stats.hits());
+        node.put("misses", stats.misses());
+        node.put("hitRate", stats.hitRate());
+        node.put("prefetches", stats.prefetches());
+        node.put("prefetchHits", stats.prefetchHits());
+    }
+
     /**
      * Handle UI endpoint - shows open windows and their chart/indicator config.
      *
@@ -1209,6 +1244,56 @@ public class ApiServer {
         sendJson(exchange, 200, response);
     }
 
+    private void handleEdtStalls(HttpExchange exchange) throws IOException {
+        if (!checkMethod(exchange, "GET")) return;
+
+        EdtWatchdog watchdog = EdtWatchdog.getInstance();
+        if (watchdog == null) {
+            sendError(exchange, 503, "EDT watchdog not installed");
+            return;
+        }
+
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getQuery());
+        int limit = Integer.parseInt(params.getOrDefault("limit", "20"));
+
+        ObjectNode response = mapper.createObjectNode();
+        EdtWatchdog.Stats stats = watchdog.getStats();
+        response.put("thresholdMs", stats.thresholdMs());
+        response.put("auditMode", stats.auditMode());
+        response.put("since", Instant.ofEpochMilli(stats.startedAt()).toString());
+        response.put("eventCount", stats.eventCount());
+        response.put("stallCount", stats.stallCount());
+        response.put("maxDispatchMs", stats.maxDispatchMs());
+        addOffenders(response.putArray("stalls"), watchdog.getStalls(), limit);
+        addOffenders(response.putArray("offEdtViolations"), watchdog.getViolations(), limit);
+
+        if (Boolean.parseBoolean(params.get("reset"))) {
+            watchdog.reset();
+        }
+        sendJson(exchange, 200, response);
+    }
+
+    private void handleRateLimits(HttpExchange exchange) throws IOException {
+        if (!checkMethod(exchange, "GET")) return;
+
+        ObjectNode response = mapper.createObjectNode();
+        response.set("budgets", mapper.valueToTree(RateLimits.snapshots()));
+        sendJson(exchange, 200, response);
+    }
+
+    private void addOffenders(ArrayNode array, List<EdtWatchdog.Offender> offenders, int limit) {
+        for (EdtWatchdog.Offender o : offenders.subList(0, Math.min(limit, offenders.size()))) {
+            ObjectNode node = array.addObject();
+            node.put("location", o.location());
+            node.put("count", o.count());
+            node.put("totalMs", o.totalMs());
+            node.put("maxMs", o.maxMs());
+            node.put("lastSeen", Instant.ofEpochMilli(o.lastSeen()).toString());
+            ArrayNode stack = node.putArray("worstStack");
+            o.worstStack().stream().limit(30).forEach(stack::add);
+        }
+    }
+
     /**
      * Analyze EDT stack trace to provide quick diagnosis.
      */
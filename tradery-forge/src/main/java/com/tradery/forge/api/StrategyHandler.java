@@ -9,6 +9,8 @@ import com.tradery.engine.BacktestContext;
 import com.tradery.engine.BacktestEngine;
 import com.tradery.engine.HoopPatternEvaluator;
 import com.tradery.engine.PhaseEvaluator;
+import com.tradery.engine.PortfolioBacktestEngine;
+import com.tradery.engine.PortfolioBacktestResult;
 import com.tradery.forge.analysis.PhaseAnalyzer;
 import com.tradery.forge.data.BinanceClient;
 import com.tradery.forge.data.sqlite.SqliteDataStore;
@@ -33,6 +35,8 @@ import java.util.*;
  *   DELETE /strategy/{id}               - Delete strategy
  *   POST   /strategy/{id}/validate      - Validate updates without saving
  *   POST   /strategy/{id}/backtest      - Run backtest and return results
+ *   POST   /strategy/{id}/portfolio-backtest?symbols=A,B[&maxOpenPositions=N]
+ *                                        - Run on a basket of symbols with shared capital
  *   GET    /strategy/{id}/results       - Get latest backtest results
  *   GET    /strategy/{id}/analyze-phases - Analyze trades vs all phases
  */
@@ -185,6 +189,13 @@ public class StrategyHandler extends ApiHandlerBase {
             } else {
                 sendError(exchange, 405, "Use POST for /backtest");
             }
+        } else if ("portfolio-backtest".equals(action)) {
+            // /strategy/{id}/portfolio-backtest?symbols=A,B
+            if ("POST".equalsIgnoreCase(method)) {
+                handlePortfolioBacktest(exchange, strategyId);
+            } else {
+                sendError(exchange, 405, "Use POST for /portfolio-backtest");
+            }
         } else if ("results".equals(action)) {
             // /strategy/{id}/results
             if ("GET".equalsIgnoreCase(method)) {
@@ -446,82 +457,12 @@ public class StrategyHandler extends ApiHandlerBase {
             // Build config from strategy settings
             BacktestConfig config = strategy.getBacktestSettings().toBacktestConfig(startDate, endDate);
 
-            // Fill gap if needed (auto-fetch from Binance API)
-            fillGapIfNeeded(config.symbol(), config.resolution(), config.startDate(), config.endDate());
-
-            // Load candles
-            List<Candle> candles = dataStore.getCandles(
-                config.symbol(), config.resolution(), config.startDate(), config.endDate()
-            );
-
-            if (candles.isEmpty()) {
+            BacktestContext context = loadContext(strategy, config);
+            if (context == null) {
                 sendError(exchange, 400, "No candle data available for " + config.symbol() + " " + config.resolution());
                 return;
             }
 
-            // Load all phases referenced by strategy
-            List<Phase> allPhases = new ArrayList<>();
-            Set<String> allPhaseIds = new HashSet<>();
-            allPhaseIds.addAll(strategy.getRequiredPhaseIds());
-            allPhaseIds.addAll(strategy.getExcludedPhaseIds());
-            for (String phaseId : allPhaseIds) {
-                Phase phase = phaseStore.load(phaseId);
-                if (phase != null) {
-                    allPhases.add(phase);
-                }
-            }
-
-            // Load phase candles for each unique symbol:timeframe
-            Map<String, List<Candle>> phaseCandles = new HashMap<>();
-            Set<String> phaseKeys = new HashSet<>();
-            for (Phase phase : allPhases) {
-                phaseKeys.add(phase.getSymbol() + ":" + phase.getTimeframe());
-            }
-            for (String key : phaseKeys) {
-                String[] parts = key.split(":");
-                String phaseSymbol = parts[0];
-                String phaseTf = parts[1];
-                // Add warmup period (200 bars)
-                long warmupMs = getIntervalMs(phaseTf) * 200;
-                long phaseStart = config.startDate() - warmupMs;
-                fillGapIfNeeded(phaseSymbol, phaseTf, phaseStart, config.endDate());
-                List<Candle> pCandles = dataStore.getCandles(phaseSymbol, phaseTf, phaseStart, config.endDate());
-                phaseCandles.put(key, pCandles);
-            }
-
-            // Pre-compute phase states using stateless evaluator
-            Map<String, boolean[]> phaseStates = new HashMap<>();
-            if (!allPhases.isEmpty()) {
-                PhaseEvaluator phaseEvaluator = new PhaseEvaluator();
-                phaseStates = phaseEvaluator.evaluatePhases(allPhases, candles, config.resolution(), phaseCandles);
-            }
-
-            // Pre-compute hoop pattern states if strategy uses any
-            Map<String, boolean[]> hoopPatternStates = new HashMap<>();
-            List<HoopPattern> hoopPatterns = new ArrayList<>();
-            HoopPatternSettings hoopSettings = strategy.getHoopPatternSettings();
-            if (hoopSettings.hasAnyPatterns()) {
-                Set<String> neededPatternIds = new HashSet<>();
-                neededPatternIds.addAll(hoopSettings.getRequiredEntryPatternIds());
-                neededPatternIds.addAll(hoopSettings.getExcludedEntryPatternIds());
-                neededPatternIds.addAll(hoopSettings.getRequiredExitPatternIds());
-                neededPatternIds.addAll(hoopSettings.getExcludedExitPatternIds());
-
-                File hoopsDir = new File(System.getProperty("user.home"), ".tradery/hoops");
-                HoopPatternStore hoopStore = new HoopPatternStore(hoopsDir);
-                hoopPatterns = hoopStore.loadByIds(neededPatternIds);
-
-                HoopPatternEvaluator hoopEvaluator = new HoopPatternEvaluator();
-                hoopPatternStates = hoopEvaluator.evaluatePatterns(hoopPatterns, candles, config.resolution(), phaseCandles);
-            }
-
-            // Build BacktestContext with all pre-computed data
-            BacktestContext context = BacktestContext.builder(candles)
-                .phaseStates(phaseStates)
-                .hoopPatternStates(hoopPatternStates)
-                .hoopPatterns(hoopPatterns)
-                .build();
-
             // Run backtest using clean context-based API
             BacktestEngine engine = new BacktestEngine();
             BacktestResult result = engine.run(strategy, config, context, null);
@@ -535,16 +476,7 @@ public class StrategyHandler extends ApiHandlerBase {
             response.put("success", true);
             response.put("strategyId", strategyId);
 
-            ObjectNode metrics = response.putObject("metrics");
-            PerformanceMetrics m = result.metrics();
-            metrics.put("totalTrades", m.totalTrades());
-            metrics.put("winningTrades", m.winningTrades());
-            metrics.put("losingTrades", m.losingTrades());
-            metrics.put("winRate", Math.round(m.winRate() * 100) / 100.0);
-            metrics.put("profitFactor", Math.round(m.profitFactor() * 100) / 100.0);
-            metrics.put("totalReturnPercent", Math.round(m.totalReturnPercent() * 100) / 100.0);
-            metrics.put("maxDrawdownPercent", Math.round(m.maxDrawdownPercent() * 100) / 100.0);
-            metrics.put("sharpeRatio", Math.round(m.sharpeRatio() * 100) / 100.0);
+            putMetrics(response.putObject("metrics"), result.metrics());
 
             response.put("tradesCount", result.trades().size());
             response.put("barsProcessed", result.barsProcessed());
@@ -557,6 +489,172 @@ public class StrategyHandler extends ApiHandlerBase {
         }
     }
 
+    /**
+     * Run the strategy on a basket of symbols against one capital pool. Uses the strategy's
+     * backtest settings with each symbol in place of its own; results are not saved.
+     */
+    private void handlePortfolioBacktest(HttpExchange exchange, String strategyId) throws IOException {
+        try {
+            Strategy strategy = strategyStore.load(strategyId);
+            if (strategy == null) {
+                sendError(exchange, 404, "Strategy not found: " + strategyId);
+                return;
+            }
+
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getQuery());
+            Set<String> symbols = new LinkedHashSet<>();
+            for (String symbol : params.getOrDefault("symbols", "").split(",")) {
+                if (!symbol.isBlank()) {
+                    symbols.add(symbol.trim().toUpperCase());
+                }
+            }
+            if (symbols.size() < 2) {
+                sendError(exchange, 400, "Give at least two symbols, e.g. ?symbols=BTCUSDT,ETHUSDT");
+                return;
+            }
+            int maxOpenPositions = Integer.parseInt(params.getOrDefault("maxOpenPositions", "0"));
+
+            Long anchorDate = strategy.getBacktestSettings().getAnchorDate();
+            long endDate = (anchorDate != null) ? anchorDate : System.currentTimeMillis();
+            long startDate = endDate - parseDurationMillis(strategy.getDuration());
+            BacktestConfig config = strategy.getBacktestSettings().toBacktestConfig(startDate, endDate);
+
+            Map<String, BacktestContext> contexts = new LinkedHashMap<>();
+            for (String symbol : symbols) {
+                BacktestConfig symbolConfig = new BacktestConfig(symbol, config.resolution(), config.startDate(),
+                    config.endDate(), config.initialCapital(), config.positionSizingType(),
+                    config.positionSizingValue(), config.commission(), config.marketType(),
+                    config.marginInterestHourly());
+                BacktestContext context = loadContext(strategy, symbolConfig);
+                if (context == null) {
+                    sendError(exchange, 400, "No candle data available for " + symbol + " " + config.resolution());
+                    return;
+                }
+                contexts.put(symbol, context);
+            }
+
+            PortfolioBacktestResult result = new PortfolioBacktestEngine()
+                .run(strategy, config, contexts, maxOpenPositions, null);
+
+            ObjectNode response = mapper.createObjectNode();
+            response.put("success", result.portfolio().errors().isEmpty());
+            response.put("strategyId", strategyId);
+            putMetrics(response.putObject("metrics"), result.portfolio().metrics());
+            response.put("tradesCount", result.portfolio().trades().size());
+            response.put("barsProcessed", result.portfolio().barsProcessed());
+            response.put("durationMs", result.portfolio().duration());
+
+            ObjectNode perSymbol = response.putObject("symbols");
+            for (Map.Entry<String, BacktestResult> entry : result.symbolResults().entrySet()) {
+                ObjectNode symbolNode = perSymbol.putObject(entry.getKey());
+                putMetrics(symbolNode.putObject("metrics"), entry.getValue().metrics());
+                symbolNode.put("tradesCount", entry.getValue().trades().size());
+            }
+            ArrayNode errors = response.putArray("errors");
+            result.portfolio().errors().forEach(errors::add);
+
+            sendJson(exchange, 200, response);
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid maxOpenPositions: " + e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            sendError(exchange, 500, "Portfolio backtest failed: " + e.getMessage());
+        }
+    }
+
+    private static void putMetrics(ObjectNode metrics, PerformanceMetrics m) {
+        metrics.put("totalTrades", m.totalTrades());
+        metrics.put("winningTrades", m.winningTrades());
+        metrics.put("losingTrades", m.losingTrades());
+        metrics.put("winRate", Math.round(m.winRate() * 100) / 100.0);
+        metrics.put("profitFactor", Math.round(m.profitFactor() * 100) / 100.0);
+        metrics.put("totalReturnPercent", Math.round(m.totalReturnPercent() * 100) / 100.0);
+        metrics.put("maxDrawdownPercent", Math.round(m.maxDrawdownPercent() * 100) / 100.0);
+        metrics.put("sharpeRatio", Math.round(m.sharpeRatio() * 100) / 100.0);
+    }
+
+    /**
+     * Load candles for a config and pre-compute the strategy's phase and hoop pattern states.
+     *
+     * @return The context, or null if there is no candle data
+     */
+    private BacktestContext loadContext(Strategy strategy, BacktestConfig config) throws IOException {
+        // Fill gap if needed (auto-fetch from Binance API)
+        fillGapIfNeeded(config.symbol(), config.resolution(), config.startDate(), config.endDate());
+
+        // Load candles
+        List<Candle> candles = dataStore.getCandles(
+            config.symbol(), config.resolution(), config.startDate(), config.endDate()
+        );
+
+        if (candles.isEmpty()) {
+            return null;
+        }
+
+        // Load all phases referenced by strategy
+        List<Phase> allPhases = new ArrayList<>();
+        Set<String> allPhaseIds = new HashSet<>();
+        allPhaseIds.addAll(strategy.getRequiredPhaseIds());
+        allPhaseIds.addAll(strategy.getExcludedPhaseIds());
+        for (String phaseId : allPhaseIds) {
+            Phase phase = phaseStore.load(phaseId);
+            if (phase != null) {
+                allPhases.add(phase);
+            }
+        }
+
+        // Load phase candles for each unique symbol:timeframe
+        Map<String, List<Candle>> phaseCandles = new HashMap<>();
+        Set<String> phaseKeys = new HashSet<>();
+        for (Phase phase : allPhases) {
+            phaseKeys.add(phase.getSymbol() + ":" + phase.getTimeframe());
+        }
+        for (String key : phaseKeys) {
+            String[] parts = key.split(":");
+            String phaseSymbol = parts[0];
+            String phaseTf = parts[1];
+            // Add warmup period (200 bars)
+            long warmupMs = getIntervalMs(phaseTf) * 200;
+            long phaseStart = config.startDate() - warmupMs;
+            fillGapIfNeeded(phaseSymbol, phaseTf, phaseStart, config.endDate());
+            List<Candle> pCandles = dataStore.getCandles(phaseSymbol, phaseTf, phaseStart, config.endDate());
+            phaseCandles.put(key, pCandles);
+        }
+
+        // Pre-compute phase states using stateless evaluator
+        Map<String, boolean[]> phaseStates = new HashMap<>();
+        if (!allPhases.isEmpty()) {
+            PhaseEvaluator phaseEvaluator = new PhaseEvaluator();
+            phaseStates = phaseEvaluator.evaluatePhases(allPhases, candles, config.resolution(), phaseCandles);
+        }
+
+        // Pre-compute hoop pattern states if strategy uses any
+        Map<String, boolean[]> hoopPatternStates = new HashMap<>();
+        List<HoopPattern> hoopPatterns = new ArrayList<>();
+        HoopPatternSettings hoopSettings = strategy.getHoopPatternSettings();
+        if (hoopSettings.hasAnyPatterns()) {
+            Set<String> neededPatternIds = new HashSet<>();
+            neededPatternIds.addAll(hoopSettings.getRequiredEntryPatternIds());
+            neededPatternIds.addAll(hoopSettings.getExcludedEntryPatternIds());
+            neededPatternIds.addAll(hoopSettings.getRequiredExitPatternIds());
+            neededPatternIds.addAll(hoopSettings.getExcludedExitPatternIds());
+
+            File hoopsDir = new File(System.getProperty("user.home"), ".tradery/hoops");
+            HoopPatternStore hoopStore = new HoopPatternStore(hoopsDir);
+            hoopPatterns = hoopStore.loadByIds(neededPatternIds);
+
+            HoopPatternEvaluator hoopEvaluator = new HoopPatternEvaluator();
+            hoopPatternStates = hoopEvaluator.evaluatePatterns(hoopPatterns, candles, config.resolution(), phaseCandles);
+        }
+
+        // Build BacktestContext with all pre-computed data
+        return BacktestContext.builder(candles)
+            .phaseStates(phaseStates)
+            .hoopPatternStates(hoopPatternStates)
+            .hoopPatterns(hoopPatterns)
+            .build();
+    }
+
     private void handleGetResults(HttpExchange exchange, String strategyId) throws IOException {
         try {
             ResultStore resultStore = new ResultStore(strategyId);
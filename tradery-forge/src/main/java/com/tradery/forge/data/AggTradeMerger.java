@@ -0,0 +1,79 @@
+package com.tradery.forge.data;
+
+import com.tradery.core.model.AggTrade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges per-exchange aggTrade lists, each already sorted by time, into one time-ordered list.
+ *
+ * A k-way merge over the heads of the sources: O(n log k) with no full re-sort, and the
+ * output is sized once. Trades with equal timestamps keep source order (the first list wins),
+ * and within a source their original order.
+ */
+public final class AggTradeMerger {
+
+    private AggTradeMerger() {}
+
+    public static List<AggTrade> merge(List<List<AggTrade>> sources) {
+        int total = 0;
+        List<List<AggTrade>> nonEmpty = new ArrayList<>(sources.size());
+        for (List<AggTrade> source : sources) {
+            if (source != null && !source.isEmpty()) {
+                nonEmpty.add(source);
+                total += source.size();
+            }
+        }
+        if (nonEmpty.isEmpty()) return new ArrayList<>();
+        if (nonEmpty.size() == 1) return new ArrayList<>(nonEmpty.get(0));
+
+        int k = nonEmpty.size();
+        int[] position = new int[k];
+        long[] headTime = new long[k];
+        int[] heap = new int[k];          // Source indexes, min-heap by (head time, source index)
+        for (int s = 0; s < k; s++) {
+            headTime[s] = nonEmpty.get(s).get(0).timestamp();
+            heap[s] = s;
+        }
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(heap, k, i, headTime);
+        }
+
+        List<AggTrade> merged = new ArrayList<>(total);
+        int size = k;
+        while (size > 0) {
+            int s = heap[0];
+            List<AggTrade> source = nonEmpty.get(s);
+            merged.add(source.get(position[s]++));
+            if (position[s] < source.size()) {
+                headTime[s] = source.get(position[s]).timestamp();
+            } else {
+                heap[0] = heap[--size];
+            }
+            siftDown(heap, size, 0, headTime);
+        }
+        return merged;
+    }
+
+    private static void siftDown(int[] heap, int size, int i, long[] headTime) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) return;
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && before(heap[right], heap[left], headTime)) {
+                smallest = right;
+            }
+            if (!before(heap[smallest], heap[i], headTime)) return;
+            int tmp = heap[i];
+            heap[i] = heap[smallest];
+            heap[smallest] = tmp;
+            i = smallest;
+        }
+    }
+
+    private static boolean before(int a, int b, long[] headTime) {
+        return headTime[a] < headTime[b] || (headTime[a] == headTime[b] && a < b);
+    }
+}
@@ -4,10 +4,8 @@ import com.tradery.core.model.AggTrade;
 import com.tradery.core.model.DataMarketType;
 import com.tradery.core.model.Exchange;
 import com.tradery.core.model.FetchProgress;
+import com.tradery.data.archive.ArchiveCache;
 import com.tradery.forge.data.sqlite.SqliteDataStore;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,8 +58,6 @@ public class AggTradesStore {
 
     private final File dataDir;
     private final AggTradesClient client;
-    private final OkHttpClient httpClient;
-    private final OkHttpClient bulkDownloadClient;
     private final SqliteDataStore sqliteStore;
 
     // Cancellation support
@@ -75,8 +71,6 @@ public class AggTradesStore {
     public AggTradesStore(AggTradesClient client, SqliteDataStore sqliteStore) {
         this.dataDir = DataConfig.getInstance().getDataDir();
         this.client = client;
-        this.httpClient = HttpClientFactory.getClient();
-        this.bulkDownloadClient = HttpClientFactory.getBulkDownloadClient();
         this.sqliteStore = sqliteStore;
 
         if (!dataDir.exists()) {
@@ -320,63 +314,34 @@ public class AggTradesStore {
      */
     private int downloadAndStreamToHourlyFiles(String symbol, String url, LocalDate date,
                                                 int currentDayIndex, int totalDays, DataMarketType marketType) throws IOException {
-        Request request = new Request.Builder()
-            .url(url)
-            .get()
-            .build();
-
-        // Use bulk download client with 10-minute timeout for large Vision files
-        try (Response response = bulkDownloadClient.newCall(request).execute()) {
-            if (response.code() == 404) {
-                throw new IOException("404 Not Found");
-            }
-            if (!response.isSuccessful()) {
-                throw new IOException("Download failed: " + response.code());
+        String dateKey = date.format(DATE_FORMAT);
+
+        // Estimated file size when content length unknown (typical daily aggTrades: 50-200MB)
+        long estimatedSize = 100_000_000L;
+
+        // Combined progress: days completed + current file progress
+        ArchiveCache.Progress progress = progressCallback == null ? null : (bytesRead, contentLength) -> {
+            int filePercent;
+            String progressMsg;
+            if (contentLength > 0) {
+                filePercent = (int) ((bytesRead * 100) / contentLength);
+                progressMsg = String.format("Day %d/%d: %s %s / %s",
+                    currentDayIndex + 1, totalDays, dateKey, formatBytes(bytesRead), formatBytes(contentLength));
+            } else {
+                // Cap file progress at 95% since we don't know actual size
+                filePercent = (int) Math.min(95, (bytesRead * 100) / estimatedSize);
+                progressMsg = String.format("Day %d/%d: %s %s downloaded",
+                    currentDayIndex + 1, totalDays, dateKey, formatBytes(bytesRead));
             }
+            int overallPercent = totalDays > 0 ? (currentDayIndex * 100 + filePercent) / totalDays : filePercent;
+            overallPercent = Math.min(99, Math.max(0, overallPercent));
+            progressCallback.accept(new FetchProgress(overallPercent, 100, progressMsg));
+        };
 
-            // Get content length for progress tracking
-            long contentLength = response.body().contentLength();
-            String dateKey = date.format(DATE_FORMAT);
-
-            // Wrap input stream with progress tracking
-            // Calculate combined progress: days completed + current file progress
-            InputStream rawStream = response.body().byteStream();
-
-            // Estimated file size when content length unknown (typical daily aggTrades: 50-200MB)
-            long estimatedSize = contentLength > 0 ? contentLength : 100_000_000L; // 100MB estimate
-
-            ProgressInputStream progressStream = new ProgressInputStream(rawStream, contentLength, bytesRead -> {
-                if (progressCallback != null) {
-                    int overallPercent;
-                    String progressMsg;
-
-                    if (contentLength > 0) {
-                        // File progress within current day (0-100)
-                        int filePercent = (int) ((bytesRead * 100) / contentLength);
-                        // Overall progress: completed days + fraction of current day
-                        overallPercent = totalDays > 0
-                            ? (currentDayIndex * 100 + filePercent) / totalDays
-                            : filePercent;
-                        String size = formatBytes(contentLength);
-                        String downloaded = formatBytes(bytesRead);
-                        progressMsg = String.format("Day %d/%d: %s %s / %s",
-                            currentDayIndex + 1, totalDays, dateKey, downloaded, size);
-                    } else {
-                        // Content length unknown - estimate progress based on typical file size
-                        // Cap file progress at 95% since we don't know actual size
-                        int filePercent = (int) Math.min(95, (bytesRead * 100) / estimatedSize);
-                        overallPercent = totalDays > 0
-                            ? (currentDayIndex * 100 + filePercent) / totalDays
-                            : filePercent;
-                        progressMsg = String.format("Day %d/%d: %s %s downloaded",
-                            currentDayIndex + 1, totalDays, dateKey, formatBytes(bytesRead));
-                    }
-                    overallPercent = Math.min(99, Math.max(0, overallPercent));
-                    progressCallback.accept(new FetchProgress(overallPercent, 100, progressMsg));
-                }
-            });
-
-            return streamZipToSqlite(symbol, progressStream, date, marketType);
+        // Local verified copy from the archive cache; downloads (and resumes) only if missing
+        Path archive = VisionArchives.cache().fetch(url, progress);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archive))) {
+            return streamZipToSqlite(symbol, in, date, marketType);
         }
     }
 
@@ -571,8 +536,7 @@ public class AggTradesStore {
 
         if (gaps.isEmpty()) {
             log.debug("SQLite cache hit for {} {} aggTrades [{} - {}]", symbol, marketType.getShortName(), startTime, endTime);
-            return sqliteStore.getAggTrades(symbol, startTime, endTime,
-                java.util.Set.of(marketType));
+            return readAggTrades(symbol, Exchange.BINANCE, marketType, startTime, endTime);
         }
 
         long uncachedMs = gaps.stream().mapToLong(g -> g[1] - g[0]).sum();
@@ -586,8 +550,7 @@ public class AggTradesStore {
                 symbol, marketType.getShortName(), uncachedDays);
             try {
                 fetchViaVision(symbol, startTime, endTime, marketType);
-                return sqliteStore.getAggTrades(symbol, startTime, endTime,
-                    java.util.Set.of(marketType));
+                return readAggTrades(symbol, Exchange.BINANCE, marketType, startTime, endTime);
             } catch (Exception e) {
                 log.warn("Vision download failed for {} {}: {}", symbol, marketType.getShortName(), e.getMessage());
             }
@@ -598,18 +561,17 @@ public class AggTradesStore {
             log.info("Spot API fetch for small gaps not yet implemented; use Vision for larger ranges");
         }
 
-        return sqliteStore.getAggTrades(symbol, startTime, endTime,
-            java.util.Set.of(marketType));
+        return readAggTrades(symbol, Exchange.BINANCE, marketType, startTime, endTime);
     }
 
     /**
      * Get aggregated trades for a symbol, exchange, and market type within time range.
      * For Binance, delegates to existing getAggTrades with market type.
-     * For Bybit/OKX, fetches via ExchangeClient and caches to SQLite.
+     * For Bybit/OKX, fetches the uncovered gaps via ExchangeClient and caches them to SQLite,
+     * under the same coverage tracking as Binance.
      */
     public List<AggTrade> getAggTrades(String symbol, Exchange exchange, DataMarketType marketType,
                                         long startTime, long endTime) throws IOException {
-        // Binance uses existing optimized path (Vision bulk downloads, etc.)
         if (exchange == Exchange.BINANCE) {
             return getAggTrades(symbol, marketType, startTime, endTime);
         }
@@ -617,47 +579,71 @@ public class AggTradesStore {
         // Reset cancellation flag
         fetchCancelled.set(false);
 
-        String subKey = getCoverageSubKey(exchange, marketType);
+        ExchangeClient exchangeClient = ExchangeClientFactory.getInstance().getClient(exchange);
+        String exchangeSymbol = exchangeClient != null
+            ? exchangeClient.normalizeSymbol(extractBase(symbol), extractQuote(symbol), marketType) : null;
+        return getAggTrades(symbol, exchange, exchangeSymbol, marketType, startTime, endTime, fetchCancelled);
+    }
 
-        // Check SQLite cache first
+    /**
+     * Get aggregated trades of a non-Binance exchange, fetching only what is not cached yet.
+     *
+     * Safe to call concurrently for different exchanges: each fetch goes through its exchange
+     * client (and so its rate limiter), and the cancellation flag is the caller's.
+     *
+     * @param symbol         Symbol the data is stored under (e.g. "BTCUSDT")
+     * @param exchangeSymbol Symbol in the exchange's format
+     * @param cancelled      Stops fetching remaining pages and gaps when set
+     * @return Trades of this exchange only, sorted by time
+     */
+    public List<AggTrade> getAggTrades(String symbol, Exchange exchange, String exchangeSymbol,
+                                        DataMarketType marketType, long startTime, long endTime,
+                                        AtomicBoolean cancelled) throws IOException {
+        String subKey = getCoverageSubKey(exchange, marketType);
         List<long[]> gaps = findGapsInSqlite(symbol, subKey, startTime, endTime);
 
         if (gaps.isEmpty()) {
             log.debug("SQLite cache hit for {} {} {} aggTrades", symbol, exchange.getShortName(), marketType.getShortName());
-            return sqliteStore.getAggTrades(symbol, startTime, endTime,
-                java.util.Set.of(marketType));
+            return readAggTrades(symbol, exchange, marketType, startTime, endTime);
         }
 
-        // Fetch via exchange client
         ExchangeClient exchangeClient = ExchangeClientFactory.getInstance().getClient(exchange);
-        if (exchangeClient == null) {
+        if (exchangeClient == null || exchangeSymbol == null) {
             log.warn("No client available for {}", exchange.getDisplayName());
-            return sqliteStore.getAggTrades(symbol, startTime, endTime,
-                java.util.Set.of(marketType));
+            return readAggTrades(symbol, exchange, marketType, startTime, endTime);
         }
 
-        String exchangeSymbol = exchangeClient.normalizeSymbol(
-            extractBase(symbol), extractQuote(symbol), marketType);
+        for (long[] gap : gaps) {
+            if (cancelled.get()) break;
 
-        log.info("Fetching {} aggTrades from {} (symbol: {})...",
-            symbol, exchange.getDisplayName(), exchangeSymbol);
+            log.info("Fetching {} aggTrades gap from {} (symbol: {}): {} - {}",
+                symbol, exchange.getDisplayName(), exchangeSymbol, gap[0], gap[1]);
 
-        List<AggTrade> trades = exchangeClient.fetchAllAggTrades(
-            exchangeSymbol, startTime, endTime, fetchCancelled, progressCallback);
+            List<AggTrade> trades = exchangeClient.fetchAllAggTrades(
+                exchangeSymbol, gap[0], gap[1], cancelled, progressCallback);
 
-        if (!trades.isEmpty()) {
-            saveToSqlite(symbol, trades);
+            if (!trades.isEmpty()) {
+                saveToSqlite(symbol, trades);
 
-            // Mark coverage for the range actually fetched (may be limited for non-Binance)
-            long actualStart = trades.get(0).timestamp();
-            long actualEnd = trades.get(trades.size() - 1).timestamp();
-            if (!fetchCancelled.get()) {
-                markCoverage(symbol, subKey, actualStart, actualEnd, true);
+                // Mark coverage for the range actually fetched (may be limited for non-Binance)
+                long actualStart = trades.get(0).timestamp();
+                long actualEnd = trades.get(trades.size() - 1).timestamp();
+                if (!cancelled.get()) {
+                    markCoverage(symbol, subKey, actualStart, actualEnd, true);
+                }
             }
         }
 
-        return sqliteStore.getAggTrades(symbol, startTime, endTime,
-            java.util.Set.of(marketType));
+        return readAggTrades(symbol, exchange, marketType, startTime, endTime);
+    }
+
+    /**
+     * Read one exchange's cached trades (all market types when marketType is null).
+     */
+    private List<AggTrade> readAggTrades(String symbol, Exchange exchange, DataMarketType marketType,
+                                         long startTime, long endTime) throws IOException {
+        return sqliteStore.getAggTrades(symbol, startTime, endTime, java.util.Set.of(exchange),
+            marketType != null ? java.util.Set.of(marketType) : null);
     }
 
     /**
@@ -704,7 +690,7 @@ public class AggTradesStore {
         if (gaps.isEmpty()) {
             // All data is cached in SQLite - fast path!
             log.debug("SQLite cache hit for {} aggTrades [{} - {}]", symbol, startTime, endTime);
-            return sqliteStore.getAggTrades(symbol, startTime, endTime);
+            return readAggTrades(symbol, Exchange.BINANCE, null, startTime, endTime);
         }
 
         // Calculate total uncached duration
@@ -719,7 +705,7 @@ public class AggTradesStore {
             try {
                 fetchViaVision(symbol, startTime, endTime);
                 // After Vision download, data should be in SQLite
-                return sqliteStore.getAggTrades(symbol, startTime, endTime);
+                return readAggTrades(symbol, Exchange.BINANCE, null, startTime, endTime);
             } catch (Exception e) {
                 log.warn("Vision download failed, falling back to API: {}", e.getMessage());
             }
@@ -781,7 +767,7 @@ public class AggTradesStore {
         }
 
         // Return all data from SQLite
-        return sqliteStore.getAggTrades(symbol, startTime, endTime);
+        return readAggTrades(symbol, Exchange.BINANCE, null, startTime, endTime);
     }
 
     /**
@@ -841,7 +827,7 @@ public class AggTradesStore {
      */
     public List<AggTrade> getAggTradesCacheOnly(String symbol, long startTime, long endTime) {
         try {
-            return sqliteStore.getAggTrades(symbol, startTime, endTime);
+            return readAggTrades(symbol, Exchange.BINANCE, null, startTime, endTime);
         } catch (IOException e) {
             log.warn("Failed to load aggTrades from SQLite: {}", e.getMessage());
             return new ArrayList<>();
@@ -3,6 +3,7 @@ package com.tradery.forge.data;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.*;
+import com.tradery.data.ratelimit.RateLimits;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -32,7 +33,6 @@ public class BinanceExchangeClient implements ExchangeClient {
 
     private static final int MAX_TRADES_PER_REQUEST = 1000;
     private static final int MAX_CANDLES_PER_REQUEST = 1000;
-    private static final long RATE_LIMIT_DELAY_MS = 50; // 1200 req/min = ~50ms between requests
 
     private final OkHttpClient client;
     private final ObjectMapper mapper;
@@ -46,7 +46,8 @@ public class BinanceExchangeClient implements ExchangeClient {
     public BinanceExchangeClient(DataMarketType defaultMarketType) {
         this.client = HttpClientFactory.getClient();
         this.mapper = HttpClientFactory.getMapper();
-        this.rateLimiter = ExchangeRateLimiter.fixedDelay(RATE_LIMIT_DELAY_MS);
+        this.rateLimiter = ExchangeRateLimiter.shared(defaultMarketType == DataMarketType.SPOT
+            ? RateLimits.binanceSpot() : RateLimits.binanceFutures());
         this.defaultMarketType = defaultMarketType;
     }
 
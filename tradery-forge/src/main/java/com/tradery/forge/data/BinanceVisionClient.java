@@ -13,10 +13,13 @@ import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
@@ -46,7 +49,6 @@ public class BinanceVisionClient {
     private static final int BATCH_SIZE = 10000; // Save to DB in batches
 
     private final OkHttpClient client;
-    private final OkHttpClient bulkClient;
     private final SqliteDataStore dataStore;
     private final int threadCount;
 
@@ -113,7 +115,6 @@ public class BinanceVisionClient {
 
     public BinanceVisionClient(SqliteDataStore dataStore, int threadCount) {
         this.client = HttpClientFactory.getClient();
-        this.bulkClient = HttpClientFactory.getBulkDownloadClient();
         this.dataStore = dataStore;
         this.threadCount = threadCount;
     }
@@ -345,56 +346,40 @@ public class BinanceVisionClient {
         String connectionKey = String.format("VISION:%s:%s:%s", symbol, dataType.name(), month);
         long requestStartTime = System.currentTimeMillis();
 
-        Request request = new Request.Builder()
-            .url(url)
-            .get()
-            .build();
-
-        // Use bulk client with 10-minute timeout for large ZIP files
-        try (Response response = bulkClient.newCall(request).execute()) {
-            long connectDuration = System.currentTimeMillis() - requestStartTime;
-
-            if (response.code() == 404) {
-                DownloadLogStore.getInstance().logConnectionClosed(connectionKey, "HTTP/Vision", "404 Not Found", false);
-                throw new IOException("404 Not Found: " + url);
-            }
-            if (!response.isSuccessful()) {
-                DownloadLogStore.getInstance().logConnectionClosed(connectionKey, "HTTP/Vision",
-                    response.code() + " " + response.message(), false);
-                throw new IOException("Download failed: " + response.code() + " " + response.message());
-            }
-
-            // Log successful connection
-            DownloadLogStore.getInstance().logConnectionOpened(connectionKey, "HTTP/Vision",
-                String.format("data.binance.vision %s", month), connectDuration);
-
-            // Get content length for progress logging
-            long contentLength = response.body().contentLength();
-            if (contentLength > 0) {
-                log.info("Downloading {} ({} MB)...", month, String.format("%.1f", contentLength / 1_000_000.0));
-            }
+        // Local verified copy from the archive cache; downloads (and resumes) only if missing
+        Path archive;
+        try {
+            archive = VisionArchives.cache().fetch(url);
+        } catch (IOException e) {
+            DownloadLogStore.getInstance().logConnectionClosed(connectionKey, "HTTP/Vision", e.getMessage(), false);
+            throw e;
+        }
+        DownloadLogStore.getInstance().logConnectionOpened(connectionKey, "HTTP/Vision",
+            String.format("data.binance.vision %s", month), System.currentTimeMillis() - requestStartTime);
+        log.debug("Parsing {} ({} MB)", month, String.format("%.1f", Files.size(archive) / 1_000_000.0));
 
-            // Parse ZIP in memory and extract CSV records
-            List<String> records = parseZipStream(response.body().byteStream());
+        // Parse ZIP and extract CSV records
+        List<String> records;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archive))) {
+            records = parseZipStream(in);
+        }
 
-            // Log connection close
-            DownloadLogStore.getInstance().logConnectionClosed(connectionKey, "HTTP/Vision",
-                String.format("%d records downloaded", records.size()), false);
+        DownloadLogStore.getInstance().logConnectionClosed(connectionKey, "HTTP/Vision",
+            String.format("%d records downloaded", records.size()), false);
 
-            if (records.isEmpty()) {
-                log.debug("No records in {}", url);
-                return 0;
-            }
+        if (records.isEmpty()) {
+            log.debug("No records in {}", url);
+            return 0;
+        }
 
-            // Save records to database
-            saver.save(records, symbol, interval);
+        // Save records to database
+        saver.save(records, symbol, interval);
 
-            // Mark month as covered
-            markMonthCovered(dataType, symbol, interval, month);
+        // Mark month as covered
+        markMonthCovered(dataType, symbol, interval, month);
 
-            log.debug("Saved {} records for {} {}", records.size(), symbol, month);
-            return records.size();
-        }
+        log.debug("Saved {} records for {} {}", records.size(), symbol, month);
+        return records.size();
     }
 
     /**
@@ -701,6 +686,14 @@ public class BinanceVisionClient {
     public boolean isMonthAvailable(VisionDataType dataType, String symbol, String interval, YearMonth month) {
         String url = buildUrl(dataType, symbol, interval, month);
 
+        try {
+            if (VisionArchives.cache().lookup(url) != null) {
+                return true;
+            }
+        } catch (IOException e) {
+            log.debug("Archive cache lookup failed for {}: {}", url, e.getMessage());
+        }
+
         Request request = new Request.Builder()
             .url(url)
             .head()
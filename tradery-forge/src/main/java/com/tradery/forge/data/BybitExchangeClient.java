@@ -3,6 +3,7 @@ package com.tradery.forge.data;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.*;
+import com.tradery.data.ratelimit.RateLimits;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -29,8 +30,6 @@ public class BybitExchangeClient implements ExchangeClient {
 
     private static final String BASE_URL = "https://api.bybit.com";
 
-    // Bybit allows ~120 req/min for public endpoints; use 100ms for safety
-    private static final long RATE_LIMIT_DELAY_MS = 100;
     private static final int MAX_TRADES_PER_REQUEST = 1000;
     private static final int MAX_CANDLES_PER_REQUEST = 1000;
 
@@ -46,7 +45,7 @@ public class BybitExchangeClient implements ExchangeClient {
     public BybitExchangeClient(DataMarketType defaultMarketType) {
         this.client = HttpClientFactory.getClient();
         this.mapper = HttpClientFactory.getMapper();
-        this.rateLimiter = ExchangeRateLimiter.fixedDelay(RATE_LIMIT_DELAY_MS);
+        this.rateLimiter = ExchangeRateLimiter.shared(RateLimits.bybit());
         this.defaultMarketType = defaultMarketType;
     }
 
@@ -1,13 +1,15 @@
 package com.tradery.forge.data;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import com.tradery.data.coverage.Intervals;
+
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Maintains a set of non-overlapping time ranges.
- * Thread-safe for concurrent access.
+ * Thread-safe for concurrent access: queries read an immutable snapshot without locking,
+ * updates swap in a new one. Ranges are inclusive and merge when they touch, the same as
+ * the data_coverage table.
  * Used by DataInventory to track what data is cached.
  */
 public final class DateRangeSet {
@@ -24,7 +26,7 @@ public final class DateRangeSet {
         }
 
         public boolean adjacent(Range other) {
-            return this.end == other.start || other.end == this.start;
+            return this.end + 1 == other.start || other.end + 1 == this.start;
         }
 
         public boolean contains(long time) {
@@ -40,145 +42,95 @@ public final class DateRangeSet {
         }
 
         public long duration() {
-            return end - start;
+            return end - start + 1;
         }
     }
 
-    private final List<Range> ranges = new ArrayList<>();
+    private final AtomicReference<Intervals> ranges = new AtomicReference<>(Intervals.EMPTY);
 
     /**
      * Add a range, merging with any overlapping or adjacent ranges.
      */
-    public synchronized void add(long start, long end) {
+    public void add(long start, long end) {
         if (start > end) return;
-
-        Range newRange = new Range(start, end);
-        List<Range> merged = new ArrayList<>();
-        Range current = newRange;
-
-        for (Range existing : ranges) {
-            if (existing.overlaps(current) || existing.adjacent(current)) {
-                current = current.merge(existing);
-            } else {
-                merged.add(existing);
-            }
-        }
-
-        merged.add(current);
-        merged.sort(Comparator.comparingLong(Range::start));
-
-        ranges.clear();
-        ranges.addAll(merged);
+        ranges.updateAndGet(r -> r.with(start, end));
     }
 
     /**
      * Check if the entire range is covered.
      */
-    public synchronized boolean contains(long start, long end) {
-        if (start > end) return true;
-
-        Range query = new Range(start, end);
-        for (Range range : ranges) {
-            if (range.containsRange(query)) {
-                return true;
-            }
-        }
-        return false;
+    public boolean contains(long start, long end) {
+        return ranges.get().covers(start, end);
     }
 
     /**
      * Check if a specific timestamp is covered.
      */
-    public synchronized boolean containsTime(long time) {
-        for (Range range : ranges) {
-            if (range.contains(time)) {
-                return true;
-            }
-        }
-        return false;
+    public boolean containsTime(long time) {
+        return ranges.get().contains(time);
     }
 
     /**
      * Find gaps in coverage for a given range.
      * Returns list of ranges that are NOT covered.
      */
-    public synchronized List<Range> findGaps(long start, long end) {
-        if (start >= end) return Collections.emptyList();
-
-        List<Range> gaps = new ArrayList<>();
-        long current = start;
-
-        for (Range range : ranges) {
-            if (range.end < current) {
-                continue; // Already past this range
-            }
-            if (range.start > end) {
-                break; // Past the query range
-            }
-
-            // Gap before this range?
-            if (range.start > current) {
-                gaps.add(new Range(current, Math.min(range.start, end)));
-            }
-
-            // Move current past this range
-            current = Math.max(current, range.end);
-        }
-
-        // Gap after all ranges?
-        if (current < end) {
-            gaps.add(new Range(current, end));
-        }
-
-        return gaps;
+    public List<Range> findGaps(long start, long end) {
+        return ranges.get().gaps(start, end).stream()
+            .map(g -> new Range(g[0], g[1]))
+            .toList();
     }
 
     /**
      * Get all ranges (read-only copy).
      */
-    public synchronized List<Range> getRanges() {
-        return new ArrayList<>(ranges);
+    public List<Range> getRanges() {
+        return ranges.get().ranges().stream()
+            .map(r -> new Range(r[0], r[1]))
+            .toList();
     }
 
     /**
      * Get total covered duration in milliseconds.
      */
-    public synchronized long getTotalCoverage() {
-        return ranges.stream().mapToLong(Range::duration).sum();
+    public long getTotalCoverage() {
+        return ranges.get().totalLength();
     }
 
     /**
      * Clear all ranges.
      */
-    public synchronized void clear() {
-        ranges.clear();
+    public void clear() {
+        ranges.set(Intervals.EMPTY);
     }
 
     /**
      * Check if empty.
      */
-    public synchronized boolean isEmpty() {
-        return ranges.isEmpty();
+    public boolean isEmpty() {
+        return ranges.get().isEmpty();
     }
 
     /**
      * Get the earliest covered time, or -1 if empty.
      */
-    public synchronized long getEarliestTime() {
-        return ranges.isEmpty() ? -1 : ranges.get(0).start();
+    public long getEarliestTime() {
+        Intervals r = ranges.get();
+        return r.isEmpty() ? -1 : r.start(0);
     }
 
     /**
      * Get the latest covered time, or -1 if empty.
      */
-    public synchronized long getLatestTime() {
-        return ranges.isEmpty() ? -1 : ranges.get(ranges.size() - 1).end();
+    public long getLatestTime() {
+        Intervals r = ranges.get();
+        return r.isEmpty() ? -1 : r.end(r.size() - 1);
     }
 
     @Override
-    public synchronized String toString() {
-        if (ranges.isEmpty()) return "DateRangeSet[]";
-        return "DateRangeSet[" + ranges.size() + " ranges, " +
-               (getTotalCoverage() / 3600000) + "h coverage]";
+    public String toString() {
+        Intervals r = ranges.get();
+        if (r.isEmpty()) return "DateRangeSet[]";
+        return "DateRangeSet[" + r.size() + " ranges, " +
+               (r.totalLength() / 3600000) + "h coverage]";
     }
 }
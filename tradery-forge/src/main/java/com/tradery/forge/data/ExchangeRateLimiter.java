@@ -1,5 +1,9 @@
 package com.tradery.forge.data;
 
+import com.tradery.data.ratelimit.WeightBudget;
+
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Rate limiter interface for exchange API requests.
  * Each exchange has different rate limits.
@@ -36,65 +40,123 @@ public interface ExchangeRateLimiter {
     static ExchangeRateLimiter fixedDelay(long delayMs) {
         return new FixedDelayRateLimiter(delayMs);
     }
+
+    /**
+     * View of a shared weight budget. Requests made through {@link HttpClientFactory} are
+     * charged their real weight by the HTTP client; {@link #acquire()} only waits until the
+     * budget has room and is not backing off.
+     */
+    static ExchangeRateLimiter shared(WeightBudget budget) {
+        return new SharedBudgetRateLimiter(budget);
+    }
 }
 
 /**
  * Simple fixed-delay rate limiter implementation.
+ * Callers reserve the next free slot atomically and sleep outside any lock.
  */
 class FixedDelayRateLimiter implements ExchangeRateLimiter {
     private final long delayMs;
-    private long lastRequestTime = 0;
+    private final AtomicLong nextSlot = new AtomicLong();
 
     FixedDelayRateLimiter(long delayMs) {
         this.delayMs = delayMs;
     }
 
     @Override
-    public synchronized void acquire() {
-        long now = System.currentTimeMillis();
-        long elapsed = now - lastRequestTime;
-        if (elapsed < delayMs) {
+    public void acquire() {
+        long waitMs = reserve(Long.MAX_VALUE);
+        if (waitMs > 0) {
             try {
-                Thread.sleep(delayMs - elapsed);
+                Thread.sleep(waitMs);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
-        lastRequestTime = System.currentTimeMillis();
     }
 
     @Override
-    public synchronized boolean tryAcquire(long timeoutMs) {
-        long now = System.currentTimeMillis();
-        long elapsed = now - lastRequestTime;
-        long waitTime = delayMs - elapsed;
-
-        if (waitTime <= 0) {
-            lastRequestTime = now;
-            return true;
+    public boolean tryAcquire(long timeoutMs) {
+        long waitMs = reserve(timeoutMs);
+        if (waitMs < 0) {
+            return false;
+        }
+        if (waitMs > 0) {
+            try {
+                Thread.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
         }
+        return true;
+    }
 
-        if (waitTime > timeoutMs) {
-            return false;
+    /**
+     * Claim the next slot; returns how long to wait for it, or -1 if that exceeds the timeout.
+     */
+    private long reserve(long timeoutMs) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            long slot = nextSlot.get();
+            long start = Math.max(now, slot);
+            long waitMs = start - now;
+            if (waitMs > timeoutMs) {
+                return -1;
+            }
+            if (nextSlot.compareAndSet(slot, start + delayMs)) {
+                return waitMs;
+            }
         }
+    }
 
+    @Override
+    public long getMinDelayMs() {
+        return delayMs;
+    }
+
+    @Override
+    public int getRequestsPerMinute() {
+        return (int) (60000 / delayMs);
+    }
+}
+
+/**
+ * Rate limiter backed by a process-wide {@link WeightBudget}.
+ */
+class SharedBudgetRateLimiter implements ExchangeRateLimiter {
+    private final WeightBudget budget;
+
+    SharedBudgetRateLimiter(WeightBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void acquire() {
         try {
-            Thread.sleep(waitTime);
+            budget.awaitAvailable(1, Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean tryAcquire(long timeoutMs) {
+        try {
+            return budget.awaitAvailable(1, timeoutMs);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return false;
         }
-        lastRequestTime = System.currentTimeMillis();
-        return true;
     }
 
     @Override
     public long getMinDelayMs() {
-        return delayMs;
+        return Math.max(1, budget.getWindowMs() / budget.getCapacity());
     }
 
     @Override
     public int getRequestsPerMinute() {
-        return (int) (60000 / delayMs);
+        return (int) (budget.getCapacity() * 60_000L / budget.getWindowMs());
     }
 }
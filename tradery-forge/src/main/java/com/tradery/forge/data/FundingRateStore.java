@@ -1,6 +1,7 @@
 package com.tradery.forge.data;
 
 import com.tradery.core.model.FundingRate;
+import com.tradery.data.ratelimit.RateLimitInterceptor;
 import com.tradery.forge.data.sqlite.SqliteDataStore;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -54,6 +55,7 @@ public class FundingRateStore {
         this.httpClient = new OkHttpClient.Builder()
             .connectTimeout(30, java.util.concurrent.TimeUnit.SECONDS)
             .readTimeout(60, java.util.concurrent.TimeUnit.SECONDS)
+            .addInterceptor(RateLimitInterceptor.INSTANCE)
             .build();
 
         if (!dataDir.exists()) {
@@ -3,6 +3,7 @@ package com.tradery.forge.data;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tradery.data.ratelimit.RateLimitInterceptor;
 import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 
@@ -13,7 +14,7 @@ import java.util.concurrent.TimeUnit;
  * Eliminates duplicate client creation across API classes.
  *
  * Thread-safe singleton pattern for shared resources:
- * - OkHttpClient with connection pooling
+ * - OkHttpClient with connection pooling, charging exchange calls against shared rate limit budgets
  * - ObjectMapper with standard configuration
  */
 public final class HttpClientFactory {
@@ -30,6 +31,7 @@ public final class HttpClientFactory {
             .readTimeout(30, TimeUnit.SECONDS)
             .writeTimeout(30, TimeUnit.SECONDS)
             .retryOnConnectionFailure(true)
+            .addInterceptor(RateLimitInterceptor.INSTANCE)
             .build();
 
         // Client for bulk file downloads (Vision ZIP files can be 50-200MB)
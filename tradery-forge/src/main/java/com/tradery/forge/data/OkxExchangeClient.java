@@ -3,6 +3,7 @@ package com.tradery.forge.data;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradery.core.model.*;
+import com.tradery.data.ratelimit.RateLimits;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -30,8 +31,6 @@ public class OkxExchangeClient implements ExchangeClient {
 
     private static final String BASE_URL = "https://www.okx.com";
 
-    // OKX allows 20 req/2sec for public endpoints; use 100ms for safety
-    private static final long RATE_LIMIT_DELAY_MS = 100;
     private static final int MAX_TRADES_PER_REQUEST = 100; // history-trades limit
     private static final int MAX_RECENT_TRADES = 500;      // recent trades limit
     private static final int MAX_CANDLES_PER_REQUEST = 300;
@@ -49,7 +48,7 @@ public class OkxExchangeClient implements ExchangeClient {
     public OkxExchangeClient(DataMarketType defaultMarketType) {
         this.client = HttpClientFactory.getClient();
         this.mapper = HttpClientFactory.getMapper();
-        this.rateLimiter = ExchangeRateLimiter.fixedDelay(RATE_LIMIT_DELAY_MS);
+        this.rateLimiter = ExchangeRateLimiter.shared(RateLimits.okx());
         this.defaultMarketType = defaultMarketType;
     }
 
@@ -695,29 +694,11 @@ public class OkxExchangeClient implements ExchangeClient {
 
     // ========== Helper Methods ==========
 
-    private static final int MAX_RETRIES = 3;
-    private static final long RETRY_DELAY_MS = 2000;
-
     /**
-     * Execute an OKX API request with automatic retry on 429 (rate limit).
+     * Execute an OKX API request. 429s are retried by the shared rate limit interceptor
+     * once the OKX budget's backoff has passed.
      */
     private Response executeWithRetry(Request request) throws IOException {
-        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
-            Response response = client.newCall(request).execute();
-            if (response.code() != 429) {
-                return response;
-            }
-            response.close();
-            log.debug("OKX 429 rate limited, retrying in {}ms (attempt {}/{})",
-                RETRY_DELAY_MS, attempt + 1, MAX_RETRIES);
-            try {
-                Thread.sleep(RETRY_DELAY_MS * (attempt + 1));
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new IOException("Interrupted during rate limit retry", e);
-            }
-        }
-        // Final attempt — let it throw if still 429
         return client.newCall(request).execute();
     }
 
@@ -1,5 +1,7 @@
 package com.tradery.forge.data;
 
+import com.tradery.data.ratelimit.RateLimits;
+import com.tradery.data.ratelimit.WeightBudget;
 import com.tradery.forge.data.sqlite.SqliteDataStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,13 +15,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * Background scheduler for preloading data at low priority.
  * Single thread processes queue, pauses when trading load is active.
+ * The worker blocks on the queue, the pause and the API budget instead of polling.
  * Thread-safe for concurrent queue/pause operations.
  */
 public final class PreloadScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(PreloadScheduler.class);
-    private static final long RATE_LIMIT_DELAY_MS = 500;  // Delay between API calls
-    private static final long PAUSE_CHECK_INTERVAL_MS = 100;
+    private static final double MAX_BUDGET_UTILIZATION = 0.5;  // Leave the rest of the API budget to foreground loads
 
     private final PriorityBlockingQueue<PreloadRequest> queue;
     private final Set<String> queuedKeys;  // For deduplication
@@ -27,6 +29,7 @@ public final class PreloadScheduler {
     private final AtomicBoolean tradingLoadActive;
     private final AtomicBoolean running;
     private final AtomicBoolean shuttingDown;
+    private final Object pauseLock = new Object();
 
     // Store references (set via setStores after construction)
     private SqliteDataStore dataStore;
@@ -152,7 +155,10 @@ public final class PreloadScheduler {
      * Resume preloading after trading load completes.
      */
     public void resumeAfterTradingLoad() {
-        tradingLoadActive.set(false);
+        synchronized (pauseLock) {
+            tradingLoadActive.set(false);
+            pauseLock.notifyAll();
+        }
         log.debug("PreloadScheduler resumed");
     }
 
@@ -187,30 +193,31 @@ public final class PreloadScheduler {
         while (running.get() && !shuttingDown.get()) {
             try {
                 // Wait while paused for trading load
-                while (tradingLoadActive.get() && running.get()) {
-                    Thread.sleep(PAUSE_CHECK_INTERVAL_MS);
+                synchronized (pauseLock) {
+                    while (tradingLoadActive.get() && running.get()) {
+                        pauseLock.wait();
+                    }
                 }
 
                 if (!running.get()) break;
 
-                // Get next request (blocking)
-                PreloadRequest request = queue.poll();
-                if (request == null) {
-                    Thread.sleep(PAUSE_CHECK_INTERVAL_MS);
-                    continue;
-                }
+                // Get next request (blocking; shutdown interrupts)
+                PreloadRequest request = queue.take();
 
                 // Remove from dedupe set
                 synchronized (queuedKeys) {
                     queuedKeys.remove(request.getDedupeKey());
                 }
 
+                // Preloads are low priority: wait while foreground loads are using the API budget.
+                // Requests themselves are paced by the shared rate limiter in the HTTP client.
+                WeightBudget budget = RateLimits.binanceFutures();
+                budget.awaitAvailable((int) (budget.getCapacity() * (1 - MAX_BUDGET_UTILIZATION)), Long.MAX_VALUE);
+                if (!running.get()) break;
+
                 // Process the request
                 processRequest(request);
 
-                // Rate limit to avoid hammering API
-                Thread.sleep(RATE_LIMIT_DELAY_MS);
-
             } catch (InterruptedException e) {
                 if (!shuttingDown.get()) {
                     log.debug("PreloadScheduler interrupted");
@@ -1,6 +1,7 @@
 package com.tradery.forge.data;
 
 import com.tradery.core.model.PremiumIndex;
+import com.tradery.data.ratelimit.RateLimitInterceptor;
 import com.tradery.forge.data.sqlite.SqliteDataStore;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -51,6 +52,7 @@ public class PremiumIndexStore {
         this.httpClient = new OkHttpClient.Builder()
             .connectTimeout(30, TimeUnit.SECONDS)
             .readTimeout(60, TimeUnit.SECONDS)
+            .addInterceptor(RateLimitInterceptor.INSTANCE)
             .build();
 
         if (!dataDir.exists()) {
@@ -0,0 +1,42 @@
+package com.tradery.forge.data;
+
+import com.tradery.data.archive.ArchiveCache;
+import com.tradery.data.archive.ArchiveTransport;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The Binance Vision archive cache (~/.tradery/archives, shared with the data service).
+ * Downloads go through the bulk download client.
+ * Size limit: tradery.data.archive_cache_gb / TRADERY_ARCHIVE_CACHE_GB (default 20, 0 = unlimited).
+ */
+final class VisionArchives {
+
+    private static final ArchiveCache CACHE = new ArchiveCache(
+        Path.of(System.getProperty("user.home"), ".tradery", "archives"), VisionArchives::get, maxBytes());
+
+    private VisionArchives() {}
+
+    static ArchiveCache cache() {
+        return CACHE;
+    }
+
+    private static ArchiveTransport.Body get(String url, long offset) throws IOException {
+        Request.Builder builder = new Request.Builder().url(url).get();
+        if (offset > 0) {
+            builder.header("Range", "bytes=" + offset + "-");
+        }
+        Response response = HttpClientFactory.getBulkDownloadClient().newCall(builder.build()).execute();
+        return ArchiveTransport.fromResponse(url, offset, response.code(), response.body().contentLength(),
+            response.header("Content-Range"), response.body().byteStream(), response::close);
+    }
+
+    private static long maxBytes() {
+        long gb = Long.parseLong(System.getProperty("tradery.data.archive_cache_gb",
+            System.getenv().getOrDefault("TRADERY_ARCHIVE_CACHE_GB", "20")));
+        return gb * 1024 * 1024 * 1024;
+    }
+}
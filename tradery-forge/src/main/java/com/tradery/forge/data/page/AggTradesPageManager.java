@@ -12,7 +12,6 @@ import com.tradery.forge.data.log.DownloadLogStore;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Page manager for aggregated trade data.
@@ -22,8 +21,9 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class AggTradesPageManager extends DataPageManager<AggTrade> {
 
-    // Current record count (AtomicLong for thread-safe compound operations)
-    private final AtomicLong currentRecordCount = new AtomicLong(0);
+    // An AggTrade object (header, 7 numeric fields, 3 references, aligned) plus its list slot;
+    // the referenced enums and symbol strings are shared
+    private static final int RECORD_SIZE_BYTES = 96;
 
     public AggTradesPageManager() {
         super(DataType.AGG_TRADES, 2);
@@ -130,9 +130,8 @@ public class AggTradesPageManager extends DataPageManager<AggTrade> {
 
             long totalDuration = System.currentTimeMillis() - requestStart;
 
-            // Track memory
-            int oldCount = page.getRecordCount();
-            long newTotal = currentRecordCount.addAndGet(allTrades.size() - oldCount);
+            // Total once this page's data replaces its previous data
+            long newTotal = getTotalRecordCount() - page.getRecordCount() + allTrades.size();
 
             log.info("AggTradesPageManager.loadData (WS): {} got {} trades in {}ms (total in memory: {})",
                 symbol, allTrades.size(), totalDuration, newTotal);
@@ -175,6 +174,26 @@ public class AggTradesPageManager extends DataPageManager<AggTrade> {
      * Get current memory usage (record count).
      */
     public long getCurrentRecordCount() {
-        return currentRecordCount.get();
+        return getTotalRecordCount();
+    }
+
+    @Override
+    protected int getRecordSizeBytes() {
+        return RECORD_SIZE_BYTES;
+    }
+
+    @Override
+    protected byte[] encodeSpill(List<AggTrade> data) throws Exception {
+        ApplicationContext ctx = ApplicationContext.getInstance();
+        if (ctx == null || ctx.getDataServiceClient() == null) return null;
+        return ctx.getDataServiceClient().getMsgpackMapper().writeValueAsBytes(data);
+    }
+
+    @Override
+    protected List<AggTrade> decodeSpill(byte[] data) throws Exception {
+        ApplicationContext ctx = ApplicationContext.getInstance();
+        if (ctx == null || ctx.getDataServiceClient() == null) return null;
+        var mapper = ctx.getDataServiceClient().getMsgpackMapper();
+        return mapper.readValue(data, mapper.getTypeFactory().constructCollectionType(List.class, AggTrade.class));
     }
 }
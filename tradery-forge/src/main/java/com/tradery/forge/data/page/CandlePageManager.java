@@ -15,6 +15,7 @@ public class CandlePageManager extends DataServicePageManager<Candle> {
         super(DataType.CANDLES, 4,
             "data-service/candles", 88,
             (mapper, data) -> mapper.readValue(data,
-                mapper.getTypeFactory().constructCollectionType(List.class, Candle.class)));
+                mapper.getTypeFactory().constructCollectionType(List.class, Candle.class)),
+            Candle::timestamp);
     }
 }
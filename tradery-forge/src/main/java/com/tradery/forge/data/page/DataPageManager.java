@@ -6,14 +6,20 @@ import com.tradery.data.page.DataPageView;
 import com.tradery.data.page.DataType;
 import com.tradery.data.page.PageKey;
 import com.tradery.data.page.PageState;
+import com.tradery.data.page.ReadAheadPolicy;
 import com.tradery.forge.data.log.DownloadLogStore;
+import com.tradery.ui.status.EdtWatchdog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.function.ToLongFunction;
 
 /**
  * Abstract base class for data page managers.
@@ -25,10 +31,22 @@ import java.util.concurrent.*;
  * - Listener management (multiple listeners per page)
  * - Async data loading (never blocks)
  * - EDT-safe callbacks
+ * - Read-ahead (see below)
+ *
+ * Read-ahead: managers that know their records' timestamps ({@link #recordTime()}) follow each
+ * consumer's requested range. When it pans or is extended, a page covering the current range
+ * plus the next step is loaded on a separate low-priority thread (and at "preload" priority in
+ * the data service). A request whose range lies inside any loaded page is filled from that
+ * page's records instead of loading again. Unrequested read-ahead pages are dropped after
+ * {@link #READ_AHEAD_TTL_MS}.
+ *
+ * Memory: with a {@link PageMemoryBudget} attached, the manager's page memory counts against
+ * the shared budget, and pages no consumer holds can be evicted (and spilled, if the manager
+ * supports it) before their cleanup timers.
  *
  * @param <T> The type of data records managed
  */
-public abstract class DataPageManager<T> {
+public abstract class DataPageManager<T> implements PageMemoryBudget.Pool {
 
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -53,6 +71,18 @@ public abstract class DataPageManager<T> {
     // Background executor for data loading
     protected final ExecutorService loadExecutor;
 
+    // Read-ahead: pages loaded ahead of consumers, until one requests them
+    protected static final long READ_AHEAD_TTL_MS = 60_000;
+    protected final ReadAheadPolicy readAhead = new ReadAheadPolicy();
+    private final Set<String> readAheadPages = ConcurrentHashMap.newKeySet();
+    private final Map<String, Future<?>> queuedReadAheads = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pageHits = new ConcurrentHashMap<>();
+    private final ExecutorService readAheadExecutor;
+
+    // Shared memory budget (optional) and last request/release per page for LRU eviction
+    private volatile PageMemoryBudget memoryBudget;
+    private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+
     // The data type this manager handles
     protected final DataType dataType;
 
@@ -78,6 +108,13 @@ public abstract class DataPageManager<T> {
             t.setDaemon(true);
             return t;
         });
+        // One thread, so read-ahead never takes a load slot from a consumer's request
+        this.readAheadExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, dataType.getDisplayName() + "PageReadAhead");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
     }
 
     /**
@@ -109,6 +146,10 @@ public abstract class DataPageManager<T> {
             log.debug("Cancelled deferred cleanup for page: {}", key);
         }
 
+        // A read-ahead page now has a consumer
+        boolean fromReadAhead = readAheadPages.remove(key);
+        lastAccess.put(key, System.currentTimeMillis());
+
         // Get or create page (deduplication)
         DataPage<T> page = pages.computeIfAbsent(key, k ->
             createPage(symbol, timeframe, startTime, endTime));
@@ -125,17 +166,31 @@ public abstract class DataPageManager<T> {
             anonymousRefs.merge(key, 1, Integer::sum);
         }
 
-        // If empty, start loading
+        // If empty, fill from a loaded page covering the range, or start loading
         if (page.getState() == PageState.EMPTY) {
-            startLoad(page);
-        } else if (listener != null && page.getState() == PageState.READY) {
-            // Page already ready - notify listener immediately on EDT
-            SwingUtilities.invokeLater(() -> {
-                listener.onStateChanged(page, PageState.EMPTY, PageState.READY);
-                listener.onDataChanged(page);
-            });
+            if (!fillFromCoveringPage(page)) {
+                readAhead.recordMiss();
+                startLoad(page);
+            }
+        } else {
+            if (page.getState() != PageState.ERROR) {
+                readAhead.recordHit(fromReadAhead);
+                pageHits.merge(key, 1, Integer::sum);
+            }
+            if (fromReadAhead) {
+                claimReadAhead(key, page);
+            }
+            if (listener != null && page.getState() == PageState.READY) {
+                // Page already ready - notify listener immediately on EDT
+                SwingUtilities.invokeLater(() -> {
+                    listener.onStateChanged(page, PageState.EMPTY, PageState.READY);
+                    listener.onDataChanged(page);
+                });
+            }
         }
 
+        scheduleReadAhead(symbol, timeframe, startTime, endTime, consumerName);
+
         return page;  // Returns as DataPageView (interface)
     }
 
@@ -149,6 +204,7 @@ public abstract class DataPageManager<T> {
         if (pageView == null) return;
 
         String key = keyOf(pageView);
+        lastAccess.put(key, System.currentTimeMillis());
 
         // Remove listener or decrement anonymous refs
         if (listener != null) {
@@ -176,10 +232,7 @@ public abstract class DataPageManager<T> {
             // Defer cleanup to allow release-then-re-request patterns
             // (e.g., overlay teardown/rebuild cycles) without thrashing
             if (!pendingCleanups.containsKey(key)) {
-                ScheduledFuture<?> future = cleanupScheduler.schedule(
-                    () -> cleanupPage(key), CLEANUP_DELAY_MS, TimeUnit.MILLISECONDS);
-                pendingCleanups.put(key, future);
-                log.debug("Scheduled deferred cleanup for page: {} ({}ms)", key, CLEANUP_DELAY_MS);
+                scheduleCleanup(key, CLEANUP_DELAY_MS);
             }
         } else {
             int listenerCount = remaining != null ? remaining.size() : 0;
@@ -188,6 +241,16 @@ public abstract class DataPageManager<T> {
         }
     }
 
+    private void scheduleCleanup(String key, long delayMs) {
+        ScheduledFuture<?> future = cleanupScheduler.schedule(
+            () -> cleanupPage(key), delayMs, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = pendingCleanups.put(key, future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        log.debug("Scheduled deferred cleanup for page: {} ({}ms)", key, delayMs);
+    }
+
     /**
      * Deferred cleanup: actually destroy the page if still unused.
      * Re-checks consumers since a new request may have arrived during the grace period.
@@ -207,13 +270,27 @@ public abstract class DataPageManager<T> {
 
         DataPage<T> page = pages.remove(key);
         listeners.remove(key);
+        pageHits.remove(key);
+        if (readAheadPages.remove(key)) {
+            Future<?> queued = queuedReadAheads.remove(key);
+            if (queued != null) {
+                queued.cancel(false);
+            }
+        }
+        lastAccess.remove(key);
         if (page != null) {
+            spill(key, page);
             onPageReleased(page);
             DownloadLogStore.getInstance().logPageReleased(key, dataType);
         }
         log.debug("Deferred cleanup completed: {}", key);
     }
 
+    private boolean isHeld(String key) {
+        Set<DataPageListener<T>> pageListeners = listeners.get(key);
+        return (pageListeners != null && !pageListeners.isEmpty()) || anonymousRefs.containsKey(key);
+    }
+
     /**
      * Get an existing page without incrementing reference count.
      * Used for checking if data is already available.
@@ -249,9 +326,11 @@ public abstract class DataPageManager<T> {
 
     /**
      * Assert that we're NOT on the EDT. Call at the start of blocking operations.
+     * Violations are also recorded by the EDT watchdog, with the caller's stack.
      */
     protected void assertNotEDT(String operation) {
         if (SwingUtilities.isEventDispatchThread()) {
+            EdtWatchdog.reportOffEdtCall(operation);
             throw new IllegalStateException(
                 operation + " must not be called from EDT - would block UI");
         }
@@ -259,6 +338,44 @@ public abstract class DataPageManager<T> {
 
     // ========== Template Methods (Override if needed) ==========
 
+    /**
+     * Timestamp of a record, used to cut a requested range out of a larger loaded page.
+     * Null (the default) disables read-ahead and covering-page hits for this manager.
+     */
+    protected ToLongFunction<T> recordTime() {
+        return null;
+    }
+
+    /**
+     * Whether a page is being loaded ahead of any consumer. Loaders can request it from
+     * their source at a lower priority.
+     */
+    protected boolean isReadAhead(DataPage<T> page) {
+        return readAheadPages.contains(keyOf(page));
+    }
+
+    /**
+     * Called when a consumer requests a read-ahead page whose load has already started.
+     * Override to raise the load's priority at the source.
+     */
+    protected void onReadAheadClaimed(DataPage<T> page) {
+        // Default: do nothing
+    }
+
+    /**
+     * Encode page data for spilling to disk. Null (the default) means this manager doesn't spill.
+     */
+    protected byte[] encodeSpill(List<T> data) throws Exception {
+        return null;
+    }
+
+    /**
+     * Decode data written by {@link #encodeSpill}.
+     */
+    protected List<T> decodeSpill(byte[] data) throws Exception {
+        return null;
+    }
+
     /**
      * Called when a page is fully released (ref count = 0).
      * Override to perform cleanup like freeing memory.
@@ -314,6 +431,10 @@ public abstract class DataPageManager<T> {
      * Start async loading for a page.
      */
     protected void startLoad(DataPage<T> page) {
+        startLoad(page, loadExecutor);
+    }
+
+    private Future<?> startLoad(DataPage<T> page, ExecutorService executor) {
         PageState oldState = page.getState();
         PageState newState = page.isEmpty() ? PageState.LOADING : PageState.UPDATING;
 
@@ -330,24 +451,129 @@ public abstract class DataPageManager<T> {
             logStore.logUpdateStarted(page.getKey(), dataType);
         }
 
-        loadExecutor.submit(() -> {
-            try {
-                assertNotEDT("loadData");
-                loadData(page);
-            } catch (Exception e) {
-                log.warn("Failed to load {}: {}", page.getKey(), e.getMessage());
-                updatePageError(page, e.getMessage());
+        return executor.submit(() -> runLoad(page));
+    }
+
+    private void runLoad(DataPage<T> page) {
+        try {
+            assertNotEDT("loadData");
+            if (restoreSpilled(page)) return;
+            loadData(page);
+        } catch (Exception e) {
+            log.warn("Failed to load {}: {}", page.getKey(), e.getMessage());
+            updatePageError(page, e.getMessage());
+        }
+    }
+
+    // ========== Read-ahead ==========
+
+    /**
+     * Fill a new page from a loaded page whose range covers it, without loading.
+     */
+    private boolean fillFromCoveringPage(DataPage<T> page) {
+        ToLongFunction<T> time = recordTime();
+        if (time == null) return false;
+
+        String key = keyOf(page);
+        for (Map.Entry<String, DataPage<T>> entry : pages.entrySet()) {
+            DataPage<T> source = entry.getValue();
+            if (source == page || !ReadAheadPolicy.covers(source, page, time)) {
+                continue;
+            }
+
+            String sourceKey = entry.getKey();
+            boolean fromReadAhead = readAheadPages.contains(sourceKey);
+            readAhead.recordHit(fromReadAhead);
+            pageHits.merge(sourceKey, 1, Integer::sum);
+            if (fromReadAhead) {
+                // Still useful: keep it around for the next step
+                scheduleCleanup(sourceKey, READ_AHEAD_TTL_MS);
+            }
+
+            // LOADING right away so a concurrent request for this key doesn't fill it again
+            page.setState(PageState.LOADING);
+            page.setLoadStartTime(System.currentTimeMillis());
+            DownloadLogStore.getInstance().logLoadStarted(key, dataType, page.getSymbol(), page.getTimeframe());
+            updatePageData(page, ReadAheadPolicy.slice(source.getData(), time,
+                page.getStartTime(), page.getEndTime()));
+            log.debug("Filled {} from {}", key, sourceKey);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Load the range the read-ahead policy predicts for this consumer, merged with read-ahead
+     * pages it overlaps, unless a page already covers it.
+     */
+    private void scheduleReadAhead(String symbol, String timeframe, long startTime, long endTime,
+                                   String consumerName) {
+        if (recordTime() == null) return;
+        long[] range = readAhead.onRequest(consumerName + '|' + symbol + '|' + timeframe,
+            startTime, endTime, System.currentTimeMillis());
+        if (range == null) return;
+
+        long maxSpan = ReadAheadPolicy.MAX_WINDOWS * (endTime - startTime);
+        for (Map.Entry<String, DataPage<T>> entry : pages.entrySet()) {
+            DataPage<T> other = entry.getValue();
+            if (!other.getSymbol().equals(symbol) || !Objects.equals(other.getTimeframe(), timeframe)
+                    || other.getState() == PageState.ERROR) {
+                continue;
+            }
+            if (other.getStartTime() <= range[0] && range[1] <= other.getEndTime()) {
+                // Already loaded or loading
+                if (readAheadPages.contains(entry.getKey())) {
+                    scheduleCleanup(entry.getKey(), READ_AHEAD_TTL_MS);
+                }
+                return;
             }
+            // Grow into one larger page rather than several overlapping ones
+            boolean overlaps = other.getStartTime() <= range[1] && range[0] <= other.getEndTime();
+            long mergedStart = Math.min(range[0], other.getStartTime());
+            long mergedEnd = Math.max(range[1], other.getEndTime());
+            if (overlaps && readAheadPages.contains(entry.getKey()) && mergedEnd - mergedStart <= maxSpan) {
+                range = new long[]{mergedStart, mergedEnd};
+            }
+        }
+
+        String key = makeKey(symbol, timeframe, range[0], range[1]);
+        long start = range[0];
+        long end = range[1];
+        boolean[] created = {false};
+        DataPage<T> page = pages.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return createPage(symbol, timeframe, start, end);
         });
+        if (!created[0]) return;
+
+        readAheadPages.add(key);
+        readAhead.recordPrefetch();
+        log.debug("Read-ahead {} for {}", key, consumerName);
+        queuedReadAheads.put(key, startLoad(page, readAheadExecutor));
+        // Superseded read-ahead pages simply expire
+        scheduleCleanup(key, READ_AHEAD_TTL_MS);
+    }
+
+    /**
+     * A consumer requested a read-ahead page: if its load is still queued behind other
+     * read-ahead, move it to the regular load threads; otherwise raise its priority.
+     */
+    private void claimReadAhead(String key, DataPage<T> page) {
+        Future<?> queued = queuedReadAheads.remove(key);
+        if (queued != null && queued.cancel(false)) {
+            loadExecutor.submit(() -> runLoad(page));
+        } else if (page.isLoading()) {
+            onReadAheadClaimed(page);
+        }
     }
 
     /**
      * Update page with loaded data. Call from loadData() implementation.
      * Handles state transition and listener notification.
      */
-    protected void updatePageData(DataPage<T> page, java.util.List<T> data) {
+    protected void updatePageData(DataPage<T> page, List<T> data) {
         // Create copy in background thread
-        java.util.List<T> dataCopy = new java.util.ArrayList<>(data);
+        List<T> dataCopy = new ArrayList<>(data);
 
         // Calculate duration before EDT switch
         long durationMs = System.currentTimeMillis() - page.getLoadStartTime();
@@ -373,6 +599,11 @@ public abstract class DataPageManager<T> {
             }
 
             log.debug("Loaded {} {} records", dataCopy.size(), dataType.getDisplayName());
+
+            PageMemoryBudget budget = memoryBudget;
+            if (budget != null) {
+                budget.requestCheck();
+            }
         });
     }
 
@@ -444,6 +675,83 @@ public abstract class DataPageManager<T> {
         }
     }
 
+    // ========== Memory Budget ==========
+
+    /**
+     * Count this manager's pages against a shared memory budget.
+     */
+    public void setMemoryBudget(PageMemoryBudget budget) {
+        this.memoryBudget = budget;
+        budget.register(this);
+    }
+
+    @Override
+    public String getPoolName() {
+        return dataType.getDisplayName();
+    }
+
+    @Override
+    public List<PageMemoryBudget.Candidate> evictionCandidates() {
+        List<PageMemoryBudget.Candidate> result = new ArrayList<>();
+        for (Map.Entry<String, DataPage<T>> entry : pages.entrySet()) {
+            String key = entry.getKey();
+            DataPage<T> page = entry.getValue();
+            // Loading pages are left alone: their data is about to be delivered
+            if (isHeld(key) || !page.isReady() || page.getRecordCount() == 0) continue;
+            result.add(new PageMemoryBudget.Candidate(this, key,
+                // Read-ahead pages were never requested, so they count as oldest
+                (long) page.getRecordCount() * getRecordSizeBytes(), lastAccess.getOrDefault(key, 0L)));
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(String key) {
+        ScheduledFuture<?> pendingCleanup = pendingCleanups.remove(key);
+        if (pendingCleanup != null) {
+            pendingCleanup.cancel(false);
+        }
+        log.debug("Evicting page under memory pressure: {}", key);
+        cleanupPage(key);
+    }
+
+    /**
+     * Write a removed page's data to the budget's spill store, if enabled and supported.
+     * Only pages whose range had ended when they were synced are spilled: a restored page
+     * counts as synced now, which holds for completed history but not for a range that was
+     * still receiving data.
+     */
+    private void spill(String key, DataPage<T> page) {
+        PageMemoryBudget budget = memoryBudget;
+        if (budget == null || !budget.isSpillEnabled() || !page.isReady() || page.isEmpty()) return;
+        if (page.isLiveEnabled() || page.getEndTime() >= page.getLastSyncTime()) return;
+        try {
+            budget.spill(key, encodeSpill(page.getData()));
+        } catch (Exception e) {
+            log.warn("Failed to spill {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Fill a page from its spilled copy instead of loading it.
+     */
+    private boolean restoreSpilled(DataPage<T> page) {
+        PageMemoryBudget budget = memoryBudget;
+        if (budget == null || !budget.isSpillEnabled()) return false;
+        byte[] bytes = budget.takeSpilled(keyOf(page));
+        if (bytes == null) return false;
+        try {
+            List<T> data = decodeSpill(bytes);
+            if (data == null) return false;
+            log.debug("Restored {} {} records from spill", data.size(), dataType.getDisplayName());
+            updatePageData(page, data);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to restore spilled {}: {}", page.getKey(), e.getMessage());
+            return false;
+        }
+    }
+
     // ========== Status & Lifecycle ==========
 
     /**
@@ -463,22 +771,24 @@ public abstract class DataPageManager<T> {
         int listenerCount,
         int recordCount,
         int loadProgress,  // 0-100 percentage, -1 for indeterminate
-        java.util.List<String> consumers
+        List<String> consumers,
+        boolean readAhead,  // Loaded ahead, not requested by any consumer yet
+        int hits            // Requests served by this page without loading
     ) {}
 
     /**
      * Get information about all active pages.
      * Used by status UI to display what data is being tracked.
      */
-    public java.util.List<PageInfo> getActivePages() {
-        java.util.List<PageInfo> result = new java.util.ArrayList<>();
+    public List<PageInfo> getActivePages() {
+        List<PageInfo> result = new ArrayList<>();
         for (Map.Entry<String, DataPage<T>> entry : pages.entrySet()) {
             DataPage<T> page = entry.getValue();
             Set<DataPageListener<T>> pageListeners = listeners.get(entry.getKey());
             int listenerCount = pageListeners != null ? pageListeners.size() : 0;
 
             // Collect consumer names for this page
-            java.util.List<String> pageConsumers = new java.util.ArrayList<>();
+            List<String> pageConsumers = new ArrayList<>();
             if (pageListeners != null) {
                 for (DataPageListener<T> listener : pageListeners) {
                     String name = consumerNames.get(listener);
@@ -502,12 +812,21 @@ public abstract class DataPageManager<T> {
                 listenerCount,
                 page.getRecordCount(),
                 page.getLoadProgress(),
-                pageConsumers
+                pageConsumers,
+                readAheadPages.contains(entry.getKey()),
+                pageHits.getOrDefault(entry.getKey(), 0)
             ));
         }
         return result;
     }
 
+    /**
+     * Read-ahead hit and miss counters for this manager.
+     */
+    public ReadAheadPolicy.Stats getReadAheadStats() {
+        return readAhead.stats();
+    }
+
     /**
      * Get count of active pages.
      */
@@ -554,6 +873,9 @@ public abstract class DataPageManager<T> {
         log.info("Shutting down {}...", getClass().getSimpleName());
         cleanupScheduler.shutdownNow();
         pendingCleanups.clear();
+        readAheadExecutor.shutdownNow();
+        queuedReadAheads.clear();
+        readAheadPages.clear();
         loadExecutor.shutdown();
         try {
             if (!loadExecutor.awaitTermination(2, TimeUnit.SECONDS)) {
@@ -566,5 +888,7 @@ public abstract class DataPageManager<T> {
         pages.clear();
         listeners.clear();
         anonymousRefs.clear();
+        pageHits.clear();
+        lastAccess.clear();
     }
 }
@@ -11,6 +11,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 
 /**
  * Parameterized page manager for data types that follow the standard
@@ -20,6 +21,9 @@ import java.util.concurrent.TimeUnit;
  *
  * AggTradesPageManager remains separate (chunked delivery for large datasets).
  *
+ * Given a record timestamp function, pages take part in read-ahead: read-ahead pages are
+ * subscribed at "preload" priority and raised to interactive once a consumer asks for them.
+ *
  * @param <T> The type of data records managed
  */
 public class DataServicePageManager<T> extends DataPageManager<T> {
@@ -36,6 +40,7 @@ public class DataServicePageManager<T> extends DataPageManager<T> {
     private final DataDeserializer<T> dataDeserializer;
     private final String logEndpoint;
     private final int recordSizeBytes;
+    private final ToLongFunction<T> recordTime;
 
     /**
      * @param dataType         The data type enum
@@ -43,14 +48,17 @@ public class DataServicePageManager<T> extends DataPageManager<T> {
      * @param logEndpoint      Endpoint name for download log entries
      * @param recordSizeBytes  Estimated bytes per record for memory tracking
      * @param dataDeserializer Function to deserialize msgpack bytes
+     * @param recordTime       Record timestamp, enables read-ahead (null to disable)
      */
     public DataServicePageManager(DataType dataType, int threadPoolSize,
                                    String logEndpoint, int recordSizeBytes,
-                                   DataDeserializer<T> dataDeserializer) {
+                                   DataDeserializer<T> dataDeserializer,
+                                   ToLongFunction<T> recordTime) {
         super(dataType, threadPoolSize);
         this.dataDeserializer = dataDeserializer;
         this.logEndpoint = logEndpoint;
         this.recordSizeBytes = recordSizeBytes;
+        this.recordTime = recordTime;
     }
 
     @Override
@@ -110,6 +118,7 @@ public class DataServicePageManager<T> extends DataPageManager<T> {
         try {
             CompletableFuture<byte[]> future = client.subscribePage(
                 dataType, symbol, timeframe, startTime, endTime,
+                isReadAhead(page) ? "preload" : null,
                 new DataServiceClient.DataPageCallback() {
                     @Override
                     public void onStateChanged(String state, int progress) {
@@ -157,6 +166,41 @@ public class DataServicePageManager<T> extends DataPageManager<T> {
         }
     }
 
+    @Override
+    protected ToLongFunction<T> recordTime() {
+        return recordTime;
+    }
+
+    @Override
+    protected void onReadAheadClaimed(DataPage<T> page) {
+        ApplicationContext ctx = ApplicationContext.getInstance();
+        if (ctx != null && ctx.isDataServiceAvailable()) {
+            ctx.getDataServiceClient().raisePagePriority(dataType, page.getSymbol(), page.getTimeframe(),
+                page.getStartTime(), page.getEndTime(), "interactive");
+        }
+    }
+
+    @Override
+    protected byte[] encodeSpill(List<T> data) throws Exception {
+        ObjectMapper mapper = msgpackMapper();
+        return mapper != null ? mapper.writeValueAsBytes(data) : null;
+    }
+
+    @Override
+    protected List<T> decodeSpill(byte[] data) throws Exception {
+        ObjectMapper mapper = msgpackMapper();
+        return mapper != null ? dataDeserializer.deserialize(mapper, data) : null;
+    }
+
+    /**
+     * The data service client's msgpack mapper, or null if the service isn't available.
+     */
+    private static ObjectMapper msgpackMapper() {
+        ApplicationContext ctx = ApplicationContext.getInstance();
+        if (ctx == null || ctx.getDataServiceClient() == null) return null;
+        return ctx.getDataServiceClient().getMsgpackMapper();
+    }
+
     @Override
     protected int getRecordSizeBytes() {
         return recordSizeBytes;
@@ -16,6 +16,7 @@ public class FundingPageManager extends DataServicePageManager<FundingRate> {
         super(DataType.FUNDING, 2,
             "data-service/funding", 64,
             (mapper, data) -> mapper.readValue(data,
-                mapper.getTypeFactory().constructCollectionType(List.class, FundingRate.class)));
+                mapper.getTypeFactory().constructCollectionType(List.class, FundingRate.class)),
+            FundingRate::fundingTime);
     }
 }
@@ -33,8 +33,10 @@ import java.util.concurrent.*;
  * - Reference counting
  * - Computation executors
  * - Listener management
+ * - Memory budget participation: unheld pages can be evicted early (not spilled;
+ *   recomputing is cheaper than a disk round trip)
  */
-public class IndicatorPageManager {
+public class IndicatorPageManager implements PageMemoryBudget.Pool {
 
     private static final Logger log = LoggerFactory.getLogger(IndicatorPageManager.class);
 
@@ -53,6 +55,10 @@ public class IndicatorPageManager {
     private final Map<String, ScheduledFuture<?>> pendingCleanups = new ConcurrentHashMap<>();
     private final ScheduledExecutorService cleanupScheduler;
 
+    // Shared memory budget (optional) and last request/release per page for LRU eviction
+    private volatile PageMemoryBudget memoryBudget;
+    private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+
     // Background computation
     private final ExecutorService computeExecutor;
     private final ExecutorService aggTradesExecutor;  // Dedicated for aggTrades-based indicators
@@ -67,7 +73,7 @@ public class IndicatorPageManager {
         int poolSize = Math.max(3, cpus / 3);
         log.info("Indicator compute pool size: {} (CPUs: {})", poolSize, cpus);
 
-        // Candle-based indicators (HISTORIC_RAYS can take minutes)
+        // Candle-based indicators
         this.computeExecutor = Executors.newFixedThreadPool(poolSize, r -> {
             Thread t = new Thread(r, "IndicatorCompute");
             t.setDaemon(true);
@@ -109,6 +115,7 @@ public class IndicatorPageManager {
                                          String consumerName) {
 
         String key = makeKey(type, params, symbol, timeframe, startTime, endTime);
+        lastAccess.put(key, System.currentTimeMillis());
 
         // Cancel any pending deferred cleanup for this key
         ScheduledFuture<?> pendingCleanup = pendingCleanups.remove(key);
@@ -180,6 +187,7 @@ public class IndicatorPageManager {
         if (page == null) return;
 
         String key = page.getKey();
+        lastAccess.put(key, System.currentTimeMillis());
 
         // Remove listener or decrement anonymous refs
         if (listener != null) {
@@ -232,6 +240,7 @@ public class IndicatorPageManager {
 
         IndicatorPage<?> page = pages.remove(key);
         listeners.remove(key);
+        lastAccess.remove(key);
 
         if (page != null) {
             // IndicatorPage releases its own source data pages (star architecture)
@@ -263,6 +272,7 @@ public class IndicatorPageManager {
                         page.getKey(), page.getType().getName(), page.getParams(), candles.size(), elapsed);
                     notifyStateChanged(page, prevState, PageState.READY);
                     notifyDataChanged(page);
+                    requestBudgetCheck();
                 });
 
             } catch (Exception e) {
@@ -297,6 +307,7 @@ public class IndicatorPageManager {
                         page.getKey(), page.getType().getName(), page.getParams(), candles.size(), elapsed);
                     notifyStateChanged(page, prevState, PageState.READY);
                     notifyDataChanged(page);
+                    requestBudgetCheck();
                 });
 
             } catch (Exception e) {
@@ -478,11 +489,12 @@ public class IndicatorPageManager {
         int startBar = Math.max(20, interval);
         int lastBar = candles.size() - 1;
 
+        // Rays at each bar position (lookback=0 for unlimited), extended incrementally
+        RotatingRays.RayTracker resistanceTracker = new RotatingRays.RayTracker(candles, 0, skip, true);
+        RotatingRays.RayTracker supportTracker = new RotatingRays.RayTracker(candles, 0, skip, false);
         for (int barIndex = startBar; barIndex < lastBar; barIndex += Math.max(1, interval)) {
-            // Compute rays at this bar position (lookback=0 for unlimited)
-            List<Candle> candlesUpToBar = candles.subList(0, barIndex + 1);
-            RaySet resistance = RotatingRays.calculateResistanceRays(candlesUpToBar, 0, skip);
-            RaySet support = RotatingRays.calculateSupportRays(candlesUpToBar, 0, skip);
+            RaySet resistance = resistanceTracker.at(barIndex);
+            RaySet support = supportTracker.at(barIndex);
             entries.add(new HistoricRays.HistoricRayEntry(barIndex, resistance, support));
         }
 
@@ -605,6 +617,52 @@ public class IndicatorPageManager {
         return 1000L;
     }
 
+    // ========== Memory Budget ==========
+
+    /**
+     * Count indicator pages against a shared memory budget.
+     */
+    public void setMemoryBudget(PageMemoryBudget budget) {
+        this.memoryBudget = budget;
+        budget.register(this);
+    }
+
+    private void requestBudgetCheck() {
+        PageMemoryBudget budget = memoryBudget;
+        if (budget != null) {
+            budget.requestCheck();
+        }
+    }
+
+    @Override
+    public String getPoolName() {
+        return "Indicators";
+    }
+
+    @Override
+    public List<PageMemoryBudget.Candidate> evictionCandidates() {
+        List<PageMemoryBudget.Candidate> result = new ArrayList<>();
+        for (Map.Entry<String, IndicatorPage<?>> entry : pages.entrySet()) {
+            String key = entry.getKey();
+            Set<IndicatorPageListener<?>> pageListeners = listeners.get(key);
+            boolean held = (pageListeners != null && !pageListeners.isEmpty()) || anonymousRefs.containsKey(key);
+            if (held || !entry.getValue().hasData()) continue;
+            result.add(new PageMemoryBudget.Candidate(this, key, estimatePageMemory(entry.getValue()),
+                lastAccess.getOrDefault(key, 0L)));
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(String key) {
+        ScheduledFuture<?> pendingCleanup = pendingCleanups.remove(key);
+        if (pendingCleanup != null) {
+            pendingCleanup.cancel(false);
+        }
+        log.debug("Evicting indicator page under memory pressure: {}", key);
+        cleanupIndicatorPage(key);
+    }
+
     /**
      * Info about an indicator page for debugging.
      */
@@ -686,5 +744,6 @@ public class IndicatorPageManager {
         pages.clear();
         listeners.clear();
         anonymousRefs.clear();
+        lastAccess.clear();
     }
 }
@@ -16,6 +16,7 @@ public class OIPageManager extends DataServicePageManager<OpenInterest> {
         super(DataType.OPEN_INTEREST, 2,
             "data-service/openinterest", 64,
             (mapper, data) -> mapper.readValue(data,
-                mapper.getTypeFactory().constructCollectionType(List.class, OpenInterest.class)));
+                mapper.getTypeFactory().constructCollectionType(List.class, OpenInterest.class)),
+            OpenInterest::timestamp);
     }
 }
@@ -0,0 +1,234 @@
+package com.tradery.forge.data.page;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One memory budget for all page managers (candles, aggTrades, funding, OI, premium, indicators).
+ *
+ * Managers report their estimated page memory. When the total goes over the budget, pages no
+ * consumer holds (released pages in their cleanup grace period, unrequested read-ahead pages)
+ * are evicted before their timers, largest and longest-idle first, until usage is back under
+ * {@link #LOW_WATER} of the budget. Pages in use are never evicted; if they alone exceed the
+ * budget, it is reported as over budget.
+ *
+ * Optionally, evicted and released data pages are spilled to disk and restored from there when
+ * requested again, instead of being loaded from the data service.
+ *
+ * Configuration (system property / environment variable):
+ * - tradery.page_budget_mb / TRADERY_PAGE_BUDGET_MB: budget, default half the max heap
+ * - tradery.page_spill / TRADERY_PAGE_SPILL: "true" to enable spilling
+ * - tradery.page_spill_mb / TRADERY_PAGE_SPILL_MB: disk space for spilled pages, default 1024
+ */
+public final class PageMemoryBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(PageMemoryBudget.class);
+
+    /** Eviction stops once usage is below this fraction of the budget. */
+    public static final double LOW_WATER = 0.9;
+
+    private static final long CHECK_INTERVAL_MS = 2000;
+    private static final long SPILL_RETAIN_MS = 10 * 60 * 1000;
+
+    /**
+     * A page manager whose memory counts against the budget.
+     */
+    public interface Pool {
+        /** Name for status display. */
+        String getPoolName();
+
+        long estimateMemoryBytes();
+
+        /** Pages no consumer holds, which may be evicted. */
+        List<Candidate> evictionCandidates();
+
+        /** Evict a page if it is still unheld. */
+        void evict(String key);
+    }
+
+    /**
+     * An evictable page.
+     *
+     * @param lastAccess Last request or release of the page
+     */
+    public record Candidate(Pool pool, String key, long bytes, long lastAccess) {
+        /** Weighted LRU: the bigger and the longer idle, the sooner evicted. */
+        double weight(long now) {
+            return (double) bytes * (now - lastAccess + 1);
+        }
+    }
+
+    /**
+     * Current usage for status display.
+     *
+     * @param pools Estimated bytes per pool
+     */
+    public record Usage(long usedBytes, long maxBytes, Map<String, Long> pools,
+                        long evictions, int spilledPages, long spilledBytes) {
+        public boolean overBudget() {
+            return usedBytes > maxBytes;
+        }
+
+        public double fraction() {
+            return maxBytes > 0 ? (double) usedBytes / maxBytes : 0;
+        }
+    }
+
+    private final long maxBytes;
+    private final PageSpillStore spillStore;
+    private final List<Pool> pools = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean checkQueued = new AtomicBoolean();
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile boolean overBudget;
+    private final ScheduledExecutorService scheduler;
+
+    public PageMemoryBudget() {
+        this(configuredMaxBytes(), Boolean.parseBoolean(setting("tradery.page_spill", "TRADERY_PAGE_SPILL", "false")));
+    }
+
+    public PageMemoryBudget(long maxBytes, boolean spill) {
+        this.maxBytes = maxBytes;
+        this.spillStore = spill
+            ? new PageSpillStore(Path.of(System.getProperty("user.home"), ".tradery", "page-spill"),
+                Long.parseLong(setting("tradery.page_spill_mb", "TRADERY_PAGE_SPILL_MB", "1024")) * 1024 * 1024,
+                SPILL_RETAIN_MS)
+            : null;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "PageMemoryBudget");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::enforce, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        log.info("Page memory budget: {} MB, spill {}", maxBytes / (1024 * 1024), spill ? "on" : "off");
+    }
+
+    public void register(Pool pool) {
+        pools.add(pool);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** Whether evicted pages are spilled to disk. */
+    public boolean isSpillEnabled() {
+        return spillStore != null;
+    }
+
+    /**
+     * Check the budget soon, e.g. after a page received data. Coalesces repeated calls.
+     */
+    public void requestCheck() {
+        if (checkQueued.compareAndSet(false, true)) {
+            scheduler.execute(this::enforce);
+        }
+    }
+
+    /**
+     * Spill a page's data (no-op if spilling is off).
+     */
+    void spill(String key, byte[] data) {
+        if (spillStore != null && data != null) {
+            spillStore.put(key, data);
+        }
+    }
+
+    /**
+     * Take back a spilled page's data, or null.
+     */
+    byte[] takeSpilled(String key) {
+        return spillStore != null ? spillStore.take(key) : null;
+    }
+
+    public Usage getUsage() {
+        Map<String, Long> byPool = new LinkedHashMap<>();
+        long used = 0;
+        for (Pool pool : pools) {
+            long bytes = pool.estimateMemoryBytes();
+            byPool.merge(pool.getPoolName(), bytes, Long::sum);
+            used += bytes;
+        }
+        return new Usage(used, maxBytes, byPool, evictions.get(),
+            spillStore != null ? spillStore.size() : 0,
+            spillStore != null ? spillStore.bytes() : 0);
+    }
+
+    /**
+     * Evict unheld pages, weighted LRU, until usage is under the low-water mark.
+     */
+    void enforce() {
+        checkQueued.set(false);
+        try {
+            long used = 0;
+            for (Pool pool : pools) {
+                used += pool.estimateMemoryBytes();
+            }
+            if (used <= maxBytes) {
+                overBudget = false;
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            List<Candidate> candidates = new ArrayList<>();
+            for (Pool pool : pools) {
+                candidates.addAll(pool.evictionCandidates());
+            }
+            candidates.sort(Comparator.comparingDouble((Candidate c) -> c.weight(now)).reversed());
+
+            long target = (long) (maxBytes * LOW_WATER);
+            int evicted = 0;
+            for (Candidate candidate : candidates) {
+                if (used <= target) break;
+                candidate.pool().evict(candidate.key());
+                used -= candidate.bytes();
+                evicted++;
+            }
+            evictions.addAndGet(evicted);
+
+            boolean over = used > maxBytes;
+            if (over && !overBudget) {
+                log.warn("Pages in use need ~{} MB, over the {} MB page budget", used / (1024 * 1024),
+                    maxBytes / (1024 * 1024));
+            } else if (evicted > 0) {
+                log.debug("Evicted {} unused pages, ~{} MB in use", evicted, used / (1024 * 1024));
+            }
+            overBudget = over;
+        } catch (Exception e) {
+            log.warn("Page budget check failed: {}", e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pools.clear();
+        if (spillStore != null) {
+            spillStore.clear();
+        }
+    }
+
+    private static long configuredMaxBytes() {
+        String mb = setting("tradery.page_budget_mb", "TRADERY_PAGE_BUDGET_MB", null);
+        if (mb != null) {
+            return Long.parseLong(mb.trim()) * 1024 * 1024;
+        }
+        return Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    private static String setting(String property, String env, String fallback) {
+        String value = System.getProperty(property, System.getenv(env));
+        return value != null && !value.isBlank() ? value : fallback;
+    }
+}
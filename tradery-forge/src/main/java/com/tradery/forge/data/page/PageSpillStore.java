@@ -0,0 +1,122 @@
+package com.tradery.forge.data.page;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Session-only disk store for evicted page data.
+ *
+ * Pages are written in the msgpack form the data service sends them in, one file per page,
+ * and restored (and deleted) when the page is requested again. Oldest files go first when
+ * the store exceeds its size, and after {@code retainMs}. The directory is emptied on start
+ * and shutdown; nothing here survives the process.
+ */
+final class PageSpillStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PageSpillStore.class);
+
+    private record Entry(Path file, long bytes, long spilledAt) {}
+
+    private final Path dir;
+    private final long maxBytes;
+    private final long retainMs;
+
+    // Insertion order = spill order, so iteration starts at the oldest
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private long totalBytes;
+
+    PageSpillStore(Path dir, long maxBytes, long retainMs) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.retainMs = retainMs;
+        deleteFiles();
+    }
+
+    /**
+     * Store a page's data, replacing any earlier copy.
+     */
+    synchronized void put(String key, byte[] data) {
+        if (data.length > maxBytes) return;
+        remove(key);
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve(UUID.randomUUID() + ".msgpack");
+            Files.write(file, data);
+            entries.put(key, new Entry(file, data.length, System.currentTimeMillis()));
+            totalBytes += data.length;
+        } catch (IOException e) {
+            log.warn("Failed to spill page {}: {}", key, e.getMessage());
+        }
+        trim();
+    }
+
+    /**
+     * Read and delete a page's data, or null if it isn't stored.
+     */
+    synchronized byte[] take(String key) {
+        trim();
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        try {
+            return Files.readAllBytes(entry.file());
+        } catch (IOException e) {
+            log.warn("Failed to read spilled page {}: {}", key, e.getMessage());
+            return null;
+        } finally {
+            remove(key);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long bytes() {
+        return totalBytes;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+        deleteFiles();
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.bytes();
+            entry.file().toFile().delete();
+        }
+    }
+
+    private void trim() {
+        long expiredBefore = System.currentTimeMillis() - retainMs;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (totalBytes <= maxBytes && entry.spilledAt() >= expiredBefore) break;
+            it.remove();
+            totalBytes -= entry.bytes();
+            entry.file().toFile().delete();
+        }
+    }
+
+    private void deleteFiles() {
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Failed to clear page spill directory {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -16,6 +16,7 @@ public class PremiumPageManager extends DataServicePageManager<PremiumIndex> {
         super(DataType.PREMIUM_INDEX, 2,
             "data-service/premium", 64,
             (mapper, data) -> mapper.readValue(data,
-                mapper.getTypeFactory().constructCollectionType(List.class, PremiumIndex.class)));
+                mapper.getTypeFactory().constructCollectionType(List.class, PremiumIndex.class)),
+            PremiumIndex::openTime);
     }
 }
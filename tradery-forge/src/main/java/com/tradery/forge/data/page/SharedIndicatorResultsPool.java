@@ -0,0 +1,56 @@
+package com.tradery.forge.data.page;
+
+import com.tradery.charts.indicator.SharedIndicatorResults;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the chart indicator results shared between windows against the page memory budget.
+ *
+ * Results no window references are offered for eviction like unheld pages; their own idle
+ * cap (chart setting indicatorCacheMb) still applies on top.
+ */
+public final class SharedIndicatorResultsPool implements PageMemoryBudget.Pool {
+
+    private final SharedIndicatorResults results;
+
+    // Candidate key -> result key, from the last evictionCandidates() call
+    private final Map<String, SharedIndicatorResults.Key> candidateKeys = new ConcurrentHashMap<>();
+
+    public SharedIndicatorResultsPool(SharedIndicatorResults results) {
+        this.results = results;
+    }
+
+    @Override
+    public String getPoolName() {
+        return "Chart indicators";
+    }
+
+    @Override
+    public long estimateMemoryBytes() {
+        return results.estimateMemoryBytes();
+    }
+
+    @Override
+    public List<PageMemoryBudget.Candidate> evictionCandidates() {
+        candidateKeys.clear();
+        List<PageMemoryBudget.Candidate> candidates = new ArrayList<>();
+        for (SharedIndicatorResults.IdleResult idle : results.idleResults()) {
+            String key = idle.key().dataId() + "|" + idle.key().computeKey();
+            candidateKeys.put(key, idle.key());
+            candidates.add(new PageMemoryBudget.Candidate(this, key, idle.bytes(), idle.releasedAt()));
+        }
+        return candidates;
+    }
+
+    @Override
+    public void evict(String key) {
+        SharedIndicatorResults.Key resultKey = candidateKeys.remove(key);
+        if (resultKey != null) {
+            results.evictIdle(resultKey);
+        }
+    }
+}
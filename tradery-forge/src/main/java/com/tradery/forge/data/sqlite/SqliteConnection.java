@@ -1,6 +1,7 @@
 package com.tradery.forge.data.sqlite;
 
 import com.tradery.forge.data.DataConfig;
+import com.tradery.data.coverage.CoverageIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +27,8 @@ public class SqliteConnection {
     private final String symbol;
     private final File dbFile;
     private Connection connection;
+    // Shared by every CoverageDao on this database
+    private final CoverageIndex coverageIndex = new CoverageIndex();
     private final Object lock = new Object();
 
     private SqliteConnection(String symbol) {
@@ -185,6 +188,13 @@ public class SqliteConnection {
         return dbFile.exists();
     }
 
+    /**
+     * In-memory coverage of this database (see CoverageDao).
+     */
+    public CoverageIndex coverageIndex() {
+        return coverageIndex;
+    }
+
     /**
      * Get the symbol associated with this connection.
      */
@@ -190,6 +190,19 @@ public class SqliteDataStore {
         }
     }
 
+    /**
+     * Get aggregated trades for a symbol, filtered by exchange and market type (null for all).
+     */
+    public List<AggTrade> getAggTrades(String symbol, long startTime, long endTime,
+                                        java.util.Set<Exchange> exchanges,
+                                        java.util.Set<DataMarketType> marketTypes) throws IOException {
+        try {
+            return forSymbol(symbol).aggTrades().queryFiltered(startTime, endTime, exchanges, marketTypes);
+        } catch (SQLException e) {
+            throw new IOException("SQLite error getting agg trades: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Save aggregated trades.
      */
@@ -1,5 +1,7 @@
 package com.tradery.forge.data.sqlite.dao;
 
+import com.tradery.data.coverage.CoverageIndex;
+import com.tradery.data.coverage.Intervals;
 import com.tradery.forge.data.sqlite.SqliteConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,8 +10,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for tracking data coverage ranges in the database.
@@ -21,39 +26,104 @@ import java.util.List;
  * - "funding_rates" with sub_key = ""
  * - "open_interest" with sub_key = ""
  * - "premium_index" with sub_key = interval (e.g., "1h", "5m")
+ *
+ * Gap and coverage checks are answered from the connection's {@link CoverageIndex}, loaded
+ * from the table on first use; writes go to the table and the index together.
  */
 public class CoverageDao {
 
     private static final Logger log = LoggerFactory.getLogger(CoverageDao.class);
 
     private final SqliteConnection conn;
+    private final CoverageIndex index;
 
     public CoverageDao(SqliteConnection conn) {
         this.conn = conn;
+        this.index = conn.coverageIndex();
     }
 
     /**
-     * Add or update a coverage range.
+     * Add a coverage range, automatically merging with any adjacent or overlapping ranges.
+     * This keeps the coverage table compact and avoids fragmentation.
      */
     public void addCoverage(String dataType, String subKey, long rangeStart, long rangeEnd,
                             boolean isComplete) throws SQLException {
-        Connection c = conn.getConnection();
+        inTransaction(c -> {
+            // Find all ranges that overlap or are adjacent (within 1ms) to the new range
+            List<CoverageRange> overlapping = new ArrayList<>();
+            String selectSql = """
+                SELECT range_start, range_end, is_complete, last_updated
+                FROM data_coverage
+                WHERE data_type = ? AND sub_key = ?
+                  AND range_start <= ? AND range_end >= ?
+                ORDER BY range_start
+                """;
+
+            try (PreparedStatement stmt = c.prepareStatement(selectSql)) {
+                stmt.setString(1, dataType);
+                stmt.setString(2, subKey);
+                stmt.setLong(3, rangeEnd + 1);   // adjacent on the right
+                stmt.setLong(4, rangeStart - 1); // adjacent on the left
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        overlapping.add(new CoverageRange(
+                            rs.getLong("range_start"),
+                            rs.getLong("range_end"),
+                            rs.getInt("is_complete") == 1,
+                            rs.getLong("last_updated")
+                        ));
+                    }
+                }
+            }
 
-        String sql = """
-            INSERT OR REPLACE INTO data_coverage
-            (data_type, sub_key, range_start, range_end, is_complete, last_updated)
-            VALUES (?, ?, ?, ?, ?, ?)
-            """;
+            // Compute merged range
+            long mergedStart = rangeStart;
+            long mergedEnd = rangeEnd;
+            boolean mergedComplete = isComplete;
+            for (CoverageRange r : overlapping) {
+                mergedStart = Math.min(mergedStart, r.rangeStart());
+                mergedEnd = Math.max(mergedEnd, r.rangeEnd());
+                mergedComplete = mergedComplete && r.isComplete();
+            }
 
-        try (PreparedStatement stmt = c.prepareStatement(sql)) {
-            stmt.setString(1, dataType);
-            stmt.setString(2, subKey);
-            stmt.setLong(3, rangeStart);
-            stmt.setLong(4, rangeEnd);
-            stmt.setInt(5, isComplete ? 1 : 0);
-            stmt.setLong(6, System.currentTimeMillis());
-            stmt.executeUpdate();
-        }
+            // Delete all overlapping/adjacent ranges
+            if (!overlapping.isEmpty()) {
+                String deleteSql = """
+                    DELETE FROM data_coverage
+                    WHERE data_type = ? AND sub_key = ?
+                      AND range_start <= ? AND range_end >= ?
+                    """;
+                try (PreparedStatement stmt = c.prepareStatement(deleteSql)) {
+                    stmt.setString(1, dataType);
+                    stmt.setString(2, subKey);
+                    stmt.setLong(3, rangeEnd + 1);
+                    stmt.setLong(4, rangeStart - 1);
+                    stmt.executeUpdate();
+                }
+            }
+
+            // Insert the merged range
+            String insertSql = """
+                INSERT INTO data_coverage
+                (data_type, sub_key, range_start, range_end, is_complete, last_updated)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """;
+            try (PreparedStatement stmt = c.prepareStatement(insertSql)) {
+                stmt.setString(1, dataType);
+                stmt.setString(2, subKey);
+                stmt.setLong(3, mergedStart);
+                stmt.setLong(4, mergedEnd);
+                stmt.setInt(5, mergedComplete ? 1 : 0);
+                stmt.setLong(6, System.currentTimeMillis());
+                stmt.executeUpdate();
+            }
+            index.add(dataType, subKey, mergedStart, mergedEnd);
+
+            if (overlapping.size() > 1) {
+                log.debug("Coverage compacted: merged {} ranges into 1 for {}/{} [{} - {}]",
+                    overlapping.size(), dataType, subKey, mergedStart, mergedEnd);
+            }
+        });
     }
 
     /**
@@ -94,71 +164,69 @@ public class CoverageDao {
      * Returns a list of [start, end] pairs representing missing data.
      */
     public List<long[]> findGaps(String dataType, String subKey, long start, long end) throws SQLException {
-        List<CoverageRange> ranges = getCoverageRangesOverlapping(dataType, subKey, start, end);
-
-        List<long[]> gaps = new ArrayList<>();
-        long cursor = start;
-
-        for (CoverageRange range : ranges) {
-            if (range.rangeStart() > cursor) {
-                // Gap before this range
-                gaps.add(new long[]{cursor, range.rangeStart() - 1});
-            }
-            cursor = Math.max(cursor, range.rangeEnd() + 1);
-        }
-
-        if (cursor <= end) {
-            // Gap at the end
-            gaps.add(new long[]{cursor, end});
-        }
+        return coverage(dataType, subKey).gaps(start, end);
+    }
 
-        return gaps;
+    /**
+     * Check if a time range is fully covered (no gaps).
+     */
+    public boolean isFullyCovered(String dataType, String subKey, long start, long end) throws SQLException {
+        return coverage(dataType, subKey).covers(start, end);
     }
 
     /**
-     * Get coverage ranges that overlap with the given time range.
+     * Covered ranges of a data type and sub key, from the index.
      */
-    private List<CoverageRange> getCoverageRangesOverlapping(String dataType, String subKey,
-                                                              long start, long end) throws SQLException {
+    public Intervals coverage(String dataType, String subKey) throws SQLException {
         Connection c = conn.getConnection();
-        List<CoverageRange> ranges = new ArrayList<>();
-
-        // Ranges overlap if: range_start <= end AND range_end >= start
-        String sql = """
-            SELECT range_start, range_end, is_complete, last_updated
-            FROM data_coverage
-            WHERE data_type = ? AND sub_key = ?
-              AND range_start <= ? AND range_end >= ?
-            ORDER BY range_start
-            """;
-
-        try (PreparedStatement stmt = c.prepareStatement(sql)) {
-            stmt.setString(1, dataType);
-            stmt.setString(2, subKey);
-            stmt.setLong(3, end);
-            stmt.setLong(4, start);
+        if (!index.isLoadedFrom(c)) {
+            reload();
+        } else if (index.claimRecheck(System.currentTimeMillis()) && dataVersion(c) != index.version()) {
+            // Another process (forge or the data service) committed to this database
+            reload();
+        }
+        return index.get(dataType, subKey);
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
+    /**
+     * Load the index from the table. Runs under the write lock so no coverage write lands
+     * between the read and the swap.
+     */
+    private void reload() throws SQLException {
+        conn.executeInTransaction(c -> {
+            Map<String, List<long[]>> rows = new HashMap<>();
+            try (Statement stmt = c.createStatement();
+                 ResultSet rs = stmt.executeQuery(
+                     "SELECT data_type, sub_key, range_start, range_end FROM data_coverage")) {
                 while (rs.next()) {
-                    ranges.add(new CoverageRange(
-                        rs.getLong("range_start"),
-                        rs.getLong("range_end"),
-                        rs.getInt("is_complete") == 1,
-                        rs.getLong("last_updated")
-                    ));
+                    rows.computeIfAbsent(CoverageIndex.key(rs.getString(1), rs.getString(2)), k -> new ArrayList<>())
+                        .add(new long[]{rs.getLong(3), rs.getLong(4)});
                 }
             }
-        }
+            Map<String, Intervals> ranges = new HashMap<>();
+            rows.forEach((key, list) -> ranges.put(key, Intervals.of(list)));
+            index.load(c, dataVersion(c), ranges);
+        });
+    }
 
-        return ranges;
+    private static long dataVersion(Connection c) throws SQLException {
+        try (Statement stmt = c.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
     }
 
     /**
-     * Check if a time range is fully covered (no gaps).
+     * Run a coverage write. If it fails after touching the index, the index is dropped and
+     * reloaded from the table on next use.
      */
-    public boolean isFullyCovered(String dataType, String subKey, long start, long end) throws SQLException {
-        List<long[]> gaps = findGaps(dataType, subKey, start, end);
-        return gaps.isEmpty();
+    private void inTransaction(SqliteConnection.TransactionConsumer write) throws SQLException {
+        try {
+            conn.executeInTransaction(write);
+        } catch (SQLException e) {
+            index.invalidate();
+            throw e;
+        }
     }
 
     /**
@@ -172,11 +240,7 @@ public class CoverageDao {
             return;
         }
 
-        Connection c = conn.getConnection();
-
-        // Start transaction
-        c.setAutoCommit(false);
-        try {
+        conn.executeInTransaction(c -> {
             // Delete all existing ranges for this type/key
             try (PreparedStatement stmt = c.prepareStatement(
                     "DELETE FROM data_coverage WHERE data_type = ? AND sub_key = ?")) {
@@ -210,46 +274,54 @@ public class CoverageDao {
             merged.add(current);
 
             // Insert merged ranges
-            for (CoverageRange range : merged) {
-                addCoverage(dataType, subKey, range.rangeStart(), range.rangeEnd(), range.isComplete());
+            String insertSql = """
+                INSERT OR REPLACE INTO data_coverage
+                (data_type, sub_key, range_start, range_end, is_complete, last_updated)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """;
+            try (PreparedStatement stmt = c.prepareStatement(insertSql)) {
+                for (CoverageRange range : merged) {
+                    stmt.setString(1, dataType);
+                    stmt.setString(2, subKey);
+                    stmt.setLong(3, range.rangeStart());
+                    stmt.setLong(4, range.rangeEnd());
+                    stmt.setInt(5, range.isComplete() ? 1 : 0);
+                    stmt.setLong(6, System.currentTimeMillis());
+                    stmt.executeUpdate();
+                }
             }
 
-            c.commit();
             log.debug("Consolidated {} ranges into {} for {}/{}", ranges.size(), merged.size(), dataType, subKey);
-
-        } catch (SQLException e) {
-            c.rollback();
-            throw e;
-        } finally {
-            c.setAutoCommit(true);
-        }
+        });
     }
 
     /**
      * Delete coverage records for a data type (used when clearing cache).
      */
     public void deleteCoverage(String dataType, String subKey) throws SQLException {
-        Connection c = conn.getConnection();
-
-        try (PreparedStatement stmt = c.prepareStatement(
-                "DELETE FROM data_coverage WHERE data_type = ? AND sub_key = ?")) {
-            stmt.setString(1, dataType);
-            stmt.setString(2, subKey);
-            stmt.executeUpdate();
-        }
+        inTransaction(c -> {
+            try (PreparedStatement stmt = c.prepareStatement(
+                    "DELETE FROM data_coverage WHERE data_type = ? AND sub_key = ?")) {
+                stmt.setString(1, dataType);
+                stmt.setString(2, subKey);
+                stmt.executeUpdate();
+            }
+            index.remove(dataType, subKey);
+        });
     }
 
     /**
      * Delete all coverage records for a data type (all sub keys).
      */
     public void deleteAllCoverage(String dataType) throws SQLException {
-        Connection c = conn.getConnection();
-
-        try (PreparedStatement stmt = c.prepareStatement(
-                "DELETE FROM data_coverage WHERE data_type = ?")) {
-            stmt.setString(1, dataType);
-            stmt.executeUpdate();
-        }
+        inTransaction(c -> {
+            try (PreparedStatement stmt = c.prepareStatement(
+                    "DELETE FROM data_coverage WHERE data_type = ?")) {
+                stmt.setString(1, dataType);
+                stmt.executeUpdate();
+            }
+            index.removeAll(dataType);
+        });
     }
 
     /**
@@ -2,7 +2,11 @@ package com.tradery.forge.ui;
 
 import com.tradery.charts.core.ChartInteractionManager;
 import com.tradery.charts.renderer.TraderyCandlestickRenderer;
+import com.tradery.charts.util.ArrayXYDataset;
+import com.tradery.charts.util.CandleOHLCDataset;
+import com.tradery.charts.util.LevelOfDetail;
 import com.tradery.core.model.Candle;
+import com.tradery.core.model.EquitySeries;
 import com.tradery.core.model.Trade;
 import com.tradery.forge.ui.charts.*;
 import org.jfree.chart.ChartFactory;
@@ -18,8 +22,6 @@ import org.jfree.chart.renderer.xy.XYLineAndShapeRenderer;
 import org.jfree.data.time.Millisecond;
 import org.jfree.data.time.TimeSeries;
 import org.jfree.data.time.TimeSeriesCollection;
-import org.jfree.data.time.ohlc.OHLCSeries;
-import org.jfree.data.time.ohlc.OHLCSeriesCollection;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
@@ -283,7 +285,9 @@ public class ChartsPanel extends JPanel {
     }
 
     private org.jfree.chart.ChartPanel createChartPanel(JFreeChart chart) {
-        return ChartPanelFactory.create(chart);
+        org.jfree.chart.ChartPanel panel = ChartPanelFactory.create(chart);
+        LevelOfDetail.install(panel);
+        return panel;
     }
 
     private void setupManagers() {
@@ -1511,6 +1515,15 @@ public class ChartsPanel extends JPanel {
     }
 
     public void updateCharts(List<Candle> candles, List<Trade> trades, double initialCapital) {
+        updateCharts(candles, trades, initialCapital, null);
+    }
+
+    /**
+     * Update all charts. Equity, comparison and capital usage charts are drawn straight from the
+     * recorded equity curve when there is one, otherwise rebuilt from the trades.
+     */
+    public void updateCharts(List<Candle> candles, List<Trade> trades, double initialCapital,
+                             EquitySeries equityCurve) {
         if (candles == null || candles.isEmpty()) return;
 
         this.currentCandles = candles;
@@ -1522,9 +1535,15 @@ public class ChartsPanel extends JPanel {
         // Date axis format adapts automatically via AdaptiveDateFormat
 
         updatePriceChart(candles, trades);
-        updateEquityChart(candles, trades, initialCapital);
-        updateComparisonChart(candles, trades, initialCapital);
-        updateCapitalUsageChart(candles, trades, initialCapital);
+        if (equityCurve != null && equityCurve.size() > 0) {
+            updateEquityChart(equityCurve);
+            updateComparisonChart(candles, equityCurve, initialCapital);
+            updateCapitalUsageChart(equityCurve);
+        } else {
+            updateEquityChart(candles, trades, initialCapital);
+            updateComparisonChart(candles, trades, initialCapital);
+            updateCapitalUsageChart(candles, trades, initialCapital);
+        }
         updateTradePLChart(candles, trades);
         updateVolumeChart(candles);
 
@@ -1580,14 +1599,7 @@ public class ChartsPanel extends JPanel {
 
         if (candlestickMode) {
             // Candlestick chart
-            OHLCSeries ohlcSeries = new OHLCSeries("Price");
-            for (Candle c : candles) {
-                ohlcSeries.add(new Millisecond(new Date(c.timestamp())),
-                    c.open(), c.high(), c.low(), c.close());
-            }
-            OHLCSeriesCollection dataset = new OHLCSeriesCollection();
-            dataset.addSeries(ohlcSeries);
-            plot.setDataset(dataset);
+            plot.setDataset(new CandleOHLCDataset("Price", candles));
 
             // Apply opacity to candle colors
             Color baseUp = com.tradery.charts.util.ChartStyles.getTheme().getCandleUpColor();
@@ -1602,16 +1614,9 @@ public class ChartsPanel extends JPanel {
             // Line chart with high/low cloud from OHLC data
 
             // First, add high/low cloud as background (dataset index 0)
-            TimeSeries highSeries = new TimeSeries("High");
-            TimeSeries lowSeries = new TimeSeries("Low");
-            for (Candle c : candles) {
-                Millisecond time = new Millisecond(new Date(c.timestamp()));
-                highSeries.addOrUpdate(time, c.high());
-                lowSeries.addOrUpdate(time, c.low());
-            }
-            TimeSeriesCollection cloudDataset = new TimeSeriesCollection();
-            cloudDataset.addSeries(highSeries);
-            cloudDataset.addSeries(lowSeries);
+            ArrayXYDataset cloudDataset = new ArrayXYDataset()
+                .add("High", candles, i -> candles.get(i).high(), 0)
+                .add("Low", candles, i -> candles.get(i).low(), 0);
             plot.setDataset(0, cloudDataset);
 
             // Use XYDifferenceRenderer for blueish cloud fill
@@ -1622,11 +1627,8 @@ public class ChartsPanel extends JPanel {
             plot.setRenderer(0, cloudRenderer);
 
             // Then, add close price line on top (dataset index 1)
-            TimeSeries priceSeries = new TimeSeries("Price");
-            for (Candle c : candles) {
-                priceSeries.addOrUpdate(new Millisecond(new Date(c.timestamp())), c.close());
-            }
-            TimeSeriesCollection priceDataset = new TimeSeriesCollection(priceSeries);
+            ArrayXYDataset priceDataset = new ArrayXYDataset()
+                .add("Price", candles, i -> candles.get(i).close(), 0);
             plot.setDataset(1, priceDataset);
 
             // Apply opacity to price line (not the cloud)
@@ -1851,6 +1853,28 @@ public class ChartsPanel extends JPanel {
         plot.getRenderer().setSeriesPaint(0, ChartStyles.EQUITY_COLOR);
     }
 
+    private void updateEquityChart(EquitySeries curve) {
+        XYPlot plot = equityChart.getXYPlot();
+        plot.setDataset(new ArrayXYDataset().add("Equity", curve.timestamps(), curve.equity(), 0));
+        plot.getRenderer().setSeriesPaint(0, ChartStyles.EQUITY_COLOR);
+    }
+
+    private void updateComparisonChart(List<Candle> candles, EquitySeries curve, double initialCapital) {
+        double[] equity = curve.equity();
+        double[] strategyReturn = new double[equity.length];
+        for (int i = 0; i < equity.length; i++) {
+            strategyReturn[i] = ((equity[i] - initialCapital) / initialCapital) * 100;
+        }
+        double startPrice = candles.get(0).close();
+
+        XYPlot plot = comparisonChart.getXYPlot();
+        plot.setDataset(new ArrayXYDataset()
+            .add("Strategy", curve.timestamps(), strategyReturn, 0)
+            .add("Buy & Hold", candles, i -> ((candles.get(i).close() - startPrice) / startPrice) * 100, 0));
+        plot.getRenderer().setSeriesPaint(0, ChartStyles.EQUITY_COLOR);
+        plot.getRenderer().setSeriesPaint(1, ChartStyles.BUY_HOLD_COLOR);
+    }
+
     private void updateComparisonChart(List<Candle> candles, List<Trade> trades, double initialCapital) {
         TimeSeries strategySeries = new TimeSeries("Strategy");
         TimeSeries buyHoldSeries = new TimeSeries("Buy & Hold");
@@ -1889,6 +1913,18 @@ public class ChartsPanel extends JPanel {
         plot.getRenderer().setSeriesPaint(1, ChartStyles.BUY_HOLD_COLOR);
     }
 
+    private void updateCapitalUsageChart(EquitySeries curve) {
+        double[] usage = new double[curve.size()];
+        for (int i = 0; i < usage.length; i++) {
+            usage[i] = Math.min(curve.capitalUsagePercent(i), 100.0);
+        }
+
+        XYPlot plot = capitalUsageChart.getXYPlot();
+        plot.setDataset(new ArrayXYDataset().add("Capital Usage", curve.timestamps(), usage, 0));
+        plot.getRenderer().setSeriesPaint(0, ChartStyles.CAPITAL_USAGE_COLOR);
+        plot.getRangeAxis().setRange(-5, 105);
+    }
+
     private void updateCapitalUsageChart(List<Candle> candles, List<Trade> trades, double initialCapital) {
         TimeSeries usageSeries = new TimeSeries("Capital Usage");
 
@@ -2050,6 +2086,13 @@ public class ChartsPanel extends JPanel {
         // will be immediately re-requested, causing expensive re-fetches.
     }
 
+    /**
+     * Release resources shared with other windows. Call when the owning window closes.
+     */
+    public void dispose() {
+        forgeDataProvider.dispose();
+    }
+
     // ===== Chart Refresh Methods (for async VIEW data loading) =====
 
     /**
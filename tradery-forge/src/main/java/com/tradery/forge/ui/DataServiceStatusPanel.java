@@ -1,5 +1,6 @@
 package com.tradery.forge.ui;
 
+import com.tradery.charts.indicator.SharedIndicatorResults;
 import com.tradery.forge.ApplicationContext;
 import com.tradery.forge.data.page.DataPageManager;
 import com.tradery.ui.controls.StatusBadge;
@@ -84,6 +85,7 @@ public class DataServiceStatusPanel extends JPanel {
         if (ctx.getIndicatorPageManager() != null) {
             total += ctx.getIndicatorPageManager().estimateMemoryBytes();
         }
+        total += SharedIndicatorResults.getInstance().estimateMemoryBytes();
 
         if (total < 1024) return total + " B";
         if (total < 1024 * 1024) return (total / 1024) + " KB";
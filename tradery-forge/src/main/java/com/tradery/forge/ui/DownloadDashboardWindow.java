@@ -20,6 +20,7 @@ import com.tradery.ui.controls.BorderlessScrollPane;
 import com.tradery.ui.controls.BorderlessTable;
 import com.tradery.ui.controls.ThinSplitPane;
 import com.tradery.ui.dashboard.PageLogEntry;
+import com.tradery.ui.status.EdtStallPanel;
 
 import static com.tradery.forge.ui.UIColors.STATUS_ERROR;
 import static com.tradery.forge.ui.UIColors.STATUS_READY;
@@ -41,19 +42,21 @@ import java.util.Map;
 /**
  * Forge download dashboard. Extends the shared DashboardWindow,
  * mapping forge-specific page types to common DashboardPageInfo.
- * Adds forge-specific sections: overview (timeline + log), symbol DB.
+ * Adds forge-specific sections: overview (timeline + log), symbol DB, EDT stalls.
  * Page detail is handled by the base class's built-in PageDetailPanel.
  */
 public class DownloadDashboardWindow extends DashboardWindow {
 
     private static final String SECTION_OVERVIEW = "overview";
     private static final String SECTION_SYMBOL_DB = "symbol_db";
+    private static final String SECTION_EDT = "edt";
 
     private static DownloadDashboardWindow instance;
 
     // Forge-specific panels
     private DataTimelinePanel timelinePanel;
     private DownloadLogPanel logPanel;
+    private EdtStallPanel edtStallPanel;
 
     // Symbol DB labels
     private JLabel symDbStatusLabel;
@@ -141,6 +144,10 @@ public class DownloadDashboardWindow extends DashboardWindow {
         sections.add(new DashboardSection(SECTION_SYMBOL_DB, "Symbol Database",
             createSymbolDbPanel(), getSymbolDbStatus()));
 
+        // EDT stalls
+        edtStallPanel = new EdtStallPanel();
+        sections.add(new DashboardSection(SECTION_EDT, "EDT Stalls", edtStallPanel, EdtStallPanel.getStatus()));
+
         // Bottom buttons
         JButton refreshBtn = new JButton("Refresh");
         refreshBtn.addActionListener(e -> onRefresh());
@@ -270,6 +277,7 @@ public class DownloadDashboardWindow extends DashboardWindow {
         timelinePanel.update(allPages, indicators);
         logPanel.refresh();
         refreshSymbolDbPanel();
+        edtStallPanel.refresh();
     }
 
     // ========== Forge data collection (raw types for forge-specific panels) ==========
@@ -5,6 +5,7 @@ import com.tradery.data.page.DataType;
 import com.tradery.data.page.PageState;
 import com.tradery.forge.data.page.DataPageManager;
 import com.tradery.forge.data.page.IndicatorPageManager;
+import com.tradery.forge.data.page.PageMemoryBudget;
 import com.tradery.ui.controls.StatusBadge;
 
 import javax.swing.*;
@@ -14,7 +15,8 @@ import java.awt.event.MouseEvent;
 import java.util.List;
 
 /**
- * Panel showing badges for each page manager with checked out page count and loading state.
+ * Panel showing badges for each page manager with checked out page count and loading state,
+ * plus the shared page memory budget.
  * Displays in the status bar to give visibility into background data loading.
  */
 public class PageManagerBadgesPanel extends JPanel {
@@ -25,6 +27,7 @@ public class PageManagerBadgesPanel extends JPanel {
     private final StatusBadge aggTradesBadge;
     private final StatusBadge premiumBadge;
     private final StatusBadge indicatorsBadge;
+    private final StatusBadge memoryBadge;
 
     private final Timer refreshTimer;
 
@@ -40,6 +43,7 @@ public class PageManagerBadgesPanel extends JPanel {
         aggTradesBadge = new StatusBadge("AggTrades 0");
         premiumBadge = new StatusBadge("Premium 0");
         indicatorsBadge = new StatusBadge("Indicators 0");
+        memoryBadge = new StatusBadge("Mem 0 MB");
 
         addClickHandler(candlesBadge, DataType.CANDLES);
         addClickHandler(fundingBadge, DataType.FUNDING);
@@ -59,6 +63,7 @@ public class PageManagerBadgesPanel extends JPanel {
         add(aggTradesBadge);
         add(premiumBadge);
         add(indicatorsBadge);
+        add(memoryBadge);
 
         // Context menu for right-click to open Download Dashboard
         JPopupMenu contextMenu = new JPopupMenu();
@@ -111,6 +116,49 @@ public class PageManagerBadgesPanel extends JPanel {
         updateDataPageBadge(aggTradesBadge, "AggTrades", ctx.getAggTradesPageManager());
         updateDataPageBadge(premiumBadge, "Premium", ctx.getPremiumPageManager());
         updateIndicatorsBadge(ctx.getIndicatorPageManager());
+        updateMemoryBadge(ctx.getPageMemoryBudget());
+    }
+
+    private void updateMemoryBadge(PageMemoryBudget budget) {
+        if (budget == null) {
+            memoryBadge.setText("Mem -");
+            memoryBadge.setStatusColor(StatusBadge.BG_IDLE, StatusBadge.FG_IDLE);
+            return;
+        }
+
+        PageMemoryBudget.Usage usage = budget.getUsage();
+        if (usage.overBudget()) {
+            memoryBadge.setStatusColor(StatusBadge.BG_ERROR, StatusBadge.FG_ERROR);
+        } else if (usage.fraction() >= PageMemoryBudget.LOW_WATER) {
+            memoryBadge.setStatusColor(StatusBadge.BG_WARNING, StatusBadge.FG_WARNING);
+        } else {
+            memoryBadge.setStatusColor(StatusBadge.BG_OK, StatusBadge.FG_OK);
+        }
+        memoryBadge.setText("Mem " + toMb(usage.usedBytes()) + "/" + toMb(usage.maxBytes()) + " MB");
+
+        StringBuilder tooltip = new StringBuilder();
+        tooltip.append("<html><b>Page memory</b><br>");
+        tooltip.append("Used: ~").append(toMb(usage.usedBytes())).append(" MB of ")
+            .append(toMb(usage.maxBytes())).append(" MB budget");
+        if (usage.overBudget()) {
+            tooltip.append("<br><font color='red'>Over budget: pages in use exceed it</font>");
+        }
+        tooltip.append("<br><br><b>By manager:</b><br>");
+        for (java.util.Map.Entry<String, Long> entry : usage.pools().entrySet()) {
+            tooltip.append("• ").append(entry.getKey()).append(" <font color='gray'>(~")
+                .append(toMb(entry.getValue())).append(" MB)</font><br>");
+        }
+        tooltip.append("<br>Evicted unused pages: ").append(usage.evictions());
+        if (budget.isSpillEnabled()) {
+            tooltip.append("<br>Spilled to disk: ").append(usage.spilledPages()).append(" pages, ")
+                .append(toMb(usage.spilledBytes())).append(" MB");
+        }
+        tooltip.append("</html>");
+        memoryBadge.setToolTipText(tooltip.toString());
+    }
+
+    private static long toMb(long bytes) {
+        return bytes / (1024 * 1024);
     }
 
     private void updateDataPageBadge(StatusBadge badge, String name, DataPageManager<?> mgr) {
@@ -1022,7 +1022,7 @@ public class ProjectWindow extends JFrame {
             chartPanel.setIndicatorDataContext(candles, dataRangePanel.getSymbol(),
                 dataRangePanel.getTimeframe(), startTime, endTime);
 
-            chartPanel.updateCharts(candles, result.trades(), result.config().initialCapital());
+            chartPanel.updateCharts(candles, result.trades(), result.config().initialCapital(), result.equityCurve());
 
             // Apply saved overlays
             chartPanel.applySavedOverlays(candles);
@@ -1161,6 +1161,11 @@ public class ProjectWindow extends JFrame {
             aiTerminalController.dispose();
         }
 
+        // Release shared indicator results
+        if (chartPanel != null) {
+            chartPanel.dispose();
+        }
+
         // Dispose timeline bar (releases data page)
         if (timelineBar != null) {
             timelineBar.dispose();
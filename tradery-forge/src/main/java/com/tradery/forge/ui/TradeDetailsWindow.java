@@ -7,7 +7,6 @@ import com.tradery.ui.controls.BorderlessTable;
 import com.tradery.ui.controls.ThinSplitPane;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
@@ -32,6 +31,14 @@ public class TradeDetailsWindow extends JDialog {
     private final List<Candle> candles;
     private final String strategyName;
 
+    // Row store and current view (built, sorted and filtered off the EDT)
+    private TradeRowStore rowStore;
+    private TradeRowStore.SortKey sortKey = TradeRowStore.SortKey.INDEX;
+    private boolean sortAscending = true;
+    private TradeRowStore.Filter filter = TradeRowStore.Filter.ALL;
+    private int orderGeneration;  // Drops orders superseded by a newer sort/filter
+    private JComboBox<TradeRowStore.Filter> filterCombo;
+
     // Detail panel components
     private JPanel detailPanel;
     private JPanel detailContentPanel;
@@ -63,13 +70,59 @@ public class TradeDetailsWindow extends JDialog {
 
         initializeComponents();
         layoutComponents();
+        reorder();
 
         setSize(1400, 700);
         setLocationRelativeTo(parent);
     }
 
+    /**
+     * Sort and filter the rows in the background and show the result when it is still current.
+     * The row store is built on first use, also in the background.
+     */
+    private void reorder() {
+        int generation = ++orderGeneration;
+        TradeRowStore.SortKey key = sortKey;
+        boolean ascending = sortAscending;
+        TradeRowStore.Filter rowFilter = filter;
+        TradeRowStore built = rowStore;
+        new SwingWorker<int[], Void>() {
+            private TradeRowStore store;
+
+            @Override
+            protected int[] doInBackground() {
+                store = built != null ? built : TradeRowStore.build(trades);
+                return store.order(key, ascending, rowFilter);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != orderGeneration) return;
+                try {
+                    int[] order = get();
+                    rowStore = store;
+                    table.clearSelection();
+                    tableModel.setOrder(store, order);
+                } catch (Exception e) {
+                    tableModel.setOrder(TradeRowStore.empty(), new int[0]);
+                }
+            }
+        }.execute();
+    }
+
+    private void sortBy(int column) {
+        TradeRowStore.SortKey key = TradeRowStore.SortKey.values()[column];
+        if (key == sortKey) {
+            sortAscending = !sortAscending;
+        } else {
+            sortKey = key;
+            sortAscending = true;
+        }
+        reorder();
+    }
+
     private void initializeComponents() {
-        tableModel = new TreeDetailedTableModel(trades);
+        tableModel = new TreeDetailedTableModel();
         table = new BorderlessTable(tableModel);
 
         table.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
@@ -113,14 +166,31 @@ public class TradeDetailsWindow extends JDialog {
                 int col = table.columnAtPoint(e.getPoint());
 
                 if (row >= 0 && col == 0) {
-                    TableRow tableRow = tableModel.getRowAt(row);
-                    if (tableRow.isGroup && e.getX() < 20) {
+                    if (tableModel.isGroup(row) && e.getX() < 20) {
                         tableModel.toggleExpand(row);
                     }
                 }
             }
         });
 
+        // Sort on header click (again to reverse)
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int col = table.columnAtPoint(e.getPoint());
+                if (col >= 0) {
+                    sortBy(col);
+                }
+            }
+        });
+
+        filterCombo = new JComboBox<>(TradeRowStore.Filter.values());
+        filterCombo.setFont(filterCombo.getFont().deriveFont(11f));
+        filterCombo.addActionListener(e -> {
+            filter = (TradeRowStore.Filter) filterCombo.getSelectedItem();
+            reorder();
+        });
+
         // Selection listener to update detail panel and chart
         table.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
@@ -1435,6 +1505,12 @@ public class TradeDetailsWindow extends JDialog {
         titleLabel.setForeground(textSecondary());
         toolbar.add(titleLabel, BorderLayout.CENTER);
 
+        JPanel filterPanel = new JPanel(new GridBagLayout());
+        filterPanel.setOpaque(false);
+        filterPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 12));
+        filterPanel.add(filterCombo);
+        toolbar.add(filterPanel, BorderLayout.EAST);
+
         JPanel headerWrapper = new JPanel(new BorderLayout());
         headerWrapper.add(toolbar, BorderLayout.CENTER);
         headerWrapper.add(new JSeparator(), BorderLayout.SOUTH);
@@ -1712,7 +1788,7 @@ public class TradeDetailsWindow extends JDialog {
     /**
      * Tree-based detailed table model
      */
-    private static class TreeDetailedTableModel extends AbstractTableModel {
+    private static class TreeDetailedTableModel extends TradeTreeTableModel {
         private static final String[] COLUMNS = {
             "#", "Entries", "Side", "Entry Time", "Exit Time", "Entry Price", "Exit Price",
             "Quantity", "Value", "Profit/Loss", "Return", "Best P&L", "Worst P&L", "Capture", "Duration",
@@ -1720,77 +1796,19 @@ public class TradeDetailsWindow extends JDialog {
         };
         private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm");
 
-        private List<TableRow> visibleRows = new ArrayList<>();
-        private List<TableRow> groupRows = new ArrayList<>();
-
-        TreeDetailedTableModel(List<Trade> trades) {
-            buildGroups(trades != null ? trades : new ArrayList<>());
-            rebuildVisibleRows();
-        }
-
-        private void buildGroups(List<Trade> allTrades) {
-            groupRows.clear();
-
-            List<Trade> validTrades = allTrades.stream()
-                .filter(t -> t.exitTime() != null && t.exitPrice() != null && !"rejected".equals(t.exitReason()))
-                .sorted((a, b) -> Long.compare(a.entryTime(), b.entryTime()))
-                .toList();
-
-            // Group trades by groupId
-            java.util.Map<String, List<Trade>> tradesByGroup = new java.util.LinkedHashMap<>();
-            for (Trade t : validTrades) {
-                String groupId = t.groupId() != null ? t.groupId() : "single-" + t.id();
-                tradesByGroup.computeIfAbsent(groupId, k -> new ArrayList<>()).add(t);
-            }
-
-            List<Trade> rejectedTrades = allTrades.stream()
-                .filter(t -> "rejected".equals(t.exitReason()))
-                .toList();
-
-            int index = 1;
-            for (List<Trade> group : tradesByGroup.values()) {
-                if (group.size() == 1) {
-                    groupRows.add(TableRow.single(index, group.getFirst()));
-                } else {
-                    groupRows.add(TableRow.group(index, group));
-                }
-                index++;
-            }
-
-            for (Trade t : rejectedTrades) {
-                groupRows.add(TableRow.single(index, t));
-                index++;
-            }
-        }
-
-        private void rebuildVisibleRows() {
-            visibleRows.clear();
-            for (TableRow row : groupRows) {
-                visibleRows.add(row);
-                if (row.isGroup && row.expanded) {
-                    for (int i = 0; i < row.trades.size(); i++) {
-                        visibleRows.add(TableRow.child(row.groupIndex, i + 1, row.trades.get(i)));
-                    }
-                }
-            }
-        }
-
-        public void toggleExpand(int rowIndex) {
-            TableRow row = visibleRows.get(rowIndex);
-            if (row.isGroup) {
-                row.expanded = !row.expanded;
-                rebuildVisibleRows();
-                fireTableDataChanged();
-            }
-        }
-
+        /**
+         * Selected row as a detail view; built on demand, only for the selection.
+         */
         public TableRow getRowAt(int rowIndex) {
-            return visibleRows.get(rowIndex);
-        }
-
-        @Override
-        public int getRowCount() {
-            return visibleRows.size();
+            int number = storeRow(rowIndex) + 1;
+            if (isGroup(rowIndex)) {
+                TableRow group = TableRow.group(number, store.tradesOf(storeRow(rowIndex)));
+                group.expanded = isExpanded(rowIndex);
+                return group;
+            } else if (isChild(rowIndex)) {
+                return TableRow.child(number, childIndex(rowIndex) + 1, singleTrade(rowIndex));
+            }
+            return TableRow.single(number, singleTrade(rowIndex));
         }
 
         @Override
@@ -1805,40 +1823,43 @@ public class TradeDetailsWindow extends JDialog {
 
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            TableRow row = visibleRows.get(rowIndex);
-
-            if (row.isGroup) {
+            if (!isChild(rowIndex)) {
+                // Position rows read the store's columns
+                int r = storeRow(rowIndex);
+                boolean group = isGroup(rowIndex);
+                boolean isRejected = isRejected(rowIndex);
+                Trade first = store.trade(r, 0);
                 return switch (columnIndex) {
-                    case 0 -> (row.expanded ? "▼ " : "▶ ") + row.groupIndex;
-                    case 1 -> row.trades.size();  // Entries count
-                    case 2 -> row.getSide().toUpperCase();
-                    case 3 -> DATE_FORMAT.format(new Date(row.getFirstEntryTime()));
-                    case 4 -> row.getExitTime() != null ? DATE_FORMAT.format(new Date(row.getExitTime())) : "-";
-                    case 5 -> formatPrice(row.getAvgEntryPrice()) + " (avg)";
-                    case 6 -> row.getExitPrice() != null ? formatPrice(row.getExitPrice()) : "-";
-                    case 7 -> String.format("%.6f", row.getTotalQuantity());
-                    case 8 -> String.format("%.2f", row.getTotalValue());
-                    case 9 -> String.format("%+.2f", row.getTotalPnl());
-                    case 10 -> String.format("%+.2f%%", row.getAvgPnlPercent());
-                    case 11 -> formatMfe(row.getMfe());       // MFE
-                    case 12 -> formatMae(row.getMae());       // MAE
-                    case 13 -> formatCapture(row.getCaptureRatio());  // Capture
-                    case 14 -> row.getDuration() != null ? String.valueOf(row.getDuration()) : "-";  // Duration
-                    case 15 -> String.format("%.2f", row.getTotalCommission());
-                    case 16 -> formatExitReason(row.getExitReason());
-                    case 17 -> row.getExitZone() != null ? row.getExitZone() : "-";
-                    case 18 -> formatBetterContext(row.getBetterEntryImprovement());  // Better Entry
-                    case 19 -> formatBetterContext(row.getBetterExitImprovement());   // Better Exit
+                    case 0 -> rowLabel(rowIndex);
+                    case 1 -> group ? store.entryCount(r) : "";  // Entries count (empty for single)
+                    case 2 -> store.isShort(r) ? "SHORT" : "LONG";
+                    case 3 -> DATE_FORMAT.format(new Date(store.entryTime(r)));
+                    case 4 -> isRejected || Double.isNaN(store.exitTime(r)) ? "-" : DATE_FORMAT.format(new Date((long) store.exitTime(r)));
+                    case 5 -> formatPrice(store.entryPrice(r)) + (group ? " (avg)" : "");
+                    case 6 -> isRejected || Double.isNaN(store.exitPrice(r)) ? "-" : formatPrice(store.exitPrice(r));
+                    case 7 -> isRejected ? "-" : String.format("%.6f", store.quantity(r));
+                    case 8 -> isRejected ? "-" : String.format("%.2f", store.value(r));
+                    case 9 -> isRejected ? "NO CAPITAL" : formatOrDash("%+.2f", store.pnl(r));
+                    case 10 -> isRejected ? "-" : formatOrDash("%+.2f%%", store.pnlPercent(r));
+                    case 11 -> isRejected ? "-" : formatMfe(boxed(store.mfe(r)));       // MFE
+                    case 12 -> isRejected ? "-" : formatMae(boxed(store.mae(r)));       // MAE
+                    case 13 -> isRejected ? "-" : formatCapture(boxed(store.captureRatio(r)));  // Capture
+                    case 14 -> isRejected ? "-" : formatOrDash("%.0f", store.duration(r));  // Duration
+                    case 15 -> isRejected ? "-" : formatOrDash("%.2f", store.commission(r));
+                    case 16 -> formatExitReason(first.exitReason());
+                    case 17 -> first.exitZone() != null ? first.exitZone() : "-";
+                    case 18 -> isRejected ? "-" : formatBetterContext(boxed(store.betterEntryImprovement(r)));  // Better Entry
+                    case 19 -> isRejected ? "-" : formatBetterContext(boxed(store.betterExitImprovement(r)));   // Better Exit
                     default -> "";
                 };
             } else {
-                Trade trade = row.singleTrade;
-                boolean isRejected = row.isRejected();
-                String prefix = row.isChild ? "    " + row.groupIndex + "." + row.childIndex : "  " + row.groupIndex;
+                // Expanded group entries read their trade
+                Trade trade = singleTrade(rowIndex);
+                boolean isRejected = "rejected".equals(trade.exitReason());
 
                 return switch (columnIndex) {
-                    case 0 -> prefix;
-                    case 1 -> "";  // Entries (empty for single/child)
+                    case 0 -> rowLabel(rowIndex);
+                    case 1 -> "";  // Entries (empty for children)
                     case 2 -> trade.side().toUpperCase();
                     case 3 -> DATE_FORMAT.format(new Date(trade.entryTime()));
                     case 4 -> isRejected ? "-" : (trade.exitTime() != null ? DATE_FORMAT.format(new Date(trade.exitTime())) : "-");
@@ -1862,6 +1883,14 @@ public class TradeDetailsWindow extends JDialog {
             }
         }
 
+        private static Double boxed(double value) {
+            return Double.isNaN(value) ? null : value;
+        }
+
+        private static String formatOrDash(String format, double value) {
+            return Double.isNaN(value) ? "-" : String.format(format, value);
+        }
+
         private String formatMfe(Double mfe) {
             return mfe != null ? String.format("+%.1f%%", mfe) : "-";
         }
@@ -1915,10 +1944,9 @@ public class TradeDetailsWindow extends JDialog {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setHorizontalAlignment(SwingConstants.LEFT);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected()) {
+            if (model.isRejected(row)) {
                 setForeground(textSecondary());
-            } else if (tableRow.isChild) {
+            } else if (model.isChild(row)) {
                 setForeground(textSecondary());
             } else {
                 setForeground(isSelected ? table.getSelectionForeground() : table.getForeground());
@@ -1946,10 +1974,9 @@ public class TradeDetailsWindow extends JDialog {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setHorizontalAlignment(alignment);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected()) {
+            if (model.isRejected(row)) {
                 setForeground(textSecondary());
-            } else if (tableRow.isChild) {
+            } else if (model.isChild(row)) {
                 setForeground(textSecondary());
             } else {
                 setForeground(isSelected ? table.getSelectionForeground() : table.getForeground());
@@ -1975,10 +2002,9 @@ public class TradeDetailsWindow extends JDialog {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setHorizontalAlignment(SwingConstants.RIGHT);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected()) {
+            if (model.isRejected(row)) {
                 setForeground(textSecondary());
-            } else if (tableRow.isChild) {
+            } else if (model.isChild(row)) {
                 if (value instanceof String s && !s.equals("-")) {
                     if (s.startsWith("+")) setForeground(new Color(120, 180, 120));
                     else if (s.startsWith("-")) setForeground(new Color(200, 120, 120));
@@ -2012,10 +2038,9 @@ public class TradeDetailsWindow extends JDialog {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setHorizontalAlignment(SwingConstants.RIGHT);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected() || "-".equals(value)) {
+            if (model.isRejected(row) || "-".equals(value)) {
                 setForeground(textSecondary());
-            } else if (tableRow.isChild) {
+            } else if (model.isChild(row)) {
                 setForeground(new Color(120, 180, 120));
             } else {
                 setForeground(TRADE_PROFIT);
@@ -2041,10 +2066,9 @@ public class TradeDetailsWindow extends JDialog {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setHorizontalAlignment(SwingConstants.RIGHT);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected() || "-".equals(value)) {
+            if (model.isRejected(row) || "-".equals(value)) {
                 setForeground(textSecondary());
-            } else if (tableRow.isChild) {
+            } else if (model.isChild(row)) {
                 setForeground(new Color(200, 120, 120));
             } else {
                 setForeground(TRADE_LOSS);
@@ -2070,14 +2094,13 @@ public class TradeDetailsWindow extends JDialog {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setHorizontalAlignment(SwingConstants.RIGHT);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected() || "-".equals(value)) {
+            if (model.isRejected(row) || "-".equals(value)) {
                 setForeground(textSecondary());
             } else if (value instanceof String s) {
                 // Color based on capture percentage: >70% green, 40-70% yellow, <40% red
                 try {
                     int pct = Integer.parseInt(s.replace("%", ""));
-                    if (tableRow.isChild) {
+                    if (model.isChild(row)) {
                         if (pct >= 70) setForeground(new Color(120, 180, 120));
                         else if (pct >= 40) setForeground(new Color(180, 180, 100));
                         else setForeground(new Color(200, 120, 120));
@@ -2112,15 +2135,14 @@ public class TradeDetailsWindow extends JDialog {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setHorizontalAlignment(SwingConstants.RIGHT);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected() || "-".equals(value)) {
+            if (model.isRejected(row) || "-".equals(value)) {
                 setForeground(textSecondary());
             } else if (value instanceof String s && s.startsWith("+")) {
                 // Color based on improvement: lower is better (entry/exit was closer to optimal)
                 // <1% = green (good), 1-3% = yellow (ok), >3% = red (significant room for improvement)
                 try {
                     double pct = Double.parseDouble(s.replace("+", "").replace("%", ""));
-                    if (tableRow.isChild) {
+                    if (model.isChild(row)) {
                         if (pct < 1.0) setForeground(new Color(120, 180, 120));
                         else if (pct < 3.0) setForeground(new Color(180, 180, 100));
                         else setForeground(new Color(200, 120, 120));
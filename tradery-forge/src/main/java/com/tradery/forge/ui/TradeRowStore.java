@@ -0,0 +1,431 @@
+package com.tradery.forge.ui;
+
+import com.tradery.core.model.Trade;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Column-wise view of a backtest's trades as table rows, for the trade tables.
+ *
+ * A row is a position: a single trade, or a DCA group of trades sharing a groupId. Rows are
+ * numbered like the result list always was - closed trades by entry time, grouped, then
+ * rejected trades. Per-row values (group aggregates included) are computed once into
+ * primitive arrays, with NaN for missing values, so sorting and filtering never touch the
+ * trade records. Trade objects are only read for rows actually shown or selected.
+ *
+ * Immutable after {@link #build(List)}; build, sort and filter are safe off the EDT.
+ */
+public final class TradeRowStore {
+
+    /** Row values that can be sorted on. */
+    public enum SortKey {
+        INDEX, ENTRIES, SIDE, ENTRY_TIME, EXIT_TIME, ENTRY_PRICE, EXIT_PRICE, QUANTITY, VALUE,
+        PNL, RETURN, MFE, MAE, CAPTURE, DURATION, COMMISSION, EXIT_REASON, ZONE, BETTER_ENTRY, BETTER_EXIT
+    }
+
+    /** Row subsets. */
+    public enum Filter {
+        ALL("All"), WINNERS("Winners"), LOSERS("Losers"), REJECTED("Rejected");
+
+        private final String label;
+
+        Filter(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final TradeRowStore EMPTY = build(List.of());
+
+    private final List<Trade> trades;
+    private final int[] rowStart;     // Row r owns tradeIndex[rowStart[r] .. rowStart[r + 1])
+    private final int[] tradeIndex;   // Indexes into trades, grouped by row
+
+    private final boolean[] rejected;
+    private final boolean[] shortSide;
+    private final long[] entryTime;   // First entry
+    private final double[] exitTime;  // NaN = none
+    private final double[] entryPrice;  // Average for groups
+    private final double[] exitPrice;
+    private final double[] quantity;
+    private final double[] value;
+    private final double[] pnl;
+    private final double[] pnlPercent;
+    private final double[] mfe;
+    private final double[] mae;
+    private final double[] capture;
+    private final double[] duration;
+    private final double[] commission;
+    private final double[] betterEntry;
+    private final double[] betterExit;
+    private final int[] exitReasonRank;  // Alphabetical rank, for sorting
+    private final int[] zoneRank;
+
+    private TradeRowStore(List<Trade> trades, int[] rowStart, int[] tradeIndex) {
+        this.trades = trades;
+        this.rowStart = rowStart;
+        this.tradeIndex = tradeIndex;
+        int rows = rowStart.length - 1;
+        rejected = new boolean[rows];
+        shortSide = new boolean[rows];
+        entryTime = new long[rows];
+        exitTime = new double[rows];
+        entryPrice = new double[rows];
+        exitPrice = new double[rows];
+        quantity = new double[rows];
+        value = new double[rows];
+        pnl = new double[rows];
+        pnlPercent = new double[rows];
+        mfe = new double[rows];
+        mae = new double[rows];
+        capture = new double[rows];
+        duration = new double[rows];
+        commission = new double[rows];
+        betterEntry = new double[rows];
+        betterExit = new double[rows];
+        exitReasonRank = new int[rows];
+        zoneRank = new int[rows];
+    }
+
+    public static TradeRowStore empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Group and aggregate trades into rows. The list is kept by reference, not copied.
+     */
+    public static TradeRowStore build(List<Trade> trades) {
+        List<Trade> all = trades != null ? trades : List.of();
+
+        // Closed trades by entry time (stable), then rejected trades in list order
+        int[] closed = new int[all.size()];
+        int closedCount = 0;
+        int rejectedCount = 0;
+        for (int i = 0; i < all.size(); i++) {
+            Trade t = all.get(i);
+            if ("rejected".equals(t.exitReason())) {
+                rejectedCount++;
+            } else if (t.exitTime() != null && t.exitPrice() != null) {
+                closed[closedCount++] = i;
+            }
+        }
+        int[] byEntry = Arrays.copyOf(closed, closedCount);
+        long[] entryKeys = new long[all.size()];
+        for (int i : byEntry) {
+            entryKeys[i] = all.get(i).entryTime();
+        }
+        sort(byEntry, (a, b) -> Long.compare(entryKeys[a], entryKeys[b]));
+
+        // Group by groupId in order of first appearance
+        Map<String, Integer> rowOfGroup = new HashMap<>();
+        int[] rowOfTrade = new int[byEntry.length];
+        int[] rowSize = new int[byEntry.length + rejectedCount + 1];
+        int rows = 0;
+        for (int k = 0; k < byEntry.length; k++) {
+            Trade t = all.get(byEntry[k]);
+            int row;
+            if (t.groupId() == null) {
+                row = rows++;
+            } else {
+                Integer existing = rowOfGroup.putIfAbsent(t.groupId(), rows);
+                row = existing != null ? existing : rows++;
+            }
+            rowOfTrade[k] = row;
+            rowSize[row]++;
+        }
+        int closedRows = rows;
+        rows += rejectedCount;
+
+        int[] rowStart = new int[rows + 1];
+        for (int r = 0; r < closedRows; r++) {
+            rowStart[r + 1] = rowStart[r] + rowSize[r];
+        }
+        for (int r = closedRows; r < rows; r++) {
+            rowStart[r + 1] = rowStart[r] + 1;
+        }
+        int[] tradeIndex = new int[rowStart[rows]];
+        int[] fill = Arrays.copyOf(rowStart, rows);
+        for (int k = 0; k < byEntry.length; k++) {
+            tradeIndex[fill[rowOfTrade[k]]++] = byEntry[k];
+        }
+        int next = closedRows;
+        for (int i = 0; i < all.size(); i++) {
+            if ("rejected".equals(all.get(i).exitReason())) {
+                tradeIndex[fill[next++]++] = i;
+            }
+        }
+
+        TradeRowStore store = new TradeRowStore(all, rowStart, tradeIndex);
+        store.aggregate();
+        return store;
+    }
+
+    private void aggregate() {
+        TreeSet<String> reasons = new TreeSet<>();
+        TreeSet<String> zones = new TreeSet<>();
+        for (int r = 0; r < rowCount(); r++) {
+            Trade first = trade(r, 0);
+            rejected[r] = "rejected".equals(first.exitReason());
+            shortSide[r] = "short".equals(first.side());
+            exitTime[r] = first.exitTime() != null ? first.exitTime() : Double.NaN;
+            exitPrice[r] = orNaN(first.exitPrice());
+            if (first.exitReason() != null) reasons.add(first.exitReason());
+            if (first.exitZone() != null) zones.add(first.exitZone());
+            if (entryCount(r) == 1) {
+                aggregateSingle(r, first);
+            } else {
+                aggregateGroup(r);
+            }
+        }
+        List<String> reasonOrder = new ArrayList<>(reasons);
+        List<String> zoneOrder = new ArrayList<>(zones);
+        for (int r = 0; r < rowCount(); r++) {
+            Trade first = trade(r, 0);
+            // Missing values rank after every name
+            exitReasonRank[r] = first.exitReason() != null ? reasonOrder.indexOf(first.exitReason()) : reasonOrder.size();
+            zoneRank[r] = first.exitZone() != null ? zoneOrder.indexOf(first.exitZone()) : zoneOrder.size();
+        }
+    }
+
+    private void aggregateSingle(int r, Trade t) {
+        entryTime[r] = t.entryTime();
+        entryPrice[r] = t.entryPrice();
+        quantity[r] = t.quantity();
+        value[r] = t.value();
+        pnl[r] = orNaN(t.pnl());
+        pnlPercent[r] = orNaN(t.pnlPercent());
+        mfe[r] = orNaN(t.mfe());
+        mae[r] = orNaN(t.mae());
+        capture[r] = orNaN(t.captureRatio());
+        duration[r] = t.duration() != null ? t.duration() : Double.NaN;
+        commission[r] = orNaN(t.commission());
+        betterEntry[r] = orNaN(t.betterEntryImprovement());
+        betterExit[r] = orNaN(t.betterExitImprovement());
+    }
+
+    private void aggregateGroup(int r) {
+        long firstEntry = Long.MAX_VALUE;
+        int firstEntryBar = Integer.MAX_VALUE;
+        int lastExitBar = Integer.MIN_VALUE;
+        double totalQty = 0, totalValue = 0, entryValue = 0, totalPnl = 0, totalCommission = 0;
+        double bestMfe = Double.NaN, worstMae = Double.NaN, bestEntry = Double.NaN, bestExit = Double.NaN;
+        for (int k = 0; k < entryCount(r); k++) {
+            Trade t = trade(r, k);
+            firstEntry = Math.min(firstEntry, t.entryTime());
+            firstEntryBar = Math.min(firstEntryBar, t.entryBar());
+            if (t.exitBar() != null) lastExitBar = Math.max(lastExitBar, t.exitBar());
+            totalQty += t.quantity();
+            totalValue += t.value();
+            entryValue += t.entryPrice() * t.quantity();
+            if (t.pnl() != null) totalPnl += t.pnl();
+            if (t.commission() != null) totalCommission += t.commission();
+            bestMfe = max(bestMfe, t.mfe());
+            worstMae = min(worstMae, t.mae());
+            bestEntry = max(bestEntry, t.betterEntryImprovement());
+            bestExit = max(bestExit, t.betterExitImprovement());
+        }
+        double avgEntry = totalQty > 0 ? entryValue / totalQty : 0;
+        double avgPnlPercent = avgEntry > 0 ? (totalPnl / (avgEntry * totalQty)) * 100 : 0;
+
+        entryTime[r] = firstEntry;
+        entryPrice[r] = avgEntry;
+        quantity[r] = totalQty;
+        value[r] = totalValue;
+        pnl[r] = totalPnl;
+        pnlPercent[r] = avgPnlPercent;
+        mfe[r] = bestMfe;
+        mae[r] = worstMae;
+        capture[r] = bestMfe > 0 ? avgPnlPercent / bestMfe : Double.NaN;
+        duration[r] = (lastExitBar == Integer.MIN_VALUE ? firstEntryBar : lastExitBar) - firstEntryBar;
+        commission[r] = totalCommission;
+        betterEntry[r] = bestEntry;
+        betterExit[r] = bestExit;
+    }
+
+    private static double orNaN(Double v) {
+        return v != null ? v : Double.NaN;
+    }
+
+    private static double max(double current, Double v) {
+        return v != null && (Double.isNaN(current) || v > current) ? v : current;
+    }
+
+    private static double min(double current, Double v) {
+        return v != null && (Double.isNaN(current) || v < current) ? v : current;
+    }
+
+    // ===== Rows =====
+
+    public int rowCount() {
+        return rowStart.length - 1;
+    }
+
+    public int tradeCount() {
+        return tradeIndex.length;
+    }
+
+    public boolean isEmpty() {
+        return rowCount() == 0;
+    }
+
+    /** Number of entries in a row (1 unless it is a DCA group). */
+    public int entryCount(int row) {
+        return rowStart[row + 1] - rowStart[row];
+    }
+
+    public boolean isGroup(int row) {
+        return entryCount(row) > 1;
+    }
+
+    /** The k-th trade of a row, in entry order. */
+    public Trade trade(int row, int k) {
+        return trades.get(tradeIndex[rowStart[row] + k]);
+    }
+
+    /** All trades of a row, materialized on demand. */
+    public List<Trade> tradesOf(int row) {
+        int n = entryCount(row);
+        List<Trade> list = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            list.add(trade(row, k));
+        }
+        return list;
+    }
+
+    // ===== Columns (NaN = missing) =====
+
+    public boolean isRejected(int row) { return rejected[row]; }
+    public boolean isShort(int row) { return shortSide[row]; }
+    public long entryTime(int row) { return entryTime[row]; }
+    public double exitTime(int row) { return exitTime[row]; }
+    public double entryPrice(int row) { return entryPrice[row]; }
+    public double exitPrice(int row) { return exitPrice[row]; }
+    public double quantity(int row) { return quantity[row]; }
+    public double value(int row) { return value[row]; }
+    public double pnl(int row) { return pnl[row]; }
+    public double pnlPercent(int row) { return pnlPercent[row]; }
+    public double mfe(int row) { return mfe[row]; }
+    public double mae(int row) { return mae[row]; }
+    public double captureRatio(int row) { return capture[row]; }
+    public double duration(int row) { return duration[row]; }
+    public double commission(int row) { return commission[row]; }
+    public double betterEntryImprovement(int row) { return betterEntry[row]; }
+    public double betterExitImprovement(int row) { return betterExit[row]; }
+
+    // ===== Sorting and filtering =====
+
+    /**
+     * Rows passing the filter, ordered by a key. Ties keep row order; missing values
+     * (and rejected rows for trade values) go last in either direction.
+     */
+    public int[] order(SortKey key, boolean ascending, Filter filter) {
+        int[] rows = new int[rowCount()];
+        int n = 0;
+        for (int r = 0; r < rowCount(); r++) {
+            if (accepts(filter, r)) rows[n++] = r;
+        }
+        rows = Arrays.copyOf(rows, n);
+        if (key == SortKey.INDEX) {
+            if (!ascending) reverse(rows);
+            return rows;
+        }
+
+        double[] keys = sortKeys(key);
+        int sign = ascending ? 1 : -1;
+        sort(rows, (a, b) -> {
+            double ka = keys[a], kb = keys[b];
+            boolean missingA = Double.isNaN(ka), missingB = Double.isNaN(kb);
+            if (missingA || missingB) return Boolean.compare(missingA, missingB);
+            return sign * Double.compare(ka, kb);
+        });
+        return rows;
+    }
+
+    private boolean accepts(Filter filter, int r) {
+        return switch (filter) {
+            case ALL -> true;
+            case WINNERS -> !rejected[r] && pnl[r] > 0;
+            case LOSERS -> !rejected[r] && pnl[r] < 0;
+            case REJECTED -> rejected[r];
+        };
+    }
+
+    private double[] sortKeys(SortKey key) {
+        double[] keys = new double[rowCount()];
+        for (int r = 0; r < keys.length; r++) {
+            keys[r] = switch (key) {
+                case INDEX -> r;
+                case ENTRIES -> entryCount(r);
+                case SIDE -> shortSide[r] ? 1 : 0;
+                case ENTRY_TIME -> entryTime[r];
+                case EXIT_REASON -> exitReasonRank[r];
+                case ZONE -> zoneRank[r];
+                default -> rejected[r] ? Double.NaN : tradeValue(key, r);
+            };
+        }
+        return keys;
+    }
+
+    private double tradeValue(SortKey key, int r) {
+        return switch (key) {
+            case EXIT_TIME -> exitTime[r];
+            case ENTRY_PRICE -> entryPrice[r];
+            case EXIT_PRICE -> exitPrice[r];
+            case QUANTITY -> quantity[r];
+            case VALUE -> value[r];
+            case PNL -> pnl[r];
+            case RETURN -> pnlPercent[r];
+            case MFE -> mfe[r];
+            case MAE -> mae[r];
+            case CAPTURE -> capture[r];
+            case DURATION -> duration[r];
+            case COMMISSION -> commission[r];
+            case BETTER_ENTRY -> betterEntry[r];
+            case BETTER_EXIT -> betterExit[r];
+            default -> Double.NaN;
+        };
+    }
+
+    private static void reverse(int[] a) {
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Stable merge sort of an int array (no boxing).
+     */
+    private static void sort(int[] a, IndexComparator cmp) {
+        if (a.length < 2) return;
+        int[] buf = new int[a.length];
+        for (int width = 1; width < a.length; width *= 2) {
+            for (int lo = 0; lo < a.length; lo += 2 * width) {
+                int mid = Math.min(lo + width, a.length);
+                int hi = Math.min(lo + 2 * width, a.length);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    buf[k++] = cmp.compare(a[j], a[i]) < 0 ? a[j++] : a[i++];
+                }
+                while (i < mid) buf[k++] = a[i++];
+                while (j < hi) buf[k++] = a[j++];
+            }
+            System.arraycopy(buf, 0, a, 0, a.length);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import com.tradery.ui.controls.BorderlessScrollPane;
 import com.tradery.ui.controls.BorderlessTable;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
@@ -30,6 +29,7 @@ public class TradeTablePanel extends JPanel {
     private List<Candle> currentCandles = new ArrayList<>();
     private String strategyName = "";
     private int hoveredRow = -1;
+    private int loadGeneration;  // Drops row builds superseded by a newer update
     private java.util.function.Consumer<List<Trade>> onTradeHover;
     private java.util.function.Consumer<List<Trade>> onTradeSelect;
 
@@ -63,8 +63,7 @@ public class TradeTablePanel extends JPanel {
 
                 if (row >= 0 && col == 0) {
                     // Check if click is on expand/collapse icon area
-                    TableRow tableRow = tableModel.getRowAt(row);
-                    if (tableRow.isGroup && e.getX() < 20) {
+                    if (tableModel.isGroup(row) && e.getX() < 20) {
                         tableModel.toggleExpand(row);
                         return;
                     }
@@ -74,9 +73,8 @@ public class TradeTablePanel extends JPanel {
                     openDetailsWindow();
                 } else if (e.getClickCount() == 1 && row >= 0) {
                     // Single click - notify selection for chart highlighting
-                    TableRow tableRow = tableModel.getRowAt(row);
-                    if (tableRow != null && onTradeSelect != null) {
-                        onTradeSelect.accept(tableRow.trades);
+                    if (onTradeSelect != null) {
+                        onTradeSelect.accept(tableModel.tradesAt(row));
                     }
                 }
             }
@@ -101,8 +99,7 @@ public class TradeTablePanel extends JPanel {
                     hoveredRow = row;
                     if (onTradeHover != null) {
                         if (row >= 0 && row < tableModel.getRowCount()) {
-                            TableRow tableRow = tableModel.getRowAt(row);
-                            onTradeHover.accept(tableRow != null ? tableRow.trades : null);
+                            onTradeHover.accept(tableModel.tradesAt(row));
                         } else {
                             onTradeHover.accept(null);
                         }
@@ -162,8 +159,32 @@ public class TradeTablePanel extends JPanel {
         this.currentTrades = trades != null ? trades : new ArrayList<>();
         this.currentCandles = candles != null ? candles : new ArrayList<>();
         this.strategyName = strategyName != null ? strategyName : "";
-        tableModel.setTrades(currentTrades);
         detailsButton.setEnabled(!currentTrades.isEmpty());
+        loadRows(currentTrades);
+    }
+
+    /**
+     * Group and aggregate trades into table rows off the EDT; a newer update wins.
+     */
+    private void loadRows(List<Trade> trades) {
+        int generation = ++loadGeneration;
+        new SwingWorker<TradeRowStore, Void>() {
+            @Override
+            protected TradeRowStore doInBackground() {
+                return TradeRowStore.build(trades);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != loadGeneration) return;
+                try {
+                    TradeRowStore store = get();
+                    tableModel.setOrder(store, store.order(TradeRowStore.SortKey.INDEX, true, TradeRowStore.Filter.ALL));
+                } catch (Exception e) {
+                    tableModel.setOrder(TradeRowStore.empty(), new int[0]);
+                }
+            }
+        }.execute();
     }
 
     public void updateTrades(List<Trade> trades, String strategyName) {
@@ -176,170 +197,17 @@ public class TradeTablePanel extends JPanel {
 
     public void clear() {
         this.currentTrades = new ArrayList<>();
-        tableModel.setTrades(currentTrades);
+        loadGeneration++;
+        tableModel.setOrder(TradeRowStore.empty(), new int[0]);
         detailsButton.setEnabled(false);
     }
 
-    /**
-     * Represents a row in the tree table
-     */
-    private static class TableRow {
-        boolean isGroup;           // true if this is a DCA group parent
-        boolean isChild;           // true if this is a child of a DCA group
-        boolean expanded;          // for groups: whether expanded
-        int groupIndex;            // 1-based index for display
-        List<Trade> trades;        // all trades in this row/group
-        Trade singleTrade;         // for single trades or children
-        int childIndex;            // 1-based index within group (for children)
-
-        // For single trade or child
-        static TableRow single(int index, Trade trade) {
-            TableRow r = new TableRow();
-            r.isGroup = false;
-            r.isChild = false;
-            r.groupIndex = index;
-            r.singleTrade = trade;
-            r.trades = List.of(trade);
-            return r;
-        }
-
-        // For DCA group parent
-        static TableRow group(int index, List<Trade> trades) {
-            TableRow r = new TableRow();
-            r.isGroup = true;
-            r.isChild = false;
-            r.expanded = false;
-            r.groupIndex = index;
-            r.trades = trades;
-            return r;
-        }
-
-        // For child of DCA group
-        static TableRow child(int groupIndex, int childIndex, Trade trade) {
-            TableRow r = new TableRow();
-            r.isGroup = false;
-            r.isChild = true;
-            r.groupIndex = groupIndex;
-            r.childIndex = childIndex;
-            r.singleTrade = trade;
-            r.trades = List.of(trade);
-            return r;
-        }
-
-        double getTotalPnl() {
-            return trades.stream()
-                .filter(t -> t.pnl() != null)
-                .mapToDouble(Trade::pnl)
-                .sum();
-        }
-
-        double getAvgPnlPercent() {
-            double totalValue = 0;
-            double totalQuantity = 0;
-            for (Trade t : trades) {
-                totalValue += t.entryPrice() * t.quantity();
-                totalQuantity += t.quantity();
-            }
-            double avgEntry = totalQuantity > 0 ? totalValue / totalQuantity : 0;
-            double totalPnl = getTotalPnl();
-            return avgEntry > 0 ? (totalPnl / (avgEntry * totalQuantity)) * 100 : 0;
-        }
-
-        boolean isRejected() {
-            if (singleTrade != null) {
-                return "rejected".equals(singleTrade.exitReason());
-            }
-            return false;
-        }
-    }
-
     /**
      * Table model with tree-like DCA grouping
      */
-    private static class TreeTradeTableModel extends AbstractTableModel {
+    private static class TreeTradeTableModel extends TradeTreeTableModel {
         private static final String[] COLUMNS = {"#", "P&L", "Return"};
 
-        private List<Trade> allTrades = new ArrayList<>();
-        private List<TableRow> visibleRows = new ArrayList<>();
-        private List<TableRow> groupRows = new ArrayList<>();  // All groups (for expand/collapse)
-
-        public void setTrades(List<Trade> trades) {
-            this.allTrades = trades != null ? trades : new ArrayList<>();
-            buildGroups();
-            rebuildVisibleRows();
-            fireTableDataChanged();
-        }
-
-        private void buildGroups() {
-            groupRows.clear();
-
-            // Filter valid trades and sort by entry time
-            List<Trade> validTrades = allTrades.stream()
-                .filter(t -> t.exitTime() != null && t.exitPrice() != null && !"rejected".equals(t.exitReason()))
-                .sorted((a, b) -> Long.compare(a.entryTime(), b.entryTime()))
-                .toList();
-
-            // Group trades by groupId
-            java.util.Map<String, List<Trade>> tradesByGroup = new java.util.LinkedHashMap<>();
-            for (Trade t : validTrades) {
-                String groupId = t.groupId() != null ? t.groupId() : "single-" + t.id();
-                tradesByGroup.computeIfAbsent(groupId, k -> new ArrayList<>()).add(t);
-            }
-
-            // Add rejected trades as single entries
-            List<Trade> rejectedTrades = allTrades.stream()
-                .filter(t -> "rejected".equals(t.exitReason()))
-                .toList();
-
-            // Create TableRows
-            int index = 1;
-            for (List<Trade> group : tradesByGroup.values()) {
-                if (group.size() == 1) {
-                    groupRows.add(TableRow.single(index, group.getFirst()));
-                } else {
-                    groupRows.add(TableRow.group(index, group));
-                }
-                index++;
-            }
-
-            // Add rejected trades at the end
-            for (Trade t : rejectedTrades) {
-                groupRows.add(TableRow.single(index, t));
-                index++;
-            }
-        }
-
-        private void rebuildVisibleRows() {
-            visibleRows.clear();
-            for (TableRow row : groupRows) {
-                visibleRows.add(row);
-                if (row.isGroup && row.expanded) {
-                    // Add children
-                    for (int i = 0; i < row.trades.size(); i++) {
-                        visibleRows.add(TableRow.child(row.groupIndex, i + 1, row.trades.get(i)));
-                    }
-                }
-            }
-        }
-
-        public void toggleExpand(int rowIndex) {
-            TableRow row = visibleRows.get(rowIndex);
-            if (row.isGroup) {
-                row.expanded = !row.expanded;
-                rebuildVisibleRows();
-                fireTableDataChanged();
-            }
-        }
-
-        public TableRow getRowAt(int rowIndex) {
-            return visibleRows.get(rowIndex);
-        }
-
-        @Override
-        public int getRowCount() {
-            return visibleRows.size();
-        }
-
         @Override
         public int getColumnCount() {
             return COLUMNS.length;
@@ -352,37 +220,27 @@ public class TradeTablePanel extends JPanel {
 
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            TableRow row = visibleRows.get(rowIndex);
+            if (columnIndex == 0) {
+                return rowLabel(rowIndex);
+            }
+            if (isRejected(rowIndex)) {
+                return columnIndex == 1 ? "NO CAPITAL" : "-";
+            }
+
+            double pnl, pnlPercent;
+            if (isChild(rowIndex)) {
+                Trade trade = singleTrade(rowIndex);
+                pnl = trade.pnl() != null ? trade.pnl() : 0;
+                pnlPercent = trade.pnlPercent() != null ? trade.pnlPercent() : Double.NaN;
+            } else {
+                int row = storeRow(rowIndex);
+                pnl = Double.isNaN(store.pnl(row)) ? 0 : store.pnl(row);
+                pnlPercent = store.pnlPercent(row);
+            }
 
             return switch (columnIndex) {
-                case 0 -> {
-                    if (row.isGroup) {
-                        yield (row.expanded ? "▼ " : "▶ ") + row.groupIndex;
-                    } else if (row.isChild) {
-                        yield "    " + row.groupIndex + "." + row.childIndex;
-                    } else {
-                        yield "  " + row.groupIndex;  // Pad to align with group numbers
-                    }
-                }
-                case 1 -> {
-                    if (row.isRejected()) {
-                        yield "NO CAPITAL";
-                    }
-                    double pnl = row.isGroup ? row.getTotalPnl() :
-                        (row.singleTrade != null && row.singleTrade.pnl() != null ? row.singleTrade.pnl() : 0);
-                    yield String.format("%+.2f", pnl);
-                }
-                case 2 -> {
-                    if (row.isRejected()) {
-                        yield "-";
-                    }
-                    if (row.isGroup) {
-                        yield String.format("%+.2f%%", row.getAvgPnlPercent());
-                    } else if (row.singleTrade != null && row.singleTrade.pnlPercent() != null) {
-                        yield String.format("%+.2f%%", row.singleTrade.pnlPercent());
-                    }
-                    yield "-";
-                }
+                case 1 -> String.format("%+.2f", pnl);
+                case 2 -> Double.isNaN(pnlPercent) ? "-" : String.format("%+.2f%%", pnlPercent);
                 default -> "";
             };
         }
@@ -404,10 +262,9 @@ public class TradeTablePanel extends JPanel {
             super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
             setHorizontalAlignment(SwingConstants.LEFT);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected()) {
+            if (model.isRejected(row)) {
                 setForeground(textSecondary());
-            } else if (tableRow.isChild) {
+            } else if (model.isChild(row)) {
                 setForeground(textSecondary());
             } else {
                 setForeground(isSelected ? table.getSelectionForeground() : table.getForeground());
@@ -437,10 +294,9 @@ public class TradeTablePanel extends JPanel {
 
             setHorizontalAlignment(SwingConstants.RIGHT);
 
-            TableRow tableRow = model.getRowAt(row);
-            if (tableRow.isRejected()) {
+            if (model.isRejected(row)) {
                 setForeground(textSecondary());
-            } else if (tableRow.isChild) {
+            } else if (model.isChild(row)) {
                 // Slightly muted colors for children
                 if (value instanceof String s && !s.equals("-")) {
                     if (s.startsWith("+")) {
@@ -0,0 +1,129 @@
+package com.tradery.forge.ui;
+
+import com.tradery.core.model.Trade;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Table model over a {@link TradeRowStore} with expandable DCA groups.
+ *
+ * Only int arrays are kept per visible row (store row, child index); values are read from
+ * the store's columns, or from the trade itself for expanded children, when a cell is
+ * rendered. A new order (sort/filter result) is computed off the EDT and swapped in with
+ * {@link #setOrder(TradeRowStore, int[])}.
+ */
+abstract class TradeTreeTableModel extends AbstractTableModel {
+
+    protected TradeRowStore store = TradeRowStore.empty();
+    private int[] order = new int[0];            // Store rows in display order
+    private final BitSet expanded = new BitSet();  // By store row
+    private int[] visibleRow = new int[0];
+    private int[] visibleChild = new int[0];     // -1 = the row itself, else index of the trade in the group
+
+    /**
+     * Show a store's rows in the given order. Expansion is kept if the store is unchanged.
+     */
+    public void setOrder(TradeRowStore store, int[] order) {
+        if (store != this.store) {
+            expanded.clear();
+        }
+        this.store = store;
+        this.order = order;
+        rebuildVisibleRows();
+        fireTableDataChanged();
+    }
+
+    public TradeRowStore getStore() {
+        return store;
+    }
+
+    private void rebuildVisibleRows() {
+        int count = order.length;
+        for (int i = expanded.nextSetBit(0); i >= 0; i = expanded.nextSetBit(i + 1)) {
+            count += store.entryCount(i);
+        }
+        int[] rows = new int[count];
+        int[] children = new int[count];
+        int v = 0;
+        for (int row : order) {
+            rows[v] = row;
+            children[v++] = -1;
+            if (expanded.get(row)) {
+                for (int k = 0; k < store.entryCount(row); k++) {
+                    rows[v] = row;
+                    children[v++] = k;
+                }
+            }
+        }
+        // Expanded rows filtered out of the order leave unused slots
+        visibleRow = Arrays.copyOf(rows, v);
+        visibleChild = Arrays.copyOf(children, v);
+    }
+
+    public void toggleExpand(int viewRow) {
+        if (!isGroup(viewRow)) return;
+        int row = visibleRow[viewRow];
+        expanded.flip(row);
+        rebuildVisibleRows();
+        fireTableDataChanged();
+    }
+
+    // ===== Visible rows =====
+
+    /** Store row shown at a view row (the group, for expanded children). */
+    public int storeRow(int viewRow) {
+        return visibleRow[viewRow];
+    }
+
+    public boolean isGroup(int viewRow) {
+        return visibleChild[viewRow] < 0 && store.isGroup(visibleRow[viewRow]);
+    }
+
+    public boolean isExpanded(int viewRow) {
+        return expanded.get(visibleRow[viewRow]);
+    }
+
+    public boolean isChild(int viewRow) {
+        return visibleChild[viewRow] >= 0;
+    }
+
+    /** 0-based index of an expanded child within its group. */
+    public int childIndex(int viewRow) {
+        return visibleChild[viewRow];
+    }
+
+    public boolean isRejected(int viewRow) {
+        return !isGroup(viewRow) && store.isRejected(visibleRow[viewRow]);
+    }
+
+    /** The single trade of a non-group row or child, null for groups. */
+    public Trade singleTrade(int viewRow) {
+        if (isGroup(viewRow)) return null;
+        return store.trade(visibleRow[viewRow], Math.max(0, visibleChild[viewRow]));
+    }
+
+    /** Trades behind a view row: the group's entries, or the one trade. */
+    public List<Trade> tradesAt(int viewRow) {
+        Trade single = singleTrade(viewRow);
+        return single != null ? List.of(single) : store.tradesOf(visibleRow[viewRow]);
+    }
+
+    /** "▶ 3" / "  3" / "    3.2" label for the first column (numbers are 1-based). */
+    protected String rowLabel(int viewRow) {
+        int number = visibleRow[viewRow] + 1;
+        if (isGroup(viewRow)) {
+            return (isExpanded(viewRow) ? "▼ " : "▶ ") + number;
+        } else if (isChild(viewRow)) {
+            return "    " + number + "." + (visibleChild[viewRow] + 1);
+        }
+        return "  " + number;  // Pad to align with group numbers
+    }
+
+    @Override
+    public int getRowCount() {
+        return visibleRow.length;
+    }
+}
@@ -3,6 +3,7 @@ package com.tradery.forge.ui.charts;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tradery.charts.indicator.SharedIndicatorResults;
 
 import java.io.File;
 import java.io.IOException;
@@ -152,6 +153,10 @@ public class ChartConfig {
     // Chart layout divider positions (proportional 0.0-1.0, keyed by chart identifier)
     private java.util.Map<String, Double> chartDividerPositions = new java.util.LinkedHashMap<>();
 
+    // Shared indicator computation (all chart windows)
+    private int indicatorComputeThreads = 0;  // 0 = half the processors
+    private int indicatorCacheMb = 256;       // Unreferenced results kept cached
+
     // Listeners
     private transient List<Runnable> listeners = new ArrayList<>();
     private transient File configFile;
@@ -161,6 +166,7 @@ public class ChartConfig {
         // Only load if this is the singleton instance being created, not Jackson deserialization
         if (!isLoading) {
             load();
+            applyIndicatorSettings();
         }
     }
 
@@ -515,6 +521,28 @@ public class ChartConfig {
     public boolean isTradePLChartEnabled() { return tradePLChartEnabled; }
     public void setTradePLChartEnabled(boolean enabled) { this.tradePLChartEnabled = enabled; save(); }
 
+    // ===== Shared Indicator Computation =====
+
+    public int getIndicatorComputeThreads() { return indicatorComputeThreads; }
+    public void setIndicatorComputeThreads(int threads) {
+        this.indicatorComputeThreads = Math.max(0, threads);
+        applyIndicatorSettings();
+        save();
+    }
+
+    public int getIndicatorCacheMb() { return indicatorCacheMb; }
+    public void setIndicatorCacheMb(int mb) {
+        this.indicatorCacheMb = Math.max(0, mb);
+        applyIndicatorSettings();
+        save();
+    }
+
+    private void applyIndicatorSettings() {
+        SharedIndicatorResults results = SharedIndicatorResults.getInstance();
+        results.setParallelism(indicatorComputeThreads);
+        results.setIdleBudgetBytes(indicatorCacheMb * 1024L * 1024);
+    }
+
     // ===== Chart Layout Divider Positions =====
 
     public java.util.Map<String, Double> getChartDividerPositions() {
@@ -641,11 +669,16 @@ public class ChartConfig {
         // Phase overlays
         this.phaseOverlayIds = other.phaseOverlayIds != null ? new ArrayList<>(other.phaseOverlayIds) : new ArrayList<>();
 
+        // Shared indicator computation
+        this.indicatorComputeThreads = other.indicatorComputeThreads;
+        this.indicatorCacheMb = other.indicatorCacheMb;
+
         // Chart layout divider positions
         this.chartDividerPositions = other.chartDividerPositions != null
             ? new java.util.LinkedHashMap<>(other.chartDividerPositions)
             : new java.util.LinkedHashMap<>();
 
+        applyIndicatorSettings();
         save();
         notifyListeners();
     }
@@ -931,6 +964,10 @@ public class ChartConfig {
         // Phase overlays
         this.phaseOverlayIds = other.phaseOverlayIds != null ? new ArrayList<>(other.phaseOverlayIds) : new ArrayList<>();
 
+        // Shared indicator computation
+        this.indicatorComputeThreads = other.indicatorComputeThreads;
+        this.indicatorCacheMb = other.indicatorCacheMb;
+
         // Chart layout divider positions
         this.chartDividerPositions = other.chartDividerPositions != null
             ? new java.util.LinkedHashMap<>(other.chartDividerPositions)
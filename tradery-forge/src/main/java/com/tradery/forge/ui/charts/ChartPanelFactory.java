@@ -42,6 +42,11 @@ public final class ChartPanelFactory {
         // Remove border
         panel.setBorder(null);
 
+        // Static layers live in the panel's offscreen buffer, redrawn only on chart changes;
+        // crosshairs are painted over it. Nothing reads chart entities, so skip collecting
+        // one per rendered item and the linear hit test ChartPanel runs on every mouse move.
+        panel.getChartRenderingInfo().setEntityCollection(null);
+
         // Remove chart and plot padding for tight layout
         if (chart != null) {
             chart.setPadding(new RectangleInsets(0, 0, 0, 0));
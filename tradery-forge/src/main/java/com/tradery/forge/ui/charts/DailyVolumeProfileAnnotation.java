@@ -11,11 +11,10 @@ import org.jfree.chart.ui.RectangleEdge;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntToLongFunction;
 
 /**
  * Annotation that draws daily volume profile histograms on the price chart.
@@ -28,6 +27,9 @@ import java.util.List;
  * - Colors based on delta direction (green for buy, red for sell) or volume intensity
  * - HVN (High Volume Node) highlighting with glow effect
  * - LVN (Low Volume Node) with dashed/faded style
+ *
+ * Bar colors are resolved once per color mode and HVN/LVN setting, so paint only maps
+ * the precomputed bars to pixels.
  */
 public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
 
@@ -43,6 +45,14 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
         DELTA_INTENSITY
     }
 
+    private static final long DAY_MS = 86_400_000L;
+
+    private static final Color POC_COLOR = new Color(255, 220, 0, 180);  // Yellow POC line
+    private static final Color DAY_BACKGROUND = new Color(255, 255, 255, 25);  // ~10% white
+    private static final Color HVN_MARKER = new Color(255, 255, 255, 80);
+    private static final BasicStroke POC_STROKE = new BasicStroke(0.5f);
+    private static final BasicStroke DEFAULT_STROKE = new BasicStroke(1.0f);
+
     private final List<DayProfile> dayProfiles;
     private final int histogramWidth;
     private ColorMode colorMode = ColorMode.DELTA_INTENSITY;
@@ -50,6 +60,9 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
     private double hvnThreshold = 0.7;  // Top 30% of volume = HVN
     private double lvnThreshold = 0.2;  // Bottom 20% of volume = LVN
 
+    // Fill color per day and bin for the current settings (null = no bar), built on first paint
+    private Color[][] barColors;
+
     /**
      * Profile data for a single day.
      */
@@ -93,6 +106,7 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
      */
     public void setColorMode(ColorMode colorMode) {
         this.colorMode = colorMode;
+        barColors = null;
     }
 
     /**
@@ -107,6 +121,7 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
      */
     public void setShowHvnLvn(boolean showHvnLvn) {
         this.showHvnLvn = showHvnLvn;
+        barColors = null;
     }
 
     /**
@@ -114,6 +129,7 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
      */
     public void setHvnThreshold(double threshold) {
         this.hvnThreshold = Math.max(0.5, Math.min(1.0, threshold));
+        barColors = null;
     }
 
     /**
@@ -121,6 +137,7 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
      */
     public void setLvnThreshold(double threshold) {
         this.lvnThreshold = Math.max(0.0, Math.min(0.5, threshold));
+        barColors = null;
     }
 
     /**
@@ -151,25 +168,14 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
             return profiles;
         }
 
-        // Group trades by UTC day
-        Map<LocalDate, List<AggTrade>> byDay = new LinkedHashMap<>();
-        for (AggTrade t : aggTrades) {
-            LocalDate day = Instant.ofEpochMilli(t.timestamp())
-                .atZone(ZoneOffset.UTC).toLocalDate();
-            byDay.computeIfAbsent(day, k -> new ArrayList<>()).add(t);
-        }
-
-        // Limit to most recent maxDays if specified
-        List<LocalDate> days = new ArrayList<>(byDay.keySet());
-        if (maxDays > 0 && days.size() > maxDays) {
-            int startIndex = days.size() - maxDays;
-            days = days.subList(startIndex, days.size());
-        }
-
-        // Calculate volume profile for each day
-        for (LocalDate day : days) {
-            List<AggTrade> dayTrades = byDay.get(day);
-            if (dayTrades == null || dayTrades.isEmpty()) continue;
+        // Trades are in time order: walk UTC day runs as index ranges, starting at the first kept day
+        int from = firstIndexOfRecentDays(aggTrades.size(), i -> aggTrades.get(i).timestamp(), maxDays);
+        while (from < aggTrades.size()) {
+            long day = Math.floorDiv(aggTrades.get(from).timestamp(), DAY_MS);
+            int to = from + 1;
+            while (to < aggTrades.size() && Math.floorDiv(aggTrades.get(to).timestamp(), DAY_MS) == day) to++;
+            List<AggTrade> dayTrades = aggTrades.subList(from, to);
+            from = to;
 
             // Find price range for the day
             double minPrice = Double.MAX_VALUE;
@@ -241,8 +247,8 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
             double val = priceLevels[lowIdx];
             double vah = priceLevels[highIdx];
 
-            long dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
-            long dayEnd = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - 1;
+            long dayStart = day * DAY_MS;
+            long dayEnd = dayStart + DAY_MS - 1;
 
             profiles.add(new DayProfile(
                 dayStart, dayEnd,
@@ -271,34 +277,22 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
             return profiles;
         }
 
-        // Group candles by UTC day
-        Map<LocalDate, List<Candle>> byDay = new LinkedHashMap<>();
-        for (Candle c : candles) {
-            LocalDate day = Instant.ofEpochMilli(c.timestamp())
-                .atZone(ZoneOffset.UTC).toLocalDate();
-            byDay.computeIfAbsent(day, k -> new ArrayList<>()).add(c);
-        }
-
-        // Limit to most recent maxDays if specified
-        List<LocalDate> days = new ArrayList<>(byDay.keySet());
-        if (maxDays > 0 && days.size() > maxDays) {
-            // Keep only the most recent maxDays
-            int startIndex = days.size() - maxDays;
-            days = days.subList(startIndex, days.size());
-        }
-
-        // Calculate volume profile for each day
-        for (LocalDate day : days) {
-            List<Candle> dayCandles = byDay.get(day);
-            if (dayCandles == null || dayCandles.isEmpty()) continue;
+        // Candles are in time order: walk UTC day runs as index ranges, starting at the first kept day
+        int from = firstIndexOfRecentDays(candles.size(), i -> candles.get(i).timestamp(), maxDays);
+        while (from < candles.size()) {
+            long day = Math.floorDiv(candles.get(from).timestamp(), DAY_MS);
+            int to = from + 1;
+            while (to < candles.size() && Math.floorDiv(candles.get(to).timestamp(), DAY_MS) == day) to++;
+            List<Candle> dayCandles = candles.subList(from, to);
+            from = to;
 
             // Calculate volume profile using existing VolumeProfile class
             VolumeProfile.Result vp = VolumeProfile.calculate(dayCandles, dayCandles.size(), numBins, valueAreaPct);
 
             if (vp.priceLevels().length == 0) continue;
 
-            long dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
-            long dayEnd = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - 1;
+            long dayStart = day * DAY_MS;
+            long dayEnd = dayStart + DAY_MS - 1;
 
             double maxVol = Arrays.stream(vp.volumes()).max().orElse(1.0);
 
@@ -321,6 +315,24 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
         return profiles;
     }
 
+    /**
+     * Index of the first record belonging to the last {@code maxDays} UTC days (0 = unlimited),
+     * scanning backwards so older data is never touched.
+     */
+    private static int firstIndexOfRecentDays(int size, IntToLongFunction timestamp, int maxDays) {
+        if (maxDays <= 0 || size == 0) return 0;
+        int days = 1;
+        long day = Math.floorDiv(timestamp.applyAsLong(size - 1), DAY_MS);
+        for (int i = size - 2; i >= 0; i--) {
+            long d = Math.floorDiv(timestamp.applyAsLong(i), DAY_MS);
+            if (d != day) {
+                if (++days > maxDays) return i + 1;
+                day = d;
+            }
+        }
+        return 0;
+    }
+
     @Override
     public void draw(Graphics2D g2, XYPlot plot, Rectangle2D dataArea,
                      ValueAxis domainAxis, ValueAxis rangeAxis, int rendererIndex,
@@ -329,13 +341,46 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
         // Enable anti-aliasing for smoother rendering
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        for (DayProfile day : dayProfiles) {
-            drawDayProfile(g2, plot, dataArea, domainAxis, rangeAxis, day);
+        if (barColors == null) {
+            barColors = computeBarColors();
+        }
+
+        for (int d = 0; d < dayProfiles.size(); d++) {
+            drawDayProfile(g2, plot, dataArea, domainAxis, rangeAxis, dayProfiles.get(d), barColors[d]);
         }
     }
 
+    /**
+     * Resolve the fill color of every bar for the current color mode and HVN/LVN settings.
+     */
+    private Color[][] computeBarColors() {
+        Color[][] colors = new Color[dayProfiles.size()][];
+        for (int d = 0; d < dayProfiles.size(); d++) {
+            DayProfile day = dayProfiles.get(d);
+            double[] volumes = day.volumes;
+            double[] deltas = day.deltas;
+            Color[] dayColors = new Color[volumes.length];
+            for (int i = 0; i < volumes.length; i++) {
+                double volume = volumes[i];
+                if (volume <= 0) continue;
+
+                double delta = deltas != null && i < deltas.length ? deltas[i] : 0;
+                double normalizedVolume = day.maxVolume > 0 ? volume / day.maxVolume : 0;
+                Color barColor = getBarColor(normalizedVolume, delta, volume);
+
+                // LVN style: reduced opacity fill (no outline to avoid visual noise)
+                if (showHvnLvn && normalizedVolume <= lvnThreshold) {
+                    barColor = new Color(barColor.getRed(), barColor.getGreen(), barColor.getBlue(), 35);
+                }
+                dayColors[i] = barColor;
+            }
+            colors[d] = dayColors;
+        }
+        return colors;
+    }
+
     private void drawDayProfile(Graphics2D g2, XYPlot plot, Rectangle2D dataArea,
-                                 ValueAxis domainAxis, ValueAxis rangeAxis, DayProfile day) {
+                                 ValueAxis domainAxis, ValueAxis rangeAxis, DayProfile day, Color[] dayColors) {
 
         // Convert day start and end times to screen X coordinates
         double dayStartX = domainAxis.valueToJava2D(day.dayStartTime, dataArea, RectangleEdge.BOTTOM);
@@ -363,8 +408,6 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
             ? Math.abs(priceLevels[1] - priceLevels[0])
             : (day.maxPrice - day.minPrice) / 24;
 
-        double[] deltas = day.deltas;
-
         // Pre-compute integer Y positions for each bin to ensure consistent 1px gaps.
         // Using the bin center for positioning avoids floating-point rounding inconsistencies.
         int[] binTopY = new int[priceLevels.length];
@@ -384,8 +427,6 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
 
         for (int i = 0; i < priceLevels.length; i++) {
             double volume = volumes[i];
-            double delta = deltas != null && i < deltas.length ? deltas[i] : 0;
-
             if (volume <= 0) continue;
 
             // Calculate bar width based on relative volume (scaled to 2/3 of day width)
@@ -396,9 +437,6 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
             int y = binTopY[i];
             int barHeight = Math.max(1, binBotY[i] - binTopY[i] - 1);
 
-            // Choose color based on mode and delta
-            Color barColor = getBarColor(normalizedVolume, delta, volume);
-
             // Draw bar starting at day start, extending RIGHT into the day
             int x = (int) dayStartX;
 
@@ -406,19 +444,12 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
             if (barWidth > 0 && barHeight > 0) {
                 // Draw HVN marker (high volume node) — vertical line 2px left of histogram baseline
                 if (showHvnLvn && normalizedVolume >= hvnThreshold) {
-                    g2.setColor(new Color(255, 255, 255, 80));
+                    g2.setColor(HVN_MARKER);
                     g2.fillRect(x - 3, y, 1, barHeight);
                 }
 
-                g2.setColor(barColor);
-
-                // LVN style: reduced opacity fill (no outline to avoid visual noise)
-                if (showHvnLvn && normalizedVolume <= lvnThreshold) {
-                    g2.setColor(new Color(barColor.getRed(), barColor.getGreen(), barColor.getBlue(), 35));
-                    g2.fillRect(x, y, barWidth, barHeight);
-                } else {
-                    g2.fillRect(x, y, barWidth, barHeight);
-                }
+                g2.setColor(dayColors[i]);
+                g2.fillRect(x, y, barWidth, barHeight);
             }
         }
     }
@@ -433,8 +464,7 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
         int width = (int) (dayEndX - dayStartX);
         int height = (int) Math.abs(lowY - highY);
 
-        // ~10% white background
-        g2.setColor(new Color(255, 255, 255, 25));
+        g2.setColor(DAY_BACKGROUND);
         g2.fillRect(x, y, width, height);
     }
 
@@ -442,10 +472,10 @@ public class DailyVolumeProfileAnnotation extends AbstractXYAnnotation {
                               double dayStartX, double dayEndX, double poc) {
         double pocY = rangeAxis.valueToJava2D(poc, dataArea, RectangleEdge.LEFT);
 
-        g2.setColor(new Color(255, 220, 0, 180));  // Yellow POC line
-        g2.setStroke(new BasicStroke(0.5f));
+        g2.setColor(POC_COLOR);
+        g2.setStroke(POC_STROKE);
         g2.drawLine((int) dayStartX, (int) pocY, (int) dayEndX, (int) pocY);
-        g2.setStroke(new BasicStroke(1.0f));
+        g2.setStroke(DEFAULT_STROKE);
     }
 
     /**
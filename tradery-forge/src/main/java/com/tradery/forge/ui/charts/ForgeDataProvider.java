@@ -170,4 +170,11 @@ public class ForgeDataProvider implements ChartDataProvider {
     public IndicatorDataService getIndicatorDataService() {
         return indicatorDataService;
     }
+
+    /**
+     * Release shared indicator results held by this provider's pool.
+     */
+    public void dispose() {
+        indicatorPool.shutdown();
+    }
 }
@@ -0,0 +1,119 @@
+package com.tradery.forge.ui.charts;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Background preparation of render-ready overlay data.
+ *
+ * Heavy overlay work (footprint grids, normalization passes) runs on a small shared worker
+ * pool instead of the EDT. Each overlay owns one RenderPrep: submitting a new key cancels the
+ * task still in flight (viewport or settings changed), and a result is only published - on
+ * the EDT - if it belongs to the latest submission. Results should be immutable snapshots,
+ * so paint code only has to draw them.
+ *
+ * All methods must be called on the EDT.
+ *
+ * @param <T> Prepared snapshot type
+ */
+public final class RenderPrep<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(RenderPrep.class);
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors() / 4), r -> {
+            Thread t = new Thread(r, "RenderPrep");
+            t.setDaemon(true);
+            return t;
+        });
+
+    /**
+     * Identity of a prepared snapshot: same key, same result.
+     *
+     * @param params Overlay settings plus anything identifying the source data revision
+     */
+    public record Key(String symbol, String timeframe, long startTime, long endTime, String params) {}
+
+    private final String name;
+    private Key key;              // Latest submitted key, null after cancel()
+    private Future<?> pending;
+    private long generation;
+
+    public RenderPrep(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Prepare a snapshot in the background unless the same key is already pending or published.
+     *
+     * @param key     Identity of the snapshot
+     * @param task    Computation, run on a worker thread
+     * @param publish Receives the result on the EDT, only if no newer key was submitted meanwhile
+     * @return true if a new task was submitted
+     */
+    public boolean submit(Key key, Callable<T> task, Consumer<T> publish) {
+        if (key.equals(this.key)) {
+            return false;
+        }
+        cancel();
+        this.key = key;
+        long submitted = generation;
+
+        pending = EXECUTOR.submit(() -> {
+            long t0 = System.currentTimeMillis();
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                log.warn("Render prep {} failed: {}", name, e.getMessage(), e);
+                SwingUtilities.invokeLater(() -> {
+                    // Allow a retry with the same key
+                    if (submitted == generation) {
+                        this.key = null;
+                        pending = null;
+                    }
+                });
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;  // Cancelled while computing
+            }
+            log.debug("Render prep {} took {}ms for {}", name, System.currentTimeMillis() - t0, key);
+
+            SwingUtilities.invokeLater(() -> {
+                if (submitted != generation) {
+                    return;  // Superseded while waiting for the EDT
+                }
+                pending = null;
+                publish.accept(result);
+            });
+        });
+        return true;
+    }
+
+    /**
+     * Cancel work in flight and forget the key, so the next submit always recomputes.
+     */
+    public void cancel() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        key = null;
+    }
+
+    /**
+     * Check whether a task is still running or waiting to publish.
+     */
+    public boolean isPending() {
+        return pending != null;
+    }
+}
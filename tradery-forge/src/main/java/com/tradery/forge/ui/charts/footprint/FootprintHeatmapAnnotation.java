@@ -3,6 +3,7 @@ package com.tradery.forge.ui.charts.footprint;
 import com.tradery.core.model.Exchange;
 import com.tradery.core.model.Footprint;
 import com.tradery.core.model.FootprintBucket;
+import com.tradery.core.model.FootprintResult;
 import org.jfree.chart.annotations.AbstractXYAnnotation;
 import org.jfree.chart.axis.ValueAxis;
 import org.jfree.chart.plot.PlotRenderingInfo;
@@ -11,29 +12,26 @@ import org.jfree.chart.ui.RectangleEdge;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
-import java.util.List;
 
 /**
  * JFreeChart annotation that renders footprint heatmap for each candle.
  * Shows colored buckets based on delta direction and intensity,
  * with optional imbalance markers and delta numbers.
+ *
+ * Only footprints of bars inside the visible domain range are materialized.
  */
 public class FootprintHeatmapAnnotation extends AbstractXYAnnotation {
 
-    private final List<Footprint> footprints;
+    private final FootprintResult result;
     private final FootprintHeatmapConfig config;
     private final double maxVolume;  // For normalization
 
-    public FootprintHeatmapAnnotation(List<Footprint> footprints, FootprintHeatmapConfig config) {
-        this.footprints = footprints;
+    public FootprintHeatmapAnnotation(FootprintResult result, FootprintHeatmapConfig config) {
+        this.result = result;
         this.config = config;
 
         // Calculate max volume for normalization
-        this.maxVolume = footprints.stream()
-            .flatMap(f -> f.buckets().stream())
-            .mapToDouble(FootprintBucket::totalVolume)
-            .max()
-            .orElse(1.0);
+        this.maxVolume = result.maxLevelVolume();
     }
 
     @Override
@@ -41,7 +39,8 @@ public class FootprintHeatmapAnnotation extends AbstractXYAnnotation {
                      ValueAxis domainAxis, ValueAxis rangeAxis, int rendererIndex,
                      PlotRenderingInfo info) {
 
-        if (!config.isEnabled() || footprints.isEmpty()) {
+        int barCount = result.footprints().size();
+        if (!config.isEnabled() || barCount == 0) {
             return;
         }
 
@@ -55,8 +54,8 @@ public class FootprintHeatmapAnnotation extends AbstractXYAnnotation {
 
         // Check if we should show zoom hint (candles too narrow)
         boolean tooNarrow = false;
-        if (footprints.size() >= 2) {
-            long interval = footprints.get(1).timestamp() - footprints.get(0).timestamp();
+        if (barCount >= 2) {
+            long interval = result.timestampAt(1) - result.timestampAt(0);
             double testWidth = domainAxis.valueToJava2D(interval, dataArea, RectangleEdge.BOTTOM)
                              - domainAxis.valueToJava2D(0, dataArea, RectangleEdge.BOTTOM);
             tooNarrow = testWidth < 3; // Less than 3 pixels per candle
@@ -66,9 +65,11 @@ public class FootprintHeatmapAnnotation extends AbstractXYAnnotation {
             // Draw zoom hint at bottom center
             drawZoomHint(g2, dataArea);
         } else {
-            // Draw footprints
-            for (Footprint footprint : footprints) {
-                drawFootprint(g2, plot, dataArea, domainAxis, rangeAxis, footprint, halfIntervalMs);
+            // Draw footprints of the visible bars (the first one may start left of the axis)
+            int first = Math.max(0, result.barAt((long) domainAxis.getLowerBound()));
+            int last = result.barAt((long) domainAxis.getUpperBound());
+            for (int i = first; i <= last; i++) {
+                drawFootprint(g2, plot, dataArea, domainAxis, rangeAxis, result.getAtBar(i), halfIntervalMs);
             }
         }
 
@@ -96,11 +97,12 @@ public class FootprintHeatmapAnnotation extends AbstractXYAnnotation {
     }
 
     private long estimateCandleInterval() {
-        if (footprints.size() < 2) return 3600000;
+        int barCount = result.footprints().size();
+        if (barCount < 2) return 3600000;
 
         long minInterval = Long.MAX_VALUE;
-        for (int i = 1; i < Math.min(10, footprints.size()); i++) {
-            long diff = footprints.get(i).timestamp() - footprints.get(i - 1).timestamp();
+        for (int i = 1; i < Math.min(10, barCount); i++) {
+            long diff = result.timestampAt(i) - result.timestampAt(i - 1);
             if (diff > 0) {
                 minInterval = Math.min(minInterval, diff);
             }
@@ -8,6 +8,7 @@ import com.tradery.core.model.FootprintResult;
 import com.tradery.forge.ApplicationContext;
 import com.tradery.data.page.PageState;
 import com.tradery.forge.data.page.AggTradesPageManager;
+import com.tradery.forge.ui.charts.RenderPrep;
 import com.tradery.data.page.DataPageListener;
 import com.tradery.data.page.DataPageView;
 import org.jfree.chart.JFreeChart;
@@ -26,6 +27,9 @@ import java.util.Set;
  * Uses the SAME candles as the price chart (passed via requestData) to ensure
  * footprint buckets align with rendered candles. Only aggTrades are loaded
  * from the page manager.
+ *
+ * Footprints are computed off the EDT via {@link RenderPrep}; a newer request
+ * (other range, candles or settings) cancels the one in flight.
  */
 public class FootprintHeatmapOverlay {
 
@@ -50,6 +54,7 @@ public class FootprintHeatmapOverlay {
 
     // Computed result
     private FootprintResult footprintResult;
+    private final RenderPrep<FootprintResult> prep = new RenderPrep<>("FootprintHeatmap");
 
     // Current annotation
     private FootprintHeatmapAnnotation annotation;
@@ -154,7 +159,8 @@ public class FootprintHeatmapOverlay {
     }
 
     /**
-     * Compute footprint using stored candles and aggTrades from page.
+     * Compute footprint in the background using stored candles and aggTrades from page,
+     * then redraw on the EDT.
      */
     private void computeAndRedraw() {
         if (currentCandles == null || currentCandles.isEmpty()) {
@@ -162,6 +168,8 @@ public class FootprintHeatmapOverlay {
             return;
         }
 
+        List<Candle> candles = currentCandles;
+        String timeframe = currentTimeframe;
         List<AggTrade> aggTrades = aggTradesPage != null ? aggTradesPage.getData() : null;
 
         // Compute footprint using ChartsPanel candles (ensures alignment)
@@ -174,20 +182,29 @@ public class FootprintHeatmapOverlay {
             exchangeFilter = EnumSet.of(config.getSelectedExchange());
         }
 
-        log.debug("Computing footprint: candles={}, aggTrades={}, buckets={}, tickSize={}",
-            currentCandles.size(), aggTrades != null ? aggTrades.size() : 0, buckets, tickSize);
-
-        // Log first candle for debugging
-        if (!currentCandles.isEmpty()) {
-            Candle first = currentCandles.get(0);
-            log.debug("First candle: ts={}, high={}, low={}, close={}",
-                first.timestamp(), first.high(), first.low(), first.close());
-        }
-
-        footprintResult = FootprintIndicator.calculate(
-            currentCandles, aggTrades, currentTimeframe, buckets, tickSize, exchangeFilter);
+        // Settings plus source data revision; an unchanged key keeps the current result
+        Candle last = candles.get(candles.size() - 1);
+        String params = buckets + ":" + tickSize + ":" + exchangeFilter
+            + ":" + candles.size() + ":" + last.timestamp() + ":" + last.close()
+            + ":" + (aggTrades != null ? aggTrades.size() : 0);
+        RenderPrep.Key key = new RenderPrep.Key(currentSymbol, timeframe, currentStartTime, currentEndTime, params);
 
-        redraw();
+        log.debug("Computing footprint: candles={}, aggTrades={}, buckets={}, tickSize={}",
+            candles.size(), aggTrades != null ? aggTrades.size() : 0, buckets, tickSize);
+
+        Set<Exchange> filter = exchangeFilter;
+        prep.submit(key, () -> {
+            FootprintResult result = FootprintIndicator.calculate(
+                candles, aggTrades, timeframe, buckets, tickSize, filter);
+            result.maxLevelVolume();  // Normalization pass off the EDT
+            return result;
+        }, result -> {
+            footprintResult = result;
+            redraw();
+            if (onDataReady != null) {
+                onDataReady.run();
+            }
+        });
     }
 
     /**
@@ -202,6 +219,7 @@ public class FootprintHeatmapOverlay {
         }
         aggTradesPage = null;
         footprintResult = null;
+        prep.cancel();
     }
 
     // ===== Drawing =====
@@ -221,7 +239,7 @@ public class FootprintHeatmapOverlay {
 
         // Create and add annotation
         XYPlot plot = priceChart.getXYPlot();
-        annotation = new FootprintHeatmapAnnotation(footprintResult.footprints(), config);
+        annotation = new FootprintHeatmapAnnotation(footprintResult, config);
 
         // Add as background annotation (before other annotations)
         var existingAnnotations = new java.util.ArrayList<>(plot.getAnnotations());
@@ -251,6 +269,7 @@ public class FootprintHeatmapOverlay {
      */
     public void invalidateCache() {
         footprintResult = null;
+        prep.cancel();
         if (aggTradesPage != null && aggTradesPage.isReady() && currentCandles != null) {
             computeAndRedraw();
         }
@@ -284,18 +303,12 @@ public class FootprintHeatmapOverlay {
         public void onStateChanged(DataPageView<AggTrade> page, PageState oldState, PageState newState) {
             if (newState == PageState.READY) {
                 computeAndRedraw();
-                if (onDataReady != null) {
-                    onDataReady.run();
-                }
             }
         }
 
         @Override
         public void onDataChanged(DataPageView<AggTrade> page) {
             computeAndRedraw();
-            if (onDataReady != null) {
-                onDataReady.run();
-            }
         }
     }
 
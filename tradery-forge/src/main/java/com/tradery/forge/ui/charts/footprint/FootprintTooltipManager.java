@@ -132,22 +132,16 @@ public class FootprintTooltipManager implements MouseMotionListener {
      */
     private FootprintBucket findBucketAt(double timestamp, double price) {
         // Find the footprint for this timestamp
-        Footprint footprint = null;
         long ts = (long) timestamp;
+        int bar = footprintResult.barAt(ts);
 
         // Estimate candle interval
         long interval = estimateCandleInterval();
 
-        for (Footprint fp : footprintResult.footprints()) {
-            if (Math.abs(fp.timestamp() - ts) < interval) {
-                footprint = fp;
-                break;
-            }
-        }
-
-        if (footprint == null) {
+        if (bar < 0 || ts - footprintResult.timestampAt(bar) >= interval) {
             return null;
         }
+        Footprint footprint = footprintResult.getAtBar(bar);
 
         // Find the bucket at this price level
         return footprint.getBucketAt(price);
@@ -161,8 +155,8 @@ public class FootprintTooltipManager implements MouseMotionListener {
             return 3600000L; // Default 1 hour
         }
 
-        long first = footprintResult.footprints().get(0).timestamp();
-        long second = footprintResult.footprints().get(1).timestamp();
+        long first = footprintResult.timestampAt(0);
+        long second = footprintResult.timestampAt(1);
         return second - first;
     }
 
@@ -7,6 +7,7 @@ import com.tradery.engine.BacktestEngine;
 import com.tradery.engine.HoopPatternEvaluator;
 import com.tradery.engine.PhaseEvaluator;
 import com.tradery.forge.ApplicationContext;
+import com.tradery.forge.data.AggTradeMerger;
 import com.tradery.forge.data.AggTradesStore;
 import com.tradery.forge.data.ExchangeClient;
 import com.tradery.forge.data.ExchangeClientFactory;
@@ -31,6 +32,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -63,12 +65,21 @@ public class BacktestCoordinator {
     // Background executor for backtest computation
     private final ExecutorService backtestExecutor;
 
+    // Cross-exchange aggTrade fetches, one task per exchange
+    private static final ExecutorService CROSS_EXCHANGE_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "CrossExchangeFetch");
+        t.setDaemon(true);
+        return t;
+    });
+
     // Current state
     private DataRequirements requirements;
     private Strategy currentStrategy;
     private BacktestConfig currentConfig;
     private List<Phase> currentPhases;
     private volatile boolean backtestRunning = false;
+    // Set when the running request is cancelled or superseded
+    private volatile AtomicBoolean runCancelled = new AtomicBoolean();
 
     // Current listeners (stored for proper release)
     private DataPageListener<Candle> candleListener;
@@ -586,6 +597,8 @@ public class BacktestCoordinator {
     private void triggerBacktestInBackground() {
         backtestRunning = true;
         reportProgress(10, "Running backtest...");
+        AtomicBoolean cancelled = new AtomicBoolean();
+        runCancelled = cancelled;
 
         backtestExecutor.submit(() -> {
             try {
@@ -597,7 +610,15 @@ public class BacktestCoordinator {
                 // Fetch cross-exchange aggTrades if strategy uses cross-exchange functions
                 if (aggTrades != null && currentStrategy.requiresCrossExchangeData()) {
                     aggTrades = fetchCrossExchangeAggTrades(aggTrades,
-                        requirements.getSymbol(), requirements.getStartTime(), requirements.getEndTime());
+                        requirements.getSymbol(), requirements.getStartTime(), requirements.getEndTime(), cancelled);
+                    if (cancelled.get()) {
+                        // Cancelled or superseded while downloading; a newer request may be waiting
+                        SwingUtilities.invokeLater(() -> {
+                            backtestRunning = false;
+                            checkAndTriggerBacktest();
+                        });
+                        return;
+                    }
                 }
 
                 List<FundingRate> funding = requirements.getFundingPage() != null
@@ -660,8 +681,8 @@ public class BacktestCoordinator {
                     .premiumIndex(premium)
                     .build();
 
-                // Run backtest using engine's clean context-based API
-                BacktestResult result = backtestEngine.run(
+                // Run backtest - resumes from the last checkpoint when only new data arrived
+                BacktestResult result = backtestEngine.runIncremental(
                     currentStrategy, currentConfig, context,
                     progress -> SwingUtilities.invokeLater(() ->
                         reportProgress(progress.percentage(), progress.message())));
@@ -710,12 +731,19 @@ public class BacktestCoordinator {
     /**
      * Fetch aggTrades from non-Binance exchanges and merge with existing trades.
      * Only fetches from exchanges that are enabled in ExchangeConfig.
+     *
+     * Exchanges are fetched concurrently, each paced by its own client's rate limiter.
+     * Trades are cached in the aggTrades store with coverage tracking, so later backtests only
+     * fetch what is missing. The time-sorted per-exchange lists are merged without a re-sort.
+     * Setting {@code cancelled} stops the downloads; the result is then incomplete.
      */
     private List<AggTrade> fetchCrossExchangeAggTrades(List<AggTrade> binanceTrades,
-                                                         String symbol, long startTime, long endTime) {
+                                                         String symbol, long startTime, long endTime,
+                                                         AtomicBoolean cancelled) {
         ExchangeConfig config = ExchangeConfig.getInstance();
         ExchangeClientFactory factory = ExchangeClientFactory.getInstance();
-        List<AggTrade> merged = new ArrayList<>(binanceTrades);
+        List<CompletableFuture<List<AggTrade>>> fetches = new ArrayList<>();
+        List<String> exchangeNames = new ArrayList<>();
 
         for (Exchange exchange : config.getEnabledExchanges()) {
             if (exchange == Exchange.BINANCE) continue; // Already have Binance data
@@ -723,32 +751,36 @@ public class BacktestCoordinator {
             ExchangeClient client = factory.getClient(exchange);
             if (client == null) continue;
 
-            try {
-                DataMarketType marketType = client.getDefaultMarketType();
-                String exchangeSymbol = config.getSymbol(
-                    extractBaseSymbol(symbol), exchange);
-
-                log.info("Fetching cross-exchange aggTrades from {} ({})", exchange.getDisplayName(), exchangeSymbol);
-                reportProgress(15, "Fetching " + exchange.getDisplayName() + " trades...");
+            DataMarketType marketType = client.getDefaultMarketType();
+            String exchangeSymbol = config.getSymbol(
+                extractBaseSymbol(symbol), exchange);
+            exchangeNames.add(exchange.getDisplayName());
 
-                List<AggTrade> trades = client.fetchAllAggTrades(
-                    exchangeSymbol, startTime, endTime, null, null);
-
-                if (!trades.isEmpty()) {
-                    merged.addAll(trades);
+            fetches.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    log.info("Fetching cross-exchange aggTrades from {} ({})", exchange.getDisplayName(), exchangeSymbol);
+                    List<AggTrade> trades = aggTradesStore.getAggTrades(
+                        symbol, exchange, exchangeSymbol, marketType, startTime, endTime, cancelled);
                     log.info("Got {} trades from {}", trades.size(), exchange.getDisplayName());
+                    return trades;
+                } catch (Exception e) {
+                    log.warn("Failed to fetch aggTrades from {}: {}", exchange.getDisplayName(), e.getMessage());
+                    return List.<AggTrade>of();
                 }
-            } catch (Exception e) {
-                log.warn("Failed to fetch aggTrades from {}: {}", exchange.getDisplayName(), e.getMessage());
-            }
+            }, CROSS_EXCHANGE_EXECUTOR));
         }
 
-        // Sort merged trades by timestamp for chronological processing
-        if (merged.size() > binanceTrades.size()) {
-            merged.sort(Comparator.comparingLong(AggTrade::timestamp));
+        if (fetches.isEmpty()) {
+            return binanceTrades;
         }
+        reportProgress(15, "Fetching " + String.join(", ", exchangeNames) + " trades...");
 
-        return merged;
+        List<List<AggTrade>> perExchange = new ArrayList<>(fetches.size() + 1);
+        perExchange.add(binanceTrades);
+        for (CompletableFuture<List<AggTrade>> fetch : fetches) {
+            perExchange.add(fetch.join());
+        }
+        return AggTradeMerger.merge(perExchange);
     }
 
     /**
@@ -767,6 +799,8 @@ public class BacktestCoordinator {
      * Release all currently held pages.
      */
     private void releaseCurrentPages() {
+        // Stop the running request's cross-exchange downloads
+        runCancelled.set(true);
         if (requirements == null) return;
 
         if (requirements.getCandlePage() != null) {
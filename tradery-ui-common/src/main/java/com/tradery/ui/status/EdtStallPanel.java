@@ -0,0 +1,172 @@
+package com.tradery.ui.status;
+
+import com.tradery.ui.controls.BorderlessScrollPane;
+import com.tradery.ui.controls.BorderlessTable;
+import com.tradery.ui.controls.ThinSplitPane;
+import com.tradery.ui.dashboard.DashboardSection.StatusColor;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dashboard panel listing the worst EDT stalls and off-EDT violations recorded by
+ * {@link EdtWatchdog}, with the worst stack of the selected location below.
+ * Call {@link #refresh()} from the dashboard's refresh tick.
+ */
+public class EdtStallPanel extends JPanel {
+
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final JLabel summaryLabel;
+    private final OffenderTableModel tableModel;
+    private final JTable table;
+    private final JTextArea stackArea;
+
+    public EdtStallPanel() {
+        super(new BorderLayout(0, 8));
+        setBorder(new EmptyBorder(8, 8, 8, 8));
+
+        summaryLabel = new JLabel();
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            EdtWatchdog watchdog = EdtWatchdog.getInstance();
+            if (watchdog != null) watchdog.reset();
+            refresh();
+        });
+        JPanel header = new JPanel(new BorderLayout());
+        header.add(summaryLabel, BorderLayout.CENTER);
+        header.add(resetButton, BorderLayout.EAST);
+        add(header, BorderLayout.NORTH);
+
+        tableModel = new OffenderTableModel();
+        table = new BorderlessTable(tableModel);
+        table.setRowHeight(20);
+        table.setFont(table.getFont().deriveFont(11f));
+        table.getTableHeader().setFont(table.getFont().deriveFont(Font.BOLD, 11f));
+        table.getTableHeader().setReorderingAllowed(false);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getColumnModel().getColumn(0).setPreferredWidth(60);   // Kind
+        table.getColumnModel().getColumn(1).setPreferredWidth(320);  // Location
+        table.getColumnModel().getColumn(2).setPreferredWidth(50);   // Count
+        table.getColumnModel().getColumn(3).setPreferredWidth(70);   // Total
+        table.getColumnModel().getColumn(4).setPreferredWidth(60);   // Max
+        table.getColumnModel().getColumn(5).setPreferredWidth(60);   // Last
+
+        DefaultTableCellRenderer rightRenderer = new DefaultTableCellRenderer();
+        rightRenderer.setHorizontalAlignment(SwingConstants.RIGHT);
+        for (int col = 2; col <= 4; col++) {
+            table.getColumnModel().getColumn(col).setCellRenderer(rightRenderer);
+        }
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) showSelectedStack();
+        });
+
+        stackArea = new JTextArea();
+        stackArea.setEditable(false);
+        stackArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+
+        ThinSplitPane split = new ThinSplitPane(JSplitPane.VERTICAL_SPLIT);
+        split.setTopComponent(new BorderlessScrollPane(table));
+        split.setBottomComponent(new BorderlessScrollPane(stackArea));
+        split.setResizeWeight(0.6);
+        add(split, BorderLayout.CENTER);
+
+        refresh();
+    }
+
+    public void refresh() {
+        EdtWatchdog watchdog = EdtWatchdog.getInstance();
+        if (watchdog == null) {
+            summaryLabel.setText("EDT watchdog not installed");
+            tableModel.setRows(List.of());
+            return;
+        }
+
+        EdtWatchdog.Stats stats = watchdog.getStats();
+        summaryLabel.setText(String.format("%,d events, %,d over %d ms, longest %,d ms%s",
+            stats.eventCount(), stats.stallCount(), stats.thresholdMs(), stats.maxDispatchMs(),
+            stats.auditMode() ? "  (audit mode)" : ""));
+
+        // Keep the selection on the same location across refreshes
+        Row selected = selectedRow();
+        List<Row> rows = new ArrayList<>();
+        for (EdtWatchdog.Offender o : watchdog.getStalls()) rows.add(new Row("Stall", o));
+        for (EdtWatchdog.Offender o : watchdog.getViolations()) rows.add(new Row("Off-EDT", o));
+        tableModel.setRows(rows);
+        if (selected != null) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).kind().equals(selected.kind())
+                        && rows.get(i).offender().location().equals(selected.offender().location())) {
+                    table.setRowSelectionInterval(i, i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Status for the dashboard sidebar: warning once any stall or violation was recorded.
+     */
+    public static StatusColor getStatus() {
+        EdtWatchdog watchdog = EdtWatchdog.getInstance();
+        if (watchdog == null) return StatusColor.IDLE;
+        boolean clean = watchdog.getStats().stallCount() == 0 && watchdog.getViolations().isEmpty();
+        return clean ? StatusColor.OK : StatusColor.WARNING;
+    }
+
+    private Row selectedRow() {
+        int row = table.getSelectedRow();
+        return row >= 0 && row < tableModel.rows.size() ? tableModel.rows.get(row) : null;
+    }
+
+    private void showSelectedStack() {
+        Row row = selectedRow();
+        if (row == null) {
+            stackArea.setText("");
+            return;
+        }
+        List<String> stack = row.offender().worstStack();
+        stackArea.setText(stack.isEmpty() ? "(no stack sampled)" : String.join("\n", stack));
+        stackArea.setCaretPosition(0);
+    }
+
+    private record Row(String kind, EdtWatchdog.Offender offender) {}
+
+    private static class OffenderTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Kind", "Location", "Count", "Total ms", "Max ms", "Last"};
+        private List<Row> rows = List.of();
+
+        void setRows(List<Row> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override public int getRowCount() { return rows.size(); }
+        @Override public int getColumnCount() { return COLUMNS.length; }
+        @Override public String getColumnName(int col) { return COLUMNS[col]; }
+
+        @Override
+        public Object getValueAt(int row, int col) {
+            Row r = rows.get(row);
+            EdtWatchdog.Offender o = r.offender();
+            return switch (col) {
+                case 0 -> r.kind();
+                case 1 -> o.location();
+                case 2 -> String.format("%,d", o.count());
+                case 3 -> String.format("%,d", o.totalMs());
+                case 4 -> String.format("%,d", o.maxMs());
+                case 5 -> TIME_FORMAT.format(Instant.ofEpochMilli(o.lastSeen()));
+                default -> "";
+            };
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.tradery.ui.status;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.InvocationEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event queue that times every event dispatched on the EDT and records stalls.
+ *
+ * A daemon sampler thread takes the EDT's stack while an event has been running longer
+ * than the threshold, so a stall is attributed to the code that was actually blocking
+ * (the first frame outside the JDK and Swing/FlatLaf), not just to the event type.
+ * Stalls are aggregated per location; the worst stack of each location is kept.
+ *
+ * Events that pump nested events (modal dialogs, secondary loops) are not counted:
+ * their time is spent waiting for the user, not blocking the EDT.
+ *
+ * Code that must stay off the EDT can report violations with {@link #reportOffEdtCall};
+ * they are aggregated by operation, with the caller's stack, next to the stalls.
+ *
+ * Installed once per app with {@link #install()}. The threshold defaults to 100 ms;
+ * audit mode ({@code -Dtradery.edt.audit=true}) lowers it to one frame (16 ms), and
+ * {@code -Dtradery.edt.stallMs=N} sets it explicitly.
+ */
+public final class EdtWatchdog extends EventQueue {
+
+    private static final long DEFAULT_THRESHOLD_MS = 100;
+    private static final long AUDIT_THRESHOLD_MS = 16;
+    private static final int MAX_LOCATIONS = 500;
+    private static final String[] FRAMEWORK_PREFIXES = {
+        "java.", "javax.", "jdk.", "sun.", "com.sun.", "apple.", "com.apple.",
+        "com.formdev.", "com.tradery.ui.status.EdtWatchdog"
+    };
+
+    private static volatile EdtWatchdog instance;
+
+    private final long thresholdNanos;
+    private final boolean auditMode;
+    private final long startedAt = System.currentTimeMillis();
+
+    // Written on the EDT, read by the sampler
+    private volatile Thread edt;
+    private volatile long activeSerial;      // 0 = idle
+    private volatile long activeStart;
+    private volatile long sampledSerial;
+    private volatile StackTraceElement[] sampledStack;
+    private long dispatchSerial;             // EDT only
+
+    private final Map<String, Location> stalls = new HashMap<>();
+    private final Map<String, Location> violations = new HashMap<>();
+    private long eventCount;
+    private long stallCount;
+    private long maxDispatchNanos;
+
+    private EdtWatchdog(long thresholdMs, boolean auditMode) {
+        this.thresholdNanos = thresholdMs * 1_000_000L;
+        this.auditMode = auditMode;
+    }
+
+    /**
+     * Install the watchdog on the system event queue (once; later calls return the same instance).
+     */
+    public static synchronized EdtWatchdog install() {
+        if (instance == null) {
+            boolean audit = Boolean.getBoolean("tradery.edt.audit");
+            long threshold = Long.getLong("tradery.edt.stallMs", audit ? AUDIT_THRESHOLD_MS : DEFAULT_THRESHOLD_MS);
+            EdtWatchdog watchdog = new EdtWatchdog(Math.max(1, threshold), audit);
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog);
+            watchdog.startSampler();
+            instance = watchdog;
+        }
+        return instance;
+    }
+
+    /**
+     * The installed watchdog, or null if none was installed.
+     */
+    public static EdtWatchdog getInstance() {
+        return instance;
+    }
+
+    /**
+     * Record that an operation which must not block the EDT was called on it.
+     * Does nothing off the EDT or when no watchdog is installed.
+     */
+    public static void reportOffEdtCall(String operation) {
+        EdtWatchdog watchdog = instance;
+        if (watchdog != null && EventQueue.isDispatchThread()) {
+            watchdog.record(watchdog.violations, operation, 0, Thread.currentThread().getStackTrace());
+        }
+    }
+
+    // ========== Dispatch timing ==========
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        if (edt == null) edt = Thread.currentThread();
+        long serial = ++dispatchSerial;
+        long start = System.nanoTime();
+        activeStart = start;
+        activeSerial = serial;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            activeSerial = 0;
+            // A later serial means nested events were pumped while this one ran
+            if (dispatchSerial == serial) {
+                onDispatched(event, serial, elapsed);
+            }
+        }
+    }
+
+    private void onDispatched(AWTEvent event, long serial, long elapsedNanos) {
+        StackTraceElement[] stack = sampledSerial == serial ? sampledStack : null;
+        synchronized (this) {
+            eventCount++;
+            if (elapsedNanos > maxDispatchNanos) maxDispatchNanos = elapsedNanos;
+        }
+        if (elapsedNanos >= thresholdNanos) {
+            synchronized (this) {
+                stallCount++;
+            }
+            record(stalls, locate(stack, event), elapsedNanos, stack);
+        }
+    }
+
+    private void startSampler() {
+        long intervalMs = Math.max(5, thresholdNanos / 4_000_000L);
+        Thread sampler = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long serial = activeSerial;
+                Thread thread = edt;
+                if (serial != 0 && thread != null && System.nanoTime() - activeStart >= thresholdNanos) {
+                    StackTraceElement[] stack = thread.getStackTrace();
+                    // Only keep it if the same event is still running (latest sample wins)
+                    if (activeSerial == serial) {
+                        sampledStack = stack;
+                        sampledSerial = serial;
+                    }
+                }
+            }
+        }, "EDT-Watchdog");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    // ========== Aggregation ==========
+
+    private synchronized void record(Map<String, Location> target, String key, long elapsedNanos,
+                                     StackTraceElement[] stack) {
+        Location location = target.get(key);
+        if (location == null) {
+            if (target.size() >= MAX_LOCATIONS) return;
+            location = new Location(key);
+            target.put(key, location);
+        }
+        location.count++;
+        location.totalNanos += elapsedNanos;
+        location.lastSeen = System.currentTimeMillis();
+        if (elapsedNanos >= location.maxNanos) {
+            location.maxNanos = elapsedNanos;
+            if (stack != null) location.worstStack = stack;
+        }
+    }
+
+    /**
+     * "Class.method" of the first application frame, falling back to what the event was.
+     */
+    private static String locate(StackTraceElement[] stack, AWTEvent event) {
+        if (stack != null) {
+            for (StackTraceElement frame : stack) {
+                if (!isFramework(frame.getClassName())) {
+                    return shortClassName(frame.getClassName()) + "." + frame.getMethodName();
+                }
+            }
+        }
+        if (event instanceof InvocationEvent) {
+            // paramString() is the only public view of the runnable: "...,runnable=Foo$$Lambda/0x...@1a2b,..."
+            String params = event.paramString();
+            int at = params.indexOf("runnable=");
+            if (at >= 0) {
+                String runnable = params.substring(at + "runnable=".length());
+                int end = runnable.indexOf(',');
+                if (end >= 0) runnable = runnable.substring(0, end);
+                int lambda = runnable.indexOf("$$Lambda");
+                if (lambda >= 0) runnable = runnable.substring(0, lambda);
+                int hash = runnable.indexOf('@');
+                if (hash >= 0) runnable = runnable.substring(0, hash);
+                return "invokeLater " + shortClassName(runnable);
+            }
+        }
+        Object source = event.getSource();
+        return event.getClass().getSimpleName() + (source != null ? " on " + source.getClass().getSimpleName() : "");
+    }
+
+    private static boolean isFramework(String className) {
+        for (String prefix : FRAMEWORK_PREFIXES) {
+            if (className.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static String shortClassName(String className) {
+        return className.startsWith("com.tradery.") ? className.substring("com.tradery.".length()) : className;
+    }
+
+    // ========== Snapshot ==========
+
+    /**
+     * Stalls by location, worst total time first.
+     */
+    public synchronized List<Offender> getStalls() {
+        return snapshot(stalls);
+    }
+
+    /**
+     * Off-EDT violations by operation, most frequent first.
+     */
+    public synchronized List<Offender> getViolations() {
+        List<Offender> result = snapshot(violations);
+        result.sort(Comparator.comparingLong(Offender::count).reversed());
+        return result;
+    }
+
+    private List<Offender> snapshot(Map<String, Location> source) {
+        List<Offender> result = new ArrayList<>(source.size());
+        for (Location l : source.values()) {
+            List<String> stack = l.worstStack != null
+                ? Arrays.stream(l.worstStack).map(StackTraceElement::toString).toList()
+                : List.of();
+            result.add(new Offender(l.key, l.count, l.totalNanos / 1_000_000L, l.maxNanos / 1_000_000L,
+                l.lastSeen, stack));
+        }
+        result.sort(Comparator.comparingLong(Offender::totalMs).reversed());
+        return result;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(thresholdNanos / 1_000_000L, auditMode, startedAt, eventCount, stallCount,
+            maxDispatchNanos / 1_000_000L);
+    }
+
+    /**
+     * Forget all recorded stalls and violations.
+     */
+    public synchronized void reset() {
+        stalls.clear();
+        violations.clear();
+        eventCount = 0;
+        stallCount = 0;
+        maxDispatchNanos = 0;
+    }
+
+    private static final class Location {
+        final String key;
+        long count;
+        long totalNanos;
+        long maxNanos;
+        long lastSeen;
+        StackTraceElement[] worstStack;
+
+        Location(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Aggregated stalls (or violations) at one location. The stack is from the longest occurrence,
+     * empty if the sampler did not catch it.
+     */
+    public record Offender(String location, long count, long totalMs, long maxMs, long lastSeen,
+                           List<String> worstStack) {}
+
+    public record Stats(long thresholdMs, boolean auditMode, long startedAt, long eventCount,
+                        long stallCount, long maxDispatchMs) {}
+}